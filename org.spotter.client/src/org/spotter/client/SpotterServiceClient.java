@@ -16,8 +16,11 @@
 package org.spotter.client;
 
 import java.io.InputStream;
+import java.util.List;
 import java.util.Set;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
 import org.lpe.common.config.ConfigParameterDescription;
@@ -25,7 +28,10 @@ import org.lpe.common.util.web.LpeWebUtils;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.configuration.JobDescription;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
 import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.service.ExtensionCatalogue;
+import org.spotter.shared.service.SatelliteConnectionStatus;
 import org.spotter.shared.service.SpotterServiceResponse;
 import org.spotter.shared.status.SpotterProgress;
 
@@ -33,6 +39,7 @@ import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.GenericType;
 import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.filter.GZIPContentEncodingFilter;
 
 /**
  * Client for resource monitoring.
@@ -46,6 +53,10 @@ public class SpotterServiceClient {
 	private WebResource webResource;
 	private Client client;
 
+	// last catalogue received, revalidated with its entity tag
+	private ExtensionCatalogue catalogue;
+	private EntityTag catalogueTag;
+
 	/**
 	 * Constructor.
 	 * 
@@ -68,9 +79,11 @@ public class SpotterServiceClient {
 	 * @param port
 	 *            port where to reach service
 	 */
-	public void updateUrl(String host, String port) {
+	public synchronized void updateUrl(String host, String port) {
 		url = "http://" + host + ":" + port;
 		webResource = client.resource(url);
+		catalogue = null;
+		catalogueTag = null;
 	}
 
 	/**
@@ -99,6 +112,59 @@ public class SpotterServiceClient {
 
 	}
 
+	/**
+	 * Resumes an interrupted diagnosis run.
+	 * 
+	 * @param jobId
+	 *            the job id of the interrupted diagnosis run
+	 * @return job id of the resumed diagnosis task
+	 */
+	public long resumeDiagnosis(String jobId) {
+		SpotterServiceResponse<Long> response = webResource.path(ConfigKeys.SPOTTER_REST_BASE)
+				.path(ConfigKeys.SPOTTER_REST_RESUME_DIAG).type(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON).post(new GenericType<SpotterServiceResponse<Long>>() {
+				}, jobId);
+
+		switch (response.getStatus()) {
+		case INVALID_STATE:
+			throw new IllegalStateException("Spotter is already running");
+		case OK:
+			return response.getPayload();
+		case SERVER_ERROR:
+			throw new RuntimeException("Server error: " + response.getErrorMessage());
+		default:
+			throw new IllegalStateException("Illegal response state!");
+		}
+
+	}
+
+	/**
+	 * Compares the experiment data of two diagnosis runs. The regression
+	 * report and the diff results are added to the results of the candidate
+	 * run.
+	 * 
+	 * @param baselineJobId
+	 *            job id of the baseline run
+	 * @param candidateJobId
+	 *            job id of the run to compare with the baseline
+	 * @return the regression report
+	 */
+	public String compareRuns(String baselineJobId, String candidateJobId) {
+		SpotterServiceResponse<String> response = webResource.path(ConfigKeys.SPOTTER_REST_BASE)
+				.path(ConfigKeys.SPOTTER_REST_COMPARE_RUNS).path(baselineJobId).path(candidateJobId)
+				.accept(MediaType.APPLICATION_JSON).post(new GenericType<SpotterServiceResponse<String>>() {
+				});
+		switch (response.getStatus()) {
+		case OK:
+			return response.getPayload();
+		case SERVER_ERROR:
+			throw new RuntimeException("Server error: " + response.getErrorMessage());
+		case INVALID_STATE:
+		default:
+			throw new IllegalStateException("Illegal response state!");
+		}
+	}
+
 	/**
 	 * Requests the results of a the run with the given job id.
 	 * 
@@ -259,6 +325,43 @@ public class SpotterServiceClient {
 		}
 	}
 
+	/**
+	 * Returns all metadata required for configuring Dynamic Spotter at once.
+	 * If a catalogue has been received before, it is only revalidated with the
+	 * service and transferred again if it has changed meanwhile.
+	 * 
+	 * @return the extension catalogue
+	 */
+	public synchronized ExtensionCatalogue getExtensionCatalogue() {
+		WebResource catalogueResource = webResource.path(ConfigKeys.SPOTTER_REST_BASE).path(
+				ConfigKeys.SPOTTER_REST_EXTENSION_CATALOGUE);
+		catalogueResource.addFilter(new GZIPContentEncodingFilter(false));
+		WebResource.Builder builder = catalogueResource.accept(MediaType.APPLICATION_JSON);
+		if (catalogue != null && catalogueTag != null) {
+			builder = builder.header(HttpHeaders.IF_NONE_MATCH, catalogueTag.toString());
+		}
+
+		ClientResponse clientResponse = builder.get(ClientResponse.class);
+		if (clientResponse.getStatus() == ClientResponse.Status.NOT_MODIFIED.getStatusCode()) {
+			clientResponse.close();
+			return catalogue;
+		}
+		SpotterServiceResponse<ExtensionCatalogue> response = clientResponse
+				.getEntity(new GenericType<SpotterServiceResponse<ExtensionCatalogue>>() {
+				});
+		switch (response.getStatus()) {
+		case OK:
+			catalogue = response.getPayload();
+			catalogueTag = clientResponse.getEntityTag();
+			return catalogue;
+		case SERVER_ERROR:
+			throw new RuntimeException("Server error: " + response.getErrorMessage());
+		case INVALID_STATE:
+		default:
+			throw new IllegalStateException("Illegal response state!");
+		}
+	}
+
 	/**
 	 * Returns a report on the progress of the current job.
 	 * 
@@ -280,6 +383,16 @@ public class SpotterServiceClient {
 		}
 	}
 
+	/**
+	 * Returns the internal metrics of the Spotter service.
+	 * 
+	 * @return metrics in the Prometheus text exposition format
+	 */
+	public String getMetrics() {
+		return webResource.path(ConfigKeys.SPOTTER_REST_BASE).path(ConfigKeys.SPOTTER_REST_METRICS)
+				.accept(MediaType.TEXT_PLAIN).get(String.class);
+	}
+
 	/**
 	 * Returns the id of the currently running job.
 	 * 
@@ -355,6 +468,34 @@ public class SpotterServiceClient {
 		}
 	}
 
+	/**
+	 * Tests the connections to all satellites of the given measurement
+	 * environment in one request. The satellites are probed concurrently by
+	 * the service.
+	 * 
+	 * @param environment
+	 *            measurement environment describing the satellites
+	 * @return connection status including the latency for each satellite in
+	 *         the order of the instrumentation, measurement and workload
+	 *         satellites, followed by the satellites of the replica groups
+	 */
+	public List<SatelliteConnectionStatus> testConnectionsToSatellites(XMeasurementEnvironment environment) {
+		SpotterServiceResponse<List<SatelliteConnectionStatus>> response = webResource
+				.path(ConfigKeys.SPOTTER_REST_BASE).path(ConfigKeys.SPOTTER_REST_TEST_SATELLITE_CONNECTIONS)
+				.type(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+				.post(new GenericType<SpotterServiceResponse<List<SatelliteConnectionStatus>>>() {
+				}, environment);
+		switch (response.getStatus()) {
+		case OK:
+			return response.getPayload();
+		case SERVER_ERROR:
+			throw new RuntimeException("Server error: " + response.getErrorMessage());
+		case INVALID_STATE:
+		default:
+			throw new IllegalStateException("Illegal response state!");
+		}
+	}
+
 	/**
 	 * Tests connection to the Spotter service.
 	 * 
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.xml.bind.JAXBException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.configuration.JobDescription;
+import org.spotter.shared.environment.model.ObjectFactory;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.hierarchy.model.RawHierarchyFactory;
+import org.spotter.shared.util.JAXBUtil;
+
+/**
+ * Runs a diagnosis distributed over several DynamicSpotter services.
+ */
+public final class CoordinatorLauncher {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CoordinatorLauncher.class);
+
+	private static final String WORKERS_KEY = "workers=";
+
+	private static final String HELP_KEY = "-h";
+
+	private static final String WORKER_SEPARATOR = ",";
+
+	private static final String ENVIRONMENT_SEPARATOR = "@";
+
+	private static final long POLL_INTERVAL = 5000L;
+
+	private static List<WorkerNode> workers = new ArrayList<>();
+
+	private static boolean help = false;
+
+	/**
+	 * Private constructor due to utility class.
+	 */
+	private CoordinatorLauncher() {
+	}
+
+	/**
+	 * Splits the hierarchy of the given configuration, runs the partial
+	 * diagnoses on the workers and prints the merged report.
+	 * 
+	 * @param args
+	 *            program arguments should contain the path to the
+	 *            configuration file and the workers
+	 * @throws IOException
+	 *             if the configuration cannot be read
+	 * @throws JAXBException
+	 *             if the hierarchy or an environment cannot be parsed
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the workers
+	 */
+	public static void main(String[] args) throws IOException, JAXBException, InterruptedException {
+		if (args == null || args.length < 1) {
+			printHelp();
+			return;
+		}
+		parseArgs(args);
+		if (help || workers.isEmpty()) {
+			printHelp();
+			return;
+		}
+
+		DiagnosisCoordinator coordinator = new DiagnosisCoordinator(workers);
+		coordinator.startDiagnosis(createJobDescription(args[0]));
+		coordinator.waitForCompletion(POLL_INTERVAL);
+		LOGGER.info(coordinator.requestResults().getReport());
+	}
+
+	/**
+	 * Creates the job description from a DynamicSpotter configuration file.
+	 * 
+	 * @param configFile
+	 *            path to the configuration file
+	 * @return job description comprising the configuration, the hierarchy and
+	 *         the measurement environment referenced in the configuration
+	 * @throws IOException
+	 *             if the configuration cannot be read
+	 * @throws JAXBException
+	 *             if the hierarchy or the environment cannot be parsed
+	 */
+	static JobDescription createJobDescription(String configFile) throws IOException, JAXBException {
+		Properties config = new Properties();
+		try (InputStream inStream = new FileInputStream(configFile)) {
+			config.load(inStream);
+		}
+		JobDescription jobDescription = new JobDescription();
+		jobDescription.setDynamicSpotterConfig(config);
+		jobDescription.setHierarchy(RawHierarchyFactory.getInstance().parseHierarchyFile(
+				config.getProperty(ConfigKeys.CONF_PROBLEM_HIERARCHY_FILE)));
+		jobDescription.setMeasurementEnvironment(parseEnvironment(config
+				.getProperty(ConfigKeys.MEASUREMENT_ENVIRONMENT_FILE)));
+		return jobDescription;
+	}
+
+	/**
+	 * Parses a worker definition of the form
+	 * <code>HOST:PORT[@ENVIRONMENT_FILE]</code>.
+	 * 
+	 * @param worker
+	 *            worker definition
+	 * @return the worker
+	 * @throws FileNotFoundException
+	 *             if the environment file does not exist
+	 * @throws JAXBException
+	 *             if the environment cannot be parsed
+	 */
+	static WorkerNode parseWorker(String worker) throws FileNotFoundException, JAXBException {
+		String address = worker;
+		XMeasurementEnvironment environment = null;
+		int environmentIdx = worker.indexOf(ENVIRONMENT_SEPARATOR);
+		if (environmentIdx >= 0) {
+			address = worker.substring(0, environmentIdx);
+			environment = parseEnvironment(worker.substring(environmentIdx + 1));
+		}
+		int portIdx = address.lastIndexOf(':');
+		if (portIdx <= 0) {
+			throw new IllegalArgumentException("Invalid worker " + worker + ", expected HOST:PORT[@ENVIRONMENT_FILE]");
+		}
+		return new WorkerNode(address.substring(0, portIdx), address.substring(portIdx + 1), environment);
+	}
+
+	private static XMeasurementEnvironment parseEnvironment(String fileName) throws FileNotFoundException,
+			JAXBException {
+		return JAXBUtil.parseXMLFile(fileName, ObjectFactory.class.getPackage().getName());
+	}
+
+	private static void printHelp() {
+		LOGGER.info("DynamicSpotter Coordinator requires at least two arguments:");
+		LOGGER.info("Usage: java -cp <SPOTTER_CLIENT_JAR> " + CoordinatorLauncher.class.getName()
+				+ " PATH_TO_CONFIG_FILE " + WORKERS_KEY + "<WORKERS> [options]");
+		LOGGER.info("the options are:");
+		LOGGER.info(HELP_KEY + ": show this help text");
+		LOGGER.info(WORKERS_KEY
+				+ "<HOST>:<PORT>[@<ENVIRONMENT_FILE>],...: comma separated list of DynamicSpotter services "
+				+ "diagnosing a part of the hierarchy each. Workers without environment file use the "
+				+ "environment of the configuration, which is allowed for one worker only.");
+	}
+
+	/**
+	 * Parses the program arguments.
+	 * 
+	 * @param args
+	 *            arguments as string
+	 */
+	private static void parseArgs(String[] args) throws FileNotFoundException, JAXBException {
+		for (String arg : args) {
+			if (arg.startsWith(HELP_KEY)) {
+				help = true;
+			}
+			if (arg.startsWith(WORKERS_KEY)) {
+				for (String worker : arg.substring(WORKERS_KEY.length()).split(WORKER_SEPARATOR)) {
+					workers.add(parseWorker(worker.trim()));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.JobDescription;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.ResultsContainer;
+import org.spotter.shared.result.model.SpotterResult;
+import org.spotter.shared.status.DiagnosisProgress;
+import org.spotter.shared.status.SpotterProgress;
+
+/**
+ * Coordinates a diagnosis run distributed over several DynamicSpotter service
+ * instances. The problem hierarchy is split into independently executable
+ * partial hierarchies (see {@link HierarchySplitter}), each of which is
+ * diagnosed by one worker. The progress and the results of the workers are
+ * merged into a single view on the whole hierarchy.
+ * 
+ * Workers are ordinary DynamicSpotter services, e.g. several local instances
+ * started with <code>ServerLauncher start port=&lt;PORT&gt;</code>. Workers
+ * diagnose their sub-trees concurrently, thus, each worker has to drive its
+ * own replica of the system under test. At most one of the workers in use may
+ * fall back to the measurement environment of the coordinated job. A
+ * distributed run can be started with the {@link CoordinatorLauncher}.
+ */
+public class DiagnosisCoordinator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosisCoordinator.class);
+
+	private final List<WorkerNode> workers;
+	private final Map<WorkerNode, Long> workerJobs = new LinkedHashMap<>();
+	private XPerformanceProblem rootProblem;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param workers
+	 *            worker services available for diagnosis
+	 */
+	public DiagnosisCoordinator(List<WorkerNode> workers) {
+		if (workers == null || workers.isEmpty()) {
+			throw new IllegalArgumentException("At least one worker is required!");
+		}
+		this.workers = new ArrayList<>(workers);
+	}
+
+	/**
+	 * Splits the hierarchy of the given job and starts the partial diagnosis
+	 * runs on the workers. Workers which are not required, because the
+	 * hierarchy has less independent sub-trees than there are workers, remain
+	 * idle.
+	 * 
+	 * @param jobDescription
+	 *            job to distribute
+	 * @return mapping from the used workers to their job ids
+	 * @throws IllegalArgumentException
+	 *             if several workers in use would drive the satellites of the
+	 *             job's measurement environment concurrently
+	 */
+	public synchronized Map<WorkerNode, Long> startDiagnosis(JobDescription jobDescription) {
+		if (isRunning()) {
+			throw new IllegalStateException("Distributed diagnosis is already running");
+		}
+		List<XPerformanceProblem> partitions = HierarchySplitter.split(jobDescription.getHierarchy(), workers.size());
+		if (partitions.isEmpty()) {
+			throw new IllegalArgumentException("Hierarchy does not contain any detectable problem!");
+		}
+		checkDistinctEnvironments(workers.subList(0, partitions.size()));
+
+		workerJobs.clear();
+		rootProblem = jobDescription.getHierarchy();
+		for (int i = 0; i < partitions.size(); i++) {
+			WorkerNode worker = workers.get(i);
+			JobDescription partialJob = new JobDescription();
+			Properties config = new Properties();
+			config.putAll(jobDescription.getDynamicSpotterConfig());
+			partialJob.setDynamicSpotterConfig(config);
+			partialJob.setMeasurementEnvironment(worker.getMeasurementEnvironment() != null ? worker
+					.getMeasurementEnvironment() : jobDescription.getMeasurementEnvironment());
+			partialJob.setHierarchy(partitions.get(i));
+
+			long jobId = worker.getClient().startDiagnosis(partialJob);
+			if (jobId == 0) {
+				throw new IllegalStateException("Worker " + worker + " is already running a diagnosis!");
+			}
+			LOGGER.info("Started partial diagnosis with job id {} on worker {}.", jobId, worker);
+			workerJobs.put(worker, jobId);
+		}
+		return new LinkedHashMap<>(workerJobs);
+	}
+
+	/**
+	 * Workers without a measurement environment of their own use the
+	 * environment of the job. Several of them would run experiments on the
+	 * same satellites concurrently and thereby falsify each other's results.
+	 */
+	private static void checkDistinctEnvironments(List<WorkerNode> usedWorkers) {
+		List<WorkerNode> sharingWorkers = new ArrayList<>();
+		for (WorkerNode worker : usedWorkers) {
+			if (worker.getMeasurementEnvironment() == null) {
+				sharingWorkers.add(worker);
+			}
+		}
+		if (sharingWorkers.size() > 1) {
+			throw new IllegalArgumentException("Workers " + sharingWorkers
+					+ " would share the satellites of the job's measurement environment. "
+					+ "Provide a measurement environment for each worker!");
+		}
+	}
+
+	/**
+	 * 
+	 * @return <code>true</code> if at least one worker is still diagnosing
+	 */
+	public synchronized boolean isRunning() {
+		for (WorkerNode worker : workerJobs.keySet()) {
+			if (worker.getClient().isRunning()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Blocks until all workers have finished their partial diagnosis.
+	 * 
+	 * @param pollInterval
+	 *            interval in milliseconds to poll the workers' state
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public void waitForCompletion(long pollInterval) throws InterruptedException {
+		while (isRunning()) {
+			Thread.sleep(pollInterval);
+		}
+	}
+
+	/**
+	 * Merges the progress reports of all workers. As workers diagnose
+	 * disjoint sub-trees, the problem progress mappings do not overlap.
+	 * 
+	 * @return merged progress report
+	 */
+	public synchronized SpotterProgress getCurrentProgressReport() {
+		List<SpotterProgress> reports = new ArrayList<>();
+		for (WorkerNode worker : workerJobs.keySet()) {
+			reports.add(worker.getClient().getCurrentProgressReport());
+		}
+		return mergeProgress(reports);
+	}
+
+	/**
+	 * Retrieves the results of all workers and merges them into one result
+	 * container for the whole hierarchy.
+	 * 
+	 * @return merged results
+	 */
+	public synchronized ResultsContainer requestResults() {
+		Map<String, ResultsContainer> workerResults = new LinkedHashMap<>();
+		for (Map.Entry<WorkerNode, Long> entry : workerJobs.entrySet()) {
+			InputStream zipStream = entry.getKey().getClient().requestResults(String.valueOf(entry.getValue()));
+			try {
+				workerResults.put(entry.getKey().toString(), readResultsContainer(zipStream));
+			} catch (IOException | ClassNotFoundException e) {
+				throw new RuntimeException("Failed reading results of worker " + entry.getKey(), e);
+			}
+		}
+		return mergeResults(rootProblem, workerResults);
+	}
+
+	/**
+	 * Merges the given progress reports.
+	 * 
+	 * @param reports
+	 *            progress reports of the workers
+	 * @return merged progress report
+	 */
+	static SpotterProgress mergeProgress(List<SpotterProgress> reports) {
+		SpotterProgress merged = new SpotterProgress();
+		for (SpotterProgress report : reports) {
+			if (report == null) {
+				continue;
+			}
+			if (report.getProblemProgressMapping() != null) {
+				for (Map.Entry<String, DiagnosisProgress> entry : report.getProblemProgressMapping().entrySet()) {
+					merged.getProblemProgressMapping().put(entry.getKey(), entry.getValue());
+				}
+			}
+			if (report.getSatelliteHealth() != null) {
+				merged.getSatelliteHealth().putAll(report.getSatelliteHealth());
+			}
+			if (merged.getCurrentProblem() == null) {
+				merged.setCurrentProblem(report.getCurrentProblem());
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Merges the results of the workers.
+	 * 
+	 * @param rootProblem
+	 *            root of the complete hierarchy
+	 * @param workerResults
+	 *            results per worker name
+	 * @return merged results
+	 */
+	static ResultsContainer mergeResults(XPerformanceProblem rootProblem, Map<String, ResultsContainer> workerResults) {
+		Map<String, SpotterResult> resultsMap = new HashMap<>();
+		StringBuilder report = new StringBuilder();
+		for (Map.Entry<String, ResultsContainer> entry : workerResults.entrySet()) {
+			ResultsContainer container = entry.getValue();
+			if (container.getResultsMap() != null) {
+				resultsMap.putAll(container.getResultsMap());
+			}
+			report.append("=== Worker ");
+			report.append(entry.getKey());
+			report.append(" ===");
+			report.append(System.getProperty("line.separator"));
+			if (container.getReport() != null) {
+				report.append(container.getReport());
+			}
+			report.append(System.getProperty("line.separator"));
+		}
+		ResultsContainer merged = new ResultsContainer();
+		merged.setRootProblem(rootProblem);
+		merged.setResultsMap(resultsMap);
+		merged.setReport(report.toString());
+		return merged;
+	}
+
+	private static ResultsContainer readResultsContainer(InputStream zipStream) throws IOException,
+			ClassNotFoundException {
+		ZipInputStream zipInputStream = new ZipInputStream(zipStream);
+		try {
+			ZipEntry zipEntry = zipInputStream.getNextEntry();
+			while (zipEntry != null) {
+				if (zipEntry.getName().endsWith(ResultsLocationConstants.RESULTS_SERIALIZATION_FILE_NAME)) {
+					ObjectInputStream objectInputStream = new ObjectInputStream(zipInputStream);
+					return (ResultsContainer) objectInputStream.readObject();
+				}
+				zipEntry = zipInputStream.getNextEntry();
+			}
+		} finally {
+			zipInputStream.close();
+		}
+		throw new IOException("Results archive does not contain "
+				+ ResultsLocationConstants.RESULTS_SERIALIZATION_FILE_NAME);
+	}
+}
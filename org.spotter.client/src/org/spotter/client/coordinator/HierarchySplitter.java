@@ -0,0 +1,169 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+
+/**
+ * Splits a performance problem hierarchy into partial hierarchies which can be
+ * diagnosed independently of each other. The diagnosis of a detectable problem
+ * decides whether its sub-problems are examined, hence, only sub-trees
+ * rooted at detectable problems whose ancestors are all non-detectable are
+ * independent units of work.
+ */
+public final class HierarchySplitter {
+
+	private HierarchySplitter() {
+	}
+
+	/**
+	 * Splits the given hierarchy into at most the given number of partial
+	 * hierarchies. Each partial hierarchy keeps the non-detectable nodes on
+	 * the paths from the root to its independent sub-trees. The independent
+	 * sub-trees are distributed such that the partial hierarchies have
+	 * similar sizes.
+	 * 
+	 * @param root
+	 *            root of the hierarchy to split
+	 * @param numPartitions
+	 *            maximum number of partial hierarchies
+	 * @return list of non-empty partial hierarchies
+	 */
+	public static List<XPerformanceProblem> split(XPerformanceProblem root, int numPartitions) {
+		if (numPartitions < 1) {
+			throw new IllegalArgumentException("Number of partitions must be positive!");
+		}
+		List<XPerformanceProblem> units = findIndependentSubtrees(root);
+		int numBins = Math.min(numPartitions, units.size());
+
+		List<Set<XPerformanceProblem>> bins = new ArrayList<>();
+		int[] binSizes = new int[numBins];
+		for (int i = 0; i < numBins; i++) {
+			bins.add(Collections.newSetFromMap(new IdentityHashMap<XPerformanceProblem, Boolean>()));
+		}
+
+		// largest units first, each to the currently smallest partition
+		final Map<XPerformanceProblem, Integer> unitSizes = new IdentityHashMap<>();
+		for (XPerformanceProblem unit : units) {
+			unitSizes.put(unit, countNodes(unit));
+		}
+		Collections.sort(units, new Comparator<XPerformanceProblem>() {
+			@Override
+			public int compare(XPerformanceProblem o1, XPerformanceProblem o2) {
+				return unitSizes.get(o2).compareTo(unitSizes.get(o1));
+			}
+		});
+		for (XPerformanceProblem unit : units) {
+			int smallestBin = 0;
+			for (int i = 1; i < numBins; i++) {
+				if (binSizes[i] < binSizes[smallestBin]) {
+					smallestBin = i;
+				}
+			}
+			bins.get(smallestBin).add(unit);
+			binSizes[smallestBin] += unitSizes.get(unit);
+		}
+
+		List<XPerformanceProblem> partitions = new ArrayList<>();
+		for (Set<XPerformanceProblem> bin : bins) {
+			partitions.add(prune(root, bin));
+		}
+		return partitions;
+	}
+
+	/**
+	 * Collects the maximal sub-trees of the given hierarchy which are rooted
+	 * at a detectable problem.
+	 * 
+	 * @param problem
+	 *            root of the hierarchy
+	 * @return independently executable sub-trees
+	 */
+	static List<XPerformanceProblem> findIndependentSubtrees(XPerformanceProblem problem) {
+		List<XPerformanceProblem> units = new ArrayList<>();
+		if (isDetectable(problem)) {
+			units.add(problem);
+		} else if (problem.getProblem() != null) {
+			for (XPerformanceProblem child : problem.getProblem()) {
+				units.addAll(findIndependentSubtrees(child));
+			}
+		}
+		return units;
+	}
+
+	/**
+	 * Counts the problems of the given sub-tree.
+	 * 
+	 * @param problem
+	 *            root of the sub-tree
+	 * @return number of problems
+	 */
+	static int countNodes(XPerformanceProblem problem) {
+		int count = 1;
+		if (problem.getProblem() != null) {
+			for (XPerformanceProblem child : problem.getProblem()) {
+				count += countNodes(child);
+			}
+		}
+		return count;
+	}
+
+	private static XPerformanceProblem prune(XPerformanceProblem problem, Set<XPerformanceProblem> keep) {
+		if (keep.contains(problem)) {
+			return problem;
+		}
+		if (isDetectable(problem) || problem.getProblem() == null) {
+			return null;
+		}
+		List<XPerformanceProblem> children = new ArrayList<>();
+		for (XPerformanceProblem child : problem.getProblem()) {
+			XPerformanceProblem prunedChild = prune(child, keep);
+			if (prunedChild != null) {
+				children.add(prunedChild);
+			}
+		}
+		if (children.isEmpty()) {
+			return null;
+		}
+		XPerformanceProblem copy = new XPerformanceProblem();
+		copy.setExtensionName(problem.getExtensionName());
+		copy.setUniqueId(problem.getUniqueId());
+		copy.setConfig(problem.getConfig());
+		copy.setProblem(children);
+		return copy;
+	}
+
+	private static boolean isDetectable(XPerformanceProblem problem) {
+		if (problem.getConfig() != null) {
+			for (XMConfiguration xmConfig : problem.getConfig()) {
+				if (ConfigKeys.DETECTABLE_KEY.equals(xmConfig.getKey())) {
+					return Boolean.parseBoolean(xmConfig.getValue());
+				}
+			}
+		}
+		return true;
+	}
+}
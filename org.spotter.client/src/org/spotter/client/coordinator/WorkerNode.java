@@ -0,0 +1,99 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import org.spotter.client.SpotterServiceClient;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+
+/**
+ * A remote DynamicSpotter service instance executing a part of a distributed
+ * diagnosis run.
+ */
+public class WorkerNode {
+
+	private final String host;
+	private final String port;
+	private final XMeasurementEnvironment measurementEnvironment;
+	private SpotterServiceClient client;
+
+	/**
+	 * Creates a worker which uses the measurement environment of the
+	 * coordinated job.
+	 * 
+	 * @param host
+	 *            host of the worker service
+	 * @param port
+	 *            port of the worker service
+	 */
+	public WorkerNode(String host, String port) {
+		this(host, port, null);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param host
+	 *            host of the worker service
+	 * @param port
+	 *            port of the worker service
+	 * @param measurementEnvironment
+	 *            measurement environment describing the SUT instance this
+	 *            worker diagnoses, <code>null</code> to use the environment of
+	 *            the coordinated job
+	 */
+	public WorkerNode(String host, String port, XMeasurementEnvironment measurementEnvironment) {
+		this.host = host;
+		this.port = port;
+		this.measurementEnvironment = measurementEnvironment;
+	}
+
+	/**
+	 * @return the host of the worker service
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return the port of the worker service
+	 */
+	public String getPort() {
+		return port;
+	}
+
+	/**
+	 * @return the measurement environment of this worker or <code>null</code>
+	 *         if the environment of the coordinated job is used
+	 */
+	public XMeasurementEnvironment getMeasurementEnvironment() {
+		return measurementEnvironment;
+	}
+
+	/**
+	 * @return the client connected to the worker service
+	 */
+	public synchronized SpotterServiceClient getClient() {
+		if (client == null) {
+			client = new SpotterServiceClient(host, port);
+		}
+		return client;
+	}
+
+	@Override
+	public String toString() {
+		return host + ":" + port;
+	}
+}
@@ -37,6 +37,7 @@ import org.spotter.client.dummy.DummyWorkloadExtension;
 import org.spotter.service.ServerLauncher;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.service.ExtensionCatalogue;
 import org.spotter.shared.status.SpotterProgress;
 
 import com.sun.jersey.api.client.ClientHandlerException;
@@ -102,6 +103,13 @@ public class SpotterServiceClientTest {
 		Assert.assertEquals(false, status);
 	}
 
+	@Test
+	public void testGetMetrics() {
+		String metrics = ssc.getMetrics();
+		Assert.assertNotNull(metrics);
+		Assert.assertTrue(metrics.contains("# TYPE"));
+	}
+
 	@Test
 	public void testGetLastRunException() {
 		Exception exception = ssc.getLastRunException();
@@ -138,6 +146,27 @@ public class SpotterServiceClientTest {
 		removeExtension();
 	}
 
+	@Test
+	public void testGetExtensionCatalogue() {
+		registerExtension();
+
+		ExtensionCatalogue catalogue = ssc.getExtensionCatalogue();
+		Assert.assertNotNull(catalogue.getVersion());
+		Assert.assertTrue(catalogue.namesOf(SpotterExtensionType.WORKLOAD_EXTENSION).contains("DummyWorkload"));
+		Assert.assertTrue(catalogue.parametersOf("DummyWorkload").size() > 0);
+		Assert.assertTrue(catalogue.getConfigurationParameters().size() > 0);
+		Assert.assertNotNull(catalogue.getDefaultHierarchy());
+
+		// unchanged extensions are only revalidated
+		Assert.assertSame(catalogue, ssc.getExtensionCatalogue());
+
+		removeExtension();
+
+		ExtensionCatalogue changedCatalogue = ssc.getExtensionCatalogue();
+		Assert.assertFalse(catalogue.getVersion().equals(changedCatalogue.getVersion()));
+		Assert.assertFalse(changedCatalogue.namesOf(SpotterExtensionType.WORKLOAD_EXTENSION).contains("DummyWorkload"));
+	}
+
 	@Test
 	public void testGetCurrentJobId() {
 		long currentJobId = ssc.getCurrentJobId();
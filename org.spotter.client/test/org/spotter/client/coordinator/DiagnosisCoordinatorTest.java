@@ -0,0 +1,158 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.client.SpotterServiceClient;
+import org.spotter.service.ServerLauncher;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.configuration.JobDescription;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+
+public class DiagnosisCoordinatorTest {
+
+	private static final String HOST = "localhost";
+	private static final String[] PORTS = { "11338", "11339" };
+	private static final long STARTUP_TIMEOUT = 60000L;
+	private static final long POLL_INTERVAL = 200L;
+
+	private static final List<Process> services = new ArrayList<>();
+	private static File tempDir;
+
+	@BeforeClass
+	public static void startServices() throws IOException, InterruptedException {
+		tempDir = new File("tempCoordinatorJUnit");
+		if (tempDir.exists()) {
+			LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+		}
+		LpeFileUtils.createDir(tempDir.getAbsolutePath());
+
+		// each worker runs in its own process, services in the same JVM would
+		// share the Spotter singleton
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		for (String port : PORTS) {
+			File rootDir = new File(tempDir, port);
+			LpeFileUtils.createDir(rootDir.getAbsolutePath());
+			ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+					ServerLauncher.class.getName(), "start", "port=" + port, "rootDir=" + rootDir.getAbsolutePath());
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(new File(tempDir, "service-" + port + ".log"));
+			services.add(builder.start());
+		}
+		for (String port : PORTS) {
+			awaitService(new SpotterServiceClient(HOST, port));
+		}
+	}
+
+	private static void awaitService(SpotterServiceClient client) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT;
+		while (true) {
+			try {
+				if (client.testConnection()) {
+					return;
+				}
+			} catch (RuntimeException e) {
+				if (System.currentTimeMillis() > deadline) {
+					throw e;
+				}
+			}
+			Thread.sleep(POLL_INTERVAL);
+		}
+	}
+
+	@AfterClass
+	public static void stopServices() throws IOException, InterruptedException {
+		for (Process service : services) {
+			service.destroy();
+			service.waitFor();
+		}
+		if (tempDir.exists()) {
+			LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+		}
+	}
+
+	private static XPerformanceProblem createProblem(String id, boolean detectable, XPerformanceProblem... children) {
+		XPerformanceProblem problem = new XPerformanceProblem();
+		problem.setUniqueId(id);
+		problem.setExtensionName("ext-" + id);
+		XMConfiguration detectableConfig = new XMConfiguration();
+		detectableConfig.setKey(ConfigKeys.DETECTABLE_KEY);
+		detectableConfig.setValue(String.valueOf(detectable));
+		List<XMConfiguration> config = new ArrayList<>();
+		config.add(detectableConfig);
+		problem.setConfig(config);
+		problem.setProblem(new ArrayList<>(Arrays.asList(children)));
+		return problem;
+	}
+
+	private static JobDescription createJob() {
+		JobDescription job = new JobDescription();
+		job.setDynamicSpotterConfig(new Properties());
+		job.setMeasurementEnvironment(new XMeasurementEnvironment());
+		job.setHierarchy(createProblem("root", false, createProblem("a", true), createProblem("b", true)));
+		return job;
+	}
+
+	@Test(timeout = 120000)
+	public void testDistributedDiagnosis() throws InterruptedException {
+		List<WorkerNode> workers = new ArrayList<>();
+		for (String port : PORTS) {
+			workers.add(new WorkerNode(HOST, port, new XMeasurementEnvironment()));
+		}
+		DiagnosisCoordinator coordinator = new DiagnosisCoordinator(workers);
+
+		Map<WorkerNode, Long> jobs = coordinator.startDiagnosis(createJob());
+		Assert.assertEquals(2, jobs.size());
+		for (WorkerNode worker : workers) {
+			Assert.assertTrue(jobs.get(worker) > 0L);
+		}
+
+		coordinator.waitForCompletion(POLL_INTERVAL);
+		Assert.assertFalse(coordinator.isRunning());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSharedEnvironmentIsRejected() {
+		List<WorkerNode> workers = new ArrayList<>();
+		for (String port : PORTS) {
+			workers.add(new WorkerNode(HOST, port));
+		}
+		new DiagnosisCoordinator(workers).startDiagnosis(createJob());
+	}
+
+	@Test
+	public void testParseWorker() throws Exception {
+		WorkerNode worker = CoordinatorLauncher.parseWorker("localhost:" + PORTS[0]);
+		Assert.assertEquals(HOST, worker.getHost());
+		Assert.assertEquals(PORTS[0], worker.getPort());
+		Assert.assertNull(worker.getMeasurementEnvironment());
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.client.coordinator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.result.model.ResultsContainer;
+import org.spotter.shared.result.model.SpotterResult;
+
+public class HierarchySplitterTest {
+
+	private static XPerformanceProblem createProblem(String id, boolean detectable, XPerformanceProblem... children) {
+		XPerformanceProblem problem = new XPerformanceProblem();
+		problem.setUniqueId(id);
+		problem.setExtensionName("ext-" + id);
+		XMConfiguration detectableConfig = new XMConfiguration();
+		detectableConfig.setKey(ConfigKeys.DETECTABLE_KEY);
+		detectableConfig.setValue(String.valueOf(detectable));
+		List<XMConfiguration> config = new ArrayList<>();
+		config.add(detectableConfig);
+		problem.setConfig(config);
+		List<XPerformanceProblem> childList = new ArrayList<>();
+		for (XPerformanceProblem child : children) {
+			childList.add(child);
+		}
+		problem.setProblem(childList);
+		return problem;
+	}
+
+	private static XPerformanceProblem createHierarchy() {
+		XPerformanceProblem a = createProblem("a", true, createProblem("a1", true), createProblem("a2", true),
+				createProblem("a3", true));
+		XPerformanceProblem b = createProblem("b", true, createProblem("b1", true));
+		XPerformanceProblem c = createProblem("c", true);
+		XPerformanceProblem group = createProblem("group", false, b, c);
+		return createProblem("root", false, a, group);
+	}
+
+	private static void collectIds(XPerformanceProblem problem, Set<String> ids) {
+		ids.add(problem.getUniqueId());
+		for (XPerformanceProblem child : problem.getProblem()) {
+			collectIds(child, ids);
+		}
+	}
+
+	@Test
+	public void testIndependentSubtrees() {
+		List<XPerformanceProblem> units = HierarchySplitter.findIndependentSubtrees(createHierarchy());
+		Assert.assertEquals(3, units.size());
+		Assert.assertEquals(10, HierarchySplitter.countNodes(createHierarchy()));
+	}
+
+	@Test
+	public void testSplit() {
+		XPerformanceProblem root = createHierarchy();
+		List<XPerformanceProblem> partitions = HierarchySplitter.split(root, 2);
+		Assert.assertEquals(2, partitions.size());
+
+		Set<String> first = new HashSet<>();
+		collectIds(partitions.get(0), first);
+		Set<String> second = new HashSet<>();
+		collectIds(partitions.get(1), second);
+
+		// largest unit on its own, the remaining units share a partition
+		Assert.assertTrue(first.contains("a") && first.contains("a3"));
+		Assert.assertFalse(first.contains("group"));
+		Assert.assertTrue(second.contains("group") && second.contains("b1") && second.contains("c"));
+		Assert.assertFalse(second.contains("a"));
+		Assert.assertEquals("root", partitions.get(0).getUniqueId());
+		Assert.assertEquals("root", partitions.get(1).getUniqueId());
+
+		// the original hierarchy must not be modified
+		Assert.assertEquals(2, root.getProblem().size());
+
+		Assert.assertEquals(3, HierarchySplitter.split(root, 5).size());
+		Assert.assertEquals(1, HierarchySplitter.split(createProblem("single", true), 5).size());
+	}
+
+	@Test
+	public void testMergeResults() {
+		Map<String, ResultsContainer> workerResults = new LinkedHashMap<>();
+		for (String id : new String[] { "a", "b" }) {
+			ResultsContainer container = new ResultsContainer();
+			Map<String, SpotterResult> resultsMap = new LinkedHashMap<>();
+			resultsMap.put(id, new SpotterResult());
+			container.setResultsMap(resultsMap);
+			container.setReport("report " + id);
+			workerResults.put("worker-" + id, container);
+		}
+		XPerformanceProblem root = createHierarchy();
+		ResultsContainer merged = DiagnosisCoordinator.mergeResults(root, workerResults);
+		Assert.assertSame(root, merged.getRootProblem());
+		Assert.assertEquals(2, merged.getResultsMap().size());
+		Assert.assertTrue(merged.getReport().contains("report a"));
+		Assert.assertTrue(merged.getReport().contains("report b"));
+	}
+}
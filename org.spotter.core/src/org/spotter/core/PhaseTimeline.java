@@ -0,0 +1,287 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.spotter.shared.status.DiagnosisStatus;
+
+/**
+ * Timeline of the phases of a diagnosis run. Each problem has its own track
+ * showing the {@link DiagnosisStatus} transitions of its detection
+ * controller. Additional spans, e.g. the storing of experiment data, can be
+ * recorded on separate tracks. The timeline is exported in the Chrome
+ * trace-event format (viewable in chrome://tracing).
+ * 
+ * Recording only appends to concurrent collections, the JSON representation
+ * is created on export.
+ */
+public class PhaseTimeline {
+	private static final long NANOS_PER_MICRO = 1000L;
+	private static final int PROCESS_ID = 1;
+
+	private final long origin = System.nanoTime();
+	private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+	private final ConcurrentHashMap<String, Span> openSpans = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Integer> trackIds = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, String> trackNames = new ConcurrentHashMap<>();
+
+	/**
+	 * Records a status transition of the given problem. The span of the
+	 * previous status ends, a span for the new status starts. Final states
+	 * are recorded as instant events.
+	 * 
+	 * @param problemId
+	 *            unique id of the problem
+	 * @param status
+	 *            new status
+	 */
+	public void statusChanged(String problemId, DiagnosisStatus status) {
+		long now = System.nanoTime();
+		closeSpan(problemId, now);
+		if (status == null || status == DiagnosisStatus.PENDING) {
+			return;
+		}
+		if (status == DiagnosisStatus.DETECTED || status == DiagnosisStatus.NOT_DETECTED) {
+			if (trackIds.containsKey(problemId)) {
+				Span instant = new Span(problemId, status.toString(), now);
+				instant.end = now;
+				instant.instant = true;
+				spans.add(instant);
+			}
+			return;
+		}
+		openSpans.put(problemId, new Span(problemId, status.toString(), now));
+	}
+
+	/**
+	 * Adds an argument to the currently open status span of the given
+	 * problem, e.g. the number of users of an experiment.
+	 * 
+	 * @param problemId
+	 *            unique id of the problem
+	 * @param key
+	 *            name of the argument
+	 * @param value
+	 *            value of the argument
+	 */
+	public void addArgument(String problemId, String key, Object value) {
+		Span span = openSpans.get(problemId);
+		if (span != null) {
+			span.args.put(key, value);
+		}
+	}
+
+	/**
+	 * Records a completed span.
+	 * 
+	 * @param track
+	 *            track to record the span on
+	 * @param name
+	 *            name of the span
+	 * @param startNanos
+	 *            start of the span as returned by {@link System#nanoTime()}
+	 * @param endNanos
+	 *            end of the span as returned by {@link System#nanoTime()}
+	 * @param args
+	 *            arguments of the span, may be <code>null</code>
+	 */
+	public void recordSpan(String track, String name, long startNanos, long endNanos, Map<String, Object> args) {
+		Span span = new Span(track, name, startNanos);
+		span.end = endNanos;
+		if (args != null) {
+			span.args.putAll(args);
+		}
+		spans.add(span);
+	}
+
+	/**
+	 * Names a track, e.g. after the detection controller of a problem.
+	 * 
+	 * @param track
+	 *            track to name
+	 * @param name
+	 *            displayed name of the track
+	 */
+	public void setTrackName(String track, String name) {
+		trackNames.put(track, name);
+	}
+
+	/**
+	 * Writes the timeline in the Chrome trace-event JSON format. Spans which
+	 * are still open end at the time of export.
+	 * 
+	 * @param fileName
+	 *            file to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeChromeTrace(String fileName) throws IOException {
+		Writer writer = new BufferedWriter(new FileWriter(fileName));
+		try {
+			writeChromeTrace(writer);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes the timeline in the Chrome trace-event JSON format.
+	 * 
+	 * @param writer
+	 *            writer to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeChromeTrace(Writer writer) throws IOException {
+		long now = System.nanoTime();
+		List<Span> allSpans = new ArrayList<>(spans);
+		for (Span openSpan : openSpans.values()) {
+			Span span = new Span(openSpan.track, openSpan.name, openSpan.start);
+			span.end = now;
+			synchronized (openSpan.args) {
+				span.args.putAll(openSpan.args);
+			}
+			allSpans.add(span);
+		}
+
+		writer.write("{\"traceEvents\":[");
+		boolean first = true;
+		for (Map.Entry<String, Integer> track : trackIds.entrySet()) {
+			String trackName = trackNames.containsKey(track.getKey()) ? trackNames.get(track.getKey()) : track
+					.getKey();
+			first = writeSeparator(writer, first);
+			writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"tid\":"
+					+ track.getValue() + ",\"args\":{\"name\":" + quote(trackName) + "}}");
+		}
+		for (Span span : allSpans) {
+			first = writeSeparator(writer, first);
+			writer.write("{\"name\":" + quote(span.name) + ",\"cat\":\"phase\",\"ph\":\"" + (span.instant ? "i" : "X")
+					+ "\",\"ts\":" + toMicros(span.start) + ",");
+			if (span.instant) {
+				writer.write("\"s\":\"t\",");
+			} else {
+				writer.write("\"dur\":" + Math.max(0L, (span.end - span.start) / NANOS_PER_MICRO) + ",");
+			}
+			writer.write("\"pid\":" + PROCESS_ID + ",\"tid\":" + trackIds.get(span.track) + ",\"args\":{");
+			boolean firstArg = true;
+			synchronized (span.args) {
+				for (Map.Entry<String, Object> arg : span.args.entrySet()) {
+					firstArg = writeSeparator(writer, firstArg);
+					Object value = arg.getValue();
+					writer.write(quote(arg.getKey()) + ":"
+							+ (value instanceof Number ? value.toString() : quote(String.valueOf(value))));
+				}
+			}
+			writer.write("}}");
+		}
+		writer.write("],\"displayTimeUnit\":\"ms\"}");
+	}
+
+	private void closeSpan(String problemId, long now) {
+		Span span = openSpans.remove(problemId);
+		if (span != null) {
+			span.end = now;
+			spans.add(span);
+		}
+	}
+
+	private long toMicros(long nanos) {
+		return (nanos - origin) / NANOS_PER_MICRO;
+	}
+
+	private int getTrackId(String track) {
+		Integer trackId = trackIds.get(track);
+		if (trackId == null) {
+			synchronized (trackIds) {
+				trackId = trackIds.get(track);
+				if (trackId == null) {
+					trackId = trackIds.size() + 1;
+					trackIds.put(track, trackId);
+				}
+			}
+		}
+		return trackId;
+	}
+
+	private static boolean writeSeparator(Writer writer, boolean first) throws IOException {
+		if (!first) {
+			writer.write(",");
+		}
+		return false;
+	}
+
+	private static String quote(String text) {
+		StringBuilder builder = new StringBuilder("\"");
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (c < ' ') {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else {
+					builder.append(c);
+				}
+				break;
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	/**
+	 * A phase with start and end time.
+	 */
+	private final class Span {
+		private final String track;
+		private final String name;
+		private final long start;
+		private volatile long end;
+		private boolean instant = false;
+		private final Map<String, Object> args = Collections.synchronizedMap(new LinkedHashMap<String, Object>());
+
+		private Span(String track, String name, long start) {
+			this.track = track;
+			this.name = name;
+			this.start = start;
+			getTrackId(track);
+		}
+	}
+}
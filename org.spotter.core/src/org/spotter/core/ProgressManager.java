@@ -16,6 +16,8 @@
 package org.spotter.core;
 
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -32,7 +34,8 @@ import org.spotter.shared.status.SpotterProgress;
 
 /**
  * The ProgressUpdater periodically updates the progress of the detection
- * controller in action.
+ * controllers in action. If problems are examined concurrently, the duration
+ * estimates are tracked per problem.
  * 
  * @author Alexander Wert
  * 
@@ -60,16 +63,14 @@ public final class ProgressManager implements Runnable {
 	}
 
 	private volatile boolean run = false;
-	private IDetectionController controller;
-	private long estimatedDuration = 0;
-	private long additionalDuration = 0;
-	private long problemInvestigationStartedTimestamp;
+	private final Map<String, ProblemEstimate> estimates = new LinkedHashMap<>();
 	private int samplingDelay = SECOND; // in [ms]
 	private Future<?> managingTask;
 	private SpotterProgress spotterProgress;
-	private boolean initialEstimateConducted = false;
+	private volatile PhaseTimeline timeline;
 
 	private ProgressManager() {
+		timeline = new PhaseTimeline();
 		spotterProgress = new SpotterProgress();
 	}
 
@@ -78,14 +79,7 @@ public final class ProgressManager implements Runnable {
 		run = true;
 
 		while (run) {
-			synchronized (this) {
-				if (controller != null) {
-					if (!initialEstimateConducted) {
-						calculateInitialEstimatedDuration();
-					}
-					updateEstimatedProgress();
-				}
-			}
+			updateEstimatedProgress();
 			try {
 				Thread.sleep(samplingDelay);
 			} catch (InterruptedException e) {
@@ -116,41 +110,80 @@ public final class ProgressManager implements Runnable {
 	}
 
 	/**
-	 * Sets current detection controller.
+	 * Sets current detection controller. Controllers of other problems are no
+	 * longer tracked.
 	 * 
 	 * @param controller
 	 *            controller in action
 	 */
 	public synchronized void setController(IDetectionController controller) {
-		this.controller = controller;
-		estimatedDuration = 0;
-		additionalDuration = 0;
-		initialEstimateConducted = false;
-		String currentProblem = controller == null ? null : controller.getProblemId();
+		estimates.clear();
+		if (controller != null) {
+			addController(controller);
+		} else {
+			getSpotterProgress().setCurrentProblem(null);
+		}
+	}
+
+	/**
+	 * Adds a detection controller in action. The progress of the added
+	 * controller is tracked independently of the other controllers in action.
+	 * 
+	 * @param controller
+	 *            controller in action
+	 */
+	public synchronized void addController(IDetectionController controller) {
+		estimates.put(controller.getProblemId(), new ProblemEstimate(controller));
+		getSpotterProgress().setCurrentProblem(controller.getProblemId());
+	}
+
+	/**
+	 * Stops tracking the progress of the given problem.
+	 * 
+	 * @param problemId
+	 *            unique id of the problem
+	 */
+	public synchronized void removeController(String problemId) {
+		estimates.remove(problemId);
+		String currentProblem = estimates.isEmpty() ? null : estimates.keySet().iterator().next();
 		getSpotterProgress().setCurrentProblem(currentProblem);
 	}
 
 	/**
-	 * Adds additional duration to the estimated duration.
+	 * Adds additional duration to the estimated duration of the given problem.
 	 * 
+	 * @param problemId
+	 *            unique id of the problem
 	 * @param additionalDuration
 	 *            time in [s] to add
 	 */
-	public void addAdditionalDuration(long additionalDuration) {
-		this.additionalDuration += additionalDuration;
+	public synchronized void addAdditionalDuration(String problemId, long additionalDuration) {
+		ProblemEstimate estimate = estimates.get(problemId);
+		if (estimate != null) {
+			estimate.additionalDuration += additionalDuration;
+		}
 	}
 
 	/**
-	 * @return the estimatedOverallDuration
+	 * @return the estimated overall duration of all problems in action
 	 */
-	public long getEstimatedOverallDuration() {
-		return estimatedDuration + additionalDuration;
+	public synchronized long getEstimatedOverallDuration() {
+		long duration = 0L;
+		for (ProblemEstimate estimate : estimates.values()) {
+			duration += estimate.getEstimatedOverallDuration();
+		}
+		return duration;
 	}
 
-	private void calculateInitialEstimatedDuration() {
-		estimatedDuration = controller.getExperimentSeriesDuration();
-		problemInvestigationStartedTimestamp = System.currentTimeMillis();
-		initialEstimateConducted = true;
+	/**
+	 * @param problemId
+	 *            unique id of the problem
+	 * @return the estimated overall duration of the given problem, 0 if the
+	 *         problem is not in action
+	 */
+	public synchronized long getEstimatedOverallDuration(String problemId) {
+		ProblemEstimate estimate = estimates.get(problemId);
+		return estimate == null ? 0L : estimate.getEstimatedOverallDuration();
 	}
 
 	/**
@@ -231,12 +264,22 @@ public final class ProgressManager implements Runnable {
 	}
 
 	/**
-	 * Updates the current progress of this controller.
+	 * Updates the current progress of the controllers in action.
 	 */
-	public void updateEstimatedProgress() {
-		long elapsedTime = (System.currentTimeMillis() - problemInvestigationStartedTimestamp) / SECOND;
+	public synchronized void updateEstimatedProgress() {
+		for (ProblemEstimate estimate : estimates.values()) {
+			if (!estimate.initialEstimateConducted) {
+				estimate.calculateInitialEstimatedDuration();
+			}
+			updateEstimatedProgress(estimate);
+		}
+	}
 
-		long currentEstimatedOverallDuration = getEstimatedOverallDuration();
+	private void updateEstimatedProgress(ProblemEstimate estimate) {
+		IDetectionController controller = estimate.controller;
+		long elapsedTime = (System.currentTimeMillis() - estimate.problemInvestigationStartedTimestamp) / SECOND;
+
+		long currentEstimatedOverallDuration = estimate.getEstimatedOverallDuration();
 
 		// as the estimated overall duration might not have been calculated yet
 		// and return default
@@ -283,6 +326,7 @@ public final class ProgressManager implements Runnable {
 	 *            name to set
 	 */
 	public void setProblemName(String problemId, String problemName) {
+		timeline.setTrackName(problemId, problemName);
 		if (getSpotterProgress().getProblemProgressMapping().containsKey(problemId)) {
 			getSpotterProgress().getProblemProgressMapping().get(problemId).setName(problemName);
 		} else {
@@ -300,6 +344,7 @@ public final class ProgressManager implements Runnable {
 	 *            new status
 	 */
 	public void updateProgressStatus(String problemId, DiagnosisStatus status) {
+		timeline.statusChanged(problemId, status);
 		if (getSpotterProgress().getProblemProgressMapping().containsKey(problemId)) {
 			getSpotterProgress().getProblemProgressMapping().get(problemId).setStatus(status);
 		} else {
@@ -334,6 +379,7 @@ public final class ProgressManager implements Runnable {
 	 *            new status
 	 */
 	public void updateProgressStatus(String problemId, DiagnosisStatus status, String currentProgressMessage) {
+		timeline.statusChanged(problemId, status);
 		if (getSpotterProgress().getProblemProgressMapping().containsKey(problemId)) {
 			DiagnosisProgress progress = getSpotterProgress().getProblemProgressMapping().get(problemId);
 			progress.setStatus(status);
@@ -353,6 +399,15 @@ public final class ProgressManager implements Runnable {
 		return spotterProgress;
 	}
 
+	/**
+	 * Returns the timeline of the phases of the current diagnosis run.
+	 * 
+	 * @return the phase timeline
+	 */
+	public PhaseTimeline getTimeline() {
+		return timeline;
+	}
+
 	/**
 	 * @param samplingDelay
 	 *            the samplingDelay to set in [ms]
@@ -371,10 +426,33 @@ public final class ProgressManager implements Runnable {
 		}
 		run = false;
 		setController(null);
-		estimatedDuration = 0;
-		additionalDuration = 0;
-		initialEstimateConducted = false;
 		spotterProgress = new SpotterProgress();
+		timeline = new PhaseTimeline();
+	}
+
+	/**
+	 * Duration estimate of a single problem in action.
+	 */
+	private static final class ProblemEstimate {
+		private final IDetectionController controller;
+		private long estimatedDuration = 0;
+		private long additionalDuration = 0;
+		private long problemInvestigationStartedTimestamp;
+		private boolean initialEstimateConducted = false;
+
+		private ProblemEstimate(IDetectionController controller) {
+			this.controller = controller;
+		}
+
+		private void calculateInitialEstimatedDuration() {
+			estimatedDuration = controller.getExperimentSeriesDuration();
+			problemInvestigationStartedTimestamp = System.currentTimeMillis();
+			initialEstimateConducted = true;
+		}
+
+		private long getEstimatedOverallDuration() {
+			return estimatedDuration + additionalDuration;
+		}
 	}
 
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core;
+
+import org.aim.api.exceptions.InstrumentationException;
+import org.aim.api.exceptions.MeasurementException;
+import org.spotter.core.instrumentation.InstrumentationBroker;
+import org.spotter.core.measurement.MeasurementBroker;
+import org.spotter.core.workload.WorkloadAdapterBroker;
+import org.spotter.exceptions.WorkloadException;
+
+/**
+ * A replica of the system under test together with the brokers for its
+ * instrumentation, measurement and workload satellites. Detection controllers
+ * bound to different replica groups can execute their experiments in
+ * parallel.
+ */
+public class ReplicaGroup {
+	private final String name;
+	private final InstrumentationBroker instrumentationBroker;
+	private final MeasurementBroker measurementBroker;
+	private final WorkloadAdapterBroker workloadBroker;
+	private volatile boolean warmedUp = false;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *            name of the replica group
+	 * @param instrumentationBroker
+	 *            broker for the instrumentation satellites of the replica
+	 * @param measurementBroker
+	 *            broker for the measurement satellites of the replica
+	 * @param workloadBroker
+	 *            broker for the workload satellites of the replica
+	 */
+	public ReplicaGroup(String name, InstrumentationBroker instrumentationBroker, MeasurementBroker measurementBroker,
+			WorkloadAdapterBroker workloadBroker) {
+		this.name = name;
+		this.instrumentationBroker = instrumentationBroker;
+		this.measurementBroker = measurementBroker;
+		this.workloadBroker = workloadBroker;
+	}
+
+	/**
+	 * Initializes the satellites of this replica group.
+	 * 
+	 * @throws InstrumentationException
+	 *             if initializing the instrumentation satellites fails
+	 * @throws MeasurementException
+	 *             if initializing the measurement satellites fails
+	 * @throws WorkloadException
+	 *             if initializing the workload satellites fails
+	 */
+	public void initialize() throws InstrumentationException, MeasurementException, WorkloadException {
+		instrumentationBroker.initialize();
+		measurementBroker.initialize();
+		workloadBroker.initialize();
+	}
+
+	/**
+	 * @return the name of the replica group
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the instrumentation broker
+	 */
+	public InstrumentationBroker getInstrumentationBroker() {
+		return instrumentationBroker;
+	}
+
+	/**
+	 * @return the measurement broker
+	 */
+	public MeasurementBroker getMeasurementBroker() {
+		return measurementBroker;
+	}
+
+	/**
+	 * @return the workload broker
+	 */
+	public WorkloadAdapterBroker getWorkloadBroker() {
+		return workloadBroker;
+	}
+
+	/**
+	 * @return true, if the replica has been warmed up
+	 */
+	public boolean isWarmedUp() {
+		return warmedUp;
+	}
+
+	/**
+	 * @param warmedUp
+	 *            whether the replica has been warmed up
+	 */
+	public void setWarmedUp(boolean warmedUp) {
+		this.warmedUp = warmedUp;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,440 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.extension.IExtension;
+import org.lpe.common.extension.IExtensionArtifact;
+import org.lpe.common.util.system.LpeSystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.instrumentation.IInstrumentationAdapter;
+import org.spotter.core.measurement.IMeasurementAdapter;
+import org.spotter.core.metrics.MetricsRegistry;
+import org.spotter.core.workload.IWorkloadAdapter;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.status.SatelliteHealth;
+
+/**
+ * The SatelliteHealthMonitor periodically probes the remote satellites of the
+ * measurement environment during a diagnosis run. It tracks the round-trip
+ * latency and the clock drift of the satellites and regards a satellite as
+ * degraded if several probes in a row fail. The health of the satellites is
+ * published to the progress of the run and to the metrics registry.
+ */
+public final class SatelliteHealthMonitor implements Runnable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SatelliteHealthMonitor.class);
+	private static final long SECOND = 1000L;
+	private static final long TWO = 2L;
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private static SatelliteHealthMonitor instance;
+
+	/**
+	 * Get singleton instance.
+	 * 
+	 * @return singleton instance
+	 */
+	public static synchronized SatelliteHealthMonitor getInstance() {
+		if (instance == null) {
+			instance = new SatelliteHealthMonitor();
+		}
+
+		return instance;
+	}
+
+	private final List<Satellite> satellites = new ArrayList<>();
+	private final Object probeLock = new Object();
+	private volatile boolean run = false;
+	private Future<?> monitoringTask;
+
+	private SatelliteHealthMonitor() {
+		MetricsRegistry.getInstance().registerGauge(MetricsRegistry.SATELLITES_DEGRADED, new MetricsRegistry.Gauge() {
+			@Override
+			public double getValue() {
+				return getNumDegradedSatellites();
+			}
+		});
+		MetricsRegistry.getInstance().registerGauge(MetricsRegistry.SATELLITE_MAX_CLOCK_DRIFT,
+				new MetricsRegistry.Gauge() {
+					@Override
+					public double getValue() {
+						return getMaxClockDrift();
+					}
+				});
+	}
+
+	@Override
+	public void run() {
+		long interval = GlobalConfiguration.getInstance().getPropertyAsLong(
+				ConfigKeys.SATELLITE_HEALTH_CHECK_INTERVAL, ConfigKeys.DEFAULT_SATELLITE_HEALTH_CHECK_INTERVAL)
+				* SECOND;
+		while (run) {
+			probeAll();
+			synchronized (probeLock) {
+				if (run) {
+					try {
+						probeLock.wait(interval);
+					} catch (InterruptedException e) {
+						LOGGER.warn("Satellite health monitoring has been interrupted.");
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts periodic monitoring of the registered satellites. Monitoring is
+	 * not started if it has been disabled or if there are no remote
+	 * satellites to monitor.
+	 */
+	public synchronized void start() {
+		int interval = GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.SATELLITE_HEALTH_CHECK_INTERVAL, ConfigKeys.DEFAULT_SATELLITE_HEALTH_CHECK_INTERVAL);
+		if (interval <= 0 || getSatellites().isEmpty() || run) {
+			return;
+		}
+		run = true;
+		monitoringTask = LpeSystemUtils.submitTask(this);
+	}
+
+	/**
+	 * Stops periodic monitoring.
+	 */
+	public synchronized void stop() {
+		synchronized (probeLock) {
+			run = false;
+			probeLock.notifyAll();
+		}
+		if (monitoringTask != null) {
+			try {
+				monitoringTask.get();
+			} catch (InterruptedException e) {
+				// the monitoring task terminates on its own
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e);
+			} finally {
+				monitoringTask = null;
+			}
+		}
+	}
+
+	/**
+	 * Stops monitoring and removes all registered satellites.
+	 */
+	public void reset() {
+		stop();
+		synchronized (satellites) {
+			satellites.clear();
+		}
+	}
+
+	/**
+	 * @return true, if the satellites are monitored periodically
+	 */
+	public boolean isRunning() {
+		return run;
+	}
+
+	/**
+	 * Registers the remote satellites of the given replica group for
+	 * monitoring. Local satellites are not monitored.
+	 * 
+	 * @param replicaGroup
+	 *            replica group whose satellites to monitor
+	 */
+	public void addSatellites(ReplicaGroup replicaGroup) {
+		for (IInstrumentationAdapter adapter : replicaGroup.getInstrumentationBroker().getInstrumentationControllers(
+				IInstrumentationAdapter.class)) {
+			addSatellite(replicaGroup.getName(), adapter, adapter.getProperties(), null);
+		}
+		for (IMeasurementAdapter adapter : replicaGroup.getMeasurementBroker().getMeasurementControllers(
+				IMeasurementAdapter.class)) {
+			addSatellite(replicaGroup.getName(), adapter, adapter.getProperties(), adapter);
+		}
+		for (IWorkloadAdapter adapter : replicaGroup.getWorkloadBroker().getWorkloadAdapters(IWorkloadAdapter.class)) {
+			addSatellite(replicaGroup.getName(), adapter, adapter.getProperties(), null);
+		}
+	}
+
+	private void addSatellite(String group, IExtensionArtifact adapter, Properties properties,
+			IMeasurementAdapter clockSource) {
+		IExtension<?> provider = adapter.getProvider();
+		if (!(provider instanceof AbstractSpotterSatelliteExtension) || properties == null) {
+			return;
+		}
+		AbstractSpotterSatelliteExtension extension = (AbstractSpotterSatelliteExtension) provider;
+		String name = properties.getProperty(AbstractSpotterSatelliteExtension.NAME_KEY, provider.getName());
+		String host = properties.getProperty(AbstractSpotterSatelliteExtension.HOST_KEY);
+		String port = properties.getProperty(AbstractSpotterSatelliteExtension.PORT_KEY);
+		if (!extension.isRemoteExtension() || host == null || port == null) {
+			return;
+		}
+		synchronized (satellites) {
+			satellites.add(new Satellite(group, extension, clockSource, new SatelliteHealth(name, host, port)));
+		}
+	}
+
+	/**
+	 * Probes all registered satellites once. Satellites whose previous probe
+	 * has not returned yet are not probed again but count as failed. A probe
+	 * counts either with its own result or as timed out, whichever comes
+	 * first; the result of a probe returning after its timeout is ignored.
+	 */
+	void probeAll() {
+		long timeout = GlobalConfiguration.getInstance().getPropertyAsLong(
+				ConfigKeys.SATELLITE_CONNECTION_TEST_TIMEOUT, ConfigKeys.DEFAULT_SATELLITE_CONNECTION_TEST_TIMEOUT);
+		Map<Satellite, Long> probed = new LinkedHashMap<>();
+		for (Satellite satellite : getSatellites()) {
+			if (satellite.pendingProbe != null && !satellite.pendingProbe.isDone()) {
+				satellite.recordFailure(0L, "Previous probe has not returned yet.");
+			} else {
+				long generation = satellite.nextGeneration();
+				satellite.pendingProbe = LpeSystemUtils.submitTask(satellite.createProbe(generation));
+				probed.put(satellite, generation);
+			}
+		}
+
+		long deadline = System.currentTimeMillis() + timeout;
+		for (Entry<Satellite, Long> entry : probed.entrySet()) {
+			Satellite satellite = entry.getKey();
+			try {
+				satellite.pendingProbe.get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				satellite.failed(entry.getValue(), timeout, "Probe timed out after " + timeout + " ms.");
+			} catch (InterruptedException e) {
+				// the outcome of the pending probes is not known
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				satellite.failed(entry.getValue(), 0L, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Describes the degraded satellites of the given replica group.
+	 * 
+	 * @param group
+	 *            name of the replica group, <code>null</code> for all
+	 *            satellites
+	 * @return a description of the degraded satellites, or <code>null</code>
+	 *         if all satellites are healthy
+	 */
+	public String getDegradation(String group) {
+		StringBuilder builder = null;
+		for (Satellite satellite : getSatellites()) {
+			if ((group == null || group.equals(satellite.group)) && !satellite.health.isHealthy()) {
+				builder = builder == null ? new StringBuilder() : builder.append(", ");
+				builder.append(satellite.getKey());
+				if (satellite.health.getErrorMessage() != null) {
+					builder.append(" (").append(satellite.health.getErrorMessage()).append(')');
+				}
+			}
+		}
+		return builder == null ? null : builder.toString();
+	}
+
+	/**
+	 * Waits until the degraded satellites of the given replica group have
+	 * recovered.
+	 * 
+	 * @param group
+	 *            name of the replica group, <code>null</code> for all
+	 *            satellites
+	 * @param timeout
+	 *            maximal time to wait in [ms]
+	 * @return a description of the satellites still degraded after the
+	 *         timeout or when the waiting thread is interrupted, or
+	 *         <code>null</code> if all satellites are healthy
+	 */
+	public String awaitHealthy(String group, long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+		String degradation = getDegradation(group);
+		while (degradation != null && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(Math.min(SECOND, Math.max(1L, deadline - System.currentTimeMillis())));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return degradation;
+			}
+			degradation = getDegradation(group);
+		}
+		return degradation;
+	}
+
+	private List<Satellite> getSatellites() {
+		synchronized (satellites) {
+			return new ArrayList<>(satellites);
+		}
+	}
+
+	private int getNumDegradedSatellites() {
+		int count = 0;
+		for (Satellite satellite : getSatellites()) {
+			if (!satellite.health.isHealthy()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private long getMaxClockDrift() {
+		long maxDrift = 0L;
+		for (Satellite satellite : getSatellites()) {
+			Long drift = satellite.health.getClockDrift();
+			if (drift != null) {
+				maxDrift = Math.max(maxDrift, Math.abs(drift));
+			}
+		}
+		return maxDrift;
+	}
+
+	/**
+	 * A monitored satellite. Each probe carries a generation; only the first
+	 * outcome reported for the current generation is applied.
+	 */
+	private static final class Satellite {
+		private final String group;
+		private final AbstractSpotterSatelliteExtension extension;
+		private final IMeasurementAdapter clockSource;
+		private volatile SatelliteHealth health;
+		private volatile Future<?> pendingProbe;
+		private long generation = 0L;
+
+		private Satellite(String group, AbstractSpotterSatelliteExtension extension, IMeasurementAdapter clockSource,
+				SatelliteHealth health) {
+			this.group = group;
+			this.extension = extension;
+			this.clockSource = clockSource;
+			this.health = health;
+		}
+
+		private String getKey() {
+			return health.getName() + "@" + health.getHost() + ":" + health.getPort();
+		}
+
+		private synchronized long nextGeneration() {
+			return ++generation;
+		}
+
+		private Runnable createProbe(final long probeGeneration) {
+			return new Runnable() {
+				@Override
+				public void run() {
+					probe(probeGeneration);
+				}
+			};
+		}
+
+		private void probe(long probeGeneration) {
+			long start = System.nanoTime();
+			boolean connected = extension.testConnection(health.getHost(), health.getPort());
+			long latency = (System.nanoTime() - start) / NANOS_PER_MILLI;
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.SATELLITE_PROBE_DURATION,
+					System.nanoTime() - start, "satellite", getKey());
+			if (!connected) {
+				failed(probeGeneration, latency, "Satellite is not reachable.");
+				return;
+			}
+
+			long maxLatency = GlobalConfiguration.getInstance().getPropertyAsLong(
+					ConfigKeys.SATELLITE_HEALTH_MAX_LATENCY, ConfigKeys.DEFAULT_SATELLITE_HEALTH_MAX_LATENCY);
+			if (maxLatency > 0 && latency > maxLatency) {
+				failed(probeGeneration, latency, "Latency of " + latency + " ms exceeds " + maxLatency + " ms.");
+				return;
+			}
+
+			Long clockDrift = null;
+			if (clockSource != null) {
+				long requestStart = System.currentTimeMillis();
+				long satelliteTime = clockSource.getCurrentTime();
+				long requestEnd = System.currentTimeMillis();
+				clockDrift = satelliteTime - (requestStart + (requestEnd - requestStart) / TWO);
+			}
+			succeeded(probeGeneration, latency, clockDrift);
+		}
+
+		/**
+		 * Consumes the given probe generation.
+		 * 
+		 * @return false if an outcome of that probe has already been applied
+		 */
+		private boolean consume(long probeGeneration) {
+			if (probeGeneration != generation) {
+				return false;
+			}
+			generation++;
+			return true;
+		}
+
+		private synchronized void succeeded(long probeGeneration, long latency, Long clockDrift) {
+			if (consume(probeGeneration)) {
+				update(latency, clockDrift, 0, null);
+			}
+		}
+
+		private synchronized void failed(long probeGeneration, long latency, String errorMessage) {
+			if (consume(probeGeneration)) {
+				recordFailure(latency, errorMessage);
+			}
+		}
+
+		private synchronized void recordFailure(long latency, String errorMessage) {
+			MetricsRegistry.getInstance().incrementCounter(MetricsRegistry.SATELLITE_PROBE_FAILURES, 1L,
+					"satellite", getKey());
+			update(latency, health.getClockDrift(), health.getConsecutiveFailures() + 1, errorMessage);
+		}
+
+		private synchronized void update(long latency, Long clockDrift, int consecutiveFailures,
+				String errorMessage) {
+			int maxFailedProbes = GlobalConfiguration.getInstance().getPropertyAsInteger(
+					ConfigKeys.SATELLITE_HEALTH_MAX_FAILED_PROBES, ConfigKeys.DEFAULT_SATELLITE_HEALTH_MAX_FAILED_PROBES);
+			boolean wasHealthy = health.isHealthy();
+
+			// progress readers must never see a partially updated state
+			SatelliteHealth newHealth = new SatelliteHealth(health.getName(), health.getHost(), health.getPort());
+			newHealth.setLatency(latency);
+			newHealth.setClockDrift(clockDrift);
+			newHealth.setConsecutiveFailures(consecutiveFailures);
+			newHealth.setErrorMessage(errorMessage);
+			newHealth.setLastProbeTimestamp(System.currentTimeMillis());
+			newHealth.setHealthy(consecutiveFailures < Math.max(1, maxFailedProbes));
+			health = newHealth;
+			ProgressManager.getInstance().getSpotterProgress().getSatelliteHealth().put(getKey(), newHealth);
+
+			if (wasHealthy && !newHealth.isHealthy()) {
+				LOGGER.warn("Satellite {} degraded: {}", getKey(), errorMessage);
+			} else if (!wasHealthy && newHealth.isHealthy()) {
+				LOGGER.info("Satellite {} recovered.", getKey());
+			}
+		}
+	}
+}
@@ -19,7 +19,20 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBException;
 
 import org.aim.api.exceptions.InstrumentationException;
 import org.aim.api.exceptions.MeasurementException;
@@ -28,6 +41,7 @@ import org.lpe.common.util.LpeFileUtils;
 import org.lpe.common.util.LpeNumericUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.spotter.core.chartbuilder.ChartRenderingExecutor;
 import org.spotter.core.config.interpretation.HierarchyFactory;
 import org.spotter.core.config.interpretation.HierarchyModelInterpreter;
 import org.spotter.core.config.interpretation.MeasurementEnvironmentFactory;
@@ -36,20 +50,27 @@ import org.spotter.core.detection.AbstractDetectionController;
 import org.spotter.core.detection.IDetectionController;
 import org.spotter.core.instrumentation.IInstrumentationAdapter;
 import org.spotter.core.instrumentation.InstrumentationBroker;
+import org.spotter.core.instrumentation.OverheadCalibration;
 import org.spotter.core.measurement.IMeasurementAdapter;
 import org.spotter.core.measurement.MeasurementBroker;
+import org.spotter.core.metrics.MetricsRegistry;
 import org.spotter.core.result.ResultBlackboard;
+import org.spotter.core.result.ResultCache;
+import org.spotter.core.result.RunJournal;
 import org.spotter.core.workload.IWorkloadAdapter;
 import org.spotter.core.workload.WorkloadAdapterBroker;
 import org.spotter.exceptions.WorkloadException;
 import org.spotter.shared.configuration.ConfigCheck;
 import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XInstrumentationOverhead;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
 import org.spotter.shared.hierarchy.model.XPerformanceProblem;
 import org.spotter.shared.result.ResultsLocationConstants;
 import org.spotter.shared.result.model.ResultsContainer;
 import org.spotter.shared.result.model.SpotterResult;
 import org.spotter.shared.status.DiagnosisStatus;
 import org.spotter.shared.status.SpotterProgress;
+import org.spotter.shared.util.JAXBUtil;
 
 /**
  * Main Controller for Performance Problem Diagnostics.
@@ -61,10 +82,14 @@ public final class Spotter {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(Spotter.class);
 
+	private static final String PRIMARY_REPLICA_NAME = "primary";
+
 	private static Spotter instance;
 
 	private ResultsContainer resultsContainer;
 	private String diagnosisResultFolder;
+	private List<ReplicaGroup> replicaGroups = new ArrayList<>();
+	private MetricsRegistry.Snapshot metricsBaseline;
 
 	/**
 	 * 
@@ -120,36 +145,70 @@ public final class Spotter {
 	 */
 	public synchronized void startDiagnosis(String configurationFile, long timestamp) throws InstrumentationException,
 			MeasurementException, WorkloadException {
+		runDiagnosis(configurationFile, timestamp, false);
+	}
+
+	/**
+	 * Resumes an interrupted diagnosis run. Problems analyzed before the
+	 * interruption are not examined again, stored experiment data is reused.
+	 * The configuration file and timestamp have to be the same as for the
+	 * interrupted run.
+	 * 
+	 * @param configurationFile
+	 *            path to the configuration file of the interrupted run
+	 * @param timestamp
+	 *            timestamp of the interrupted run
+	 * @throws WorkloadException
+	 *             if workload generation fails
+	 * @throws MeasurementException
+	 *             if retrieving measurement data fails
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 */
+	public synchronized void resumeDiagnosis(String configurationFile, long timestamp)
+			throws InstrumentationException, MeasurementException, WorkloadException {
+		runDiagnosis(configurationFile, timestamp, true);
+	}
+
+	private void runDiagnosis(String configurationFile, long timestamp, boolean resume)
+			throws InstrumentationException, MeasurementException, WorkloadException {
 
 		resultsContainer = new ResultsContainer();
+		// the registry is cumulative over all runs of this process
+		metricsBaseline = MetricsRegistry.getInstance().snapshot();
 		GlobalConfiguration.reinitialize(configurationFile);
 		try {
 			GlobalConfiguration.getInstance().putProperty(ConfigKeys.PPD_RUN_TIMESTAMP, String.valueOf(timestamp));
 			ConfigCheck.checkConfiguration();
 			diagnosisResultFolder = GlobalConfiguration.getInstance().getProperty(ConfigKeys.RESULT_DIR);
+			replicaGroups = new ArrayList<>();
+			SatelliteHealthMonitor.getInstance().reset();
 			if (!GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.OMIT_EXPERIMENTS, false)) {
 				initializeMeasurementEnvironment();
 			}
-			PerformanceProblem problem = retrieveRootPerformanceProblem(resultsContainer);
-			HierarchyModelInterpreter hierarchyModelInterpreter = new HierarchyModelInterpreter(problem);
-			problem = hierarchyModelInterpreter.next();
+			for (ReplicaGroup replicaGroup : replicaGroups) {
+				SatelliteHealthMonitor.getInstance().addSatellites(replicaGroup);
+			}
+			initInstrumentationOverhead();
+			PerformanceProblem rootProblem = retrieveRootPerformanceProblem(resultsContainer);
+			ResultBlackboard.getInstance().reset();
+			HierarchyModelInterpreter hierarchyModelInterpreter;
+			if (resume) {
+				hierarchyModelInterpreter = restoreInterruptedRun(rootProblem);
+			} else {
+				RunJournal.start(diagnosisResultFolder);
+				hierarchyModelInterpreter = new HierarchyModelInterpreter(rootProblem);
+			}
+			ResultCache.open(diagnosisResultFolder, rootProblem);
 			AbstractDetectionController.sutWarmedUp = false;
 			ProgressManager.getInstance().reset();
+			ChartRenderingExecutor.getInstance().reset();
 			ProgressManager.getInstance().start();
-
-			while (problem != null) {
-				IDetectionController detectionController = problem.getDetectionController();
-				ProgressManager.getInstance().setController((AbstractDetectionController) detectionController);
-				SpotterResult result = detectionController.analyzeProblem();
-				if (result.isDetected()) {
-					ProgressManager.getInstance().updateProgressStatus(problem.getUniqueId(), DiagnosisStatus.DETECTED);
-				} else {
-					ProgressManager.getInstance().updateProgressStatus(problem.getUniqueId(),
-							DiagnosisStatus.NOT_DETECTED);
-				}
-
-				ResultBlackboard.getInstance().putResult(problem, result);
-				problem = hierarchyModelInterpreter.next();
+			SatelliteHealthMonitor.getInstance().start();
+			if (replicaGroups.size() > 1) {
+				examineProblemsConcurrently(hierarchyModelInterpreter);
+			} else {
+				examineProblems(hierarchyModelInterpreter);
 			}
 
 			long durationMillis = ((System.currentTimeMillis() - timestamp));
@@ -157,12 +216,215 @@ public final class Spotter {
 			String report = printResults(durationMillis);
 			resultsContainer.setReport(report);
 			serializeResults(resultsContainer);
+			RunJournal.finish();
 		} finally {
+			SatelliteHealthMonitor.getInstance().stop();
 			ProgressManager.getInstance().stop();
 			ResultBlackboard.getInstance().reset();
 			resultsContainer.reset();
+			// the journal of a failed run remains for resumption
+			RunJournal.close();
+			ResultCache.close();
+			storeMetrics();
+			storeTimeline();
+		}
+
+	}
+
+	/**
+	 * Examines the problems one after another.
+	 * 
+	 * @param hierarchyModelInterpreter
+	 *            interpreter providing the problems to examine
+	 */
+	private void examineProblems(HierarchyModelInterpreter hierarchyModelInterpreter)
+			throws InstrumentationException, MeasurementException, WorkloadException {
+		PerformanceProblem problem = hierarchyModelInterpreter.next();
+
+		while (problem != null) {
+			IDetectionController detectionController = problem.getDetectionController();
+			ProgressManager.getInstance().setController((AbstractDetectionController) detectionController);
+			SpotterResult result = detectionController.analyzeProblem();
+			completeProblem(problem, result);
+			RunJournal.getInstance().problemCompleted(ResultBlackboard.getInstance(),
+					hierarchyModelInterpreter.getPendingProblems(), problem);
+			problem = hierarchyModelInterpreter.next();
+		}
+	}
+
+	/**
+	 * Examines independent problems concurrently. Each problem is bound to an
+	 * idle replica group and runs its experiments on the satellites of that
+	 * replica. If the examination of a problem fails, the problems still
+	 * running are cancelled cooperatively and their replicas are cleaned up
+	 * before the failure is propagated.
+	 * 
+	 * @param hierarchyModelInterpreter
+	 *            interpreter providing the problems to examine
+	 */
+	private void examineProblemsConcurrently(HierarchyModelInterpreter hierarchyModelInterpreter)
+			throws InstrumentationException, MeasurementException, WorkloadException {
+		LOGGER.info("Examining problems concurrently on {} replica groups.", replicaGroups.size());
+		ExecutorService executor = Executors.newFixedThreadPool(replicaGroups.size());
+		ExecutorCompletionService<SpotterResult> completionService = new ExecutorCompletionService<>(executor);
+		LinkedList<ReplicaGroup> idleReplicas = new LinkedList<>(replicaGroups);
+		Map<Future<SpotterResult>, PerformanceProblem> runningProblems = new HashMap<>();
+		Map<Future<SpotterResult>, ReplicaGroup> busyReplicas = new HashMap<>();
+		Map<Future<SpotterResult>, AbstractDetectionController> runningControllers = new HashMap<>();
+		if (hierarchyModelInterpreter.getCurrentProblem() != null) {
+			// resumed from a run which examined the problems sequentially
+			hierarchyModelInterpreter.problemCompleted(hierarchyModelInterpreter.getCurrentProblem());
+		}
+
+		try {
+			while (true) {
+				PerformanceProblem problem = idleReplicas.isEmpty() ? null : hierarchyModelInterpreter.poll();
+				while (problem != null) {
+					final AbstractDetectionController detectionController = (AbstractDetectionController) problem
+							.getDetectionController();
+					ReplicaGroup replica = idleReplicas.poll();
+					detectionController.setReplicaGroup(replica);
+					ProgressManager.getInstance().addController(detectionController);
+					LOGGER.info("Examining {} on replica group {}.", problem.getUniqueId(), replica.getName());
+
+					Future<SpotterResult> future = completionService.submit(new Callable<SpotterResult>() {
+						@Override
+						public SpotterResult call() throws Exception {
+							return detectionController.analyzeProblem();
+						}
+					});
+					runningProblems.put(future, problem);
+					busyReplicas.put(future, replica);
+					runningControllers.put(future, detectionController);
+					problem = idleReplicas.isEmpty() ? null : hierarchyModelInterpreter.poll();
+				}
+
+				if (runningProblems.isEmpty()) {
+					break;
+				}
+
+				Future<SpotterResult> completed = completionService.take();
+				problem = runningProblems.remove(completed);
+				idleReplicas.offer(busyReplicas.remove(completed));
+				runningControllers.remove(completed);
+				ProgressManager.getInstance().removeController(problem.getUniqueId());
+				completeProblem(problem, getResult(completed));
+				hierarchyModelInterpreter.problemCompleted(problem);
+
+				// problems still running have to be examined again after an
+				// interruption
+				List<PerformanceProblem> pendingProblems = new ArrayList<>(runningProblems.values());
+				pendingProblems.addAll(hierarchyModelInterpreter.getPendingProblems());
+				RunJournal.getInstance().problemCompleted(ResultBlackboard.getInstance(), pendingProblems, null);
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException("Interrupted while examining problems!", e);
+		} finally {
+			if (!runningControllers.isEmpty()) {
+				cancelReplicas(runningControllers);
+			}
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Cancels the examination of the problems still running after another
+	 * problem failed. The controllers complete their current experiment and
+	 * uninstrument their replica; afterwards, the load on each replica group
+	 * is stopped. Failures during the clean-up are logged only in
+	 * order to not hide the original failure.
+	 */
+	private void cancelReplicas(Map<Future<SpotterResult>, AbstractDetectionController> runningControllers) {
+		LOGGER.warn("Cancelling the examination of {} running problems ...", runningControllers.size());
+		for (AbstractDetectionController controller : runningControllers.values()) {
+			controller.cancel();
+		}
+		for (Entry<Future<SpotterResult>, AbstractDetectionController> entry : runningControllers.entrySet()) {
+			try {
+				entry.getKey().get();
+			} catch (ExecutionException e) {
+				LOGGER.info("Examination of {} stopped: {}", entry.getValue().getProblemId(), e.getCause()
+						.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				LOGGER.warn("Interrupted while waiting for cancelled problems!");
+				return;
+			}
+			ProgressManager.getInstance().removeController(entry.getValue().getProblemId());
+		}
+		for (ReplicaGroup replica : replicaGroups) {
+			try {
+				replica.getWorkloadBroker().abortLoad();
+			} catch (WorkloadException | RuntimeException e) {
+				LOGGER.warn("Failed stopping the load on replica group {}: {}", replica.getName(), e.getMessage());
+			}
+		}
+	}
+
+	private static SpotterResult getResult(Future<SpotterResult> future) throws InstrumentationException,
+			MeasurementException, WorkloadException, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InstrumentationException) {
+				throw (InstrumentationException) cause;
+			} else if (cause instanceof MeasurementException) {
+				throw (MeasurementException) cause;
+			} else if (cause instanceof WorkloadException) {
+				throw (WorkloadException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	private void completeProblem(PerformanceProblem problem, SpotterResult result) {
+		if (result.isDetected()) {
+			ProgressManager.getInstance().updateProgressStatus(problem.getUniqueId(), DiagnosisStatus.DETECTED);
+		} else {
+			ProgressManager.getInstance().updateProgressStatus(problem.getUniqueId(), DiagnosisStatus.NOT_DETECTED);
 		}
 
+		ResultBlackboard.getInstance().putResult(problem, result);
+		ResultCache.getInstance().store(problem, result);
+	}
+
+	/**
+	 * Restores the results and the hierarchy traversal state of an
+	 * interrupted run from its journal.
+	 * 
+	 * @param rootProblem
+	 *            root of the problem hierarchy
+	 * @return interpreter continuing the traversal of the interrupted run
+	 */
+	private HierarchyModelInterpreter restoreInterruptedRun(PerformanceProblem rootProblem) {
+		RunJournal journal;
+		try {
+			journal = RunJournal.resume(diagnosisResultFolder);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot resume diagnosis: " + e.getMessage(), e);
+		}
+
+		Map<String, PerformanceProblem> problems = new HashMap<>();
+		for (PerformanceProblem problem : rootProblem.getAllDEscendingProblems()) {
+			problems.put(problem.getUniqueId(), problem);
+		}
+		for (Entry<String, SpotterResult> entry : journal.getResults().entrySet()) {
+			PerformanceProblem problem = problems.get(entry.getKey());
+			if (problem == null) {
+				throw new IllegalStateException("Cannot resume diagnosis: the problem hierarchy has changed!");
+			}
+			ResultBlackboard.getInstance().putResult(problem, entry.getValue());
+		}
+		LOGGER.info("Resuming diagnosis run in {} after {} completed problems.", diagnosisResultFolder, journal
+				.getResults().size());
+
+		if (!journal.hasCompletedProblems()) {
+			return new HierarchyModelInterpreter(rootProblem);
+		}
+		return new HierarchyModelInterpreter(rootProblem, journal.getPendingProblems(), journal.getCurrentProblem());
 	}
 
 	/**
@@ -238,6 +500,37 @@ public final class Spotter {
 		}
 	}
 
+	/**
+	 * Writes the metrics of DynamicSpotter recorded during this run to the
+	 * result folder.
+	 */
+	private void storeMetrics() {
+		if (diagnosisResultFolder == null || !new File(diagnosisResultFolder).exists()) {
+			return;
+		}
+		String outputFile = diagnosisResultFolder + ResultsLocationConstants.METRICS_FILE_NAME;
+		try {
+			MetricsRegistry.getInstance().writeTo(outputFile, metricsBaseline);
+		} catch (IOException e) {
+			LOGGER.error("Failed writing metrics to file {}! Cause: {}", outputFile, e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the phase timeline of the run to the result folder.
+	 */
+	private void storeTimeline() {
+		if (diagnosisResultFolder == null || !new File(diagnosisResultFolder).exists()) {
+			return;
+		}
+		String outputFile = diagnosisResultFolder + ResultsLocationConstants.TIMELINE_TRACE_FILE_NAME;
+		try {
+			ProgressManager.getInstance().getTimeline().writeChromeTrace(outputFile);
+		} catch (IOException e) {
+			LOGGER.error("Failed writing phase timeline to file {}! Cause: {}", outputFile, e.getMessage());
+		}
+	}
+
 	/**
 	 * @return the progress
 	 */
@@ -271,6 +564,60 @@ public final class Spotter {
 			initMeasurementController();
 
 			initWorkloadAdapter();
+
+			initReplicaGroups();
+		}
+	}
+
+	/**
+	 * Provides the calibrated instrumentation overhead for compensation of the
+	 * experiment data. The calibration is executed only if the measurement
+	 * environment description does not contain a valid calibration yet. A new
+	 * calibration is stored in the measurement environment description. The
+	 * overhead of a previous run is not compensated in the current run.
+	 */
+	private void initInstrumentationOverhead() throws InstrumentationException, MeasurementException,
+			WorkloadException {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.INSTRUMENTATION_PROBE_OVERHEAD, "0.0");
+		if (!GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.INSTRUMENTATION_OVERHEAD_COMPENSATION,
+				false)) {
+			return;
+		}
+		String measurementEnvironmentFile = GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.MEASUREMENT_ENVIRONMENT_FILE);
+		XMeasurementEnvironment environment = MeasurementEnvironmentFactory.getInstance().parseXMLFile(
+				measurementEnvironmentFile);
+		String environmentKey = OverheadCalibration.getEnvironmentKey(environment);
+		XInstrumentationOverhead overhead = environment.getInstrumentationOverhead();
+
+		if (overhead == null || !environmentKey.equals(overhead.getEnvironmentKey())) {
+			if (replicaGroups.isEmpty()) {
+				LOGGER.warn("No valid instrumentation overhead calibration available, overhead is not compensated!");
+				return;
+			}
+			overhead = new OverheadCalibration(replicaGroups.get(0)).calibrate();
+			overhead.setEnvironmentKey(environmentKey);
+			environment.setInstrumentationOverhead(overhead);
+			try {
+				JAXBUtil.writeElementToFile(new File(measurementEnvironmentFile), environment);
+			} catch (JAXBException e) {
+				LOGGER.warn("Failed storing instrumentation overhead calibration: {}", e.getMessage());
+			}
+		}
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.INSTRUMENTATION_PROBE_OVERHEAD,
+				String.valueOf(overhead.getProbeOverhead()));
+	}
+
+	private void initReplicaGroups() throws InstrumentationException, MeasurementException, WorkloadException {
+		String measurementEnvironmentFile = GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.MEASUREMENT_ENVIRONMENT_FILE);
+		replicaGroups = new ArrayList<>();
+		replicaGroups.add(new ReplicaGroup(PRIMARY_REPLICA_NAME, InstrumentationBroker.getInstance(),
+				MeasurementBroker.getInstance(), WorkloadAdapterBroker.getInstance()));
+		for (ReplicaGroup replicaGroup : MeasurementEnvironmentFactory.getInstance().createReplicaGroups(
+				measurementEnvironmentFile)) {
+			replicaGroup.initialize();
+			replicaGroups.add(replicaGroup);
 		}
 	}
 
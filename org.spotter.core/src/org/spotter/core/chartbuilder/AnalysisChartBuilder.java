@@ -15,12 +15,20 @@
  */
 package org.spotter.core.chartbuilder;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeFileUtils;
+import org.lpe.common.util.LpeNumericUtils;
 import org.lpe.common.util.NumericPair;
 import org.lpe.common.util.NumericPairList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spotter.shared.configuration.ConfigKeys;
 
 /**
@@ -30,6 +38,7 @@ import org.spotter.shared.configuration.ConfigKeys;
  * 
  */
 public abstract class AnalysisChartBuilder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisChartBuilder.class);
 	protected static final double _100_PERCENT = 100.0;
 	protected static final int IMAGE_WIDTH = 800;
 	protected static final int IMAGE_HEIGHT = 500;
@@ -43,6 +52,20 @@ public abstract class AnalysisChartBuilder {
 	protected String yLabel = "";
 	protected double xScale = 1.0;
 	protected double yScale = 1.0;
+	protected final int targetResolution;
+	protected final boolean exportRawData;
+	private final List<NumericPairList<? extends Number, ? extends Number>> rawSeries = new ArrayList<>();
+	private volatile Future<?> pendingBuild;
+
+	/**
+	 * Constructor.
+	 */
+	public AnalysisChartBuilder() {
+		targetResolution = GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.CHART_TARGET_RESOLUTION, ConfigKeys.DEFAULT_CHART_TARGET_RESOLUTION);
+		exportRawData = GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.CHART_EXPORT_RAW_DATA,
+				false);
+	}
 
 	abstract public void startChart(String title, String xLabel, String yLabel);
 
@@ -56,7 +79,29 @@ public abstract class AnalysisChartBuilder {
 	abstract public void addUtilizationLineSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, boolean scale);
 
-	abstract public void addScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
+	/**
+	 * Adds a scatter series. Large series are reduced by density binning
+	 * before rendering.
+	 * 
+	 * @param valuePairs
+	 *            series to add
+	 * @param seriesTitle
+	 *            title of the series
+	 */
+	public void addScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
+		addReducedScatterSeries(downsampleScatterSeries(valuePairs), seriesTitle);
+	}
+
+	/**
+	 * Adds a scatter series which is not downsampled anymore, e.g. because it
+	 * has already been reduced to an envelope.
+	 * 
+	 * @param valuePairs
+	 *            series to add
+	 * @param seriesTitle
+	 *            title of the series
+	 */
+	abstract protected void addReducedScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle);
 
 	abstract public void addScatterSeriesWithLine(NumericPairList<? extends Number, ? extends Number> valuePairs,
@@ -92,12 +137,56 @@ public abstract class AnalysisChartBuilder {
 		yMax = yMax < tmpYMax ? tmpYMax : yMax;
 	}
 
+	/**
+	 * Indicates whether charts of this builder may be rendered in parallel to
+	 * other charts on a separate thread.
+	 * 
+	 * @return true, if concurrent rendering is supported
+	 */
+	public boolean supportsConcurrentRendering() {
+		return true;
+	}
+
+	/**
+	 * Registers an asynchronous build of this chart.
+	 * 
+	 * @param pendingBuild
+	 *            future of the rendering task
+	 */
+	void setPendingBuild(Future<?> pendingBuild) {
+		this.pendingBuild = pendingBuild;
+	}
+
+	/**
+	 * Waits until a pending asynchronous build of this chart has finished. Has
+	 * to be called before this builder is reused for a new chart.
+	 */
+	protected void awaitPendingBuild() {
+		Future<?> build = pendingBuild;
+		if (build != null) {
+			try {
+				build.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while rendering chart!", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Rendering chart failed!", e);
+			} finally {
+				pendingBuild = null;
+			}
+		}
+	}
+
 	public static AnalysisChartBuilder getChartBuilder() {
 		String builderStr = GlobalConfiguration.getInstance().getProperty(ConfigKeys.CHART_BUILDER_KEY,
 				ConfigKeys.CHART_BUILDER_XCHART);
 		switch (builderStr) {
 		case ConfigKeys.CHART_BUILDER_RCHART:
-			return new RChartBuilder();
+			if (RSessionPool.getInstance().isRAvailable()) {
+				return new RChartBuilder();
+			}
+			LOGGER.warn("R is not available, falling back to XChart for rendering charts.");
+			return new XChartBuilder();
 		case ConfigKeys.CHART_BUILDER_XCHART:
 		default:
 			return new XChartBuilder();
@@ -106,8 +195,8 @@ public abstract class AnalysisChartBuilder {
 
 	public double addTimeSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
 		double xScale = getXScale(valuePairs);
-		NumericPairList<Double, Double> scaledPairs = scaleSeriesXAxis(valuePairs, xScale);
-		addScatterSeries(scaledPairs, seriesTitle);
+		NumericPairList<Double, Double> scaledPairs = scaleSeriesXAxis(downsampleTimeSeries(valuePairs), xScale);
+		addReducedScatterSeries(scaledPairs, seriesTitle);
 		return xScale;
 	}
 
@@ -129,8 +218,8 @@ public abstract class AnalysisChartBuilder {
 
 	public void addFixScaledTimeSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, double scale) {
-		NumericPairList<Double, Double> scaledPairs = scaleSeriesXAxis(valuePairs, scale);
-		addScatterSeries(scaledPairs, seriesTitle);
+		NumericPairList<Double, Double> scaledPairs = scaleSeriesXAxis(downsampleTimeSeries(valuePairs), scale);
+		addReducedScatterSeries(scaledPairs, seriesTitle);
 	}
 
 	public void addFixScaledTimeSeriesWithErrorBars(NumericPairList<? extends Number, ? extends Number> valuePairs,
@@ -145,6 +234,110 @@ public abstract class AnalysisChartBuilder {
 		addLineSeries(scaledPairs, seriesTitle);
 	}
 
+	/**
+	 * Reduces a line series to {@link #targetResolution} points (LTTB).
+	 * 
+	 * @param valuePairs
+	 *            series to reduce
+	 * @return the reduced series, or the original series if no reduction is
+	 *         required
+	 */
+	protected NumericPairList<? extends Number, ? extends Number> downsampleLineSeries(
+			NumericPairList<? extends Number, ? extends Number> valuePairs) {
+		if (!requiresDownsampling(valuePairs, targetResolution)) {
+			return valuePairs;
+		}
+		rememberRawSeries(valuePairs);
+		return SeriesDownsampler.largestTriangleThreeBuckets(valuePairs, targetResolution);
+	}
+
+	/**
+	 * Reduces a scatter series by density binning on a grid matching the
+	 * target resolution.
+	 * 
+	 * @param valuePairs
+	 *            series to reduce
+	 * @return the reduced series, or the original series if no reduction is
+	 *         required
+	 */
+	protected NumericPairList<? extends Number, ? extends Number> downsampleScatterSeries(
+			NumericPairList<? extends Number, ? extends Number> valuePairs) {
+		if (!requiresDownsampling(valuePairs, targetResolution)) {
+			return valuePairs;
+		}
+		rememberRawSeries(valuePairs);
+		int yResolution = Math.max(1, targetResolution * IMAGE_HEIGHT / IMAGE_WIDTH);
+		return SeriesDownsampler.densityBinning(valuePairs, targetResolution, yResolution);
+	}
+
+	/**
+	 * Reduces a time series to a percentile envelope with one bucket per
+	 * target resolution unit.
+	 * 
+	 * @param valuePairs
+	 *            series to reduce
+	 * @return the reduced series, or the original series if no reduction is
+	 *         required
+	 */
+	protected NumericPairList<? extends Number, ? extends Number> downsampleTimeSeries(
+			NumericPairList<? extends Number, ? extends Number> valuePairs) {
+		if (!requiresDownsampling(valuePairs, targetResolution)) {
+			return valuePairs;
+		}
+		rememberRawSeries(valuePairs);
+		return SeriesDownsampler.percentileEnvelope(valuePairs, targetResolution);
+	}
+
+	private boolean requiresDownsampling(NumericPairList<? extends Number, ? extends Number> valuePairs,
+			int threshold) {
+		if (threshold <= 0) {
+			return false;
+		}
+		int size = 0;
+		for (@SuppressWarnings("unused")
+		NumericPair<? extends Number, ? extends Number> pair : valuePairs) {
+			size++;
+			if (size > threshold) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void rememberRawSeries(NumericPairList<? extends Number, ? extends Number> valuePairs) {
+		if (exportRawData) {
+			rawSeries.add(valuePairs);
+		}
+	}
+
+	/**
+	 * Exports the original data of all downsampled series as CSV files to the
+	 * chartData folder next to the target file, if raw data export is enabled.
+	 * 
+	 * @param targetFile
+	 *            file the chart is rendered to
+	 */
+	protected void exportRawSeries(String targetFile) {
+		if (!exportRawData || rawSeries.isEmpty()) {
+			return;
+		}
+		File file = new File(targetFile);
+		String fileName = file.getName();
+		if (fileName.contains(".")) {
+			fileName = fileName.substring(0, fileName.lastIndexOf("."));
+		}
+		String targetDir = LpeFileUtils.concatFileName(file.getParent(), "chartData");
+		targetDir = LpeFileUtils.concatFileName(targetDir, fileName);
+		LpeFileUtils.createDir(targetDir);
+		int i = 1;
+		for (NumericPairList<? extends Number, ? extends Number> series : rawSeries) {
+			LpeNumericUtils.exportAsCSV(series, LpeFileUtils.concatFileName(targetDir, "raw-data-" + i + ".csv"),
+					"Col1", "Col2");
+			i++;
+		}
+		rawSeries.clear();
+	}
+
 	protected double getXScale(NumericPairList<? extends Number, ? extends Number> valuePairs) {
 		double maxTime = valuePairs.getKeyMax().doubleValue();
 		return getScale(maxTime);
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.chartbuilder;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.lpe.common.config.GlobalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.metrics.MetricsRegistry;
+import org.spotter.shared.configuration.ConfigKeys;
+
+/**
+ * Renders charts asynchronously with a bounded number of rendering threads.
+ * Additionally, this executor enforces the per-run limits for the number of
+ * charts and the accumulated size of rendered chart files. The size limit is
+ * checked before a chart is submitted. As the size of a chart is known only
+ * after rendering, the size of each pending chart is estimated by the mean
+ * size of the charts rendered so far. Hence, the size limit is a soft limit
+ * which may be exceeded by the charts pending when the limit is reached.
+ */
+public final class ChartRenderingExecutor {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChartRenderingExecutor.class);
+	private static final long MEGABYTE = 1024L * 1024L;
+
+	private static ChartRenderingExecutor instance;
+
+	/**
+	 *
+	 * @return singleton instance
+	 */
+	public static synchronized ChartRenderingExecutor getInstance() {
+		if (instance == null) {
+			instance = new ChartRenderingExecutor();
+		}
+		return instance;
+	}
+
+	private ThreadPoolExecutor executor;
+	private int numThreads;
+	private final AtomicInteger chartCount = new AtomicInteger(0);
+	private final AtomicLong renderedBytes = new AtomicLong(0L);
+	private final AtomicInteger renderedCount = new AtomicInteger(0);
+	private final AtomicLong reservedBytes = new AtomicLong(0L);
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private ChartRenderingExecutor() {
+		MetricsRegistry.getInstance().registerGauge(MetricsRegistry.CHART_RENDERING_QUEUE_DEPTH,
+				new MetricsRegistry.Gauge() {
+					@Override
+					public double getValue() {
+						return getQueueDepth();
+					}
+				});
+	}
+
+	private synchronized int getQueueDepth() {
+		return executor == null ? 0 : executor.getQueue().size();
+	}
+
+	/**
+	 * Resets the per-run chart limits. Has to be called at the beginning of
+	 * each diagnosis run.
+	 */
+	public synchronized void reset() {
+		chartCount.set(0);
+		renderedBytes.set(0L);
+		renderedCount.set(0);
+		reservedBytes.set(0L);
+	}
+
+	/**
+	 * Submits the given chart for rendering into the given file. If the chart
+	 * builder does not support concurrent rendering, the chart is rendered
+	 * synchronously and an already completed future is returned.
+	 *
+	 * @param chartBuilder
+	 *            chart to render
+	 * @param targetFile
+	 *            file to render the chart to
+	 * @return future of the rendering task, or <code>null</code> if the chart
+	 *         has been rejected due to the per-run limits
+	 */
+	public Future<?> submit(final AnalysisChartBuilder chartBuilder, final String targetFile) {
+		final long estimatedBytes = acquireChartSlot(targetFile);
+		if (estimatedBytes < 0) {
+			return null;
+		}
+
+		Runnable renderTask = new Runnable() {
+			@Override
+			public void run() {
+				long start = System.nanoTime();
+				try {
+					chartBuilder.build(targetFile);
+					MetricsRegistry.getInstance().recordDuration(MetricsRegistry.CHART_RENDERING_DURATION,
+							System.nanoTime() - start);
+					renderedBytes.addAndGet(new File(targetFile).length());
+					renderedCount.incrementAndGet();
+				} finally {
+					reservedBytes.addAndGet(-estimatedBytes);
+				}
+			}
+		};
+
+		if (!chartBuilder.supportsConcurrentRendering()) {
+			FutureTask<Void> synchronousTask = new FutureTask<Void>(renderTask, null);
+			synchronousTask.run();
+			return synchronousTask;
+		}
+		Future<?> future = getExecutor().submit(renderTask);
+		chartBuilder.setPendingBuild(future);
+		return future;
+	}
+
+	/**
+	 * Checks whether the given chart may be rendered with respect to the per
+	 * run limits. The charts pending for rendering are taken into account
+	 * with their estimated size.
+	 *
+	 * @param targetFile
+	 *            file the chart would be rendered to
+	 * @return the estimated size of the chart in [bytes] reserved for
+	 *         rendering, or -1 if the chart has to be skipped
+	 */
+	private synchronized long acquireChartSlot(String targetFile) {
+		int maxCount = GlobalConfiguration.getInstance().getPropertyAsInteger(ConfigKeys.CHART_MAX_COUNT_PER_RUN, 0);
+		long maxSizeMB = GlobalConfiguration.getInstance().getPropertyAsLong(ConfigKeys.CHART_MAX_SIZE_PER_RUN, 0L);
+
+		int rendered = renderedCount.get();
+		long estimatedBytes = rendered == 0 ? 0L : renderedBytes.get() / rendered;
+		if (maxSizeMB > 0
+				&& renderedBytes.get() + reservedBytes.get() + estimatedBytes >= maxSizeMB * MEGABYTE) {
+			LOGGER.warn("Skipping chart {}: size limit of {} MB per run reached!", targetFile, maxSizeMB);
+			return -1L;
+		}
+		int count = chartCount.incrementAndGet();
+		if (maxCount > 0 && count > maxCount) {
+			LOGGER.warn("Skipping chart {}: limit of {} charts per run reached!", targetFile, maxCount);
+			return -1L;
+		}
+		reservedBytes.addAndGet(estimatedBytes);
+		return estimatedBytes;
+	}
+
+	private synchronized ThreadPoolExecutor getExecutor() {
+		int configuredThreads = Math.max(1, GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.CHART_RENDERING_THREADS, ConfigKeys.DEFAULT_CHART_RENDERING_THREADS));
+		if (executor == null || configuredThreads != numThreads) {
+			if (executor != null) {
+				// running tasks complete, the old pool terminates afterwards
+				executor.shutdown();
+			}
+			numThreads = configuredThreads;
+			executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				private final AtomicInteger threadCount = new AtomicInteger(0);
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "chart-renderer-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+}
@@ -1,7 +1,15 @@
 package org.spotter.core.chartbuilder;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -12,11 +20,11 @@ import org.lpe.common.util.LpeFileUtils;
 import org.lpe.common.util.LpeNumericUtils;
 import org.lpe.common.util.NumericPair;
 import org.lpe.common.util.NumericPairList;
-import org.lpe.common.util.system.LpeSystemUtils;
 
 public class RChartBuilder extends AnalysisChartBuilder {
 
 	private static final String DYNAMIC_SPOTTER_DIR = "DynamicSpotter";
+	private static final String[] DATA_VARIABLES = { "xData", "yData", "errors" };
 
 	private static final String EMPTY_PLOT = "plot(c(), c(), main=plotTitle, "
 			+ "xlab=xLabel, ylab=yLabel, type=\"n\",ylim=yRange,xlim=xRange,cex.lab=1.4,cex.axis=1.5)\n";
@@ -28,9 +36,12 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	private int pointCounter = 1;
 	private int lineCounter = 1;
+	private String workDir = null;
+	private final List<DataFile> dataFiles = new ArrayList<>();
 
 	@Override
 	public void startChart(String title, String xLabel, String yLabel) {
+		awaitPendingBuild();
 		this.title = title;
 		this.xLabel = xLabel;
 		this.yLabel = yLabel;
@@ -44,6 +55,7 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	@Override
 	public void startChartWithoutLegend(String title, String xLabel, String yLabel) {
+		awaitPendingBuild();
 		this.title = title;
 		this.xLabel = xLabel;
 		this.yLabel = yLabel;
@@ -51,6 +63,7 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	@Override
 	public void build(String targetFile) {
+		exportRawSeries(targetFile);
 		finishLegend();
 		StringBuilder strBuilder = new StringBuilder();
 		strBuilder.append(getTitlesString());
@@ -69,66 +82,39 @@ public class RChartBuilder extends AnalysisChartBuilder {
 		}
 		strBuilder.append("dev.off()\n");
 		String script = strBuilder.toString();
-		String scriptFile = storeScriptFile(script);
-
-		extractCopy(targetFile.replace(System.getProperty("file.separator"), "/"), script);
-		
-		switch (LpeSystemUtils.getOperatingSystemType()) {
-		case LINUX:
-			break;
-		case MAC:
-			break;
-		case WINDOWS:
-			try {
-				Process p = Runtime.getRuntime().exec("Rscript.exe " + scriptFile);
-				p.waitFor();
-			} catch (IOException | InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			break;
-		default:
-			break;
-
+		try {
+			String scriptFile = storeScriptFile(script);
+			extractCopy(targetFile.replace(System.getProperty("file.separator"), "/"), script);
+			RSessionPool.getInstance().source(scriptFile);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed rendering R chart " + targetFile + "!", e);
+		} finally {
+			cleanUpTmpFiles();
 		}
-		cleanUpTmpFiles();
 	}
 
-	private String storeScriptFile(String script) {
-		String scriptFile = LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR);
-		scriptFile = LpeFileUtils.concatFileName(scriptFile, "chartTmp");
-		scriptFile = LpeFileUtils.concatFileName(scriptFile, "script-" + seriesCounter + ".r");
-		try {
-			FileWriter fWriter = new FileWriter(scriptFile, false);
+	private String storeScriptFile(String script) throws IOException {
+		String scriptFile = LpeFileUtils.concatFileName(getWorkDir(), "script-" + seriesCounter + ".r");
+		try (FileWriter fWriter = new FileWriter(scriptFile, false)) {
 			fWriter.append(script);
-			fWriter.flush();
-
-			fWriter.close();
-		} catch (IOException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
 		}
-		return scriptFile;
+		return scriptFile.replace(System.getProperty("file.separator"), "/");
 	}
 
 	@Override
 	public void addUtilizationScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, boolean scale) {
+		valuePairs = downsampleScatterSeries(valuePairs);
 		updateAxisRanges(valuePairs.getKeyMin().doubleValue(), valuePairs.getKeyMax().doubleValue(), 0.0, _100_PERCENT);
 		NumericPairList<Double, Double> scaledPairs = new NumericPairList<>();
-		String dataFile = "";
 		if (scale) {
 			for (NumericPair<? extends Number, ? extends Number> pair : valuePairs) {
 				scaledPairs.add(pair.getKey().doubleValue(), pair.getValue().doubleValue() * _100_PERCENT);
 			}
-			dataFile = storeCSV(scaledPairs);
-
+			appendDataLoading(scaledPairs.getKeyList(), scaledPairs.getValueList());
 		} else {
-			dataFile = storeCSV(valuePairs);
+			appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList());
 		}
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
 		scriptBuilder.append("points(xData, yData,pch=" + pointCounter + ")\n");
 		addLegendItem(seriesTitle, true, false);
 		seriesCounter++;
@@ -138,21 +124,17 @@ public class RChartBuilder extends AnalysisChartBuilder {
 	@Override
 	public void addUtilizationLineSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, boolean scale) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		updateAxisRanges(valuePairs.getKeyMin().doubleValue(), valuePairs.getKeyMax().doubleValue(), 0.0, _100_PERCENT);
 		NumericPairList<Double, Double> scaledPairs = new NumericPairList<>();
-		String dataFile = "";
 		if (scale) {
 			for (NumericPair<? extends Number, ? extends Number> pair : valuePairs) {
 				scaledPairs.add(pair.getKey().doubleValue(), pair.getValue().doubleValue() * _100_PERCENT);
 			}
-			dataFile = storeCSV(scaledPairs);
-
+			appendDataLoading(scaledPairs.getKeyList(), scaledPairs.getValueList());
 		} else {
-			dataFile = storeCSV(valuePairs);
+			appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList());
 		}
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
 		scriptBuilder.append("points(xData, yData,pch=" + pointCounter + ")\n");
 		scriptBuilder.append("lines(xData, yData,lty=" + lineCounter + ",lwd=2)\n");
 		addLegendItem(seriesTitle, true, true);
@@ -162,13 +144,11 @@ public class RChartBuilder extends AnalysisChartBuilder {
 	}
 
 	@Override
-	public void addScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
+	protected void addReducedScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
+			String seriesTitle) {
 		valuePairs = scaleSeriesYAxis(valuePairs, getYScale(valuePairs));
 		updateAxisRanges(valuePairs);
-		String dataFile = storeCSV(valuePairs);
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
+		appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList());
 		scriptBuilder.append("points(xData, yData,pch=" + pointCounter + ")\n");
 		addLegendItem(seriesTitle, true, false);
 		seriesCounter++;
@@ -178,12 +158,10 @@ public class RChartBuilder extends AnalysisChartBuilder {
 	@Override
 	public void addScatterSeriesWithLine(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		valuePairs = scaleSeriesYAxis(valuePairs, getYScale(valuePairs));
 		updateAxisRanges(valuePairs);
-		String dataFile = storeCSV(valuePairs);
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
+		appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList());
 		scriptBuilder.append("points(xData, yData,pch=" + pointCounter + ")\n");
 		scriptBuilder.append("lines(xData, yData,lty=" + lineCounter + ",lwd=2)\n");
 		addLegendItem(seriesTitle, true, true);
@@ -215,11 +193,7 @@ public class RChartBuilder extends AnalysisChartBuilder {
 		}
 		updateAxisRanges(minPairs);
 		updateAxisRanges(maxPairs);
-		String dataFile = storeCSV(valuePairs.getKeyList(), valuePairs.getValueList(), errors);
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
-		scriptBuilder.append("errors <- data[[3]]\n");
+		appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList(), errors);
 		scriptBuilder.append("points(xData, yData,pch=" + pointCounter + ")\n");
 		scriptBuilder.append("arrows(xData, yData-errors,xData,yData+errors,length=0.05, angle=90, code=3)\n");
 		addLegendItem(seriesTitle, true, false);
@@ -229,12 +203,10 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	@Override
 	public void addLineSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		valuePairs = scaleSeriesYAxis(valuePairs, getYScale(valuePairs));
 		updateAxisRanges(valuePairs);
-		String dataFile = storeCSV(valuePairs);
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
+		appendDataLoading(valuePairs.getKeyList(), valuePairs.getValueList());
 		scriptBuilder.append("lines(xData, yData,lty=" + lineCounter + ",lwd=2)\n");
 		addLegendItem(seriesTitle, false, true);
 		seriesCounter++;
@@ -282,10 +254,7 @@ public class RChartBuilder extends AnalysisChartBuilder {
 			sum += inc;
 			yValues.add(sum);
 		}
-		String dataFile = storeCSV(xValues, yValues);
-		scriptBuilder.append("data <- read.csv(file=\"" + dataFile + "\",head=TRUE,sep=\";\")\n");
-		scriptBuilder.append("xData <- data[[1]]\n");
-		scriptBuilder.append("yData <- data[[2]]\n");
+		appendDataLoading(xValues, yValues);
 		scriptBuilder.append("lines(xData, yData,lty=" + lineCounter + ",lwd=2)\n");
 		addLegendItem(seriesTitle, false, true);
 		seriesCounter++;
@@ -351,7 +320,7 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	}
 
-	private void extractCopy(String targetFile, String scriptStr) {
+	private void extractCopy(String targetFile, String scriptStr) throws IOException {
 		String fileName = targetFile.substring(targetFile.lastIndexOf("/") + 1, targetFile.lastIndexOf("."));
 		String targetDir = targetFile.substring(0, targetFile.lastIndexOf("/"));
 
@@ -359,66 +328,85 @@ public class RChartBuilder extends AnalysisChartBuilder {
 		targetDir = LpeFileUtils.concatFileName(targetDir, fileName);
 		targetDir = targetDir.replace(System.getProperty("file.separator"), "/");
 		LpeFileUtils.createDir(targetDir);
-		copyCSVs(targetDir);
 
-		String originalDir = LpeFileUtils.concatFileName(
-				LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR), "chartTmp")
-				.replace(System.getProperty("file.separator"), "/");
-		scriptStr = scriptStr.replace(originalDir, targetDir);
+		// the exported script reads readable csv copies of the binary data
+		for (int i = 0; i < dataFiles.size(); i++) {
+			DataFile dataFile = dataFiles.get(i);
+			String csvFile = targetDir + "/data-" + (i + 1) + ".csv";
+			dataFile.exportAsCSV(csvFile);
+			scriptStr = scriptStr.replace(dataFile.loadCommand, "data <- unlist(read.csv(file=\"" + csvFile
+					+ "\",head=TRUE,sep=\";\"), use.names=FALSE)\n");
+		}
 
 		String scriptFile = LpeFileUtils.concatFileName(targetDir, "script-" + seriesCounter + ".r");
-		try {
-			FileWriter fWriter = new FileWriter(scriptFile, false);
+		try (FileWriter fWriter = new FileWriter(scriptFile, false)) {
 			fWriter.append(scriptStr);
-			fWriter.flush();
-
-			fWriter.close();
-		} catch (IOException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
 		}
-
 	}
 
-	private void copyCSVs(String target) {
-		LpeFileUtils.createDir(target);
+	/**
+	 * Returns the temporary work directory of this builder. Each builder uses
+	 * its own directory, thus, several charts can be rendered concurrently.
+	 * 
+	 * @return work directory
+	 * @throws IOException
+	 *             if the directory cannot be created
+	 */
+	private synchronized String getWorkDir() throws IOException {
+		if (workDir == null) {
+			workDir = Files.createTempDirectory(DYNAMIC_SPOTTER_DIR + "-chart").toFile().getAbsolutePath();
+		}
+		return workDir;
+	}
 
-		String dir = LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR);
-		dir = LpeFileUtils.concatFileName(dir, "chartTmp");
+	/**
+	 * Stores the given columns in binary form (big endian doubles, column by
+	 * column) and appends the commands loading them into the variables xData,
+	 * yData (and errors) to the script. The binary files are only used to
+	 * transfer the data to R, the exported chart data contains csv files.
+	 * 
+	 * @param columns
+	 *            data columns of equal length
+	 */
+	@SafeVarargs
+	private final void appendDataLoading(List<? extends Number>... columns) {
+		int count = columns.length > 0 ? columns[0].size() : 0;
+		String file;
 		try {
-			LpeFileUtils.copyDirectory(dir, target);
+			file = LpeFileUtils.concatFileName(getWorkDir(), "data-" + seriesCounter + ".bin");
+			try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+				for (List<? extends Number> column : columns) {
+					for (Number value : column) {
+						dataOut.writeDouble(value.doubleValue());
+					}
+				}
+			}
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			throw new RuntimeException("Failed storing chart data!", e);
+		}
+		file = file.replace(System.getProperty("file.separator"), "/");
+
+		String loadCommand = "data <- readBin(\"" + file + "\", what=\"double\", n=" + (count * columns.length)
+				+ ", size=8, endian=\"big\")\n";
+		scriptBuilder.append(loadCommand);
+		dataFiles.add(new DataFile(file, count, columns.length, loadCommand));
+		scriptBuilder.append("n <- " + count + "\n");
+		for (int i = 0; i < columns.length && i < DATA_VARIABLES.length; i++) {
+			scriptBuilder.append(DATA_VARIABLES[i] + " <- data[" + i + " * n + seq_len(n)]\n");
 		}
-	}
-
-	private String storeCSV(NumericPairList<? extends Number, ? extends Number> valuePairs) {
-		String file = LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR);
-		file = LpeFileUtils.concatFileName(file, "chartTmp");
-		LpeFileUtils.createDir(file);
-		file = LpeFileUtils.concatFileName(file, "data-" + seriesCounter + ".csv");
-		LpeNumericUtils.exportAsCSV(valuePairs, file, "Col1", "Col2");
-
-		return file.replace(System.getProperty("file.separator"), "/");
-	}
-
-	private String storeCSV(List<? extends Number>... data) {
-		String file = LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR);
-		file = LpeFileUtils.concatFileName(file, "chartTmp");
-		LpeFileUtils.createDir(file);
-		file = LpeFileUtils.concatFileName(file, "data-" + seriesCounter + ".csv");
-		LpeNumericUtils.exportAsCSV(file, data);
-
-		return file.replace(System.getProperty("file.separator"), "/");
 	}
 
 	private void cleanUpTmpFiles() {
+		dataFiles.clear();
+		if (workDir == null) {
+			return;
+		}
 		try {
-			LpeFileUtils.removeDir(LpeFileUtils.concatFileName(LpeSystemUtils.getSystemTempDir(), DYNAMIC_SPOTTER_DIR));
+			LpeFileUtils.removeDir(workDir);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		workDir = null;
 	}
 
 	private void addLegendItem(String legendTitle, boolean point, boolean line) {
@@ -451,4 +439,43 @@ public class RChartBuilder extends AnalysisChartBuilder {
 
 	}
 
+	/**
+	 * Binary data file of a series.
+	 */
+	private static final class DataFile {
+		private final String file;
+		private final int count;
+		private final int numColumns;
+		private final String loadCommand;
+
+		private DataFile(String file, int count, int numColumns, String loadCommand) {
+			this.file = file;
+			this.count = count;
+			this.numColumns = numColumns;
+			this.loadCommand = loadCommand;
+		}
+
+		private void exportAsCSV(String csvFile) throws IOException {
+			double[][] columns = new double[numColumns][count];
+			try (DataInputStream dataIn = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				for (double[] column : columns) {
+					for (int i = 0; i < count; i++) {
+						column[i] = dataIn.readDouble();
+					}
+				}
+			}
+			try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvFile, false))) {
+				for (int c = 0; c < numColumns; c++) {
+					writer.append(c == 0 ? "" : ";").append("Col" + (c + 1));
+				}
+				writer.newLine();
+				for (int i = 0; i < count; i++) {
+					for (int c = 0; c < numColumns; c++) {
+						writer.append(c == 0 ? "" : ";").append(String.valueOf(columns[c][i]));
+					}
+					writer.newLine();
+				}
+			}
+		}
+	}
 }
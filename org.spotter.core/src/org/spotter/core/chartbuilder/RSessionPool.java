@@ -0,0 +1,288 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.chartbuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.system.LpeSystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.ConfigKeys;
+
+/**
+ * Pool of long-lived R sessions. Instead of launching a new R process per
+ * chart, R scripts are sourced in one of the running sessions. The number of
+ * sessions is bounded by the number of chart rendering threads.
+ */
+public final class RSessionPool {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RSessionPool.class);
+	private static final String DONE_MARKER = "<<DYNAMIC_SPOTTER_DONE>>";
+	private static final String ERROR_PREFIX = "<<DYNAMIC_SPOTTER_ERROR>>";
+	private static final long SECOND = 1000L;
+
+	private static RSessionPool instance;
+
+	/**
+	 *
+	 * @return singleton instance
+	 */
+	public static synchronized RSessionPool getInstance() {
+		if (instance == null) {
+			instance = new RSessionPool();
+		}
+		return instance;
+	}
+
+	private final LinkedBlockingQueue<RSession> idleSessions = new LinkedBlockingQueue<>();
+	private final List<RSession> allSessions = new ArrayList<>();
+	private Boolean rAvailable = null;
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private RSessionPool() {
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				shutdown();
+			}
+		});
+	}
+
+	/**
+	 * Checks whether R can be started on this machine.
+	 *
+	 * @return true, if an R session could be started
+	 */
+	public synchronized boolean isRAvailable() {
+		if (rAvailable == null) {
+			RSession session = null;
+			try {
+				session = new RSession(getRExecutable());
+				session.evaluate("invisible(NULL)");
+				allSessions.add(session);
+				idleSessions.offer(session);
+				rAvailable = true;
+			} catch (IOException e) {
+				LOGGER.warn("R is not available ({}): {}", getRExecutable(), e.getMessage());
+				if (session != null) {
+					session.close();
+				}
+				rAvailable = false;
+			}
+		}
+		return rAvailable;
+	}
+
+	/**
+	 * Sources the given R script file in one of the pooled R sessions. Blocks
+	 * until the script has been executed, at most for the configured R
+	 * timeout. Sessions exceeding the timeout are terminated.
+	 *
+	 * @param scriptFile
+	 *            path of the script to execute (with '/' as separator)
+	 * @throws IOException
+	 *             if the script fails or R cannot be reached
+	 */
+	public void source(String scriptFile) throws IOException {
+		RSession session = acquireSession();
+		boolean healthy = false;
+		try {
+			session.evaluate("source(\"" + scriptFile + "\")");
+			healthy = true;
+		} catch (RScriptException e) {
+			healthy = true;
+			throw e;
+		} finally {
+			releaseSession(session, healthy);
+		}
+	}
+
+	private RSession acquireSession() throws IOException {
+		RSession session = idleSessions.poll();
+		if (session != null) {
+			return session;
+		}
+		synchronized (this) {
+			int maxSessions = Math.max(1, GlobalConfiguration.getInstance().getPropertyAsInteger(
+					ConfigKeys.CHART_RENDERING_THREADS, ConfigKeys.DEFAULT_CHART_RENDERING_THREADS));
+			if (allSessions.size() < maxSessions) {
+				session = new RSession(getRExecutable());
+				allSessions.add(session);
+				return session;
+			}
+		}
+		try {
+			return idleSessions.take();
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void releaseSession(RSession session, boolean healthy) {
+		if (healthy && session.isAlive()) {
+			idleSessions.offer(session);
+		} else {
+			session.close();
+			synchronized (this) {
+				allSessions.remove(session);
+			}
+		}
+	}
+
+	/**
+	 * Terminates all R sessions.
+	 */
+	public synchronized void shutdown() {
+		for (RSession session : allSessions) {
+			session.close();
+		}
+		allSessions.clear();
+		idleSessions.clear();
+	}
+
+	private static long getRTimeout() {
+		return GlobalConfiguration.getInstance().getPropertyAsInteger(ConfigKeys.CHART_R_TIMEOUT,
+				ConfigKeys.DEFAULT_CHART_R_TIMEOUT) * SECOND;
+	}
+
+	private static String getRExecutable() {
+		String defaultExecutable;
+		switch (LpeSystemUtils.getOperatingSystemType()) {
+		case WINDOWS:
+			defaultExecutable = "Rterm.exe";
+			break;
+		default:
+			defaultExecutable = "R";
+			break;
+		}
+		return GlobalConfiguration.getInstance().getProperty(ConfigKeys.CHART_R_EXECUTABLE, defaultExecutable);
+	}
+
+	/**
+	 * Thrown if a script has been executed but failed within R.
+	 */
+	private static class RScriptException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		RScriptException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * A single R process reading commands from its standard input.
+	 */
+	private static final class RSession {
+		private final Process process;
+		private final BufferedWriter commandWriter;
+		private final BufferedReader outputReader;
+
+		RSession(String executable) throws IOException {
+			ProcessBuilder processBuilder = new ProcessBuilder(executable, "--vanilla", "--slave");
+			processBuilder.redirectErrorStream(true);
+			process = processBuilder.start();
+			commandWriter = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+			outputReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		}
+
+		void evaluate(String command) throws IOException {
+			// errors must not terminate the non-interactive session
+			commandWriter.write("tryCatch(" + command + ", error=function(e) cat(\"" + ERROR_PREFIX
+					+ "\", conditionMessage(e), \"\\n\"), finally={graphics.off(); cat(\"" + DONE_MARKER
+					+ "\\n\"); flush(stdout())})");
+			commandWriter.newLine();
+			commandWriter.flush();
+
+			FutureTask<Void> outputTask = new FutureTask<>(new Callable<Void>() {
+				@Override
+				public Void call() throws IOException {
+					readOutput();
+					return null;
+				}
+			});
+			LpeSystemUtils.submitTask(outputTask);
+			long timeout = getRTimeout();
+			try {
+				outputTask.get(timeout, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// terminating the process unblocks the output reader
+				process.destroy();
+				throw new IOException("R session did not respond within " + timeout / SECOND + " s!");
+			} catch (InterruptedException e) {
+				process.destroy();
+				throw new IOException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			}
+		}
+
+		private void readOutput() throws IOException {
+			StringBuilder error = null;
+			String line = outputReader.readLine();
+			while (line != null && !line.equals(DONE_MARKER)) {
+				if (line.startsWith(ERROR_PREFIX)) {
+					error = new StringBuilder(line.substring(ERROR_PREFIX.length()).trim());
+				} else {
+					LOGGER.debug("R: {}", line);
+				}
+				line = outputReader.readLine();
+			}
+			if (line == null) {
+				throw new IOException("R session terminated unexpectedly!");
+			}
+			if (error != null) {
+				throw new RScriptException("R script failed: " + error.toString());
+			}
+		}
+
+		boolean isAlive() {
+			try {
+				process.exitValue();
+				return false;
+			} catch (IllegalThreadStateException e) {
+				return true;
+			}
+		}
+
+		void close() {
+			try {
+				commandWriter.write("q(save=\"no\")");
+				commandWriter.newLine();
+				commandWriter.close();
+			} catch (IOException e) {
+				LOGGER.debug("Failed closing R session: {}", e.getMessage());
+			}
+			process.destroy();
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.chartbuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.lpe.common.util.NumericPair;
+import org.lpe.common.util.NumericPairList;
+
+/**
+ * Reduces large data series to a size which matches the resolution of the
+ * rendered chart. Rendering millions of points into an image of a few hundred
+ * pixels does not add any visual information, but costs a lot of time and
+ * memory.
+ */
+public final class SeriesDownsampler {
+
+	/**
+	 * Percentiles (in percent) used as envelope for time series.
+	 */
+	private static final double[] ENVELOPE_PERCENTILES = { 0.0, 50.0, 95.0, 100.0 };
+	private static final double _100_PERCENT = 100.0;
+
+	/**
+	 * Private constructor due to utility class.
+	 */
+	private SeriesDownsampler() {
+	}
+
+	/**
+	 * Reduces a line series to the given number of points by applying the
+	 * Largest-Triangle-Three-Buckets algorithm. The first and the last point
+	 * are always retained, the shape of the line is preserved.
+	 *
+	 * @param valuePairs
+	 *            series to reduce (ordered by key)
+	 * @param threshold
+	 *            maximum number of points of the resulting series
+	 * @return reduced series, or a copy of the original series if it does not
+	 *         exceed the threshold
+	 */
+	public static NumericPairList<Double, Double> largestTriangleThreeBuckets(
+			NumericPairList<? extends Number, ? extends Number> valuePairs, int threshold) {
+		double[][] points = toArrays(valuePairs);
+		double[] xs = points[0];
+		double[] ys = points[1];
+		int size = xs.length;
+		NumericPairList<Double, Double> result = new NumericPairList<>();
+		if (threshold < 3 || size <= threshold) {
+			for (int i = 0; i < size; i++) {
+				result.add(xs[i], ys[i]);
+			}
+			return result;
+		}
+
+		double bucketSize = (double) (size - 2) / (double) (threshold - 2);
+		int a = 0;
+		result.add(xs[a], ys[a]);
+		for (int i = 0; i < threshold - 2; i++) {
+			// average point of the next bucket
+			int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+			int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, size);
+			double avgX = 0.0;
+			double avgY = 0.0;
+			for (int j = avgStart; j < avgEnd; j++) {
+				avgX += xs[j];
+				avgY += ys[j];
+			}
+			int avgLength = avgEnd - avgStart;
+			if (avgLength > 0) {
+				avgX /= avgLength;
+				avgY /= avgLength;
+			} else {
+				avgX = xs[size - 1];
+				avgY = ys[size - 1];
+			}
+
+			// point of the current bucket with the largest triangle
+			int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+			int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+			double maxArea = -1.0;
+			int maxIndex = rangeStart;
+			for (int j = rangeStart; j < rangeEnd; j++) {
+				double area = Math.abs((xs[a] - avgX) * (ys[j] - ys[a]) - (xs[a] - xs[j]) * (avgY - ys[a]));
+				if (area > maxArea) {
+					maxArea = area;
+					maxIndex = j;
+				}
+			}
+			result.add(xs[maxIndex], ys[maxIndex]);
+			a = maxIndex;
+		}
+		result.add(xs[size - 1], ys[size - 1]);
+		return result;
+	}
+
+	/**
+	 * Reduces a scatter series by binning the points into a grid of
+	 * xBins*yBins cells. Each non-empty cell is represented by the mean of its
+	 * points. Thus, outliers remain visible while dense regions collapse to a
+	 * few points.
+	 *
+	 * @param valuePairs
+	 *            series to reduce
+	 * @param xBins
+	 *            number of cells on the x-axis
+	 * @param yBins
+	 *            number of cells on the y-axis
+	 * @return reduced series
+	 */
+	public static NumericPairList<Double, Double> densityBinning(
+			NumericPairList<? extends Number, ? extends Number> valuePairs, int xBins, int yBins) {
+		double[][] points = toArrays(valuePairs);
+		double[] xs = points[0];
+		double[] ys = points[1];
+		NumericPairList<Double, Double> result = new NumericPairList<>();
+		if (xs.length == 0 || xBins <= 0 || yBins <= 0) {
+			for (int i = 0; i < xs.length; i++) {
+				result.add(xs[i], ys[i]);
+			}
+			return result;
+		}
+
+		double xMin = min(xs);
+		double yMin = min(ys);
+		double xWidth = (max(xs) - xMin) / xBins;
+		double yWidth = (max(ys) - yMin) / yBins;
+
+		// cell index -> {sumX, sumY, count}; a tree map keeps the order along
+		// the x-axis
+		Map<Long, double[]> cells = new TreeMap<>();
+		for (int i = 0; i < xs.length; i++) {
+			long xCell = xWidth > 0.0 ? Math.min((long) ((xs[i] - xMin) / xWidth), xBins - 1) : 0L;
+			long yCell = yWidth > 0.0 ? Math.min((long) ((ys[i] - yMin) / yWidth), yBins - 1) : 0L;
+			Long cell = xCell * yBins + yCell;
+			double[] aggregate = cells.get(cell);
+			if (aggregate == null) {
+				aggregate = new double[3];
+				cells.put(cell, aggregate);
+			}
+			aggregate[0] += xs[i];
+			aggregate[1] += ys[i];
+			aggregate[2]++;
+		}
+
+		for (double[] aggregate : cells.values()) {
+			result.add(aggregate[0] / aggregate[2], aggregate[1] / aggregate[2]);
+		}
+		return result;
+	}
+
+	/**
+	 * Reduces a time series to a percentile envelope. The time axis is divided
+	 * into the given number of buckets. Each bucket is represented by the
+	 * minimum, the median, the 95th percentile and the maximum of its values.
+	 *
+	 * @param valuePairs
+	 *            time series to reduce
+	 * @param buckets
+	 *            number of buckets on the time axis
+	 * @return reduced series
+	 */
+	public static NumericPairList<Double, Double> percentileEnvelope(
+			NumericPairList<? extends Number, ? extends Number> valuePairs, int buckets) {
+		double[][] points = toArrays(valuePairs);
+		double[] xs = points[0];
+		double[] ys = points[1];
+		NumericPairList<Double, Double> result = new NumericPairList<>();
+		if (xs.length <= buckets * ENVELOPE_PERCENTILES.length || buckets <= 0) {
+			for (int i = 0; i < xs.length; i++) {
+				result.add(xs[i], ys[i]);
+			}
+			return result;
+		}
+
+		double xMin = min(xs);
+		double width = (max(xs) - xMin) / buckets;
+
+		int[] counts = new int[buckets];
+		int[] bucketOf = new int[xs.length];
+		for (int i = 0; i < xs.length; i++) {
+			int bucket = width > 0.0 ? Math.min((int) ((xs[i] - xMin) / width), buckets - 1) : 0;
+			bucketOf[i] = bucket;
+			counts[bucket]++;
+		}
+		Map<Integer, double[]> bucketValues = new HashMap<>();
+		int[] fill = new int[buckets];
+		for (int i = 0; i < xs.length; i++) {
+			int bucket = bucketOf[i];
+			double[] values = bucketValues.get(bucket);
+			if (values == null) {
+				values = new double[counts[bucket]];
+				bucketValues.put(bucket, values);
+			}
+			values[fill[bucket]++] = ys[i];
+		}
+
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			double[] values = bucketValues.get(bucket);
+			if (values == null) {
+				continue;
+			}
+			Arrays.sort(values);
+			double x = xMin + (bucket + 0.5) * width;
+			double previous = Double.NaN;
+			for (double percentile : ENVELOPE_PERCENTILES) {
+				int index = (int) Math.ceil(percentile / _100_PERCENT * values.length) - 1;
+				double value = values[Math.max(0, Math.min(index, values.length - 1))];
+				if (value != previous) {
+					result.add(x, value);
+				}
+				previous = value;
+			}
+		}
+		return result;
+	}
+
+	private static double[][] toArrays(NumericPairList<? extends Number, ? extends Number> valuePairs) {
+		int size = 0;
+		for (@SuppressWarnings("unused")
+		NumericPair<? extends Number, ? extends Number> pair : valuePairs) {
+			size++;
+		}
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		int i = 0;
+		for (NumericPair<? extends Number, ? extends Number> pair : valuePairs) {
+			xs[i] = pair.getKey().doubleValue();
+			ys[i] = pair.getValue().doubleValue();
+			i++;
+		}
+		return new double[][] { xs, ys };
+	}
+
+	private static double min(double[] values) {
+		double min = Double.MAX_VALUE;
+		for (double value : values) {
+			min = Math.min(min, value);
+		}
+		return min;
+	}
+
+	private static double max(double[] values) {
+		double max = -Double.MAX_VALUE;
+		for (double value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+}
@@ -32,12 +32,14 @@ public class XChartBuilder extends AnalysisChartBuilder{
 	}
 
 	public void startChart(String title, String xLabel, String yLabel) {
+		awaitPendingBuild();
 		chart = new ChartBuilder().width(IMAGE_WIDTH).height(IMAGE_HEIGHT).title(title).xAxisTitle(xLabel)
 				.yAxisTitle(yLabel).build();
 		chart.getStyleManager().setLegendPosition(LegendPosition.InsideSE);
 	}
 	
 	public void startChartWithoutLegend(String title, String xLabel, String yLabel) {
+		awaitPendingBuild();
 		chart = new ChartBuilder().width(IMAGE_WIDTH).height(IMAGE_HEIGHT).title(title).xAxisTitle(xLabel)
 				.yAxisTitle(yLabel).build();
 		chart.getStyleManager().setLegendPosition(LegendPosition.InsideSE);
@@ -45,6 +47,7 @@ public class XChartBuilder extends AnalysisChartBuilder{
 	}
 
 	public void build(String targetFile) {
+		exportRawSeries(targetFile);
 		chart.getStyleManager().setXAxisMin(xMin);
 		chart.getStyleManager().setXAxisMax(xMax);
 		chart.getStyleManager().setYAxisMin(yMin);
@@ -61,6 +64,7 @@ public class XChartBuilder extends AnalysisChartBuilder{
 
 	public void addUtilizationScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, boolean scale) {
+		valuePairs = downsampleScatterSeries(valuePairs);
 		updateAxisRanges(valuePairs.getKeyMin().doubleValue(), valuePairs.getKeyMax().doubleValue(), 0.0, _100_PERCENT);
 		Series scatterSeries;
 		NumericPairList<Double, Double> scaledPairs = new NumericPairList<>();
@@ -84,6 +88,7 @@ public class XChartBuilder extends AnalysisChartBuilder{
 
 	public void addUtilizationLineSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle, boolean scale) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		updateAxisRanges(valuePairs.getKeyMin().doubleValue(), valuePairs.getKeyMax().doubleValue(), 0.0, _100_PERCENT);
 		Series scatterSeries;
 		NumericPairList<Double, Double> scaledPairs = new NumericPairList<>();
@@ -104,7 +109,9 @@ public class XChartBuilder extends AnalysisChartBuilder{
 		seriesCounter++;
 	}
 
-	public void addScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
+	@Override
+	protected void addReducedScatterSeries(NumericPairList<? extends Number, ? extends Number> valuePairs,
+			String seriesTitle) {
 		updateAxisRanges(valuePairs);
 		Series scatterSeries = chart.addSeries(seriesTitle, valuePairs.getKeyListAsNumbers(),
 				valuePairs.getValueListAsNumbers());
@@ -126,6 +133,7 @@ public class XChartBuilder extends AnalysisChartBuilder{
 	}
 
 	public void addLineSeries(NumericPairList<? extends Number, ? extends Number> valuePairs, String seriesTitle) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		updateAxisRanges(valuePairs);
 		Series scatterSeries = chart.addSeries(seriesTitle, valuePairs.getKeyListAsNumbers(),
 				valuePairs.getValueListAsNumbers());
@@ -202,6 +210,7 @@ public class XChartBuilder extends AnalysisChartBuilder{
 	@Override
 	public void addScatterSeriesWithLine(NumericPairList<? extends Number, ? extends Number> valuePairs,
 			String seriesTitle) {
+		valuePairs = downsampleLineSeries(valuePairs);
 		updateAxisRanges(valuePairs);
 		Series scatterSeries = chart.addSeries(seriesTitle, valuePairs.getKeyListAsNumbers(),
 				valuePairs.getValueListAsNumbers());
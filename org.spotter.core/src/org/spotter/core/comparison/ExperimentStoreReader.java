@@ -0,0 +1,221 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.comparison;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.detection.AbstractDetectionController;
+
+/**
+ * Reads the experiment data stored by a detection controller and aggregates
+ * the response times per load level and operation. The csv files are streamed
+ * line by line into the running statistics, hence, neither an experiment nor
+ * a run is ever held in memory completely.
+ */
+final class ExperimentStoreReader {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentStoreReader.class);
+
+	/**
+	 * Private constructor due to utility class.
+	 */
+	private ExperimentStoreReader() {
+	}
+
+	/**
+	 * Reads the experiment data in the given directory.
+	 * 
+	 * @param dataDirectory
+	 *            csv directory of a detection controller containing one sub
+	 *            directory per experiment
+	 * @param sampleSize
+	 *            maximal number of response time samples per load level and
+	 *            operation
+	 * @return statistics per load level (number of users or arrival rate) and
+	 *         operation
+	 */
+	static Map<Double, Map<String, OperationStatistics>> read(File dataDirectory, int sampleSize) {
+		Map<Double, Map<String, OperationStatistics>> statistics = new TreeMap<>();
+		for (File experimentDir : listExperimentDirectories(dataDirectory)) {
+			File[] csvFiles = listCSVFiles(experimentDir);
+			try {
+				double loadLevel = getLoadLevel(csvFiles, experimentDir);
+
+				Map<String, OperationStatistics> operations = statistics.get(loadLevel);
+				if (operations == null) {
+					operations = new TreeMap<>();
+					statistics.put(loadLevel, operations);
+				}
+				for (File csvFile : csvFiles) {
+					readResponseTimes(csvFile, operations, sampleSize);
+				}
+			} catch (IOException e) {
+				throw new RuntimeException("Failed reading experiment data in " + experimentDir, e);
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Streams the response time records of the given csv file line by line
+	 * into the running statistics. Files of other record types are skipped
+	 * after their header line.
+	 */
+	private static void readResponseTimes(File csvFile, Map<String, OperationStatistics> operations, int sampleSize)
+			throws IOException {
+		try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
+			ResponseTimeColumns columns = ResponseTimeColumns.parse(reader.readLine());
+			if (columns == null) {
+				return;
+			}
+			String line = reader.readLine();
+			while (line != null) {
+				String[] values = columns.split(line);
+				if (values != null) {
+					String operation = values[columns.operationIdx];
+					OperationStatistics operationStatistics = operations.get(operation);
+					if (operationStatistics == null) {
+						// fixed seed, comparing the same runs twice yields the same result
+						operationStatistics = new OperationStatistics(sampleSize, operation.hashCode());
+						operations.put(operation, operationStatistics);
+					}
+					operationStatistics.add(Long.parseLong(values[columns.timestampIdx]),
+							Double.parseDouble(values[columns.responseTimeIdx]));
+				}
+				line = reader.readLine();
+			}
+		}
+	}
+
+	/**
+	 * The load parameter (number of users for closed workloads, arrival rate
+	 * for open workloads) is constant within an experiment, thus, only the
+	 * first record of each response time file is read.
+	 */
+	private static double getLoadLevel(File[] csvFiles, File experimentDir) throws IOException {
+		Set<String> loadLevels = new HashSet<>();
+		for (File csvFile : csvFiles) {
+			try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
+				ResponseTimeColumns columns = ResponseTimeColumns.parse(reader.readLine());
+				if (columns == null || columns.loadIdx < 0) {
+					continue;
+				}
+				String[] values = columns.split(reader.readLine());
+				if (values != null) {
+					loadLevels.add(values[columns.loadIdx]);
+				}
+			}
+		}
+		if (loadLevels.size() == 1) {
+			return Double.parseDouble(loadLevels.iterator().next());
+		}
+		// experiments without load parameter are aligned by their order
+		LOGGER.debug("No load level stored for experiment {}, using the experiment number instead.", experimentDir);
+		return Double.parseDouble(experimentDir.getName());
+	}
+
+	private static File[] listCSVFiles(File experimentDir) {
+		File[] csvFiles = experimentDir.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile() && file.getName().endsWith(".csv");
+			}
+		});
+		return csvFiles == null ? new File[0] : csvFiles;
+	}
+
+	private static File[] listExperimentDirectories(File dataDirectory) {
+		File[] experimentDirs = dataDirectory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isDirectory() && file.getName().matches("\\d+");
+			}
+		});
+		if (experimentDirs == null) {
+			return new File[0];
+		}
+		Arrays.sort(experimentDirs, new Comparator<File>() {
+			@Override
+			public int compare(File a, File b) {
+				return Integer.valueOf(a.getName()).compareTo(Integer.valueOf(b.getName()));
+			}
+		});
+		return experimentDirs;
+	}
+
+	/**
+	 * Column layout of a csv file containing response time records.
+	 */
+	private static final class ResponseTimeColumns {
+		private final String separator;
+		private final int numColumns;
+		private final int operationIdx;
+		private final int responseTimeIdx;
+		private final int timestampIdx;
+		private final int loadIdx;
+
+		private ResponseTimeColumns(String separator, List<String> columns) {
+			this.separator = separator;
+			numColumns = columns.size();
+			operationIdx = columns.indexOf(ResponseTimeRecord.PAR_OPERATION);
+			responseTimeIdx = columns.indexOf(ResponseTimeRecord.PAR_RESPONSE_TIME);
+			timestampIdx = columns.indexOf(AbstractRecord.PAR_TIMESTAMP);
+			int numUsersIdx = columns.indexOf(AbstractDetectionController.NUMBER_OF_USERS_KEY);
+			loadIdx = numUsersIdx >= 0 ? numUsersIdx : columns.indexOf(AbstractDetectionController.ARRIVAL_RATE_KEY);
+		}
+
+		/**
+		 * @return the column layout, or null if the header does not describe
+		 *         response time records
+		 */
+		private static ResponseTimeColumns parse(String header) {
+			if (header == null) {
+				return null;
+			}
+			String separator = header.contains(";") ? ";" : ",";
+			ResponseTimeColumns columns = new ResponseTimeColumns(separator, Arrays.asList(header.split(separator)));
+			if (columns.operationIdx < 0 || columns.responseTimeIdx < 0 || columns.timestampIdx < 0) {
+				return null;
+			}
+			return columns;
+		}
+
+		/**
+		 * @return the values of the line, or null if the line is incomplete
+		 */
+		private String[] split(String line) {
+			if (line == null) {
+				return null;
+			}
+			String[] values = line.split(separator, -1);
+			return values.length == numColumns ? values : null;
+		}
+	}
+}
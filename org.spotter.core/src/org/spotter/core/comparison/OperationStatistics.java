@@ -0,0 +1,129 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.comparison;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Statistics of the response times of one operation at one load level. The
+ * statistics are built incrementally. Only a bounded reservoir sample of the
+ * response times is kept, thus, the memory consumption does not depend on the
+ * number of measured requests.
+ */
+class OperationStatistics {
+	private static final double MILLIS_PER_SECOND = 1000.0;
+
+	private final double[] reservoir;
+	private final Random random;
+	private final Map<Long, Integer> requestsPerSecond = new TreeMap<>();
+	private long count = 0;
+	private double responseTimeSum = 0.0;
+	private long firstTimestamp = Long.MAX_VALUE;
+	private long lastTimestamp = Long.MIN_VALUE;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param sampleSize
+	 *            maximal number of response times kept as sample
+	 * @param seed
+	 *            seed for sampling
+	 */
+	OperationStatistics(int sampleSize, long seed) {
+		reservoir = new double[Math.max(1, sampleSize)];
+		random = new Random(seed);
+	}
+
+	/**
+	 * Adds a measured request.
+	 * 
+	 * @param timestamp
+	 *            timestamp of the request in [ms]
+	 * @param responseTime
+	 *            response time of the request
+	 */
+	void add(long timestamp, double responseTime) {
+		if (count < reservoir.length) {
+			reservoir[(int) count] = responseTime;
+		} else {
+			long index = (long) (random.nextDouble() * (count + 1));
+			if (index < reservoir.length) {
+				reservoir[(int) index] = responseTime;
+			}
+		}
+		count++;
+		responseTimeSum += responseTime;
+		firstTimestamp = Math.min(firstTimestamp, timestamp);
+		lastTimestamp = Math.max(lastTimestamp, timestamp);
+
+		long second = (long) (timestamp / MILLIS_PER_SECOND);
+		Integer requests = requestsPerSecond.get(second);
+		requestsPerSecond.put(second, requests == null ? 1 : requests + 1);
+	}
+
+	/**
+	 * @return number of measured requests
+	 */
+	long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return mean response time
+	 */
+	double getMeanResponseTime() {
+		return count == 0 ? 0.0 : responseTimeSum / count;
+	}
+
+	/**
+	 * @return mean throughput in [requests/s]
+	 */
+	double getThroughput() {
+		if (count == 0) {
+			return 0.0;
+		}
+		double durationSeconds = Math.max(1.0, (lastTimestamp - firstTimestamp) / MILLIS_PER_SECOND);
+		return count / durationSeconds;
+	}
+
+	/**
+	 * @return sample of the response times
+	 */
+	double[] getResponseTimeSample() {
+		double[] sample = new double[(int) Math.min(count, reservoir.length)];
+		System.arraycopy(reservoir, 0, sample, 0, sample.length);
+		return sample;
+	}
+
+	/**
+	 * @return number of requests for each second of the measurement
+	 */
+	double[] getThroughputSample() {
+		// the first and the last second are covered only partially
+		int skip = requestsPerSecond.size() > 2 ? 1 : 0;
+		double[] sample = new double[requestsPerSecond.size() - 2 * skip];
+		int i = -skip;
+		for (Integer requests : requestsPerSecond.values()) {
+			if (i >= 0 && i < sample.length) {
+				sample[i] = requests;
+			}
+			i++;
+		}
+		return sample;
+	}
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.comparison;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.math3.stat.inference.MannWhitneyUTest;
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.ResultsContainer;
+import org.spotter.shared.result.model.SpotterResult;
+
+/**
+ * Compares the experiment data of two diagnosis runs. The experiments of each
+ * detection controller are aligned by load level and operation. For each
+ * operation a Mann-Whitney U test is applied to the response times and to the
+ * throughput per second. Significant degradations exceeding the configured
+ * minimal relative change ({@link ConfigKeys#COMPARISON_MIN_RELATIVE_CHANGE})
+ * are reported as regressions.
+ * 
+ * The outcome is a regression report and a diff {@link ResultsContainer}
+ * where a problem is marked as detected if a regression has been found in its
+ * experiment data. Both are stored in the result folder of the candidate run.
+ */
+public class RunComparator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RunComparator.class);
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	private static final int MIN_NUM_SAMPLES = 5;
+	private static final double PERCENT = 100.0;
+
+	private final File baselineFolder;
+	private final File candidateFolder;
+	private final double significanceLevel;
+	private final double minRelativeChange;
+	private final int sampleSize;
+	private final MannWhitneyUTest test = new MannWhitneyUTest();
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param baselineRunFolder
+	 *            result folder of the baseline run
+	 * @param candidateRunFolder
+	 *            result folder of the run to compare with the baseline
+	 */
+	public RunComparator(String baselineRunFolder, String candidateRunFolder) {
+		baselineFolder = new File(baselineRunFolder);
+		candidateFolder = new File(candidateRunFolder);
+		if (!baselineFolder.isDirectory() || !candidateFolder.isDirectory()) {
+			throw new IllegalArgumentException("Both run result folders must exist!");
+		}
+		significanceLevel = Double.parseDouble(GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.COMPARISON_SIGNIFICANCE_LEVEL,
+				String.valueOf(ConfigKeys.DEFAULT_COMPARISON_SIGNIFICANCE_LEVEL)));
+		minRelativeChange = Double.parseDouble(GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.COMPARISON_MIN_RELATIVE_CHANGE,
+				String.valueOf(ConfigKeys.DEFAULT_COMPARISON_MIN_RELATIVE_CHANGE)));
+		sampleSize = GlobalConfiguration.getInstance().getPropertyAsInteger(ConfigKeys.COMPARISON_SAMPLE_SIZE,
+				ConfigKeys.DEFAULT_COMPARISON_SAMPLE_SIZE);
+	}
+
+	/**
+	 * Compares the two runs and writes the regression report and the diff
+	 * results to the result folder of the candidate run.
+	 * 
+	 * @return diff results; a problem is detected if its experiment data
+	 *         shows a regression
+	 */
+	public ResultsContainer compare() {
+		XPerformanceProblem rootProblem = loadRootProblem(candidateFolder);
+		Map<String, String> problemIds = new HashMap<>();
+		if (rootProblem != null) {
+			collectProblemIds(rootProblem, problemIds);
+		}
+
+		StringBuilder report = new StringBuilder();
+		report.append("Comparison of run ").append(candidateFolder.getName());
+		report.append(" against baseline run ").append(baselineFolder.getName());
+		report.append(LINE_SEPARATOR);
+		report.append(String.format(Locale.US, "significance level: %.3f, minimal relative change: %.1f%%",
+				significanceLevel, minRelativeChange * PERCENT));
+		report.append(LINE_SEPARATOR);
+
+		Map<String, SpotterResult> results = new LinkedHashMap<>();
+		int numRegressions = 0;
+		for (File controllerDir : listControllerDirectories(candidateFolder)) {
+			report.append(LINE_SEPARATOR);
+			report.append("Controller ").append(controllerDir.getName()).append(':').append(LINE_SEPARATOR);
+
+			File baselineControllerDir = new File(baselineFolder, controllerDir.getName());
+			if (!new File(baselineControllerDir, ResultsLocationConstants.CSV_SUB_DIR).isDirectory()) {
+				report.append("  no experiment data in the baseline run").append(LINE_SEPARATOR);
+				continue;
+			}
+
+			SpotterResult result = compareController(baselineControllerDir, controllerDir, report);
+			if (result.isDetected()) {
+				numRegressions++;
+			}
+			String problemId = problemIds.get(controllerDir.getName());
+			results.put(problemId != null ? problemId : controllerDir.getName(), result);
+		}
+		report.append(LINE_SEPARATOR);
+		report.append(numRegressions).append(" of ").append(results.size());
+		report.append(" compared controllers show regressions.").append(LINE_SEPARATOR);
+
+		ResultsContainer container = new ResultsContainer();
+		container.setRootProblem(rootProblem);
+		container.setResultsMap(results);
+		container.setReport(report.toString());
+		container.setLabel(baselineFolder.getName() + " -> " + candidateFolder.getName());
+		writeResults(container);
+		return container;
+	}
+
+	private SpotterResult compareController(File baselineControllerDir, File candidateControllerDir,
+			StringBuilder report) {
+		Map<Double, Map<String, OperationStatistics>> baseline = ExperimentStoreReader.read(new File(
+				baselineControllerDir, ResultsLocationConstants.CSV_SUB_DIR), sampleSize);
+		Map<Double, Map<String, OperationStatistics>> candidate = ExperimentStoreReader.read(new File(
+				candidateControllerDir, ResultsLocationConstants.CSV_SUB_DIR), sampleSize);
+
+		SpotterResult result = new SpotterResult();
+		result.setDetected(false);
+		for (Entry<Double, Map<String, OperationStatistics>> loadLevel : candidate.entrySet()) {
+			Map<String, OperationStatistics> baselineOperations = baseline.get(loadLevel.getKey());
+			if (baselineOperations == null) {
+				report.append("  load ").append(formatLoadLevel(loadLevel.getKey()));
+				report.append(": not measured in the baseline run").append(LINE_SEPARATOR);
+				continue;
+			}
+			for (Entry<String, OperationStatistics> operation : loadLevel.getValue().entrySet()) {
+				OperationStatistics baselineStatistics = baselineOperations.get(operation.getKey());
+				if (baselineStatistics == null) {
+					continue;
+				}
+				String finding = compareOperation(baselineStatistics, operation.getValue());
+				if (finding != null) {
+					String line = String.format("load %s, %s: %s", formatLoadLevel(loadLevel.getKey()),
+							operation.getKey(), finding);
+					report.append("  ").append(line).append(LINE_SEPARATOR);
+					result.addMessage(line);
+					result.setDetected(true);
+				}
+			}
+		}
+		if (!result.isDetected()) {
+			report.append("  no regressions").append(LINE_SEPARATOR);
+		}
+		return result;
+	}
+
+	/**
+	 * Formats numbers of users without fraction digits.
+	 */
+	private static String formatLoadLevel(double loadLevel) {
+		if (loadLevel == Math.rint(loadLevel)) {
+			return String.valueOf((long) loadLevel);
+		}
+		return String.valueOf(loadLevel);
+	}
+
+	/**
+	 * Compares the statistics of one operation at one load level.
+	 * 
+	 * @return description of the regression, or <code>null</code> if there
+	 *         is none
+	 */
+	private String compareOperation(OperationStatistics baseline, OperationStatistics candidate) {
+		StringBuilder finding = new StringBuilder();
+
+		double[] baselineResponseTimes = baseline.getResponseTimeSample();
+		double[] candidateResponseTimes = candidate.getResponseTimeSample();
+		if (isRegression(baselineResponseTimes, candidateResponseTimes, baseline.getMeanResponseTime(),
+				candidate.getMeanResponseTime(), true)) {
+			finding.append(String.format(Locale.US, "response time %.2f -> %.2f (%+.1f%%)",
+					baseline.getMeanResponseTime(), candidate.getMeanResponseTime(),
+					relativeChange(baseline.getMeanResponseTime(), candidate.getMeanResponseTime()) * PERCENT));
+		}
+
+		if (isRegression(baseline.getThroughputSample(), candidate.getThroughputSample(), baseline.getThroughput(),
+				candidate.getThroughput(), false)) {
+			if (finding.length() > 0) {
+				finding.append(", ");
+			}
+			finding.append(String.format(Locale.US, "throughput %.2f/s -> %.2f/s (%+.1f%%)",
+					baseline.getThroughput(), candidate.getThroughput(),
+					relativeChange(baseline.getThroughput(), candidate.getThroughput()) * PERCENT));
+		}
+		return finding.length() > 0 ? finding.toString() : null;
+	}
+
+	/**
+	 * Checks whether the candidate sample is significantly worse than the
+	 * baseline sample.
+	 * 
+	 * @param higherIsWorse
+	 *            true, if higher values indicate a degradation (response
+	 *            times), false otherwise (throughput)
+	 */
+	private boolean isRegression(double[] baselineSample, double[] candidateSample, double baselineMean,
+			double candidateMean, boolean higherIsWorse) {
+		if (baselineSample.length < MIN_NUM_SAMPLES || candidateSample.length < MIN_NUM_SAMPLES) {
+			return false;
+		}
+		double change = relativeChange(baselineMean, candidateMean);
+		if (higherIsWorse ? change < minRelativeChange : -change < minRelativeChange) {
+			return false;
+		}
+		return test.mannWhitneyUTest(baselineSample, candidateSample) < significanceLevel;
+	}
+
+	private static double relativeChange(double baseline, double candidate) {
+		if (baseline == 0.0) {
+			return candidate == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+		}
+		return (candidate - baseline) / baseline;
+	}
+
+	private void writeResults(ResultsContainer container) {
+		String reportFile = new File(candidateFolder, ResultsLocationConstants.COMPARISON_REPORT_FILE_NAME)
+				.getAbsolutePath();
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(reportFile))) {
+			writer.write(container.getReport());
+		} catch (IOException e) {
+			LOGGER.error("Failed writing comparison report to file {}! ", reportFile);
+		}
+
+		String outputFile = new File(candidateFolder, ResultsLocationConstants.COMPARISON_SERIALIZATION_FILE_NAME)
+				.getAbsolutePath();
+		try {
+			LpeFileUtils.writeObject(outputFile, container);
+			LOGGER.info("Comparison finished! Report is written to the following file: {}", reportFile);
+		} catch (IOException e) {
+			LOGGER.error("Failed serializing comparison results to file {}! Cause: {}", outputFile, e.getMessage());
+		}
+	}
+
+	private static XPerformanceProblem loadRootProblem(File runFolder) {
+		File resultsFile = new File(runFolder, ResultsLocationConstants.RESULTS_SERIALIZATION_FILE_NAME);
+		if (!resultsFile.exists()) {
+			return null;
+		}
+		try {
+			return ((ResultsContainer) LpeFileUtils.readObject(resultsFile)).getRootProblem();
+		} catch (IOException | ClassNotFoundException e) {
+			LOGGER.warn("Failed reading results of run {}: {}", runFolder, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Maps the result directory names of the detection controllers to the
+	 * unique ids of their problems.
+	 */
+	private static void collectProblemIds(XPerformanceProblem problem, Map<String, String> problemIds) {
+		if (problem.getExtensionName() != null && problem.getUniqueId() != null) {
+			problemIds.put(problem.getExtensionName() + "-" + problem.getUniqueId().hashCode(), problem.getUniqueId());
+		}
+		if (problem.getProblem() != null) {
+			for (XPerformanceProblem child : problem.getProblem()) {
+				collectProblemIds(child, problemIds);
+			}
+		}
+	}
+
+	private static File[] listControllerDirectories(File runFolder) {
+		File[] controllerDirs = runFolder.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return new File(file, ResultsLocationConstants.CSV_SUB_DIR).isDirectory();
+			}
+		});
+		if (controllerDirs == null) {
+			return new File[0];
+		}
+		Arrays.sort(controllerDirs);
+		return controllerDirs;
+	}
+}
@@ -15,10 +15,18 @@
  */
 package org.spotter.core.config.interpretation;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.spotter.core.ProgressManager;
 import org.spotter.core.result.ResultBlackboard;
+import org.spotter.core.result.ResultCache;
+import org.spotter.core.result.RunJournal;
 import org.spotter.shared.result.model.SpotterResult;
 import org.spotter.shared.status.DiagnosisStatus;
 
@@ -37,6 +45,9 @@ public class HierarchyModelInterpreter {
 	/** performance problem currently under examination */
 	private PerformanceProblem currentProblem;
 
+	/** problems returned by poll() whose results are not known yet */
+	private final Set<PerformanceProblem> problemsInProgress = new LinkedHashSet<>();
+
 	/**
 	 * Constructor.
 	 * 
@@ -49,31 +60,110 @@ public class HierarchyModelInterpreter {
 		problemsToBeExamined.offerLast(rootProblem);
 	}
 
+	/**
+	 * Constructor restoring the traversal state of an interrupted run.
+	 * 
+	 * @param rootProblem
+	 *            root node of the performance problem hierarchy
+	 * @param pendingProblemIds
+	 *            unique ids of the problems still to be examined
+	 * @param currentProblemId
+	 *            unique id of the problem examined last, may be
+	 *            <code>null</code>
+	 */
+	public HierarchyModelInterpreter(PerformanceProblem rootProblem, List<String> pendingProblemIds,
+			String currentProblemId) {
+		Map<String, PerformanceProblem> problems = new HashMap<>();
+		for (PerformanceProblem problem : rootProblem.getAllDEscendingProblems()) {
+			problems.put(problem.getUniqueId(), problem);
+		}
+		problemsToBeExamined = new LinkedList<PerformanceProblem>();
+		for (String problemId : pendingProblemIds) {
+			problemsToBeExamined.offerLast(getProblem(problems, problemId));
+		}
+		if (currentProblemId != null) {
+			currentProblem = getProblem(problems, currentProblemId);
+		}
+	}
+
+	private static PerformanceProblem getProblem(Map<String, PerformanceProblem> problems, String problemId) {
+		PerformanceProblem problem = problems.get(problemId);
+		if (problem == null) {
+			throw new IllegalArgumentException("Problem " + problemId + " is not part of the problem hierarchy!");
+		}
+		return problem;
+	}
+
 	/**
 	 * Traverses to the next {@link PerformanceProblem} to be examined and
-	 * returns the corresponding performance problem.
+	 * returns the corresponding performance problem. Problems with a reusable
+	 * result in the {@link ResultCache} are skipped.
 	 * 
 	 * @return Returns the next performance problem to be examined. If there are
 	 *         no performance problems to be examined this method returns
 	 *         {@code null}.
 	 */
 	public PerformanceProblem next() {
-		addChildrenOfDetectedProblem();
-		if (problemsToBeExamined.isEmpty()) {
-			return null;
+		if (currentProblem != null) {
+			problemCompleted(currentProblem);
 		}
-		PerformanceProblem pp = problemsToBeExamined.pollFirst();
-		if (!pp.isDetectable()) {
-			currentProblem = null;
-			for (PerformanceProblem child : pp.getChildren()) {
-				problemsToBeExamined.offerLast(child);
-			}
-			return next();
-		} else {
-			currentProblem = pp;
+		currentProblem = poll();
+		return currentProblem;
+	}
 
-			return currentProblem;
+	/**
+	 * Returns the next problem to be examined without waiting for the result
+	 * of the current problem. All problems returned by this method are
+	 * independent of each other and may be examined concurrently. The result
+	 * of each returned problem has to be announced by
+	 * {@link #problemCompleted(PerformanceProblem)}.
+	 * 
+	 * @return the next performance problem to be examined, or {@code null} if
+	 *         currently no problem is ready to be examined
+	 */
+	public PerformanceProblem poll() {
+		while (!problemsToBeExamined.isEmpty()) {
+			PerformanceProblem pp = problemsToBeExamined.pollFirst();
+			if (!pp.isDetectable()) {
+				for (PerformanceProblem child : pp.getChildren()) {
+					problemsToBeExamined.offerLast(child);
+				}
+				continue;
+			}
+			SpotterResult cachedResult = ResultCache.getInstance().reuse(pp);
+			if (cachedResult != null) {
+				// unchanged since a previous run, take over its decision
+				ProgressManager.getInstance().updateProgressStatus(pp.getUniqueId(),
+						cachedResult.isDetected() ? DiagnosisStatus.DETECTED : DiagnosisStatus.NOT_DETECTED);
+				ProgressManager.getInstance().updateProgress(pp.getUniqueId(), 1, 0);
+				ResultBlackboard.getInstance().putResult(pp, cachedResult);
+				problemCompleted(pp);
+				journalReusedResult();
+				continue;
+			}
+			problemsInProgress.add(pp);
+			return pp;
 		}
+		return null;
+	}
+
+	/**
+	 * Records a reused result in the journal of the run, thus, a resumed run
+	 * does not examine the problem again. Problems currently examined remain
+	 * pending.
+	 */
+	private void journalReusedResult() {
+		List<PerformanceProblem> pendingProblems = new ArrayList<>(problemsInProgress);
+		pendingProblems.addAll(problemsToBeExamined);
+		RunJournal.getInstance().problemCompleted(ResultBlackboard.getInstance(), pendingProblems, null);
+	}
+
+	/**
+	 * 
+	 * @return Returns the performance problems still to be examined.
+	 */
+	public List<PerformanceProblem> getPendingProblems() {
+		return new ArrayList<PerformanceProblem>(problemsToBeExamined);
 	}
 
 	/**
@@ -85,20 +175,23 @@ public class HierarchyModelInterpreter {
 	}
 
 	/**
-	 * If the current problem under examination has been detected, add its
-	 * children to the list of problems to be examined. If it has not been
-	 * detected, mark its children recursively as not detected as well.
+	 * Announces that the given problem has been examined and its result has
+	 * been put on the {@link ResultBlackboard}. If the problem has been
+	 * detected, its children are added to the list of problems to be
+	 * examined. If it has not been detected, its children are marked
+	 * recursively as not detected as well.
+	 * 
+	 * @param problem
+	 *            the examined problem
 	 */
-	private void addChildrenOfDetectedProblem() {
-
-		if (currentProblem != null) {
-			if (ResultBlackboard.getInstance().hasBeenDetected(currentProblem)) {
-				for (PerformanceProblem child : currentProblem.getChildren()) {
-					problemsToBeExamined.offerLast(child);
-				}
-			} else {
-				addNotDetectedChildrenRecursively(currentProblem);
+	public void problemCompleted(PerformanceProblem problem) {
+		problemsInProgress.remove(problem);
+		if (ResultBlackboard.getInstance().hasBeenDetected(problem)) {
+			for (PerformanceProblem child : problem.getChildren()) {
+				problemsToBeExamined.offerLast(child);
 			}
+		} else {
+			addNotDetectedChildrenRecursively(problem);
 		}
 	}
 
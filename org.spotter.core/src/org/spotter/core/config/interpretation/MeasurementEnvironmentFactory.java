@@ -24,16 +24,21 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
 
 import org.lpe.common.extension.ExtensionRegistry;
+import org.spotter.core.ReplicaGroup;
 import org.spotter.core.instrumentation.AbstractInstrumentationExtension;
 import org.spotter.core.instrumentation.IInstrumentationAdapter;
+import org.spotter.core.instrumentation.InstrumentationBroker;
 import org.spotter.core.measurement.AbstractMeasurmentExtension;
 import org.spotter.core.measurement.IMeasurementAdapter;
+import org.spotter.core.measurement.MeasurementBroker;
 import org.spotter.core.workload.AbstractWorkloadExtension;
 import org.spotter.core.workload.IWorkloadAdapter;
+import org.spotter.core.workload.WorkloadAdapterBroker;
 import org.spotter.shared.environment.model.ObjectFactory;
 import org.spotter.shared.environment.model.XMConfiguration;
 import org.spotter.shared.environment.model.XMeasurementEnvObject;
 import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.environment.model.XReplicaGroup;
 
 /**
  * Factory for creation of a measurement environment.
@@ -116,6 +121,56 @@ public final class MeasurementEnvironmentFactory {
 		return result;
 	}
 
+	/**
+	 * Creates the additional replica groups described in the passed file. The
+	 * satellites of each replica group are managed by brokers of their own.
+	 * The satellites are not initialized yet.
+	 * 
+	 * @param fileName
+	 *            xml file describing the measruement environment
+	 * @return list of additional replica groups, empty if the environment
+	 *         comprises only one replica
+	 */
+	public List<ReplicaGroup> createReplicaGroups(String fileName) {
+		List<ReplicaGroup> result = new ArrayList<ReplicaGroup>();
+		XMeasurementEnvironment mEnv = parseXMLFile(fileName);
+		if (mEnv == null || mEnv.getReplicaGroup() == null) {
+			return result;
+		}
+		for (XReplicaGroup xReplicaGroup : mEnv.getReplicaGroup()) {
+			List<IInstrumentationAdapter> instrumentations = new ArrayList<IInstrumentationAdapter>();
+			if (xReplicaGroup.getInstrumentationController() != null) {
+				for (XMeasurementEnvObject xController : xReplicaGroup.getInstrumentationController()) {
+					instrumentations.add(createInstrumentationController(xController));
+				}
+			}
+			List<IMeasurementAdapter> measurements = new ArrayList<IMeasurementAdapter>();
+			if (xReplicaGroup.getMeasurementController() != null) {
+				for (XMeasurementEnvObject xController : xReplicaGroup.getMeasurementController()) {
+					measurements.add(createMeasurementController(xController));
+				}
+			}
+			List<IWorkloadAdapter> wlAdapters = new ArrayList<IWorkloadAdapter>();
+			if (xReplicaGroup.getWorkloadAdapter() != null) {
+				for (XMeasurementEnvObject xwlAdapter : xReplicaGroup.getWorkloadAdapter()) {
+					wlAdapters.add(createWorkloadAdapter(xwlAdapter));
+				}
+			}
+
+			InstrumentationBroker instrumentationBroker = InstrumentationBroker.createInstance();
+			instrumentationBroker.setControllers(instrumentations);
+			MeasurementBroker measurementBroker = MeasurementBroker.createInstance();
+			measurementBroker.setControllers(measurements);
+			WorkloadAdapterBroker workloadBroker = WorkloadAdapterBroker.createInstance();
+			workloadBroker.setControllers(wlAdapters);
+
+			String name = xReplicaGroup.getName() != null ? xReplicaGroup.getName() : "replica-"
+					+ (result.size() + 1);
+			result.add(new ReplicaGroup(name, instrumentationBroker, measurementBroker, workloadBroker));
+		}
+		return result;
+	}
+
 	/**
 	 * Reads the file from disk specified by the given fileName and parses it
 	 * for creation of an {@link XMeasurementEnvironment}.
@@ -16,13 +16,20 @@
 package org.spotter.core.detection;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.aim.api.exceptions.InstrumentationException;
 import org.aim.api.exceptions.MeasurementException;
+import org.aim.api.measurement.dataset.Dataset;
 import org.aim.api.measurement.dataset.DatasetCollection;
 import org.aim.api.measurement.dataset.Parameter;
 import org.aim.description.InstrumentationDescription;
@@ -32,15 +39,23 @@ import org.lpe.common.config.GlobalConfiguration;
 import org.lpe.common.extension.AbstractExtensionArtifact;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.LpeStringUtils;
+import org.lpe.common.util.system.LpeSystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spotter.core.ProgressManager;
+import org.spotter.core.ReplicaGroup;
+import org.spotter.core.SatelliteHealthMonitor;
 import org.spotter.core.instrumentation.IInstrumentationAdapter;
 import org.spotter.core.instrumentation.InstrumentationBroker;
+import org.spotter.core.instrumentation.SamplingDescription;
+import org.spotter.core.measurement.CollectionQuery;
 import org.spotter.core.measurement.IMeasurementAdapter;
 import org.spotter.core.measurement.MeasurementBroker;
+import org.spotter.core.metrics.MetricsRegistry;
+import org.spotter.core.result.RunJournal;
 import org.spotter.core.workload.IWorkloadAdapter;
 import org.spotter.core.workload.LoadConfig;
+import org.spotter.core.workload.LoadProfile;
 import org.spotter.core.workload.WorkloadAdapterBroker;
 import org.spotter.exceptions.WorkloadException;
 import org.spotter.shared.configuration.ConfigKeys;
@@ -61,6 +76,8 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 
 	private static final int MIN_NUM_USERS = 1;
 	public static final String NUMBER_OF_USERS_KEY = "numUsers";
+	public static final String ARRIVAL_RATE_KEY = "arrivalRate";
+	public static final String LOAD_PROFILE_KEY = "loadProfile";
 	public static final String EXPERIMENT_STEPS_KEY = "numExperimentSteps";
 	public static boolean sutWarmedUp = false;
 
@@ -71,12 +88,19 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 
 	private String problemId;
 
-	private final IInstrumentationAdapter instrumentationController;
-	private final IMeasurementAdapter measurementController;
-	private final IWorkloadAdapter workloadAdapter;
+	private IInstrumentationAdapter instrumentationController;
+	private IMeasurementAdapter measurementController;
+	private IWorkloadAdapter workloadAdapter;
+	private ReplicaGroup replicaGroup;
 	private final DetectionResultManager resultManager;
 
 	private boolean instrumented = false;
+	private InstrumentationDescription instrumentationDescription = null;
+	private SamplingDescription samplingDescription = SamplingDescription.NONE;
+	private long lastStablePhaseDuration = 0L;
+	private int experimentsToReuse = 0;
+	private volatile boolean cancelled = false;
+	private final Map<String, Object> additionalParameters = new LinkedHashMap<>();
 
 	private Properties problemDetectionConfiguration = new Properties();
 
@@ -99,10 +123,11 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 
 	@Override
 	public SpotterResult analyzeProblem() throws InstrumentationException, MeasurementException, WorkloadException {
+		boolean analyzed = false;
 		try {
-			if (!GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.OMIT_WARMUP, false) && !sutWarmedUp) {
+			if (!GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.OMIT_WARMUP, false) && !isSutWarmedUp()) {
 
-				ProgressManager.getInstance().addAdditionalDuration(getSUTWarmUpDuration());
+				ProgressManager.getInstance().addAdditionalDuration(getProblemId(), getSUTWarmUpDuration());
 			}
 
 			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.INITIALIZING);
@@ -122,20 +147,73 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 				resultManager.useParentDataDir();
 			} else if (!omitExperiments & !reuser) {
 				if (!GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.OMIT_WARMUP, false)
-						&& !sutWarmedUp) {
+						&& !isSutWarmedUp()) {
 					warmUpSUT();
 				}
 
+				int completedExperiments = RunJournal.getInstance().getCompletedExperiments(getProblemId());
+				if (completedExperiments > 0) {
+					LOGGER.info("Resuming {} after {} completed experiments ...", getProvider().getName(),
+							completedExperiments);
+					resultManager.resumeExperiments(completedExperiments);
+				}
+				experimentsToReuse = completedExperiments;
+
 				executeExperiments();
 			}
 
 			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.ANALYZING);
-			return analyze(getResultManager().loadData());
+			String controllerName = getProvider().getName();
+			long loadStart = System.nanoTime();
+			DatasetCollection data = getResultManager().loadData();
+			long analysisStart = System.nanoTime();
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.LOAD_DATA_DURATION, analysisStart - loadStart,
+					"controller", controllerName);
+			SpotterResult result = analyze(data);
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.ANALYZE_DURATION,
+					System.nanoTime() - analysisStart, "controller", controllerName);
+			analyzed = true;
+			return result;
 		} finally {
-			if (instrumented) {
-				instrumentationController.uninstrument();
+			try {
+				// analysis is complete only when all charts have been rendered,
+				// also charts of failed analyses must not outlive the analysis
+				awaitPendingResources(analyzed);
+			} finally {
+				if (instrumented) {
+					instrumentationController.uninstrument();
+
+				}
+			}
+		}
+	}
+
+	/**
+	 * Requests this controller to stop examining its problem. The controller
+	 * does not start any further experiment and fails with a
+	 * {@link WorkloadException}; the running experiment is completed and the
+	 * application is uninstrumented as usual. Stopping the load is up to the
+	 * caller.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
 
+	private void checkCancelled() throws WorkloadException {
+		if (cancelled) {
+			throw new WorkloadException("Examination of problem " + getProblemId() + " has been cancelled.");
+		}
+	}
+
+	private void awaitPendingResources(boolean analyzed) {
+		try {
+			getResultManager().waitForPendingResources();
+		} catch (RuntimeException e) {
+			if (analyzed) {
+				throw e;
 			}
+			// do not hide the failure of the analysis
+			LOGGER.warn("Failed storing chart resources of aborted analysis: {}", e.getMessage());
 		}
 	}
 
@@ -147,7 +225,7 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 	 * @throws WorkloadException
 	 */
 	private void warmUpSUT() throws WorkloadException {
-		if (!sutWarmedUp) {
+		if (!isSutWarmedUp()) {
 			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.WARM_UP);
 
 			LoadConfig lConfig = new LoadConfig();
@@ -159,10 +237,33 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 			lConfig.setExperimentDuration(getSUTWarmUpDuration());
 			getWorkloadAdapter().startLoad(lConfig);
 			getWorkloadAdapter().waitForFinishedLoad();
-			sutWarmedUp = true;
+			if (replicaGroup != null) {
+				replicaGroup.setWarmedUp(true);
+			} else {
+				sutWarmedUp = true;
+			}
 		}
 	}
 
+	private boolean isSutWarmedUp() {
+		return replicaGroup != null ? replicaGroup.isWarmedUp() : sutWarmedUp;
+	}
+
+	/**
+	 * Binds this controller to the satellites of the given replica of the
+	 * system under test. Controllers bound to different replica groups can
+	 * execute their experiments concurrently.
+	 * 
+	 * @param replicaGroup
+	 *            replica group to run experiments on
+	 */
+	public void setReplicaGroup(ReplicaGroup replicaGroup) {
+		this.replicaGroup = replicaGroup;
+		instrumentationController = replicaGroup.getInstrumentationBroker();
+		measurementController = replicaGroup.getMeasurementBroker();
+		workloadAdapter = replicaGroup.getWorkloadBroker();
+	}
+
 	/**
 	 * Executes a default experiment series comprising
 	 * {@link numExperimentSteps} experiments. Starts with a load of one user
@@ -186,13 +287,109 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 			InstrumentationDescription instDescription) throws InstrumentationException, MeasurementException,
 			WorkloadException {
 
+		List<LoadConfig> loadConfigs = new ArrayList<>();
+		for (int numUsers : getExperimentUserCounts(numExperimentSteps)) {
+			loadConfigs.add(createLoadConfig(numUsers));
+		}
+		executeExperimentSeries(detectionController, loadConfigs, instDescription);
+	}
+
+	/**
+	 * Executes an experiment series with an open workload comprising
+	 * {@link numExperimentSteps} experiments. The arrival rate is increased
+	 * linearly from one experiment to the next until the maximum arrival rate
+	 * is reached. If not all workload adapters support open workloads or no
+	 * maximum arrival rate is configured, the default experiment series
+	 * varying the number of users is executed instead.
+	 * 
+	 * @param detectionController
+	 *            the detection controller executing the experiments
+	 * @param numExperimentSteps
+	 *            number of experiment steps to execute
+	 * @param instDescription
+	 *            instrumentation description to use for instrumentation
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	protected void executeArrivalRateExperimentSeries(IDetectionController detectionController,
+			int numExperimentSteps, InstrumentationDescription instDescription) throws InstrumentationException,
+			MeasurementException, WorkloadException {
+		double maxArrivalRate = Double.parseDouble(GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.WORKLOAD_MAX_ARRIVAL_RATE, "0.0"));
+		if (maxArrivalRate <= 0.0 || !getWorkloadAdapter().supportsOpenLoop()) {
+			LOGGER.warn("Open workloads are not available, varying the number of users instead.");
+			executeDefaultExperimentSeries(detectionController, numExperimentSteps, instDescription);
+			return;
+		}
+
+		List<LoadConfig> loadConfigs = new ArrayList<>();
+		int numRates = Math.max(1, numExperimentSteps);
+		for (int i = 1; i <= numRates; i++) {
+			loadConfigs.add(createOpenLoopLoadConfig(maxArrivalRate * i / numRates));
+		}
+		executeExperimentSeries(detectionController, loadConfigs, instDescription);
+	}
+
+	/**
+	 * Executes one experiment per given load configuration.
+	 * 
+	 * @param detectionController
+	 *            the detection controller executing the experiments
+	 * @param loadConfigs
+	 *            load of each experiment
+	 * @param instDescription
+	 *            instrumentation description to use for instrumentation
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	private void executeExperimentSeries(IDetectionController detectionController, List<LoadConfig> loadConfigs,
+			InstrumentationDescription instDescription) throws InstrumentationException, MeasurementException,
+			WorkloadException {
+		int reusedExperiments = Math.min(experimentsToReuse, loadConfigs.size());
+		experimentsToReuse -= reusedExperiments;
+		loadConfigs = loadConfigs.subList(reusedExperiments, loadConfigs.size());
+		if (loadConfigs.isEmpty()) {
+			LOGGER.info("Reusing stored data of all experiments.");
+			return;
+		}
+
 		instrumentApplication(instDescription);
 
+		if (loadConfigs.size() > 1 && GlobalConfiguration.getInstance().getPropertyAsBoolean(
+				ConfigKeys.EXPERIMENT_PIPELINING, false)) {
+			runPipelinedExperimentSeries(detectionController, loadConfigs);
+		} else {
+			for (LoadConfig loadConfig : loadConfigs) {
+				runExperiment(detectionController, loadConfig);
+			}
+		}
+
+		uninstrumentApplication();
+
+	}
+
+	/**
+	 * Calculates the load levels of a default experiment series.
+	 * 
+	 * @param numExperimentSteps
+	 *            number of experiment steps to execute
+	 * @return number of users for each experiment
+	 */
+	private List<Integer> getExperimentUserCounts(int numExperimentSteps) {
 		int maxUsers = Integer.parseInt(LpeStringUtils.getPropertyOrFail(GlobalConfiguration.getInstance()
 				.getProperties(), ConfigKeys.WORKLOAD_MAXUSERS, null));
 
+		List<Integer> userCounts = new ArrayList<>();
 		if (numExperimentSteps <= 1) {
-			runExperiment(detectionController, maxUsers);
+			userCounts.add(maxUsers);
 		} else {
 			double dMinUsers = MIN_NUM_USERS;
 			double dMaxUsers = maxUsers;
@@ -201,19 +398,126 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 			// if we have the same number of maximum and minimum users, then we
 			// have only one experiment run
 			if (dStep <= 0.0 + EPSILON) {
-				runExperiment(detectionController, MIN_NUM_USERS);
+				userCounts.add(MIN_NUM_USERS);
 			} else {
 
 				for (double dUsers = dMinUsers; dUsers <= (dMaxUsers + EPSILON); dUsers += dStep) {
-					int numUsers = new Double(dUsers).intValue();
-					runExperiment(detectionController, numUsers);
+					userCounts.add(new Double(dUsers).intValue());
 				}
 
 			}
 		}
+		return userCounts;
+	}
 
-		uninstrumentApplication();
+	/**
+	 * Runs a series of experiments in a pipelined manner. The data of an
+	 * experiment is collected while the workload cools down and the load of
+	 * the next experiment ramps up. If allowed by this controller and
+	 * supported by the workload adapters, the load is ramped directly to the
+	 * next load level instead of cooling down to zero users. Monitoring of an
+	 * experiment starts only after the data of the previous experiment has
+	 * been collected; records captured after the end of the stable phase are
+	 * discarded based on their timestamps.
+	 * 
+	 * @param detectionController
+	 *            the detection controller executing the experiments
+	 * @param loadConfigs
+	 *            load of each experiment
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	private void runPipelinedExperimentSeries(IDetectionController detectionController, List<LoadConfig> loadConfigs)
+			throws WorkloadException, MeasurementException {
+		boolean loadTransitions = allowsLoadTransitions() && getWorkloadAdapter().supportsLoadTransition();
+		boolean loadRunning = false;
+		int failedAttempts = 0;
+		Future<?> pendingCollection = null;
+		try {
+			for (int i = 0; i < loadConfigs.size(); i++) {
+				checkCancelled();
+				LoadConfig loadConfig = negotiateLoadConfig(loadConfigs.get(i));
+				LOGGER.info("{} detection controller started pipelined experiment with {} ...",
+						detectionController.getProvider().getName(), describeLoad(loadConfig));
+				ProgressManager.getInstance().updateProgressStatus(getProblemId(),
+						DiagnosisStatus.EXPERIMENTING_RAMP_UP);
+				traceLoad(loadConfig);
+				if (!loadRunning) {
+					awaitHealthySatellites();
+				}
+				if (loadRunning) {
+					getWorkloadAdapter().transitLoad(loadConfig);
+				} else {
+					getWorkloadAdapter().startLoad(loadConfig);
+				}
+				getWorkloadAdapter().waitForWarmupPhaseTermination();
+
+				// the measurement environment must not collect and monitor
+				// at the same time
+				awaitCollection(pendingCollection);
+				pendingCollection = null;
+				// the record count of the previous experiment is known only
+				// after its data has been collected
+				adaptSampling();
+				// the restricted query of the collected experiment is not needed anymore
+				getMeasurementController().setCollectionQuery(null);
+
+				Set<Parameter> parameters = createExperimentParameters(loadConfig);
+				boolean streaming = isStreamingCollection();
+				getMeasurementController().setCollectionQuery(createAggregatedCollectionQuery());
+				long stablePhaseDuration;
+				try {
+					stablePhaseDuration = runStablePhase(loadConfig, parameters, streaming);
+				} catch (SatelliteDegradationException e) {
+					failedAttempts++;
+					getMeasurementController().setCollectionQuery(null);
+					recoverFromDegradation(e, failedAttempts);
+					// repeat the experiment, starting without load
+					loadRunning = false;
+					i--;
+					continue;
+				}
+				failedAttempts = 0;
+				getMeasurementController().setCollectionQuery(
+						restrictToStablePhase(createAggregatedCollectionQuery(), stablePhaseDuration));
+
+				LOGGER.info("Storing data ...");
+				pendingCollection = collectExperimentDataAsync(parameters, streaming);
+
+				loadRunning = loadTransitions && i < loadConfigs.size() - 1;
+				if (!loadRunning) {
+					getWorkloadAdapter().waitForFinishedLoad();
+				}
+			}
+			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.COLLECTING_DATA);
+			awaitCollection(pendingCollection);
+			pendingCollection = null;
+			LOGGER.info("Data stored!");
+		} finally {
+			if (pendingCollection != null) {
+				try {
+					pendingCollection.get();
+				} catch (InterruptedException | ExecutionException e) {
+					LOGGER.warn("Collecting experiment data failed: {}", e.getMessage());
+				}
+			}
+			getMeasurementController().setCollectionQuery(null);
+		}
+	}
 
+	/**
+	 * Indicates whether the load may be ramped directly from one load level to
+	 * the next one in pipelined experiment series, i.e. without cooling down
+	 * to zero users in between. Detection controllers whose analysis does not
+	 * depend on an idle system at the beginning of each experiment should
+	 * override this method.
+	 * 
+	 * @return true, if load transitions are safe for this controller
+	 */
+	protected boolean allowsLoadTransitions() {
+		return false;
 	}
 
 	/**
@@ -245,14 +549,109 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 			descriptionBuilder.appendOtherDescription(reuser.getInstrumentationDescription());
 		}
 		InstrumentationDescription aggregatedDescription = descriptionBuilder.build();
+		instrumentationDescription = instDescription;
+		initSampling();
 		getInstrumentationController().instrument(aggregatedDescription);
 		measurementController.prepareMonitoring(aggregatedDescription);
 		instrumented = true;
-		ProgressManager.getInstance().addAdditionalDuration(
+		ProgressManager.getInstance().addAdditionalDuration(getProblemId(),
 				(System.currentTimeMillis() - instrumentationStart) / SECOND);
 
 	}
 
+	/**
+	 * Replaces the current instrumentation of the target application with the
+	 * passed {@link instDescription}. The workload is not touched, thus, the
+	 * system under test stays warmed up.
+	 * 
+	 * @param instDescription
+	 *            instrumentation description describing the new
+	 *            instrumentation state of the target application
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if instrumentation fails
+	 */
+	protected void reinstrumentApplication(InstrumentationDescription instDescription)
+			throws InstrumentationException, MeasurementException {
+		if (instrumented) {
+			uninstrumentApplication();
+		}
+		instrumentApplication(instDescription);
+	}
+
+	/**
+	 * Applies the configured sampling rates, if all instrumentation satellites
+	 * support sampling. Otherwise, all calls are recorded.
+	 * 
+	 * @throws InstrumentationException
+	 *             if the sampling rates cannot be applied
+	 */
+	private void initSampling() throws InstrumentationException {
+		samplingDescription = SamplingDescription.fromConfiguration();
+		if (!samplingDescription.isSampling() && GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.INSTRUMENTATION_SAMPLING_TARGET_RECORDS,
+				ConfigKeys.DEFAULT_INSTRUMENTATION_SAMPLING_TARGET_RECORDS) <= 0) {
+			return;
+		}
+		if (!getInstrumentationController().supportsSampling()) {
+			LOGGER.warn("Not all instrumentation satellites support sampling, all calls are recorded.");
+			samplingDescription = SamplingDescription.NONE;
+			return;
+		}
+		getInstrumentationController().setSamplingDescription(samplingDescription);
+	}
+
+	/**
+	 * Reduces the sampling rates for the next experiment, if the previous
+	 * experiment exceeded the configured number of records per second.
+	 * Sampling rates reduced before are raised again if the number of records
+	 * is well below the target.
+	 * 
+	 * @throws WorkloadException
+	 *             if the sampling rates cannot be applied
+	 */
+	private void adaptSampling() throws WorkloadException {
+		int targetRecords = GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.INSTRUMENTATION_SAMPLING_TARGET_RECORDS,
+				ConfigKeys.DEFAULT_INSTRUMENTATION_SAMPLING_TARGET_RECORDS);
+		long records = getResultManager().getLastRecordCount();
+		if (targetRecords <= 0 || records <= 0 || lastStablePhaseDuration <= 0
+				|| !getInstrumentationController().supportsSampling()) {
+			return;
+		}
+		double recordsPerSecond = (double) records * SECOND / lastStablePhaseDuration;
+		double factor = targetRecords / recordsPerSecond;
+		if (factor >= 1.0 && !samplingDescription.isSampling()) {
+			return;
+		}
+		SamplingDescription adapted = samplingDescription.scale(factor);
+		if (adapted.toParameterValue().equals(samplingDescription.toParameterValue())) {
+			return;
+		}
+		LOGGER.info("Adapting sampling rates to {} records per second: {}", targetRecords, adapted);
+		try {
+			getInstrumentationController().setSamplingDescription(adapted);
+		} catch (InstrumentationException e) {
+			throw new WorkloadException("Failed adapting sampling rates!", e);
+		}
+		samplingDescription = adapted;
+	}
+
+	/**
+	 * Returns the sampling rates applied in the experiment the given data
+	 * originates from. Heuristics counting calls have to scale the counts with
+	 * {@link SamplingDescription#scaleCount(long, String)}.
+	 * 
+	 * @param dataset
+	 *            dataset of a single experiment
+	 * @return the applied sampling rates, {@link SamplingDescription#NONE} if
+	 *         all calls have been recorded
+	 */
+	protected SamplingDescription getSamplingDescription(Dataset dataset) {
+		return SamplingDescription.fromDataset(dataset);
+	}
+
 	/**
 	 * Reverts instrumentation.
 	 * 
@@ -267,7 +666,8 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 		getInstrumentationController().uninstrument();
 		measurementController.resetMonitoring();
 		instrumented = false;
-		ProgressManager.getInstance().addAdditionalDuration(
+		instrumentationDescription = null;
+		ProgressManager.getInstance().addAdditionalDuration(getProblemId(),
 				(System.currentTimeMillis() - uninstrumentationStart) / SECOND);
 	}
 
@@ -285,10 +685,99 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 	 */
 	protected void runExperiment(IDetectionController detectionController, int numUsers) throws WorkloadException,
 			MeasurementException {
+		runExperiment(detectionController, createLoadConfig(numUsers));
+	}
+
+	/**
+	 * Runs a single experiment with the given load. Load profiles and think
+	 * time overrides which are not supported by all workload adapters are
+	 * ignored. An experiment aborted due to degraded satellites is repeated
+	 * once the satellites have recovered, up to the configured number of
+	 * retries.
+	 * 
+	 * @param detectionController
+	 *            the detection controller running the analysis
+	 * @param loadConfig
+	 *            load of this experiment
+	 * @throws WorkloadException
+	 *             if load generation fails
+	 * @throws MeasurementException
+	 *             if data collection fails
+	 */
+	protected void runExperiment(IDetectionController detectionController, LoadConfig loadConfig)
+			throws WorkloadException, MeasurementException {
+
+		if (experimentsToReuse > 0) {
+			// the data of this experiment has been stored by an interrupted run
+			experimentsToReuse--;
+			LOGGER.info("Reusing stored data of experiment with {}.", describeLoad(loadConfig));
+			return;
+		}
+
+		checkCancelled();
+		loadConfig = negotiateLoadConfig(loadConfig);
+		LOGGER.info("{} detection controller started experiment with {} ...", detectionController.getProvider()
+				.getName(), describeLoad(loadConfig));
+		int failedAttempts = 0;
+		while (true) {
+			try {
+				runExperimentAttempt(loadConfig);
+				break;
+			} catch (SatelliteDegradationException e) {
+				failedAttempts++;
+				recoverFromDegradation(e, failedAttempts);
+			}
+		}
+		LOGGER.info("Data stored!");
+	}
 
-		LOGGER.info("{} detection controller started experiment with {} users ...", detectionController.getProvider()
-				.getName(), numUsers);
+	private void runExperimentAttempt(LoadConfig loadConfig) throws WorkloadException, MeasurementException {
 		ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.EXPERIMENTING_RAMP_UP);
+		traceLoad(loadConfig);
+		awaitHealthySatellites();
+		adaptSampling();
+		getWorkloadAdapter().startLoad(loadConfig);
+
+		getWorkloadAdapter().waitForWarmupPhaseTermination();
+
+		Set<Parameter> parameters = createExperimentParameters(loadConfig);
+		boolean streaming = isStreamingCollection();
+
+		getMeasurementController().setCollectionQuery(createAggregatedCollectionQuery());
+		try {
+			runStablePhase(loadConfig, parameters, streaming);
+
+			try {
+				getWorkloadAdapter().waitForFinishedLoad();
+			} catch (WorkloadException | RuntimeException e) {
+				if (streaming) {
+					getResultManager().abortStreamingResults();
+				}
+				throw e;
+			}
+
+			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.COLLECTING_DATA);
+			LOGGER.info("Storing data ...");
+			long dataCollectionStart = System.currentTimeMillis();
+			collectExperimentData(parameters, streaming);
+			ProgressManager.getInstance().addAdditionalDuration(getProblemId(),
+					(System.currentTimeMillis() - dataCollectionStart) / SECOND);
+		} finally {
+			getMeasurementController().setCollectionQuery(null);
+		}
+	}
+
+	/**
+	 * Creates the load configuration of a closed workload with the configured
+	 * ramp-up, cool-down and experiment duration.
+	 * Detection controllers may override this method in order to apply load
+	 * profiles or think time overrides.
+	 * 
+	 * @param numUsers
+	 *            number of users
+	 * @return the load configuration
+	 */
+	protected LoadConfig createLoadConfig(int numUsers) {
 		LoadConfig lConfig = new LoadConfig();
 		lConfig.setNumUsers(numUsers);
 		lConfig.setRampUpIntervalLength(GlobalConfiguration.getInstance().getPropertyAsInteger(
@@ -301,30 +790,390 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 				ConfigKeys.EXPERIMENT_COOL_DOWN_NUM_USERS_PER_INTERVAL));
 		lConfig.setExperimentDuration(GlobalConfiguration.getInstance().getPropertyAsInteger(
 				ConfigKeys.EXPERIMENT_DURATION));
-		getWorkloadAdapter().startLoad(lConfig);
+		return lConfig;
+	}
 
-		getWorkloadAdapter().waitForWarmupPhaseTermination();
+	/**
+	 * Creates the load configuration of an open workload with the configured
+	 * ramp-up, cool-down and experiment duration.
+	 * 
+	 * @param arrivalRate
+	 *            arrival rate in [requests/s]
+	 * @return the load configuration
+	 */
+	protected LoadConfig createOpenLoopLoadConfig(double arrivalRate) {
+		LoadConfig lConfig = createLoadConfig(0);
+		lConfig.setArrivalRate(arrivalRate);
+		return lConfig;
+	}
 
+	/**
+	 * Removes the features of the given load configuration which are not
+	 * supported by all workload adapters. The given configuration remains
+	 * unchanged, thus, it can be reused for further experiments.
+	 * 
+	 * @param requestedConfig
+	 *            requested load configuration
+	 * @return the load configuration to apply
+	 * @throws WorkloadException
+	 *             if an open workload is requested but not supported
+	 */
+	private LoadConfig negotiateLoadConfig(LoadConfig requestedConfig) throws WorkloadException {
+		LoadConfig loadConfig = requestedConfig.copy();
+		if (loadConfig.isOpenLoop() && !getWorkloadAdapter().supportsOpenLoop()) {
+			throw new WorkloadException("Open workloads are not supported by all workload adapters!");
+		}
+		if (loadConfig.getLoadProfile().getShape() != LoadProfile.Shape.CONSTANT) {
+			if (!getWorkloadAdapter().supportsLoadProfiles()) {
+				LOGGER.warn("Load profiles are not supported by all workload adapters, ignoring profile {}.",
+						loadConfig.getLoadProfile());
+				loadConfig.setLoadProfile(LoadProfile.CONSTANT);
+			} else if (loadConfig.getLoadProfile().getMinimalDuration() > loadConfig.getExperimentDuration()) {
+				LOGGER.warn("Experiment duration of {} s does not cover load profile {}.",
+						loadConfig.getExperimentDuration(), loadConfig.getLoadProfile());
+			}
+		}
+		if (loadConfig.hasThinkTimeOverrides() && !getWorkloadAdapter().supportsThinkTimeOverrides()) {
+			LOGGER.warn("Think time overrides are not supported by all workload adapters, ignoring them.");
+			for (LoadConfig.Phase phase : LoadConfig.Phase.values()) {
+				loadConfig.setThinkTime(phase, null);
+			}
+		}
+		return loadConfig;
+	}
+
+	private static String describeLoad(LoadConfig loadConfig) {
+		String load = loadConfig.isOpenLoop() ? loadConfig.getArrivalRate() + " requests/s" : loadConfig
+				.getNumUsers() + " users";
+		if (loadConfig.getLoadProfile().getShape() != LoadProfile.Shape.CONSTANT) {
+			load += " (" + loadConfig.getLoadProfile() + ")";
+		}
+		return load;
+	}
+
+	private Set<Parameter> createExperimentParameters(LoadConfig loadConfig) {
+		Set<Parameter> parameters = new TreeSet<>();
+		if (loadConfig.isOpenLoop()) {
+			parameters.add(new Parameter(ARRIVAL_RATE_KEY, loadConfig.getArrivalRate()));
+		} else {
+			parameters.add(new Parameter(NUMBER_OF_USERS_KEY, loadConfig.getNumUsers()));
+		}
+		if (loadConfig.getLoadProfile().getShape() != LoadProfile.Shape.CONSTANT) {
+			parameters.add(new Parameter(LOAD_PROFILE_KEY, loadConfig.getLoadProfile().toString()));
+		}
+		if (samplingDescription.isSampling()) {
+			parameters.add(new Parameter(SamplingDescription.SAMPLING_PARAMETER_KEY,
+					samplingDescription.toParameterValue()));
+		}
+		for (Map.Entry<String, Object> parameter : additionalParameters.entrySet()) {
+			parameters.add(new Parameter(parameter.getKey(), parameter.getValue()));
+		}
+		return parameters;
+	}
+
+	/**
+	 * Sets an independent parameter which is stored with the data of all
+	 * subsequent experiments.
+	 * 
+	 * @param key
+	 *            name of the parameter
+	 * @param value
+	 *            value of the parameter, <code>null</code> removes the
+	 *            parameter
+	 */
+	protected void setExperimentParameter(String key, Object value) {
+		if (value == null) {
+			additionalParameters.remove(key);
+		} else {
+			additionalParameters.put(key, value);
+		}
+	}
+
+	/**
+	 * Monitors the stable phase of an experiment. If streaming collection is
+	 * used, data is stored already during the stable phase.
+	 * 
+	 * @param loadConfig
+	 *            load of the experiment
+	 * @param parameters
+	 *            independent parameters of the experiment
+	 * @param streaming
+	 *            true, if data is to be collected during the stable phase
+	 * @return duration of the stable phase in [ms]
+	 * @throws WorkloadException
+	 *             if load generation fails
+	 * @throws MeasurementException
+	 *             if monitoring fails
+	 */
+	private long runStablePhase(LoadConfig loadConfig, Set<Parameter> parameters, boolean streaming)
+			throws WorkloadException, MeasurementException {
 		ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.EXPERIMENTING_STABLE_PHASE);
+		traceLoad(loadConfig);
+		long stablePhaseStart = System.currentTimeMillis();
 		getMeasurementController().enableMonitoring();
+		if (streaming) {
+			LOGGER.info("Streaming data ...");
+			getResultManager().startStreamingResults(parameters, getMeasurementController());
+		}
 
-		getWorkloadAdapter().waitForExperimentPhaseTermination();
+		try {
+			waitForExperimentPhaseTermination();
 
-		ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.EXPERIMENTING_COOL_DOWN);
-		getMeasurementController().disableMonitoring();
+			ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.EXPERIMENTING_COOL_DOWN);
+			long stablePhaseDuration = System.currentTimeMillis() - stablePhaseStart;
+			lastStablePhaseDuration = stablePhaseDuration;
+			getMeasurementController().disableMonitoring();
+			return stablePhaseDuration;
+		} catch (WorkloadException | MeasurementException | RuntimeException e) {
+			if (streaming) {
+				getResultManager().abortStreamingResults();
+				if (e instanceof SatelliteDegradationException) {
+					// the experiment is repeated, its partial data is useless
+					getResultManager().discardLastExperiment();
+				}
+			}
+			throw e;
+		}
+	}
 
-		getWorkloadAdapter().waitForFinishedLoad();
+	/**
+	 * Prepares the repetition of an experiment aborted due to degraded
+	 * satellites: the load of the aborted experiment is stopped, monitoring is
+	 * stopped and reset, and the satellites are awaited to recover. Workload
+	 * adapters which cannot stop a running load let it finish, see
+	 * {@link IWorkloadAdapter#abortLoad()}.
+	 * 
+	 * @param degradation
+	 *            the cause of the abortion
+	 * @param failedAttempts
+	 *            number of failed attempts of the experiment so far
+	 * @throws WorkloadException
+	 *             if the experiment must not be repeated anymore or the
+	 *             satellites do not recover in time
+	 */
+	private void recoverFromDegradation(SatelliteDegradationException degradation, int failedAttempts)
+			throws WorkloadException {
+		int maxRetries = GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.SATELLITE_HEALTH_EXPERIMENT_RETRIES, ConfigKeys.DEFAULT_SATELLITE_HEALTH_EXPERIMENT_RETRIES);
+		if (failedAttempts > maxRetries) {
+			throw degradation;
+		}
+		LOGGER.warn("{} Repeating the experiment after recovery, attempt {} of {} ...", degradation.getMessage(),
+				failedAttempts, maxRetries);
+		try {
+			getWorkloadAdapter().abortLoad();
+		} catch (WorkloadException e) {
+			LOGGER.warn("Stopping the load of the aborted experiment failed: {}", e.getMessage());
+		}
+		try {
+			getMeasurementController().disableMonitoring();
+			getMeasurementController().resetMonitoring();
+		} catch (MeasurementException e) {
+			LOGGER.warn("Resetting the monitoring of the aborted experiment failed: {}", e.getMessage());
+		}
+		awaitHealthySatellites();
+	}
 
-		ProgressManager.getInstance().updateProgressStatus(getProblemId(), DiagnosisStatus.COLLECTING_DATA);
-		LOGGER.info("Storing data ...");
-		long dataCollectionStart = System.currentTimeMillis();
-		Parameter numOfUsersParameter = new Parameter(NUMBER_OF_USERS_KEY, numUsers);
-		Set<Parameter> parameters = new TreeSet<>();
-		parameters.add(numOfUsersParameter);
-		getResultManager().storeResults(parameters, getMeasurementController());
-		ProgressManager.getInstance()
-				.addAdditionalDuration((System.currentTimeMillis() - dataCollectionStart) / SECOND);
-		LOGGER.info("Data stored!");
+	/**
+	 * Pauses the experiment series while satellites of the replica group of
+	 * this controller are degraded.
+	 * 
+	 * @throws WorkloadException
+	 *             if the satellites do not recover in time
+	 */
+	private void awaitHealthySatellites() throws WorkloadException {
+		String group = replicaGroup == null ? null : replicaGroup.getName();
+		String degradation = SatelliteHealthMonitor.getInstance().getDegradation(group);
+		if (degradation == null) {
+			return;
+		}
+		long recoveryTimeout = GlobalConfiguration.getInstance().getPropertyAsLong(
+				ConfigKeys.SATELLITE_HEALTH_RECOVERY_TIMEOUT, ConfigKeys.DEFAULT_SATELLITE_HEALTH_RECOVERY_TIMEOUT);
+		LOGGER.warn("Satellites degraded: {}. Waiting up to {} s for recovery ...", degradation, recoveryTimeout);
+		ProgressManager.getInstance().updateProgressMessage(getProblemId(),
+				"Waiting for degraded satellites: " + degradation);
+		long waitingStart = System.currentTimeMillis();
+		degradation = SatelliteHealthMonitor.getInstance().awaitHealthy(group, recoveryTimeout * SECOND);
+		ProgressManager.getInstance().addAdditionalDuration(getProblemId(),
+				(System.currentTimeMillis() - waitingStart) / SECOND);
+		if (degradation != null) {
+			throw new WorkloadException("Satellites did not recover: " + degradation);
+		}
+		ProgressManager.getInstance().updateProgressMessage(getProblemId(), "");
+	}
+
+	/**
+	 * Waits for the end of the stable phase. If the satellites are monitored,
+	 * the experiment is aborted as soon as one of the satellites of the
+	 * replica group of this controller degrades.
+	 * 
+	 * @throws WorkloadException
+	 *             if load generation fails or a satellite degrades
+	 */
+	private void waitForExperimentPhaseTermination() throws WorkloadException {
+		if (!SatelliteHealthMonitor.getInstance().isRunning()) {
+			getWorkloadAdapter().waitForExperimentPhaseTermination();
+			return;
+		}
+
+		String group = replicaGroup == null ? null : replicaGroup.getName();
+		Future<?> termination = LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					getWorkloadAdapter().waitForExperimentPhaseTermination();
+				} catch (WorkloadException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		try {
+			while (true) {
+				try {
+					termination.get(SECOND, TimeUnit.MILLISECONDS);
+					return;
+				} catch (TimeoutException e) {
+					String degradation = SatelliteHealthMonitor.getInstance().getDegradation(group);
+					if (degradation != null) {
+						termination.cancel(true);
+						throw new SatelliteDegradationException("Experiment aborted, satellites degraded: "
+								+ degradation);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			throw new WorkloadException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException && cause.getCause() instanceof WorkloadException) {
+				throw (WorkloadException) cause.getCause();
+			}
+			throw new WorkloadException(cause);
+		}
+	}
+
+	private void traceLoad(LoadConfig loadConfig) {
+		if (loadConfig.isOpenLoop()) {
+			ProgressManager.getInstance().getTimeline().addArgument(getProblemId(), ARRIVAL_RATE_KEY,
+					loadConfig.getArrivalRate());
+		} else {
+			ProgressManager.getInstance().getTimeline().addArgument(getProblemId(), NUMBER_OF_USERS_KEY,
+					loadConfig.getNumUsers());
+		}
+	}
+
+	private void collectExperimentData(Set<Parameter> parameters, boolean streaming) throws MeasurementException {
+		if (streaming) {
+			// only the tail of the experiment remains to be collected
+			getResultManager().finishStreamingResults();
+		} else {
+			getResultManager().storeResults(parameters, getMeasurementController());
+		}
+	}
+
+	/**
+	 * Collects the experiment data in the background. The collection query of
+	 * the measurement controller has to be kept until the collection has
+	 * finished and is reset by the caller afterwards.
+	 * 
+	 * @param parameters
+	 *            independent parameters of the experiment
+	 * @param streaming
+	 *            true, if only the tail of a streamed experiment remains
+	 * @return future of the collection
+	 */
+	private Future<?> collectExperimentDataAsync(final Set<Parameter> parameters, final boolean streaming) {
+		return LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					collectExperimentData(parameters, streaming);
+				} catch (MeasurementException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Blocks until the given collection of experiment data has finished. Only
+	 * the time spent waiting is accounted as additional duration.
+	 * 
+	 * @param collection
+	 *            pending collection, may be <code>null</code>
+	 * @throws MeasurementException
+	 *             if data collection failed
+	 */
+	private void awaitCollection(Future<?> collection) throws MeasurementException {
+		if (collection == null) {
+			return;
+		}
+		long waitingStart = System.currentTimeMillis();
+		try {
+			collection.get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new MeasurementException("Failed Storing data!", e);
+		}
+		ProgressManager.getInstance().addAdditionalDuration(getProblemId(),
+				(System.currentTimeMillis() - waitingStart) / SECOND);
+	}
+
+	/**
+	 * Restricts the given query to records captured during the stable phase.
+	 * Timestamps of records are relative to the start of the stable phase.
+	 * 
+	 * @param query
+	 *            query to restrict, <code>null</code> stands for all data
+	 * @param stablePhaseDuration
+	 *            duration of the stable phase in [ms]
+	 * @return the restricted query
+	 */
+	private CollectionQuery restrictToStablePhase(CollectionQuery query, long stablePhaseDuration) {
+		CollectionQuery restricted = query == null ? new CollectionQuery() : query;
+		return restricted.setTimeWindow(Math.max(restricted.getFromTime(), 0L),
+				Math.min(restricted.getToTime(), stablePhaseDuration));
+	}
+
+	/**
+	 * Describes the measurement data required by the analysis of this
+	 * controller. Only data matching the query is collected after an
+	 * experiment. By default, the data captured by the instrumentation
+	 * description of the controller is collected, see
+	 * {@link CollectionQuery#fromInstrumentationDescription(InstrumentationDescription)}.
+	 * Detection controllers which only need parts of the captured data (e.g.
+	 * records above a threshold) or which need data not described by their
+	 * instrumentation description should override this method.
+	 * 
+	 * @return the query describing the required data, or <code>null</code> if
+	 *         the data captured by the instrumentation description of this
+	 *         controller is required
+	 */
+	protected CollectionQuery getCollectionQuery() {
+		return null;
+	}
+
+	/**
+	 * Unites the collection query of this controller with the queries of all
+	 * controllers reusing its experiments. Controllers without an own query
+	 * require the data captured by their instrumentation descriptions.
+	 * 
+	 * @return the aggregated query or <code>null</code> if all data is required
+	 */
+	private CollectionQuery createAggregatedCollectionQuery() {
+		List<CollectionQuery> queries = new ArrayList<>();
+		CollectionQuery query = getCollectionQuery();
+		queries.add(query != null ? query : CollectionQuery.fromInstrumentationDescription(instrumentationDescription));
+		for (IExperimentReuser reuser : experimentReuser) {
+			query = null;
+			if (reuser instanceof AbstractDetectionController) {
+				query = ((AbstractDetectionController) reuser).getCollectionQuery();
+			}
+			if (query == null) {
+				query = CollectionQuery.fromInstrumentationDescription(reuser.getInstrumentationDescription());
+			}
+			queries.add(query);
+		}
+		return CollectionQuery.union(queries);
 	}
 
 	/**
@@ -396,4 +1245,14 @@ public abstract class AbstractDetectionController extends AbstractExtensionArtif
 		return instrumentationController;
 	}
 
+	/**
+	 * Signals that an experiment has been aborted because satellites degraded.
+	 */
+	private static final class SatelliteDegradationException extends WorkloadException {
+		private static final long serialVersionUID = 1L;
+
+		private SatelliteDegradationException(String message) {
+			super(message);
+		}
+	}
 }
@@ -20,6 +20,8 @@ import java.util.Set;
 
 import org.lpe.common.config.ConfigParameterDescription;
 import org.lpe.common.util.LpeSupportedTypes;
+import org.spotter.core.extension.ExtensionIndex;
+import org.spotter.core.extension.ExtensionIndexEntry;
 import org.spotter.shared.configuration.ConfigKeys;
 
 /**
@@ -33,6 +35,7 @@ public abstract class AbstractDetectionExtension implements IDetectionExtension
 	public static final String REUSE_EXPERIMENTS_FROM_PARENT = "reuseExperimentsFromParent";
 
 	private final Set<ConfigParameterDescription> configParameters;
+	private boolean reuseCapabilityChecked = false;
 
 	/**
 	 * Constructor.
@@ -41,9 +44,6 @@ public abstract class AbstractDetectionExtension implements IDetectionExtension
 
 		configParameters = new HashSet<ConfigParameterDescription>();
 		configParameters.add(createIsDetectableParameter());
-		if (this.createExtensionArtifact() instanceof IExperimentReuser) {
-			configParameters.add(createReuseExperimentsParameter());
-		}
 		initializeConfigurationParameters();
 	}
 
@@ -64,10 +64,33 @@ public abstract class AbstractDetectionExtension implements IDetectionExtension
 	}
 
 	@Override
-	public final Set<ConfigParameterDescription> getConfigParameters() {
+	public final synchronized Set<ConfigParameterDescription> getConfigParameters() {
+		// the capability is checked lazily to avoid creating artifacts while
+		// extensions are registered
+		if (!reuseCapabilityChecked) {
+			reuseCapabilityChecked = true;
+			if (isExperimentReuser()) {
+				configParameters.add(createReuseExperimentsParameter());
+			}
+		}
 		return configParameters;
 	}
 
+	/**
+	 * Checks whether the artifacts of this extension are able to reuse the
+	 * experiments of their parent. The {@link ExtensionIndex} is consulted
+	 * first, only extensions without index entry create an artifact.
+	 * 
+	 * @return true, if the artifacts implement {@link IExperimentReuser}
+	 */
+	private boolean isExperimentReuser() {
+		ExtensionIndexEntry entry = ExtensionIndex.getInstance().getEntry(getClass());
+		if (entry != null) {
+			return entry.isExperimentReuser();
+		}
+		return this.createExtensionArtifact() instanceof IExperimentReuser;
+	}
+
 	private ConfigParameterDescription createReuseExperimentsParameter() {
 		ConfigParameterDescription reuseExperimentsParameter = new ConfigParameterDescription(
 				REUSE_EXPERIMENTS_FROM_PARENT, LpeSupportedTypes.Boolean);
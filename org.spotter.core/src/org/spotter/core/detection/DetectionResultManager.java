@@ -22,11 +22,16 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.aim.api.exceptions.MeasurementException;
 import org.aim.api.measurement.dataset.DatasetCollection;
@@ -36,10 +41,19 @@ import org.aim.api.measurement.utils.RecordCSVWriter;
 import org.lpe.common.config.GlobalConfiguration;
 import org.lpe.common.util.LpeFileUtils;
 import org.lpe.common.util.system.LpeSystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.PhaseTimeline;
+import org.spotter.core.ProgressManager;
 import org.spotter.core.chartbuilder.AnalysisChartBuilder;
+import org.spotter.core.chartbuilder.ChartRenderingExecutor;
 import org.spotter.core.chartbuilder.RChartBuilder;
 import org.spotter.core.chartbuilder.XChartBuilder;
+import org.spotter.core.instrumentation.OverheadCompensator;
 import org.spotter.core.measurement.IMeasurementAdapter;
+import org.spotter.core.measurement.RingBufferChannel;
+import org.spotter.core.metrics.MetricsRegistry;
+import org.spotter.core.result.RunJournal;
 import org.spotter.shared.configuration.ConfigCheck;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.result.ResultsLocationConstants;
@@ -52,6 +66,9 @@ import org.spotter.shared.result.model.SpotterResult;
  * 
  */
 public class DetectionResultManager {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DetectionResultManager.class);
+	private static final String DATA_TRACK_SUFFIX = "#data";
+
 	private String dataPath;
 	private String resourcePath;
 	private String parentIdentifier;
@@ -59,6 +76,14 @@ public class DetectionResultManager {
 	private String problemId;
 	private int resultCount = 0;
 	private int additionalResourceCount = 0;
+	private final List<Future<?>> pendingResources = new ArrayList<>();
+	private Future<?> streamingProducer;
+	private Future<?> streamingConsumer;
+	private RingBufferChannel streamingChannel;
+	private long streamingStart;
+	private CountDownLatch streamingStopSignal;
+	private volatile boolean streamingAborted;
+	private volatile long lastRecordCount = -1L;
 
 	/**
 	 * Constructor.
@@ -209,9 +234,11 @@ public class DetectionResultManager {
 	}
 
 	/**
-	 * Stores a xChart image.
+	 * Stores a chart image. The chart is rendered asynchronously, the resource
+	 * name is registered with the given result immediately. Use
+	 * {@link #waitForPendingResources()} to wait for the rendering to finish.
 	 * 
-	 * @param chartchartBuilder
+	 * @param chartBuilder
 	 *            chart to store
 	 * @param fileName
 	 *            file name of the image
@@ -230,8 +257,35 @@ public class DetectionResultManager {
 			resourceName = resourceName + ".pdf";
 		}
 		String filePath = getAdditionalResourcesPath() + resourceName;
-		chartBuilder.build(filePath);
-		spotterResult.addResourceFile(resourceName);
+		Future<?> future = ChartRenderingExecutor.getInstance().submit(chartBuilder, filePath);
+		if (future != null) {
+			synchronized (pendingResources) {
+				pendingResources.add(future);
+			}
+			spotterResult.addResourceFile(resourceName);
+		}
+	}
+
+	/**
+	 * Blocks until all resources which are rendered asynchronously have been
+	 * stored.
+	 */
+	public void waitForPendingResources() {
+		List<Future<?>> futures;
+		synchronized (pendingResources) {
+			futures = new ArrayList<>(pendingResources);
+			pendingResources.clear();
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while storing chart resources!", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Storing chart resource failed!", e);
+			}
+		}
 	}
 
 	/**
@@ -307,10 +361,12 @@ public class DetectionResultManager {
 	public void storeResults(final Set<Parameter> parameters, final IMeasurementAdapter measurementController)
 			throws MeasurementException {
 		try {
+			long start = System.nanoTime();
 			resultCount++;
 			final String path = getExperimentPath(resultCount);
-			final PipedOutputStream outStream = new PipedOutputStream();
-			final PipedInputStream inStream = new PipedInputStream(outStream);
+			final RingBufferChannel channel = new RingBufferChannel();
+			final OutputStream outStream = channel.getOutputStream();
+			final InputStream inStream = channel.getInputStream();
 
 			Future<?> future = LpeSystemUtils.submitTask(new Runnable() {
 				@Override
@@ -319,13 +375,25 @@ public class DetectionResultManager {
 						measurementController.pipeToOutputStream(outStream);
 					} catch (MeasurementException e) {
 						throw new RuntimeException("Failed Storing data!");
+					} finally {
+						try {
+							outStream.close();
+						} catch (IOException e) {
+							throw new RuntimeException("Failed Storing data!", e);
+						}
 					}
 				}
 			});
 
-			RecordCSVWriter.getInstance().pipeDataToDatasetFiles(inStream, path, parameters);
+			try {
+				RecordCSVWriter.getInstance().pipeDataToDatasetFiles(inStream, path, parameters);
+			} finally {
+				inStream.close();
+			}
 
 			future.get();
+			recordTransfer(channel, start, resultCount);
+			RunJournal.getInstance().experimentCompleted(getProblemId(), resultCount);
 
 			// measurementController.storeReport(path);
 		} catch (IOException | InterruptedException | ExecutionException e) {
@@ -334,7 +402,187 @@ public class DetectionResultManager {
 	}
 
 	/**
-	 * Loads experiment raw data for that controller.
+	 * Starts storing experiment raw data while the experiment is running. The
+	 * data of measurement satellites supporting streaming is drained in
+	 * micro-batches during the stable phase. Use
+	 * {@link #finishStreamingResults()} after monitoring has been disabled to
+	 * flush the remaining data.
+	 * 
+	 * @param parameters
+	 *            additional independent experiment parameters
+	 * @param measurementController
+	 *            measurement controller where to retrieve data from
+	 */
+	public void startStreamingResults(final Set<Parameter> parameters, final IMeasurementAdapter measurementController) {
+		if (streamingProducer != null) {
+			throw new IllegalStateException("Streaming collection is already running!");
+		}
+		resultCount++;
+		final String path = getExperimentPath(resultCount);
+		final RingBufferChannel channel = new RingBufferChannel();
+		final OutputStream outStream = channel.getOutputStream();
+		final InputStream inStream = channel.getInputStream();
+		final long interval = GlobalConfiguration.getInstance().getPropertyAsInteger(
+				ConfigKeys.MEASUREMENT_STREAMING_INTERVAL, ConfigKeys.DEFAULT_MEASUREMENT_STREAMING_INTERVAL);
+		final CountDownLatch stopSignal = new CountDownLatch(1);
+		streamingStopSignal = stopSignal;
+		streamingChannel = channel;
+		streamingStart = System.nanoTime();
+		streamingAborted = false;
+
+		streamingProducer = LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while (!stopSignal.await(interval, TimeUnit.MILLISECONDS)) {
+						measurementController.pipeIncrementToOutputStream(outStream);
+					}
+					if (!streamingAborted) {
+						// flush the tail of the experiment
+						measurementController.pipeToOutputStream(outStream);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Interrupted while storing data!", e);
+				} catch (MeasurementException e) {
+					throw new RuntimeException("Failed Storing data!", e);
+				} finally {
+					try {
+						outStream.close();
+					} catch (IOException e) {
+						throw new RuntimeException("Failed Storing data!", e);
+					}
+				}
+			}
+		});
+
+		streamingConsumer = LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					RecordCSVWriter.getInstance().pipeDataToDatasetFiles(inStream, path, parameters);
+				} catch (Exception e) {
+					throw new RuntimeException("Failed Storing data!", e);
+				} finally {
+					try {
+						inStream.close();
+					} catch (IOException e) {
+						throw new RuntimeException("Failed Storing data!", e);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Flushes the remaining data of a streaming collection started with
+	 * {@link #startStreamingResults(Set, IMeasurementAdapter)} and blocks until
+	 * all data has been stored.
+	 * 
+	 * @throws MeasurementException
+	 *             thrown if storing raw data fails
+	 */
+	public void finishStreamingResults() throws MeasurementException {
+		if (streamingProducer == null) {
+			throw new IllegalStateException("No streaming collection running!");
+		}
+		streamingStopSignal.countDown();
+		try {
+			streamingProducer.get();
+			streamingConsumer.get();
+			if (!streamingAborted) {
+				RunJournal.getInstance().experimentCompleted(getProblemId(), resultCount);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MeasurementException("Interrupted while storing data!", e);
+		} catch (ExecutionException e) {
+			throw new MeasurementException("Failed Storing data!", e);
+		} finally {
+			recordTransfer(streamingChannel, streamingStart, resultCount);
+			streamingProducer = null;
+			streamingConsumer = null;
+			streamingChannel = null;
+		}
+	}
+
+	private void recordTransfer(RingBufferChannel channel, long startNanos, int experiment) {
+		long records = channel.getTransferredLines();
+		long bytes = channel.getTransferredBytes();
+		lastRecordCount = records;
+		MetricsRegistry.getInstance().incrementCounter(MetricsRegistry.RECORDS_COLLECTED, records, "controller",
+				controllerName);
+		MetricsRegistry.getInstance().incrementCounter(MetricsRegistry.BYTES_STORED, bytes, "controller",
+				controllerName);
+
+		Map<String, Object> args = new HashMap<>();
+		args.put("experiment", experiment);
+		args.put("records", records);
+		args.put("bytes", bytes);
+		String track = getProblemId() + DATA_TRACK_SUFFIX;
+		PhaseTimeline timeline = ProgressManager.getInstance().getTimeline();
+		timeline.setTrackName(track, controllerName + " (data)");
+		timeline.recordSpan(track, "storing data", startNanos, System.nanoTime(), args);
+	}
+
+	/**
+	 * @return the number of records stored for the latest experiment, -1 if no
+	 *         data has been stored yet
+	 */
+	public long getLastRecordCount() {
+		return lastRecordCount;
+	}
+
+	/**
+	 * Stops a streaming collection without flushing the remaining data, e.g.
+	 * if the experiment failed. Data streamed so far remains stored.
+	 */
+	public void abortStreamingResults() {
+		if (streamingProducer == null) {
+			return;
+		}
+		streamingAborted = true;
+		try {
+			finishStreamingResults();
+		} catch (MeasurementException e) {
+			LOGGER.warn("Aborting streaming collection failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Continues the experiment series of an interrupted run. The data of the
+	 * given number of experiments is reused, data of an incomplete subsequent
+	 * experiment is discarded.
+	 * 
+	 * @param completedExperiments
+	 *            number of experiments whose data has been stored completely
+	 */
+	public void resumeExperiments(int completedExperiments) {
+		resultCount = completedExperiments;
+		File incompleteExperiment = new File(getExperimentPath(completedExperiments + 1));
+		if (incompleteExperiment.exists()) {
+			try {
+				LpeFileUtils.removeDir(incompleteExperiment.getAbsolutePath());
+			} catch (IOException e) {
+				throw new RuntimeException("Failed removing data of incomplete experiment!", e);
+			}
+		}
+	}
+
+	/**
+	 * Discards the data stored for the latest experiment, e.g. if the
+	 * experiment is repeated after it has been aborted.
+	 */
+	public void discardLastExperiment() {
+		if (resultCount > 0) {
+			resumeExperiments(resultCount - 1);
+		}
+	}
+
+	/**
+	 * Loads experiment raw data for that controller. If overhead compensation
+	 * is enabled, the calibrated probe overhead is subtracted from the loaded
+	 * response times.
 	 * 
 	 * @return a collection of data sets
 	 */
@@ -343,7 +591,14 @@ public class DetectionResultManager {
 		if (!dir.exists()) {
 			throw new RuntimeException("Failed loading measurement data: Data path does not exist!");
 		}
-		return RecordCSVReader.getInstance().readDatasetCollectionFromDirectory(getDataPath());
+		DatasetCollection data = RecordCSVReader.getInstance().readDatasetCollectionFromDirectory(getDataPath());
+		if (GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.INSTRUMENTATION_OVERHEAD_COMPENSATION,
+				false)) {
+			double probeOverhead = Double.parseDouble(GlobalConfiguration.getInstance().getProperty(
+					ConfigKeys.INSTRUMENTATION_PROBE_OVERHEAD, "0.0"));
+			OverheadCompensator.compensate(data, probeOverhead);
+		}
+		return data;
 	}
 
 	/**
@@ -0,0 +1,290 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.detection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.aim.api.exceptions.InstrumentationException;
+import org.aim.api.exceptions.MeasurementException;
+import org.aim.api.measurement.dataset.Dataset;
+import org.aim.api.measurement.dataset.DatasetCollection;
+import org.aim.api.measurement.dataset.ParameterSelection;
+import org.aim.artifacts.probes.ResponsetimeProbe;
+import org.aim.description.InstrumentationDescription;
+import org.aim.description.builder.InstrumentationDescriptionBuilder;
+import org.lpe.common.config.GlobalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.exceptions.WorkloadException;
+import org.spotter.shared.configuration.ConfigKeys;
+
+/**
+ * Localizes root causes by iterative drill-down. Starting with coarse entry
+ * points, only the methods of one call tree level are instrumented per
+ * experiment. After each experiment, only the children of methods found to
+ * be suspicious are instrumented for the next experiment. The search stops
+ * when the maximal depth or the budget of instrumented methods is reached.
+ * All experiments run on the warm system under test of the executing
+ * detection controller.
+ */
+public class DrillDownSearch {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DrillDownSearch.class);
+
+	/**
+	 * Experiment parameter denoting the call tree level examined by an
+	 * experiment.
+	 */
+	public static final String DRILL_DOWN_LEVEL_KEY = "drillDownLevel";
+
+	/**
+	 * Heuristic specific part of a drill-down search.
+	 */
+	public interface IDrillDownStrategy {
+		/**
+		 * Returns the methods called by the given method which are candidates
+		 * for the next drill-down level.
+		 * 
+		 * @param method
+		 *            method pattern of a suspicious method
+		 * @return method patterns of the children, empty if the given method
+		 *         is a leaf
+		 */
+		Set<String> getChildren(String method);
+
+		/**
+		 * Analyzes the experiment of one drill-down level. The data comprises
+		 * the experiments of all levels examined so far, datasets of the
+		 * current level can be selected with
+		 * {@link DrillDownSearch#selectLevel(Dataset, int)}.
+		 * 
+		 * @param data
+		 *            experiment data
+		 * @param level
+		 *            examined level, 0 denotes the entry points
+		 * @param scopes
+		 *            method patterns instrumented in the examined level
+		 * @return suspicious methods out of the given scopes, ordered by
+		 *         decreasing suspicion
+		 */
+		List<String> selectSuspicious(DatasetCollection data, int level, Set<String> scopes);
+	}
+
+	/**
+	 * Selects the datasets of the given drill-down level.
+	 * 
+	 * @param dataset
+	 *            dataset comprising experiments of several levels
+	 * @param level
+	 *            level to select
+	 * @return dataset comprising only the experiments of the given level
+	 */
+	public static Dataset selectLevel(Dataset dataset, int level) {
+		return new ParameterSelection().select(DRILL_DOWN_LEVEL_KEY, level).applyTo(dataset);
+	}
+
+	private final AbstractDetectionController controller;
+	private final IDrillDownStrategy strategy;
+	private final List<List<String>> suspiciousMethods = new ArrayList<>();
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller
+	 *            detection controller executing the experiments
+	 * @param strategy
+	 *            heuristic specific selection of suspicious methods
+	 */
+	public DrillDownSearch(AbstractDetectionController controller, IDrillDownStrategy strategy) {
+		this.controller = controller;
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Executes the drill-down search. Each examined level costs one
+	 * experiment with the given load.
+	 * 
+	 * @param entryPoints
+	 *            method patterns of the coarse entry points to start with
+	 * @param numUsers
+	 *            number of users for the experiments
+	 * @return the root cause candidates, i.e. the deepest suspicious methods
+	 *         found on each suspicious path
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	public Set<String> execute(Collection<String> entryPoints, int numUsers) throws InstrumentationException,
+			MeasurementException, WorkloadException {
+		int maxDepth = GlobalConfiguration.getInstance().getPropertyAsInteger(ConfigKeys.DRILL_DOWN_MAX_DEPTH,
+				ConfigKeys.DEFAULT_DRILL_DOWN_MAX_DEPTH);
+		int scopeBudget = GlobalConfiguration.getInstance().getPropertyAsInteger(ConfigKeys.DRILL_DOWN_SCOPE_BUDGET,
+				ConfigKeys.DEFAULT_DRILL_DOWN_SCOPE_BUDGET);
+
+		suspiciousMethods.clear();
+		Set<String> candidates = new TreeSet<>();
+		// maps each instrumented method to the suspicious method it is called by
+		Map<String, String> parents = new HashMap<>();
+		Set<String> frontier = new HashSet<>();
+		Set<String> scopes = new LinkedHashSet<>(entryPoints);
+		int instrumentedScopes = 0;
+		for (int level = 0; !scopes.isEmpty(); level++) {
+			if (scopeBudget > 0) {
+				int remainingBudget = scopeBudget - instrumentedScopes;
+				if (remainingBudget <= 0) {
+					LOGGER.info("Drill-down stopped at level {}: budget of {} methods exhausted.", level,
+							scopeBudget);
+					candidates.addAll(frontier);
+					break;
+				}
+				scopes = limit(scopes, remainingBudget);
+			}
+			instrumentedScopes += scopes.size();
+
+			LOGGER.info("Drill-down level {}: examining {} methods ...", level, scopes.size());
+			List<String> suspicious = examineLevel(level, scopes, numUsers);
+			suspiciousMethods.add(suspicious);
+
+			// suspicious methods without suspicious children are the
+			// deepest methods of their path
+			Set<String> confirmedParents = new HashSet<>();
+			for (String method : suspicious) {
+				if (parents.containsKey(method)) {
+					confirmedParents.add(parents.get(method));
+				}
+			}
+			for (String parent : frontier) {
+				if (!confirmedParents.contains(parent)) {
+					candidates.add(parent);
+				}
+			}
+
+			frontier = new HashSet<>();
+			Set<String> nextScopes = new LinkedHashSet<>();
+			for (String method : suspicious) {
+				Set<String> children = level < maxDepth ? strategy.getChildren(method) : Collections
+						.<String> emptySet();
+				boolean hasNewChildren = false;
+				for (String child : children) {
+					if (!parents.containsKey(child) && !child.equals(method)) {
+						parents.put(child, method);
+						nextScopes.add(child);
+						hasNewChildren = true;
+					}
+				}
+				if (hasNewChildren) {
+					frontier.add(method);
+				} else {
+					candidates.add(method);
+				}
+			}
+			scopes = nextScopes;
+		}
+		finishSearch();
+		LOGGER.info("Drill-down finished with {} root cause candidates.", candidates.size());
+		return candidates;
+	}
+
+	/**
+	 * Instruments the given methods, runs one experiment and selects the
+	 * suspicious methods.
+	 * 
+	 * @param level
+	 *            examined level
+	 * @param scopes
+	 *            method patterns to instrument
+	 * @param numUsers
+	 *            number of users for the experiment
+	 * @return suspicious methods, ordered by decreasing suspicion
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	protected List<String> examineLevel(int level, Set<String> scopes, int numUsers)
+			throws InstrumentationException, MeasurementException, WorkloadException {
+		InstrumentationDescriptionBuilder descriptionBuilder = new InstrumentationDescriptionBuilder();
+		descriptionBuilder.newMethodScopeEntity(scopes.toArray(new String[scopes.size()]))
+				.addProbe(ResponsetimeProbe.MODEL_PROBE).entityDone();
+		InstrumentationDescription description = descriptionBuilder.build();
+
+		controller.reinstrumentApplication(description);
+		controller.setExperimentParameter(DRILL_DOWN_LEVEL_KEY, level);
+		try {
+			controller.runExperiment(controller, numUsers);
+		} finally {
+			controller.setExperimentParameter(DRILL_DOWN_LEVEL_KEY, null);
+		}
+
+		DatasetCollection data = controller.getResultManager().loadData();
+		return getStrategy().selectSuspicious(data, level, Collections.unmodifiableSet(scopes));
+	}
+
+	/**
+	 * Reverts the instrumentation of the last examined level.
+	 * 
+	 * @throws InstrumentationException
+	 *             if reversion fails
+	 * @throws MeasurementException
+	 *             if reversion fails
+	 */
+	protected void finishSearch() throws InstrumentationException, MeasurementException {
+		controller.uninstrumentApplication();
+	}
+
+	/**
+	 * @return the heuristic specific selection of suspicious methods
+	 */
+	protected IDrillDownStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return the suspicious methods of each examined level, ordered by
+	 *         decreasing suspicion
+	 */
+	public List<List<String>> getSuspiciousMethods() {
+		return suspiciousMethods;
+	}
+
+	private static Set<String> limit(Set<String> scopes, int maxSize) {
+		if (scopes.size() <= maxSize) {
+			return scopes;
+		}
+		LOGGER.warn("Drill-down budget allows only {} out of {} methods.", maxSize, scopes.size());
+		Set<String> limited = new LinkedHashSet<>();
+		for (String scope : scopes) {
+			if (limited.size() >= maxSize) {
+				break;
+			}
+			limited.add(scope);
+		}
+		return limited;
+	}
+}
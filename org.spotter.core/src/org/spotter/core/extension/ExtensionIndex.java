@@ -0,0 +1,170 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.extension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.SpotterExtensionType;
+
+/**
+ * Index of the extensions contained in plugin jars. The index of a plugin is
+ * generated at build time by {@link ExtensionIndexGenerator} and stored in the
+ * plugin jar as {@value #INDEX_RESOURCE}. Reading the index allows to obtain
+ * information about an extension without instantiating its artifact.
+ */
+public final class ExtensionIndex {
+	/**
+	 * Location of the index within a plugin jar.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/spotter-extension-index.properties";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionIndex.class);
+	private static final String NAME_SUFFIX = ".name";
+	private static final String TYPE_SUFFIX = ".type";
+	private static final String ARTIFACT_SUFFIX = ".artifact";
+	private static final String REUSER_SUFFIX = ".experimentReuser";
+
+	private static ExtensionIndex instance;
+
+	/**
+	 * 
+	 * @return singleton instance
+	 */
+	public static synchronized ExtensionIndex getInstance() {
+		if (instance == null) {
+			instance = new ExtensionIndex();
+		}
+		return instance;
+	}
+
+	private final Map<ClassLoader, Map<String, ExtensionIndexEntry>> entriesPerClassLoader = new WeakHashMap<>();
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private ExtensionIndex() {
+	}
+
+	/**
+	 * Returns the index entry for the given extension class. The indices
+	 * visible to the class loader of the extension class are read on first
+	 * access.
+	 * 
+	 * @param extensionClass
+	 *            class of the extension
+	 * @return the index entry or <code>null</code> if the extension has not
+	 *         been indexed
+	 */
+	public synchronized ExtensionIndexEntry getEntry(Class<?> extensionClass) {
+		ClassLoader classLoader = extensionClass.getClassLoader();
+		if (classLoader == null) {
+			return null;
+		}
+		Map<String, ExtensionIndexEntry> entries = entriesPerClassLoader.get(classLoader);
+		if (entries == null) {
+			entries = loadEntries(classLoader);
+			entriesPerClassLoader.put(classLoader, entries);
+		}
+		return entries.get(extensionClass.getName());
+	}
+
+	private static Map<String, ExtensionIndexEntry> loadEntries(ClassLoader classLoader) {
+		Map<String, ExtensionIndexEntry> entries = new HashMap<>();
+		try {
+			Enumeration<URL> indexUrls = classLoader.getResources(INDEX_RESOURCE);
+			while (indexUrls.hasMoreElements()) {
+				URL indexUrl = indexUrls.nextElement();
+				InputStream inStream = indexUrl.openStream();
+				try {
+					for (ExtensionIndexEntry entry : read(inStream)) {
+						entries.put(entry.getExtensionClass(), entry);
+					}
+				} finally {
+					inStream.close();
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.warn("Failed reading extension index: {}", e.getMessage());
+		}
+		return entries;
+	}
+
+	/**
+	 * Reads index entries.
+	 * 
+	 * @param inStream
+	 *            stream to read from
+	 * @return the index entries
+	 * @throws IOException
+	 *             if reading fails
+	 */
+	public static List<ExtensionIndexEntry> read(InputStream inStream) throws IOException {
+		Properties properties = new Properties();
+		properties.load(inStream);
+		List<ExtensionIndexEntry> entries = new ArrayList<>();
+		for (String key : properties.stringPropertyNames()) {
+			if (!key.endsWith(NAME_SUFFIX)) {
+				continue;
+			}
+			String extensionClass = key.substring(0, key.length() - NAME_SUFFIX.length());
+			String type = properties.getProperty(extensionClass + TYPE_SUFFIX);
+			entries.add(new ExtensionIndexEntry(extensionClass, properties.getProperty(key),
+					type == null ? null : SpotterExtensionType.valueOf(type), properties.getProperty(extensionClass
+							+ ARTIFACT_SUFFIX), Boolean.parseBoolean(properties.getProperty(extensionClass
+							+ REUSER_SUFFIX))));
+		}
+		return entries;
+	}
+
+	/**
+	 * Writes index entries.
+	 * 
+	 * @param entries
+	 *            entries to write
+	 * @param outStream
+	 *            stream to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void write(Collection<ExtensionIndexEntry> entries, OutputStream outStream) throws IOException {
+		Properties properties = new Properties();
+		for (ExtensionIndexEntry entry : entries) {
+			String prefix = entry.getExtensionClass();
+			properties.setProperty(prefix + NAME_SUFFIX, entry.getName());
+			if (entry.getType() != null) {
+				properties.setProperty(prefix + TYPE_SUFFIX, entry.getType().name());
+			}
+			if (entry.getArtifactClass() != null) {
+				properties.setProperty(prefix + ARTIFACT_SUFFIX, entry.getArtifactClass());
+			}
+			properties.setProperty(prefix + REUSER_SUFFIX, String.valueOf(entry.isExperimentReuser()));
+		}
+		properties.store(outStream, "DynamicSpotter extension index");
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.extension;
+
+import org.spotter.shared.configuration.SpotterExtensionType;
+
+/**
+ * Describes an extension without loading its artifact.
+ */
+public class ExtensionIndexEntry {
+	private final String extensionClass;
+	private final String name;
+	private final SpotterExtensionType type;
+	private final String artifactClass;
+	private final boolean experimentReuser;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param extensionClass
+	 *            fully qualified name of the extension class
+	 * @param name
+	 *            name of the extension
+	 * @param type
+	 *            type of the extension
+	 * @param artifactClass
+	 *            fully qualified name of the artifact class created by the
+	 *            extension
+	 * @param experimentReuser
+	 *            true, if the artifact is able to reuse experiments of its
+	 *            parent
+	 */
+	public ExtensionIndexEntry(String extensionClass, String name, SpotterExtensionType type, String artifactClass,
+			boolean experimentReuser) {
+		this.extensionClass = extensionClass;
+		this.name = name;
+		this.type = type;
+		this.artifactClass = artifactClass;
+		this.experimentReuser = experimentReuser;
+	}
+
+	/**
+	 * @return fully qualified name of the extension class
+	 */
+	public String getExtensionClass() {
+		return extensionClass;
+	}
+
+	/**
+	 * @return name of the extension
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return type of the extension
+	 */
+	public SpotterExtensionType getType() {
+		return type;
+	}
+
+	/**
+	 * @return fully qualified name of the artifact class
+	 */
+	public String getArtifactClass() {
+		return artifactClass;
+	}
+
+	/**
+	 * @return true, if the artifact is able to reuse experiments of its parent
+	 */
+	public boolean isExperimentReuser() {
+		return experimentReuser;
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.extension;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lpe.common.extension.IExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.detection.AbstractDetectionExtension;
+import org.spotter.core.detection.IExperimentReuser;
+import org.spotter.core.instrumentation.AbstractInstrumentationExtension;
+import org.spotter.core.measurement.AbstractMeasurmentExtension;
+import org.spotter.core.workload.AbstractWorkloadExtension;
+import org.spotter.shared.configuration.SpotterExtensionType;
+
+/**
+ * Generates the {@link ExtensionIndex} of a plugin at build time. The
+ * generator scans the compiled classes of the plugin for extensions,
+ * instantiates each extension and its artifact once and writes the index to
+ * the <code>META-INF</code> folder of the classes directory, such that it is
+ * packaged into the plugin jar. Plugins run the generator after compilation,
+ * e.g. with the exec-maven-plugin in the <code>process-classes</code> phase
+ * and the classes directory as argument.
+ */
+public final class ExtensionIndexGenerator {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionIndexGenerator.class);
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	private ExtensionIndexGenerator() {
+	}
+
+	/**
+	 * Generates the extension index.
+	 * 
+	 * @param args
+	 *            the classes directory of the plugin
+	 */
+	public static void main(String[] args) {
+		if (args == null || args.length < 1) {
+			LOGGER.info("Usage: ExtensionIndexGenerator <CLASSES_DIRECTORY>");
+			return;
+		}
+		try {
+			File classesDir = new File(args[0]);
+			List<ExtensionIndexEntry> entries = createEntries(classesDir);
+			File indexFile = new File(classesDir, ExtensionIndex.INDEX_RESOURCE);
+			if (!indexFile.getParentFile().exists() && !indexFile.getParentFile().mkdirs()) {
+				throw new IOException("Failed creating directory " + indexFile.getParent());
+			}
+			OutputStream outStream = new FileOutputStream(indexFile);
+			try {
+				ExtensionIndex.write(entries, outStream);
+			} finally {
+				outStream.close();
+			}
+			LOGGER.info("Indexed {} extensions in {}", entries.size(), indexFile);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed generating extension index!", e);
+		}
+	}
+
+	/**
+	 * Creates the index entries for all extensions in the given classes
+	 * directory. The classes have to be on the class path.
+	 * 
+	 * @param classesDir
+	 *            directory containing the compiled classes
+	 * @return index entries
+	 */
+	public static List<ExtensionIndexEntry> createEntries(File classesDir) {
+		List<String> classNames = new ArrayList<>();
+		collectClassNames(classesDir, "", classNames);
+
+		List<ExtensionIndexEntry> entries = new ArrayList<>();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		for (String className : classNames) {
+			Class<?> clazz;
+			try {
+				clazz = Class.forName(className, false, classLoader);
+			} catch (ClassNotFoundException | LinkageError e) {
+				LOGGER.debug("Skipping class {}: {}", className, e.getMessage());
+				continue;
+			}
+			if (!IExtension.class.isAssignableFrom(clazz) || clazz.isInterface()
+					|| Modifier.isAbstract(clazz.getModifiers())) {
+				continue;
+			}
+			entries.add(createEntry(clazz));
+		}
+		return entries;
+	}
+
+	/**
+	 * Creates the index entry of the given extension class.
+	 * 
+	 * @param extensionClass
+	 *            extension class to index
+	 * @return the index entry
+	 */
+	public static ExtensionIndexEntry createEntry(Class<?> extensionClass) {
+		IExtension<?> extension;
+		try {
+			extension = (IExtension<?>) extensionClass.newInstance();
+		} catch (InstantiationException | IllegalAccessException e) {
+			throw new RuntimeException("Failed instantiating extension " + extensionClass.getName(), e);
+		}
+		Object artifact = extension.createExtensionArtifact();
+		return new ExtensionIndexEntry(extensionClass.getName(), extension.getName(), getType(extension),
+				artifact == null ? null : artifact.getClass().getName(), artifact instanceof IExperimentReuser);
+	}
+
+	private static SpotterExtensionType getType(IExtension<?> extension) {
+		if (extension instanceof AbstractDetectionExtension) {
+			return SpotterExtensionType.DETECTION_EXTENSION;
+		} else if (extension instanceof AbstractInstrumentationExtension) {
+			return SpotterExtensionType.INSTRUMENTATION_EXTENSION;
+		} else if (extension instanceof AbstractMeasurmentExtension) {
+			return SpotterExtensionType.MEASUREMENT_EXTENSION;
+		} else if (extension instanceof AbstractWorkloadExtension) {
+			return SpotterExtensionType.WORKLOAD_EXTENSION;
+		}
+		return null;
+	}
+
+	private static void collectClassNames(File dir, String packagePrefix, List<String> classNames) {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (file.isDirectory()) {
+				collectClassNames(file, packagePrefix + file.getName() + ".", classNames);
+			} else if (file.getName().endsWith(CLASS_FILE_EXTENSION) && !file.getName().contains("$")) {
+				String simpleName = file.getName().substring(0,
+						file.getName().length() - CLASS_FILE_EXTENSION.length());
+				classNames.add(packagePrefix + simpleName);
+			}
+		}
+	}
+}
@@ -17,9 +17,12 @@ package org.spotter.core.instrumentation;
 
 import java.util.Properties;
 
+import org.aim.api.exceptions.InstrumentationException;
 import org.lpe.common.extension.AbstractExtensionArtifact;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.LpeStringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spotter.core.AbstractSpotterSatelliteExtension;
 
 /**
@@ -30,7 +33,7 @@ import org.spotter.core.AbstractSpotterSatelliteExtension;
  */
 public abstract class AbstractInstrumentationAdapter extends AbstractExtensionArtifact implements
 		IInstrumentationAdapter {
-
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractInstrumentationAdapter.class);
 
 	/**
 	 * Construcotr.
@@ -88,4 +91,14 @@ public abstract class AbstractInstrumentationAdapter extends AbstractExtensionAr
 		this.properties = properties;
 	}
 
+	@Override
+	public boolean supportsSampling() {
+		return false;
+	}
+
+	@Override
+	public void setSamplingDescription(SamplingDescription samplingDescription) throws InstrumentationException {
+		LOGGER.warn("Sampling is not supported by {}, all calls are recorded!", getName());
+	}
+
 }
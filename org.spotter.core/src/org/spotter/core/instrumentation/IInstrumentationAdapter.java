@@ -83,6 +83,27 @@ public interface IInstrumentationAdapter extends IExtensionArtifact {
 	 */
 	void uninstrument() throws InstrumentationException;
 
+	/**
+	 * Indicates whether this adapter is able to record only a sample of the
+	 * calls of the instrumented scopes.
+	 * 
+	 * @return true, if sampling is supported
+	 */
+	boolean supportsSampling();
+
+	/**
+	 * Sets the sampling rates to apply to the instrumented scopes. May be
+	 * called while the application is instrumented, the new rates apply to
+	 * subsequent calls. Adapters for which {@link #supportsSampling()}
+	 * returns false ignore the sampling rates.
+	 * 
+	 * @param samplingDescription
+	 *            sampling rates to apply
+	 * @throws InstrumentationException
+	 *             thrown if the sampling rates cannot be applied
+	 */
+	void setSamplingDescription(SamplingDescription samplingDescription) throws InstrumentationException;
+
 	/**
 	 * @param properties
 	 *            the properties to set
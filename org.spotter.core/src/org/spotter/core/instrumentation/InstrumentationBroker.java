@@ -26,6 +26,7 @@ import org.aim.api.exceptions.InstrumentationException;
 import org.aim.description.InstrumentationDescription;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.system.LpeSystemUtils;
+import org.spotter.core.metrics.MetricsRegistry;
 
 /**
  * The instrumentation broker manages the distribution of instrumentation
@@ -49,6 +50,16 @@ public final class InstrumentationBroker implements IInstrumentationAdapter {
 		return instance;
 	}
 
+	/**
+	 * Creates a broker independent of the singleton instance, e.g. for the
+	 * satellites of an additional replica of the system under test.
+	 * 
+	 * @return a new broker instance
+	 */
+	public static InstrumentationBroker createInstance() {
+		return new InstrumentationBroker();
+	}
+
 	private final List<IInstrumentationAdapter> instrumentationControllers;
 
 	/**
@@ -131,6 +142,33 @@ public final class InstrumentationBroker implements IInstrumentationAdapter {
 
 	}
 
+	/**
+	 * Sampling is supported if all instrumentation adapters support it.
+	 * Otherwise, data recorded by different adapters could not be scaled
+	 * consistently.
+	 * 
+	 * @return true, if all adapters support sampling
+	 */
+	@Override
+	public boolean supportsSampling() {
+		if (instrumentationControllers.isEmpty()) {
+			return false;
+		}
+		for (IInstrumentationAdapter instController : instrumentationControllers) {
+			if (!instController.supportsSampling()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void setSamplingDescription(SamplingDescription samplingDescription) throws InstrumentationException {
+		for (IInstrumentationAdapter instController : instrumentationControllers) {
+			instController.setSamplingDescription(samplingDescription);
+		}
+	}
+
 	@Override
 	public Properties getProperties() {
 		Properties props = new Properties();
@@ -195,8 +233,10 @@ public final class InstrumentationBroker implements IInstrumentationAdapter {
 					description.getGlobalRestriction().getPackageExcludes().add(exc);
 				}
 			}
+			long start = System.nanoTime();
 			instController.instrument(description);
-
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.INSTRUMENT_DURATION,
+					System.nanoTime() - start, "satellite", instController.getName());
 		}
 	}
 
@@ -209,8 +249,10 @@ public final class InstrumentationBroker implements IInstrumentationAdapter {
 
 		@Override
 		protected void executeTask() throws InstrumentationException {
+			long start = System.nanoTime();
 			instController.uninstrument();
-
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.UNINSTRUMENT_DURATION,
+					System.nanoTime() - start, "satellite", instController.getName());
 		}
 	}
 
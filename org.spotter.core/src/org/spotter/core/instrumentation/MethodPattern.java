@@ -0,0 +1,63 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.regex.Pattern;
+
+/**
+ * Method patterns as used in instrumentation descriptions, e.g.
+ * <code>org.app.Dao.*(*)</code>. The wildcard '*' matches any sequence of
+ * characters.
+ */
+public final class MethodPattern {
+	private final String pattern;
+	private final Pattern regex;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param pattern
+	 *            method pattern with '*' wildcards
+	 */
+	public MethodPattern(String pattern) {
+		this.pattern = pattern.trim();
+		StringBuilder builder = new StringBuilder();
+		String[] parts = this.pattern.split("\\*", -1);
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				builder.append(".*");
+			}
+			builder.append(Pattern.quote(parts[i]));
+		}
+		regex = Pattern.compile(builder.toString());
+	}
+
+	/**
+	 * Checks whether the given operation matches this pattern.
+	 * 
+	 * @param operation
+	 *            full signature of the operation
+	 * @return true, if the operation matches
+	 */
+	public boolean matches(String operation) {
+		return operation != null && regex.matcher(operation).matches();
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
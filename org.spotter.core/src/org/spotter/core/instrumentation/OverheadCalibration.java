@@ -0,0 +1,244 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.aim.api.exceptions.InstrumentationException;
+import org.aim.api.exceptions.MeasurementException;
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.artifacts.probes.ResponsetimeProbe;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.aim.description.InstrumentationDescription;
+import org.aim.description.builder.InstrumentationDescriptionBuilder;
+import org.lpe.common.config.ConfigParameterDescription;
+import org.lpe.common.config.GlobalConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.ReplicaGroup;
+import org.spotter.core.measurement.IMeasurementAdapter;
+import org.spotter.core.workload.IWorkloadAdapter;
+import org.spotter.core.workload.LoadConfig;
+import org.spotter.exceptions.WorkloadException;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XInstrumentationOverhead;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+
+/**
+ * Calibrates the overhead of a single instrumentation probe on the system
+ * under test. Experiments with a single user are executed: reference runs in
+ * which only the configured entry points are instrumented and a run in which
+ * additionally the configured fine-grained methods are instrumented. The
+ * increase of the entry point response times divided by the number of
+ * additional probes executed per entry point call yields the per-probe
+ * overhead. The instrumented run is enclosed by two reference runs, thus,
+ * warm-up effects of the system under test do not distort the result.
+ */
+public class OverheadCalibration {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OverheadCalibration.class);
+
+	private final IInstrumentationAdapter instrumentationController;
+	private final IMeasurementAdapter measurementController;
+	private final IWorkloadAdapter workloadAdapter;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param replicaGroup
+	 *            replica group whose satellites to use for the calibration
+	 */
+	public OverheadCalibration(ReplicaGroup replicaGroup) {
+		instrumentationController = replicaGroup.getInstrumentationBroker();
+		measurementController = replicaGroup.getMeasurementBroker();
+		workloadAdapter = replicaGroup.getWorkloadBroker();
+	}
+
+	/**
+	 * Executes the calibration runs.
+	 * 
+	 * @return the calibrated overhead
+	 * @throws InstrumentationException
+	 *             if instrumentation fails
+	 * @throws MeasurementException
+	 *             if measurement data cannot be collected
+	 * @throws WorkloadException
+	 *             if load cannot be generated properly
+	 */
+	public XInstrumentationOverhead calibrate() throws InstrumentationException, MeasurementException,
+			WorkloadException {
+		List<String> entryPoints = getPatterns(ConfigKeys.OVERHEAD_CALIBRATION_ENTRY_POINTS);
+		List<String> methods = getPatterns(ConfigKeys.OVERHEAD_CALIBRATION_METHODS);
+		if (entryPoints.isEmpty() || methods.isEmpty()) {
+			throw new IllegalArgumentException("Entry points and methods for the overhead calibration "
+					+ "have not been specified!");
+		}
+
+		LOGGER.info("Calibrating instrumentation overhead: reference run ...");
+		List<AbstractRecord> reference = new ArrayList<>(runCalibrationExperiment(entryPoints));
+		List<String> allMethods = new ArrayList<>(entryPoints);
+		allMethods.addAll(methods);
+		LOGGER.info("Calibrating instrumentation overhead: instrumented run ...");
+		List<AbstractRecord> instrumented = runCalibrationExperiment(allMethods);
+		LOGGER.info("Calibrating instrumentation overhead: second reference run ...");
+		reference.addAll(runCalibrationExperiment(entryPoints));
+
+		XInstrumentationOverhead overhead = new XInstrumentationOverhead();
+		overhead.setProbeOverhead(computeProbeOverhead(reference, instrumented, entryPoints));
+		overhead.setCalibrationTimestamp(System.currentTimeMillis());
+		LOGGER.info("Calibrated instrumentation overhead: {} ms per probe", overhead.getProbeOverhead());
+		return overhead;
+	}
+
+	private List<AbstractRecord> runCalibrationExperiment(List<String> methods) throws InstrumentationException,
+			MeasurementException, WorkloadException {
+		InstrumentationDescriptionBuilder descriptionBuilder = new InstrumentationDescriptionBuilder();
+		descriptionBuilder.newMethodScopeEntity(methods.toArray(new String[methods.size()]))
+				.addProbe(ResponsetimeProbe.MODEL_PROBE).entityDone();
+		InstrumentationDescription description = descriptionBuilder.build();
+
+		instrumentationController.instrument(description);
+		measurementController.prepareMonitoring(description);
+		try {
+			LoadConfig lConfig = new LoadConfig();
+			lConfig.setNumUsers(1);
+			lConfig.setRampUpIntervalLength(1);
+			lConfig.setRampUpUsersPerInterval(1);
+			lConfig.setCoolDownIntervalLength(1);
+			lConfig.setCoolDownUsersPerInterval(1);
+			lConfig.setExperimentDuration(GlobalConfiguration.getInstance().getPropertyAsInteger(
+					ConfigKeys.EXPERIMENT_DURATION));
+			workloadAdapter.startLoad(lConfig);
+			workloadAdapter.waitForWarmupPhaseTermination();
+			measurementController.enableMonitoring();
+			workloadAdapter.waitForExperimentPhaseTermination();
+			measurementController.disableMonitoring();
+			workloadAdapter.waitForFinishedLoad();
+			return measurementController.getMeasurementData().getRecords();
+		} finally {
+			instrumentationController.uninstrument();
+			measurementController.resetMonitoring();
+		}
+	}
+
+	/**
+	 * Computes the overhead of a single probe from the data of the calibration
+	 * runs.
+	 * 
+	 * @param reference
+	 *            records of the reference run
+	 * @param instrumented
+	 *            records of the instrumented run
+	 * @param entryPoints
+	 *            patterns of the entry point methods
+	 * @return overhead of a single probe in [ms]
+	 */
+	static double computeProbeOverhead(List<AbstractRecord> reference, List<AbstractRecord> instrumented,
+			List<String> entryPoints) {
+		List<MethodPattern> entryPatterns = new ArrayList<>();
+		for (String entryPoint : entryPoints) {
+			entryPatterns.add(new MethodPattern(entryPoint));
+		}
+
+		double[] referenceStats = getEntryPointStatistics(reference, entryPatterns);
+		double[] instrumentedStats = getEntryPointStatistics(instrumented, entryPatterns);
+		double entryCalls = instrumentedStats[0];
+		double nestedRecords = instrumentedStats[2];
+		if (referenceStats[0] == 0 || entryCalls == 0 || nestedRecords == 0) {
+			throw new IllegalStateException("Calibration runs did not capture entry point and method calls!");
+		}
+
+		double referenceMean = referenceStats[1] / referenceStats[0];
+		double instrumentedMean = instrumentedStats[1] / entryCalls;
+		double probesPerCall = nestedRecords / entryCalls;
+		return Math.max(0.0, (instrumentedMean - referenceMean) / probesPerCall);
+	}
+
+	/**
+	 * @return number of entry point records, their accumulated response time
+	 *         and the number of other response time records
+	 */
+	private static double[] getEntryPointStatistics(List<AbstractRecord> records,
+			List<MethodPattern> entryPatterns) {
+		double[] statistics = new double[3];
+		for (AbstractRecord record : records) {
+			if (!(record instanceof ResponseTimeRecord)) {
+				continue;
+			}
+			ResponseTimeRecord rtRecord = (ResponseTimeRecord) record;
+			if (matchesAny(rtRecord.getOperation(), entryPatterns)) {
+				statistics[0]++;
+				statistics[1] += rtRecord.getResponseTime();
+			} else {
+				statistics[2]++;
+			}
+		}
+		return statistics;
+	}
+
+	private static boolean matchesAny(String operation, List<MethodPattern> patterns) {
+		for (MethodPattern pattern : patterns) {
+			if (pattern.matches(operation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<String> getPatterns(String key) {
+		String value = GlobalConfiguration.getInstance().getProperty(key, "");
+		if (value.trim().isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> patterns = new ArrayList<>();
+		for (String pattern : value.split(ConfigParameterDescription.LIST_VALUE_SEPARATOR)) {
+			if (!pattern.trim().isEmpty()) {
+				patterns.add(pattern.trim());
+			}
+		}
+		return patterns;
+	}
+
+	/**
+	 * Creates a key identifying the instrumentation satellites of the given
+	 * environment. A calibration is only valid for the environment it has been
+	 * conducted in.
+	 * 
+	 * @param environment
+	 *            measurement environment
+	 * @return key of the instrumentation satellites
+	 */
+	public static String getEnvironmentKey(XMeasurementEnvironment environment) {
+		List<String> satellites = new ArrayList<>();
+		if (environment.getInstrumentationController() != null) {
+			for (XMeasurementEnvObject envObject : environment.getInstrumentationController()) {
+				List<String> config = new ArrayList<>();
+				if (envObject.getConfig() != null) {
+					for (XMConfiguration xConfig : envObject.getConfig()) {
+						config.add(xConfig.getKey() + "=" + xConfig.getValue());
+					}
+				}
+				Collections.sort(config);
+				satellites.add(envObject.getExtensionName() + config.toString());
+			}
+		}
+		Collections.sort(satellites);
+		return satellites.toString();
+	}
+}
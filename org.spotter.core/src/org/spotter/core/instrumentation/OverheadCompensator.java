@@ -0,0 +1,91 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.api.measurement.dataset.DatasetCollection;
+import org.aim.artifacts.records.ResponseTimeRecord;
+
+/**
+ * Subtracts the calibrated overhead of the instrumentation probes from the
+ * response times of experiment data. The overhead of a single probe is
+ * deducted once from each response time record, i.e. each record is
+ * compensated for the probe which measured it.
+ * 
+ * <p>
+ * The overhead of instrumented invocations nested in a recorded invocation
+ * is not compensated. Response time records do not carry thread or call
+ * information, thus, the nesting of invocations cannot be derived reliably:
+ * with concurrent users, invocations of different threads overlap in time
+ * and would be considered nested, which would distort the data. Hence, the
+ * response times of invocations enclosing other instrumented invocations
+ * still contain the overhead of the nested probes.
+ * </p>
+ * 
+ * <p>
+ * As response times are stored in whole milliseconds while the overhead of a
+ * probe is typically a fraction of a millisecond, the fractional part is
+ * carried over to the next record of the same operation. Thereby, the mean
+ * response time of each operation is compensated correctly.
+ * </p>
+ */
+public final class OverheadCompensator {
+
+	private OverheadCompensator() {
+	}
+
+	/**
+	 * Compensates the response time records of the given data in place.
+	 * 
+	 * @param data
+	 *            experiment data to compensate
+	 * @param probeOverhead
+	 *            overhead of a single probe in [ms]
+	 */
+	public static void compensate(DatasetCollection data, double probeOverhead) {
+		compensate(data.getRecords(), probeOverhead);
+	}
+
+	/**
+	 * Compensates the response time records among the given records in place.
+	 * 
+	 * @param records
+	 *            records to compensate
+	 * @param probeOverhead
+	 *            overhead of a single probe in [ms]
+	 */
+	static void compensate(List<AbstractRecord> records, double probeOverhead) {
+		if (probeOverhead <= 0.0) {
+			return;
+		}
+		Map<String, Double> carriedOverhead = new HashMap<>();
+		for (AbstractRecord record : records) {
+			if (!(record instanceof ResponseTimeRecord)) {
+				continue;
+			}
+			ResponseTimeRecord rtRecord = (ResponseTimeRecord) record;
+			Double carried = carriedOverhead.get(rtRecord.getOperation());
+			double due = probeOverhead + (carried == null ? 0.0 : carried);
+			long deduction = (long) due;
+			carriedOverhead.put(rtRecord.getOperation(), due - deduction);
+			rtRecord.setResponseTime(Math.max(0L, rtRecord.getResponseTime() - deduction));
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.aim.api.measurement.dataset.Dataset;
+import org.lpe.common.config.ConfigParameterDescription;
+import org.lpe.common.config.GlobalConfiguration;
+import org.spotter.shared.configuration.ConfigKeys;
+
+/**
+ * Describes which fraction of the calls of the instrumented scopes is
+ * recorded by instrumentation adapters supporting sampling. Rates can be
+ * specified per method pattern, calls of methods not matching any pattern are
+ * sampled with the default rate. The sampling description of an experiment is
+ * stored as experiment parameter, thus, heuristics can scale counts derived
+ * from sampled data to the actual number of calls.
+ */
+public final class SamplingDescription {
+	/**
+	 * Name of the experiment parameter holding the sampling description.
+	 */
+	public static final String SAMPLING_PARAMETER_KEY = "sampling";
+
+	/**
+	 * Smallest sampling rate applied by adaptive sampling.
+	 */
+	public static final double MIN_RATE = 0.001;
+
+	/**
+	 * Sampling description recording all calls.
+	 */
+	public static final SamplingDescription NONE = new SamplingDescription(1.0,
+			Collections.<String, Double> emptyMap());
+
+	// the parameter value is stored within the CSV files of the experiment
+	// data, hence, the CSV separator must not be used
+	private static final String ENTRY_SEPARATOR = "|";
+	private static final String RATE_SEPARATOR = "=";
+
+	private final double defaultRate;
+	private final Map<String, Double> scopeRates;
+	private final Map<MethodPattern, Double> scopePatterns;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param defaultRate
+	 *            fraction of calls to record for methods not matching any
+	 *            scope pattern
+	 * @param scopeRates
+	 *            fraction of calls to record per method pattern, the first
+	 *            matching pattern determines the rate of a method
+	 */
+	public SamplingDescription(double defaultRate, Map<String, Double> scopeRates) {
+		this.defaultRate = checkRate(defaultRate);
+		this.scopeRates = new LinkedHashMap<>();
+		this.scopePatterns = new LinkedHashMap<>();
+		for (Map.Entry<String, Double> entry : scopeRates.entrySet()) {
+			this.scopeRates.put(entry.getKey().trim(), checkRate(entry.getValue()));
+			this.scopePatterns.put(new MethodPattern(entry.getKey()), this.scopeRates.get(entry.getKey().trim()));
+		}
+	}
+
+	private static double checkRate(double rate) {
+		if (rate <= 0.0 || rate > 1.0) {
+			throw new IllegalArgumentException("Sampling rates must be within (0, 1], but was " + rate + "!");
+		}
+		return rate;
+	}
+
+	/**
+	 * Creates the sampling description configured for the current run.
+	 * 
+	 * @return the configured sampling description
+	 */
+	public static SamplingDescription fromConfiguration() {
+		double defaultRate = Double.parseDouble(GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.INSTRUMENTATION_SAMPLING_RATE, "1.0"));
+		Map<String, Double> scopeRates = new LinkedHashMap<>();
+		String scopeRateList = GlobalConfiguration.getInstance().getProperty(
+				ConfigKeys.INSTRUMENTATION_SAMPLING_SCOPE_RATES, "");
+		for (String scopeRate : scopeRateList.split(ConfigParameterDescription.LIST_VALUE_SEPARATOR)) {
+			addScopeRate(scopeRates, scopeRate);
+		}
+		return new SamplingDescription(defaultRate, scopeRates);
+	}
+
+	/**
+	 * Parses a sampling description stored as experiment parameter.
+	 * 
+	 * @param parameterValue
+	 *            value of the {@link #SAMPLING_PARAMETER_KEY} parameter, may be
+	 *            <code>null</code>
+	 * @return the sampling description, {@link #NONE} if the parameter value
+	 *         is <code>null</code>
+	 */
+	public static SamplingDescription fromParameterValue(Object parameterValue) {
+		if (parameterValue == null || String.valueOf(parameterValue).trim().isEmpty()) {
+			return NONE;
+		}
+		String[] entries = String.valueOf(parameterValue).split(Pattern.quote(ENTRY_SEPARATOR));
+		Map<String, Double> scopeRates = new LinkedHashMap<>();
+		for (int i = 1; i < entries.length; i++) {
+			addScopeRate(scopeRates, entries[i]);
+		}
+		return new SamplingDescription(Double.parseDouble(entries[0]), scopeRates);
+	}
+
+	/**
+	 * Retrieves the sampling description of the experiments contained in the
+	 * given dataset.
+	 * 
+	 * @param dataset
+	 *            dataset of the experiment data, may be <code>null</code>
+	 * @return the sampling description, {@link #NONE} if the data has not
+	 *         been sampled
+	 * @throws IllegalStateException
+	 *             if the experiments of the dataset have been sampled
+	 *             differently, e.g. due to adaptive sampling. In that case
+	 *             the description has to be retrieved per experiment.
+	 */
+	public static SamplingDescription fromDataset(Dataset dataset) {
+		Set<?> values = dataset == null ? null : dataset.getValueSet(SAMPLING_PARAMETER_KEY);
+		if (values == null || values.isEmpty()) {
+			return NONE;
+		}
+		if (values.size() > 1) {
+			throw new IllegalStateException("Experiments of the dataset have been sampled differently!");
+		}
+		return fromParameterValue(values.iterator().next());
+	}
+
+	private static void addScopeRate(Map<String, Double> scopeRates, String scopeRate) {
+		if (scopeRate.trim().isEmpty()) {
+			return;
+		}
+		int separatorIndex = scopeRate.lastIndexOf(RATE_SEPARATOR);
+		if (separatorIndex <= 0) {
+			throw new IllegalArgumentException("Invalid sampling rate for scope: " + scopeRate);
+		}
+		scopeRates.put(scopeRate.substring(0, separatorIndex).trim(),
+				Double.parseDouble(scopeRate.substring(separatorIndex + 1).trim()));
+	}
+
+	/**
+	 * @return the fraction of calls recorded for methods not matching any
+	 *         scope pattern
+	 */
+	public double getDefaultRate() {
+		return defaultRate;
+	}
+
+	/**
+	 * @return the sampling rates per method pattern
+	 */
+	public Map<String, Double> getScopeRates() {
+		return Collections.unmodifiableMap(scopeRates);
+	}
+
+	/**
+	 * Returns the fraction of calls of the given operation which is recorded.
+	 * 
+	 * @param operation
+	 *            full signature of the operation
+	 * @return the sampling rate of the operation
+	 */
+	public double getRate(String operation) {
+		for (Map.Entry<MethodPattern, Double> entry : scopePatterns.entrySet()) {
+			if (entry.getKey().matches(operation)) {
+				return entry.getValue();
+			}
+		}
+		return defaultRate;
+	}
+
+	/**
+	 * Scales a number of recorded calls of the given operation to the
+	 * estimated number of actual calls.
+	 * 
+	 * @param recordedCount
+	 *            number of recorded calls
+	 * @param operation
+	 *            full signature of the operation
+	 * @return estimated number of actual calls
+	 */
+	public long scaleCount(long recordedCount, String operation) {
+		return Math.round(recordedCount / getRate(operation));
+	}
+
+	/**
+	 * @return true, if not all calls are recorded
+	 */
+	public boolean isSampling() {
+		if (defaultRate < 1.0) {
+			return true;
+		}
+		for (double rate : scopeRates.values()) {
+			if (rate < 1.0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a sampling description with all rates multiplied by the given
+	 * factor. The resulting rates are bounded by {@link #MIN_RATE} and 1.
+	 * 
+	 * @param factor
+	 *            factor to multiply the rates with
+	 * @return the scaled sampling description
+	 */
+	public SamplingDescription scale(double factor) {
+		Map<String, Double> scaledScopeRates = new LinkedHashMap<>();
+		for (Map.Entry<String, Double> entry : scopeRates.entrySet()) {
+			scaledScopeRates.put(entry.getKey(), boundRate(entry.getValue() * factor));
+		}
+		return new SamplingDescription(boundRate(defaultRate * factor), scaledScopeRates);
+	}
+
+	private static double boundRate(double rate) {
+		return Math.max(MIN_RATE, Math.min(1.0, rate));
+	}
+
+	/**
+	 * Encodes this description as value of the
+	 * {@link #SAMPLING_PARAMETER_KEY} experiment parameter.
+	 * 
+	 * @return the encoded description
+	 */
+	public String toParameterValue() {
+		StringBuilder builder = new StringBuilder(String.valueOf(defaultRate));
+		for (Map.Entry<String, Double> entry : scopeRates.entrySet()) {
+			builder.append(ENTRY_SEPARATOR).append(entry.getKey()).append(RATE_SEPARATOR).append(entry.getValue());
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return toParameterValue();
+	}
+}
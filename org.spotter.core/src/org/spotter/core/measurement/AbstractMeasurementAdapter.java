@@ -15,8 +15,13 @@
  */
 package org.spotter.core.measurement;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
+import org.aim.api.exceptions.MeasurementException;
 import org.lpe.common.extension.AbstractExtensionArtifact;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.LpeStringUtils;
@@ -44,6 +49,13 @@ public abstract class AbstractMeasurementAdapter extends AbstractExtensionArtifa
 
 	private long relativeTime;
 	private Properties properties;
+	private CollectionQuery collectionQuery;
+	private boolean compressionEnabled;
+
+	/**
+	 * Buffer size of the compressed transport streams.
+	 */
+	protected static final int TRANSPORT_BUFFER_SIZE = 64 * 1024;
 
 	/**
 	 * @return the name
@@ -87,6 +99,115 @@ public abstract class AbstractMeasurementAdapter extends AbstractExtensionArtifa
 		this.properties = properties;
 	}
 
+	/**
+	 * Adapters which are able to apply collection queries at the satellite
+	 * have to override this method and consider {@link #getCollectionQuery()}
+	 * when piping data. By default, queries are applied locally.
+	 * 
+	 * @return true, if collection queries are supported
+	 */
+	@Override
+	public boolean supportsCollectionQuery() {
+		return false;
+	}
+
+	@Override
+	public void setCollectionQuery(CollectionQuery query) {
+		this.collectionQuery = query;
+	}
+
+	/**
+	 * @return the current collection query or <code>null</code> if all data
+	 *         is required
+	 */
+	public CollectionQuery getCollectionQuery() {
+		return collectionQuery;
+	}
+
+	/**
+	 * Adapters which are able to hand over data while monitoring is enabled
+	 * have to override this method and
+	 * {@link #pipeIncrementToOutputStream(OutputStream)}.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean supportsStreaming() {
+		return false;
+	}
+
+	/**
+	 * Adapters without streaming support hand over no increments, all their
+	 * data is delivered by {@link #pipeToOutputStream(OutputStream)} after
+	 * the experiment. Thus, nothing is written to the stream by default.
+	 * 
+	 * @param oStream
+	 *            stream where to pipe to
+	 * @throws MeasurementException
+	 *             never thrown by the default implementation
+	 */
+	@Override
+	public void pipeIncrementToOutputStream(OutputStream oStream) throws MeasurementException {
+		// all data remains on the measurement side until the experiment ends
+	}
+
+	/**
+	 * Adapters which are able to transfer measurement data compressed have to
+	 * override this method. If compression has been enabled, data written by
+	 * {@link #pipeToOutputStream(OutputStream)} has to be a deflate stream,
+	 * e.g. created with {@link #createTransportStream(OutputStream)} or
+	 * forwarded as is from the satellite.
+	 * 
+	 * @return true, if compressed transport is supported
+	 */
+	public boolean supportsCompression() {
+		return false;
+	}
+
+	/**
+	 * @return true, if data has to be piped compressed
+	 */
+	public boolean isCompressionEnabled() {
+		return compressionEnabled;
+	}
+
+	/**
+	 * Enables or disables compressed transport. Only called if
+	 * {@link #supportsCompression()} returns true.
+	 * 
+	 * @param compressionEnabled
+	 *            true, if data has to be piped compressed
+	 */
+	public void setCompressionEnabled(boolean compressionEnabled) {
+		this.compressionEnabled = compressionEnabled;
+	}
+
+	/**
+	 * Wraps the given stream according to the negotiated transport. If
+	 * compression is enabled, data written to the returned stream is
+	 * compressed, otherwise the stream is returned as is.
+	 * 
+	 * @param oStream
+	 *            stream the data is piped to
+	 * @return stream to write the measurement data to
+	 */
+	protected OutputStream createTransportStream(OutputStream oStream) {
+		if (!compressionEnabled) {
+			return oStream;
+		}
+		final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		return new DeflaterOutputStream(oStream, deflater, TRANSPORT_BUFFER_SIZE) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					deflater.end();
+				}
+			}
+		};
+	}
+
 	/**
 	 * @return the relativeTime
 	 */
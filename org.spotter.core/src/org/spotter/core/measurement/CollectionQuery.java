@@ -0,0 +1,453 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.description.InstrumentationDescription;
+import org.aim.description.InstrumentationEntity;
+import org.aim.description.scopes.MethodScope;
+import org.spotter.core.instrumentation.MethodPattern;
+
+/**
+ * Describes which measurement data is required by a detection controller. The
+ * query comprises the record types to collect, patterns of the operations to
+ * collect, a time window and simple predicates on record fields. Measurement
+ * adapters supporting collection queries apply the query at the satellite so
+ * that only the required data crosses the network. For other adapters, the
+ * query is applied locally when data is collected.
+ * <p>
+ * Empty sets of record types or operation patterns mean that all types or
+ * operations are required. Timestamps refer to the time relative to the
+ * experiment start. Operation patterns and predicates on fields a record does
+ * not have are ignored for this record.
+ * </p>
+ */
+public class CollectionQuery {
+
+	private static final Map<Class<?>, Map<String, Field>> RECORD_FIELDS = new ConcurrentHashMap<>();
+	private static final String OPERATION_FIELD = "operation";
+
+	/**
+	 * Record types written by the probes of the AIM artifacts, keyed by the
+	 * simple name of the probe.
+	 */
+	private static final Map<String, String> PROBE_RECORD_TYPES = new HashMap<>();
+
+	static {
+		PROBE_RECORD_TYPES.put("ResponsetimeProbe", "ResponseTimeRecord");
+		PROBE_RECORD_TYPES.put("NanoResponsetimeProbe", "NanoResponseTimeRecord");
+		PROBE_RECORD_TYPES.put("SQLQueryProbe", "SQLQueryRecord");
+		PROBE_RECORD_TYPES.put("ThreadTracingProbe", "ThreadTracingRecord");
+		PROBE_RECORD_TYPES.put("StackTraceProbe", "StackTraceRecord");
+	}
+
+	private final Set<String> recordTypes = new HashSet<>();
+	private final Map<String, MethodPattern> operationPatterns = new HashMap<>();
+	private final List<RecordPredicate> predicates = new ArrayList<>();
+	private long fromTime = Long.MIN_VALUE;
+	private long toTime = Long.MAX_VALUE;
+
+	/**
+	 * Comparison operators of predicates.
+	 */
+	public enum Operator {
+		EQUALS, NOT_EQUALS, LESS, LESS_OR_EQUALS, GREATER, GREATER_OR_EQUALS
+	}
+
+	/**
+	 * A predicate comparing a record field with a constant value. Numeric
+	 * fields are compared numerically, all other fields by their string
+	 * representation.
+	 */
+	public static final class RecordPredicate {
+		private final String field;
+		private final Operator operator;
+		private final Object value;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param field
+		 *            name of the record field
+		 * @param operator
+		 *            comparison operator
+		 * @param value
+		 *            value to compare with
+		 */
+		public RecordPredicate(String field, Operator operator, Object value) {
+			if (field == null || operator == null || value == null) {
+				throw new IllegalArgumentException("At least one argument is null!");
+			}
+			this.field = field;
+			this.operator = operator;
+			this.value = value;
+		}
+
+		/**
+		 * @return the name of the record field
+		 */
+		public String getField() {
+			return field;
+		}
+
+		/**
+		 * @return the comparison operator
+		 */
+		public Operator getOperator() {
+			return operator;
+		}
+
+		/**
+		 * @return the value to compare with
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		private boolean evaluate(Object fieldValue) {
+			int comparison;
+			if (fieldValue instanceof Number && value instanceof Number) {
+				comparison = Double.compare(((Number) fieldValue).doubleValue(), ((Number) value).doubleValue());
+			} else {
+				comparison = String.valueOf(fieldValue).compareTo(String.valueOf(value));
+			}
+			switch (operator) {
+			case EQUALS:
+				return comparison == 0;
+			case NOT_EQUALS:
+				return comparison != 0;
+			case LESS:
+				return comparison < 0;
+			case LESS_OR_EQUALS:
+				return comparison <= 0;
+			case GREATER:
+				return comparison > 0;
+			case GREATER_OR_EQUALS:
+				return comparison >= 0;
+			default:
+				throw new IllegalStateException("Unknown operator " + operator);
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof RecordPredicate)) {
+				return false;
+			}
+			RecordPredicate other = (RecordPredicate) obj;
+			return field.equals(other.field) && operator == other.operator && value.equals(other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = field.hashCode();
+			result = prime * result + operator.hashCode();
+			result = prime * result + value.hashCode();
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return field + " " + operator + " " + value;
+		}
+	}
+
+	/**
+	 * Restricts the query to the given record type.
+	 * 
+	 * @param recordType
+	 *            simple or fully qualified class name of the record type
+	 * @return this query
+	 */
+	public CollectionQuery addRecordType(String recordType) {
+		recordTypes.add(recordType);
+		return this;
+	}
+
+	/**
+	 * Restricts the query to the given record type.
+	 * 
+	 * @param recordType
+	 *            record type to collect
+	 * @return this query
+	 */
+	public CollectionQuery addRecordType(Class<? extends AbstractRecord> recordType) {
+		return addRecordType(recordType.getName());
+	}
+
+	/**
+	 * Restricts the query to the operations matching the given pattern.
+	 * 
+	 * @param operationPattern
+	 *            method pattern as used in instrumentation descriptions, e.g.
+	 *            <code>org.app.Dao.*(*)</code>
+	 * @return this query
+	 */
+	public CollectionQuery addOperationPattern(String operationPattern) {
+		MethodPattern pattern = new MethodPattern(operationPattern);
+		operationPatterns.put(pattern.toString(), pattern);
+		return this;
+	}
+
+	/**
+	 * Adds a predicate records have to fulfill.
+	 * 
+	 * @param field
+	 *            name of the record field
+	 * @param operator
+	 *            comparison operator
+	 * @param value
+	 *            value to compare with
+	 * @return this query
+	 */
+	public CollectionQuery addPredicate(String field, Operator operator, Object value) {
+		predicates.add(new RecordPredicate(field, operator, value));
+		return this;
+	}
+
+	/**
+	 * Restricts the query to records within the given time window.
+	 * 
+	 * @param from
+	 *            start of the window (inclusive, relative to experiment start)
+	 * @param to
+	 *            end of the window (inclusive, relative to experiment start)
+	 * @return this query
+	 */
+	public CollectionQuery setTimeWindow(long from, long to) {
+		this.fromTime = from;
+		this.toTime = to;
+		return this;
+	}
+
+	/**
+	 * @return the record types to collect; empty if all types are required
+	 */
+	public Set<String> getRecordTypes() {
+		return Collections.unmodifiableSet(recordTypes);
+	}
+
+	/**
+	 * @return the patterns of the operations to collect; empty if all
+	 *         operations are required
+	 */
+	public Set<String> getOperationPatterns() {
+		return Collections.unmodifiableSet(operationPatterns.keySet());
+	}
+
+	/**
+	 * @return the predicates records have to fulfill
+	 */
+	public List<RecordPredicate> getPredicates() {
+		return Collections.unmodifiableList(predicates);
+	}
+
+	/**
+	 * @return start of the time window
+	 */
+	public long getFromTime() {
+		return fromTime;
+	}
+
+	/**
+	 * @return end of the time window
+	 */
+	public long getToTime() {
+		return toTime;
+	}
+
+	/**
+	 * Checks whether the given record is required by this query. The record
+	 * timestamps have to be relative to the experiment start.
+	 * 
+	 * @param record
+	 *            record to check
+	 * @return true, if the record fulfills the query
+	 */
+	public boolean accepts(AbstractRecord record) {
+		if (!recordTypes.isEmpty() && !recordTypes.contains(record.getClass().getName())
+				&& !recordTypes.contains(record.getClass().getSimpleName())) {
+			return false;
+		}
+		if (record.getTimeStamp() < fromTime || record.getTimeStamp() > toTime) {
+			return false;
+		}
+		if (predicates.isEmpty() && operationPatterns.isEmpty()) {
+			return true;
+		}
+		Map<String, Field> recordFields = getRecordFields(record.getClass());
+		if (!operationPatterns.isEmpty() && recordFields.containsKey(OPERATION_FIELD)
+				&& !matchesOperationPattern(recordFields.get(OPERATION_FIELD), record)) {
+			return false;
+		}
+		for (RecordPredicate predicate : predicates) {
+			Field field = recordFields.get(predicate.getField());
+			if (field == null) {
+				continue;
+			}
+			try {
+				if (!predicate.evaluate(field.get(record))) {
+					return false;
+				}
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return true;
+	}
+
+	private boolean matchesOperationPattern(Field operationField, AbstractRecord record) {
+		try {
+			Object operation = operationField.get(record);
+			for (MethodPattern pattern : operationPatterns.values()) {
+				if (pattern.matches(String.valueOf(operation))) {
+					return true;
+				}
+			}
+			return false;
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Derives the query for the data captured by the given instrumentation
+	 * description. The record types are derived from the probes and the
+	 * operation patterns from the method scopes of the instrumentation
+	 * entities. If the description contains probes of unknown record types or
+	 * sampling descriptions, all record types are collected. If it contains
+	 * other than method scopes, all operations are collected.
+	 * 
+	 * @param description
+	 *            instrumentation description, may be <code>null</code>
+	 * @return the derived query, or <code>null</code> if the description does
+	 *         not instrument anything and, thus, all data is required
+	 */
+	public static CollectionQuery fromInstrumentationDescription(InstrumentationDescription description) {
+		if (description == null || description.getInstrumentationEntities().isEmpty()) {
+			return null;
+		}
+		CollectionQuery query = new CollectionQuery();
+		boolean knownRecordTypes = description.getSamplingDescriptions().isEmpty();
+		boolean methodScopes = true;
+		for (InstrumentationEntity<?> entity : description.getInstrumentationEntities()) {
+			for (String probe : entity.getProbesAsStrings()) {
+				String recordType = PROBE_RECORD_TYPES.get(probe.substring(probe.lastIndexOf('.') + 1));
+				if (recordType == null) {
+					knownRecordTypes = false;
+				} else {
+					query.addRecordType(recordType);
+				}
+			}
+			if (entity.getScope() instanceof MethodScope) {
+				for (String method : ((MethodScope) entity.getScope()).getMethods()) {
+					// patterns without parameter list cover all overloads
+					query.addOperationPattern(method.contains("(") ? method : method + "(*)");
+				}
+			} else {
+				methodScopes = false;
+			}
+		}
+		if (!knownRecordTypes) {
+			query.recordTypes.clear();
+		}
+		if (!methodScopes) {
+			query.operationPatterns.clear();
+		}
+		return query;
+	}
+
+	/**
+	 * Creates a query which accepts all records accepted by at least one of
+	 * the given queries. The result may accept additional records: predicates
+	 * are only kept if they are part of all queries.
+	 * 
+	 * @param queries
+	 *            queries to unite; <code>null</code> stands for all data
+	 * @return united query, or <code>null</code> if all data is required
+	 */
+	public static CollectionQuery union(List<CollectionQuery> queries) {
+		if (queries.isEmpty()) {
+			return null;
+		}
+		CollectionQuery union = new CollectionQuery();
+		boolean first = true;
+		for (CollectionQuery query : queries) {
+			if (query == null) {
+				return null;
+			}
+			if (first) {
+				union.recordTypes.addAll(query.recordTypes);
+				union.operationPatterns.putAll(query.operationPatterns);
+				union.predicates.addAll(query.predicates);
+				union.fromTime = query.fromTime;
+				union.toTime = query.toTime;
+				first = false;
+				continue;
+			}
+			if (union.recordTypes.isEmpty() || query.recordTypes.isEmpty()) {
+				union.recordTypes.clear();
+			} else {
+				union.recordTypes.addAll(query.recordTypes);
+			}
+			if (union.operationPatterns.isEmpty() || query.operationPatterns.isEmpty()) {
+				union.operationPatterns.clear();
+			} else {
+				union.operationPatterns.putAll(query.operationPatterns);
+			}
+			union.predicates.retainAll(query.predicates);
+			union.fromTime = Math.min(union.fromTime, query.fromTime);
+			union.toTime = Math.max(union.toTime, query.toTime);
+		}
+		return union;
+	}
+
+	private static Map<String, Field> getRecordFields(Class<?> recordType) {
+		Map<String, Field> recordFields = RECORD_FIELDS.get(recordType);
+		if (recordFields == null) {
+			recordFields = new HashMap<>();
+			Class<?> type = recordType;
+			while (type != null && !Object.class.equals(type)) {
+				for (Field field : type.getDeclaredFields()) {
+					if (!recordFields.containsKey(field.getName())) {
+						field.setAccessible(true);
+						recordFields.put(field.getName(), field);
+					}
+				}
+				type = type.getSuperclass();
+			}
+			RECORD_FIELDS.put(recordType, recordFields);
+		}
+		return recordFields;
+	}
+
+	@Override
+	public String toString() {
+		return "CollectionQuery [recordTypes=" + recordTypes + ", operationPatterns=" + operationPatterns.keySet()
+				+ ", predicates=" + predicates + ", fromTime=" + fromTime + ", toTime=" + toTime + "]";
+	}
+}
@@ -85,6 +85,46 @@ public interface IMeasurementAdapter extends IExtensionArtifact {
 	 */
 	void pipeToOutputStream(OutputStream oStream) throws MeasurementException;
 
+	/**
+	 * Indicates whether this adapter is able to hand over measurement data
+	 * incrementally while monitoring is enabled.
+	 * 
+	 * @return true, if streaming collection is supported
+	 */
+	boolean supportsStreaming();
+
+	/**
+	 * Pipes the measurement data collected since the last call of this method
+	 * to the given output stream and releases it on the measurement side. Data
+	 * handed over by this method is not returned again by
+	 * {@link #pipeToOutputStream(OutputStream)}. In contrast to
+	 * {@link #pipeToOutputStream(OutputStream)}, the stream is not closed.
+	 * Only called if {@link #supportsStreaming()} returns true.
+	 * 
+	 * @param oStream
+	 *            stream where to pipe to
+	 * @throws MeasurementException
+	 *             thrown if streaming fails
+	 */
+	void pipeIncrementToOutputStream(OutputStream oStream) throws MeasurementException;
+
+	/**
+	 * Indicates whether this adapter applies collection queries itself, i.e.
+	 * whether only the queried data is transferred from the satellite.
+	 * 
+	 * @return true, if collection queries are supported
+	 */
+	boolean supportsCollectionQuery();
+
+	/**
+	 * Sets the query restricting the data returned by subsequent calls of
+	 * {@link #pipeToOutputStream(OutputStream)}.
+	 * 
+	 * @param query
+	 *            the query to apply or <code>null</code> to collect all data
+	 */
+	void setCollectionQuery(CollectionQuery query);
+
 	/**
 	 * Initializes measruement controller.
 	 * 
@@ -16,6 +16,7 @@
 package org.spotter.core.measurement;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
@@ -33,6 +34,7 @@ import org.aim.api.measurement.MeasurementData;
 import org.aim.description.InstrumentationDescription;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.system.LpeSystemUtils;
+import org.spotter.core.metrics.MetricsRegistry;
 
 /**
  * A wrapper (or delegator) class around, a set of measurement controller which
@@ -56,11 +58,23 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 		return instance;
 	}
 
+	/**
+	 * Creates a broker independent of the singleton instance, e.g. for the
+	 * satellites of an additional replica of the system under test.
+	 * 
+	 * @return a new broker instance
+	 */
+	public static MeasurementBroker createInstance() {
+		return new MeasurementBroker();
+	}
+
 	private final List<IMeasurementAdapter> controllers;
 
 	private long controllerRelativeTime = 0;
 
-	private boolean dataPipeliningFinished = false;
+	private volatile boolean dataPipeliningFinished = false;
+
+	private CollectionQuery collectionQuery;
 
 	/**
 	 * Constructor.
@@ -106,7 +120,10 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 		}
 
 		for (IMeasurementAdapter controller : controllers) {
+			long start = System.nanoTime();
 			controller.enableMonitoring();
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.ENABLE_MONITORING_DURATION,
+					System.nanoTime() - start, "satellite", controller.getName());
 		}
 
 	}
@@ -114,7 +131,10 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 	@Override
 	public void disableMonitoring() throws MeasurementException {
 		for (IMeasurementAdapter controller : controllers) {
+			long start = System.nanoTime();
 			controller.disableMonitoring();
+			MetricsRegistry.getInstance().recordDuration(MetricsRegistry.DISABLE_MONITORING_DURATION,
+					System.nanoTime() - start, "satellite", controller.getName());
 		}
 	}
 
@@ -127,7 +147,7 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 			final LinkedBlockingQueue<AbstractRecord> records = new LinkedBlockingQueue<AbstractRecord>();
 
 			for (IMeasurementAdapter mController : controllers) {
-				tasks.add(LpeSystemUtils.submitTask(new PipeDataTask(mController, records)));
+				tasks.add(LpeSystemUtils.submitTask(new PipeDataTask(mController, records, collectionQuery)));
 			}
 			MeasurementData result = new MeasurementData();
 			dataPipeliningFinished = false;
@@ -194,29 +214,98 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 		final LinkedBlockingQueue<AbstractRecord> records = new LinkedBlockingQueue<AbstractRecord>();
 
 		for (IMeasurementAdapter mController : controllers) {
-			tasks.add(LpeSystemUtils.submitTask(new PipeDataTask(mController, records)));
+			tasks.add(LpeSystemUtils.submitTask(new PipeDataTask(mController, records, collectionQuery)));
 		}
-		dataPipeliningFinished = false;
-
-		Future<?> terminationListeningTask = asyncListenForTermination(tasks);
 
 		try (BufferedWriter bWriter = new BufferedWriter(new OutputStreamWriter(oStream))) {
-			while (!(records.isEmpty() && dataPipeliningFinished)) {
-				AbstractRecord record = records.poll(1, TimeUnit.SECONDS);
-				if (record != null) {
+			writeRecords(tasks, records, bWriter);
+		} catch (Exception e) {
+			throw new MeasurementException(e);
+		}
 
-					bWriter.write(record.toString());
+	}
 
-					bWriter.newLine();
-				}
+	/**
+	 * The broker supports streaming if at least one of its controllers does.
+	 * 
+	 * @return true, if any controller supports streaming collection
+	 */
+	@Override
+	public boolean supportsStreaming() {
+		for (IMeasurementAdapter controller : controllers) {
+			if (controller.supportsStreaming()) {
+				return true;
 			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drains one micro-batch from all controllers supporting streaming. Data
+	 * of all other controllers is collected by
+	 * {@link #pipeToOutputStream(OutputStream)} after the experiment.
+	 * 
+	 * @param oStream
+	 *            stream where to pipe to
+	 * @throws MeasurementException
+	 *             thrown if streaming fails
+	 */
+	@Override
+	public void pipeIncrementToOutputStream(OutputStream oStream) throws MeasurementException {
+		final List<Future<?>> tasks = new ArrayList<>();
+
+		final LinkedBlockingQueue<AbstractRecord> records = new LinkedBlockingQueue<AbstractRecord>();
 
-			terminationListeningTask.get();
+		for (IMeasurementAdapter mController : controllers) {
+			if (mController.supportsStreaming()) {
+				tasks.add(LpeSystemUtils.submitTask(new PipeDataTask(mController, records, collectionQuery, true)));
+			}
+		}
 
+		try {
+			// the stream remains open for subsequent increments
+			BufferedWriter bWriter = new BufferedWriter(new OutputStreamWriter(oStream));
+			writeRecords(tasks, records, bWriter);
+			bWriter.flush();
 		} catch (Exception e) {
 			throw new MeasurementException(e);
 		}
+	}
+
+	private void writeRecords(List<Future<?>> tasks, LinkedBlockingQueue<AbstractRecord> records,
+			BufferedWriter bWriter) throws IOException, InterruptedException, ExecutionException {
+		dataPipeliningFinished = false;
+
+		Future<?> terminationListeningTask = asyncListenForTermination(tasks);
+
+		// a failed task must not block the stream forever
+		while (!(records.isEmpty() && (dataPipeliningFinished || terminationListeningTask.isDone()))) {
+			AbstractRecord record = records.poll(1, TimeUnit.SECONDS);
+			if (record != null) {
+
+				bWriter.write(record.toString());
+
+				bWriter.newLine();
+			}
+		}
+
+		terminationListeningTask.get();
+	}
 
+	/**
+	 * The broker forwards queries to adapters supporting them and filters the
+	 * data of all other adapters locally.
+	 * 
+	 * @return true
+	 */
+	@Override
+	public boolean supportsCollectionQuery() {
+		return true;
+	}
+
+	@Override
+	public void setCollectionQuery(CollectionQuery query) {
+		this.collectionQuery = query;
 	}
 
 	@Override
@@ -280,4 +369,25 @@ public final class MeasurementBroker implements IMeasurementAdapter {
 		}
 	}
 
+	/**
+	 * Returns a list of measurement controllers of the given type.
+	 * 
+	 * @param type
+	 *            type of interest
+	 * @return list of measurement controllers of the given type
+	 * @param <T>
+	 *            Class type of the controllers
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IMeasurementAdapter> List<T> getMeasurementControllers(Class<T> type) {
+		List<T> result = new ArrayList<>();
+
+		for (IMeasurementAdapter controller : controllers) {
+			if (type.isAssignableFrom(controller.getClass())) {
+				result.add((T) controller);
+			}
+		}
+
+		return result;
+	}
 }
@@ -17,26 +17,44 @@ package org.spotter.core.measurement;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.io.OutputStream;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.aim.api.exceptions.MeasurementException;
 import org.aim.api.measurement.AbstractRecord;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeStreamUtils;
 import org.lpe.common.util.system.LpeSystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.configuration.ConfigKeys;
 
 /**
  * Pipes measurement data from a measurement controller to a blocking queue.
- * This task also relativizes timestamps of the records.
+ * This task also relativizes timestamps of the records. If the controller
+ * supports it, data is transferred compressed and decompressed in a separate
+ * stage. If a collection query is given, it is passed to controllers
+ * supporting queries; the data of all other controllers is filtered locally.
  * 
  * @author Alexander Wert
  * 
  */
 public class PipeDataTask implements Runnable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PipeDataTask.class);
+	private static final long KILOBYTE = 1024L;
+	private static final long SECOND = 1000L;
+
 	private AbstractMeasurementAdapter mController;
 	private LinkedBlockingQueue<AbstractRecord> records;
+	private CollectionQuery localQuery;
+	private boolean increment;
 
 	/**
 	 * Constructor.
@@ -47,13 +65,57 @@ public class PipeDataTask implements Runnable {
 	 *            blocking queue where to write records to
 	 */
 	public PipeDataTask(IMeasurementAdapter mController, LinkedBlockingQueue<AbstractRecord> records) {
+		this(mController, records, null);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param mController
+	 *            controller where to read data from
+	 * @param records
+	 *            blocking queue where to write records to
+	 * @param query
+	 *            query restricting the data to collect, or <code>null</code>
+	 *            to collect all data
+	 */
+	public PipeDataTask(IMeasurementAdapter mController, LinkedBlockingQueue<AbstractRecord> records,
+			CollectionQuery query) {
+		this(mController, records, query, false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param mController
+	 *            controller where to read data from
+	 * @param records
+	 *            blocking queue where to write records to
+	 * @param query
+	 *            query restricting the data to collect, or <code>null</code>
+	 *            to collect all data
+	 * @param increment
+	 *            if true, only the data collected since the last increment is
+	 *            piped (see
+	 *            {@link IMeasurementAdapter#pipeIncrementToOutputStream(OutputStream)}
+	 *            )
+	 */
+	public PipeDataTask(IMeasurementAdapter mController, LinkedBlockingQueue<AbstractRecord> records,
+			CollectionQuery query, boolean increment) {
 		this.mController = (AbstractMeasurementAdapter) mController;
 		this.records = records;
+		this.increment = increment;
 
 		if (mController == null || records == null) {
 			throw new IllegalArgumentException("At least one argument is null!");
 		}
 
+		if (mController.supportsCollectionQuery()) {
+			mController.setCollectionQuery(query);
+		} else {
+			this.localQuery = query;
+		}
+
 	}
 
 	@Override
@@ -76,27 +138,92 @@ public class PipeDataTask implements Runnable {
 	protected void executeTask() throws MeasurementException {
 
 		try {
-			final PipedInputStream dataToReturn = new PipedInputStream();
-			PipedOutputStream dataFromController = new PipedOutputStream(dataToReturn);
+			long start = System.currentTimeMillis();
+			boolean compressed = mController.supportsCompression()
+					&& GlobalConfiguration.getInstance().getPropertyAsBoolean(ConfigKeys.MEASUREMENT_COMPRESSION, true);
+			mController.setCompressionEnabled(compressed);
+
+			RingBufferChannel channel = new RingBufferChannel();
+			CountingInputStream uncompressedData = new CountingInputStream(channel.getInputStream());
+			Future<?> queueWriterTask = writeRecordsToQueue(uncompressedData);
 
-			Future<?> queueWriterTask = writeRecordsToQueue(dataToReturn);
+			Future<?> decompressionTask = null;
+			OutputStream controllerStream;
+			if (compressed) {
+				// decompression runs in its own stage in order not to slow
+				// down parsing
+				RingBufferChannel compressedChannel = new RingBufferChannel();
+				decompressionTask = decompress(compressedChannel.getInputStream(), channel.getOutputStream());
+				controllerStream = compressedChannel.getOutputStream();
+			} else {
+				controllerStream = channel.getOutputStream();
+			}
 
-			mController.pipeToOutputStream(dataFromController);
+			CountingOutputStream dataFromController = new CountingOutputStream(controllerStream);
+			try {
+				if (increment) {
+					mController.pipeIncrementToOutputStream(dataFromController);
+				} else {
+					mController.pipeToOutputStream(dataFromController);
+				}
+			} finally {
+				dataFromController.close();
+			}
+			if (decompressionTask != null) {
+				decompressionTask.get();
+			}
 			queueWriterTask.get();
 
+			logTransferStatistics(compressed, dataFromController.getByteCount(), uncompressedData.getByteCount(),
+					System.currentTimeMillis() - start);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 
 	}
 
+	private Future<?> decompress(final InputStream compressedData, final OutputStream uncompressedData) {
+		return LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try (InputStream inflaterStream = new InflaterInputStream(compressedData, new Inflater(),
+						AbstractMeasurementAdapter.TRANSPORT_BUFFER_SIZE)) {
+					LpeStreamUtils.pipe(inflaterStream, uncompressedData);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				} finally {
+					try {
+						uncompressedData.close();
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}
+		});
+	}
+
+	private void logTransferStatistics(boolean compressed, long transferredBytes, long uncompressedBytes,
+			long duration) {
+		double seconds = Math.max(duration, 1L) / (double) SECOND;
+		double ratio = transferredBytes > 0 ? (double) uncompressedBytes / (double) transferredBytes : 1.0;
+		String message = String.format("Collected data of satellite %s (%s): %d KB transferred, %d KB uncompressed, "
+				+ "compression ratio %.2f, throughput %.1f KB/s", mController.getName(),
+				compressed ? "compressed" : "uncompressed", transferredBytes / KILOBYTE, uncompressedBytes / KILOBYTE,
+				ratio, uncompressedBytes / KILOBYTE / seconds);
+		if (increment) {
+			LOGGER.debug(message);
+		} else {
+			LOGGER.info(message);
+		}
+	}
+
 	/**
 	 * Pipes records to the queue hold by this object.
 	 * 
 	 * @param dataToReturn
 	 *            data to pipe
 	 */
-	Future<?> writeRecordsToQueue(final PipedInputStream dataToReturn) {
+	Future<?> writeRecordsToQueue(final InputStream dataToReturn) {
 		Future<?> future = LpeSystemUtils.submitTask(new Runnable() {
 
 			@Override
@@ -110,7 +237,7 @@ public class PipeDataTask implements Runnable {
 						AbstractRecord record = AbstractRecord.fromString(line);
 						if (record != null) {
 							record.relativiseTimestamps(mController.getControllerRelativeTime());
-							if (record.getTimeStamp() >= 0) {
+							if (record.getTimeStamp() >= 0 && (localQuery == null || localQuery.accepts(record))) {
 								records.offer(record);
 							}
 
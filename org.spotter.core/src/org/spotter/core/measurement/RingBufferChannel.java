@@ -0,0 +1,391 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.spotter.core.metrics.MetricsRegistry;
+
+/**
+ * In-process byte channel between exactly one producer thread and one
+ * consumer thread. In contrast to piped streams, data is handed over in large
+ * chunks which circulate in a bounded ring between producer and consumer. Thus,
+ * producer and consumer only synchronize once per chunk instead of once per
+ * write. Chunks are pooled and reused across channels.
+ */
+public class RingBufferChannel {
+	/**
+	 * Default size of a chunk in bytes.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	/**
+	 * Default number of chunks in the ring.
+	 */
+	public static final int DEFAULT_NUM_CHUNKS = 16;
+
+	private static final int MAX_POOLED_CHUNKS = 64;
+	private static final long POLL_TIMEOUT = 500L; // [ms]
+	private static final ConcurrentLinkedQueue<byte[]> CHUNK_POOL = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger POOL_SIZE = new AtomicInteger(0);
+	private static final AtomicInteger FILLED_CHUNKS = new AtomicInteger(0);
+	private static final byte LINE_SEPARATOR = (byte) '\n';
+
+	static {
+		MetricsRegistry.getInstance().registerGauge(MetricsRegistry.MEASUREMENT_BUFFER_QUEUE_DEPTH,
+				new MetricsRegistry.Gauge() {
+					@Override
+					public double getValue() {
+						return FILLED_CHUNKS.get();
+					}
+				});
+	}
+
+	private static final Chunk END_OF_STREAM = new Chunk(new byte[0]);
+
+	private final int chunkSize;
+	private final int numChunks;
+	private final ArrayBlockingQueue<Chunk> filledChunks;
+	private final ArrayBlockingQueue<Chunk> freeChunks;
+	private final ChannelOutputStream outputStream = new ChannelOutputStream();
+	private final ChannelInputStream inputStream = new ChannelInputStream();
+
+	private volatile boolean writerClosed = false;
+	private volatile boolean readerClosed = false;
+	private volatile Thread writerThread;
+	private final AtomicBoolean released = new AtomicBoolean(false);
+	private volatile long transferredBytes = 0L;
+	private volatile long transferredLines = 0L;
+
+	/**
+	 * Creates a channel with default chunk size and number of chunks.
+	 */
+	public RingBufferChannel() {
+		this(DEFAULT_CHUNK_SIZE, DEFAULT_NUM_CHUNKS);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param chunkSize
+	 *            size of a single chunk in bytes
+	 * @param numChunks
+	 *            number of chunks in the ring; bounds the amount of data
+	 *            buffered between producer and consumer
+	 */
+	public RingBufferChannel(int chunkSize, int numChunks) {
+		if (chunkSize <= 0 || numChunks <= 0) {
+			throw new IllegalArgumentException("Chunk size and number of chunks must be positive!");
+		}
+		this.chunkSize = chunkSize;
+		this.numChunks = numChunks;
+		// one additional slot for the end of stream marker
+		this.filledChunks = new ArrayBlockingQueue<>(numChunks + 1);
+		this.freeChunks = new ArrayBlockingQueue<>(numChunks);
+	}
+
+	/**
+	 * 
+	 * @return the stream to be used by the producer thread
+	 */
+	public OutputStream getOutputStream() {
+		return outputStream;
+	}
+
+	/**
+	 * 
+	 * @return the stream to be used by the consumer thread
+	 */
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+
+	/**
+	 * 
+	 * @return number of bytes written to the channel so far
+	 */
+	public long getTransferredBytes() {
+		return transferredBytes;
+	}
+
+	/**
+	 * 
+	 * @return number of line separators written to the channel so far, i.e.
+	 *         the number of records for line based record formats
+	 */
+	public long getTransferredLines() {
+		return transferredLines;
+	}
+
+	/**
+	 * Returns the chunks to the pool as soon as both sides are closed.
+	 */
+	private void releaseChunks() {
+		if (!writerClosed || !readerClosed || !released.compareAndSet(false, true)) {
+			return;
+		}
+		Chunk chunk = freeChunks.poll();
+		while (chunk != null) {
+			recycleArray(chunk.data);
+			chunk = freeChunks.poll();
+		}
+		chunk = filledChunks.poll();
+		while (chunk != null) {
+			if (chunk != END_OF_STREAM) {
+				FILLED_CHUNKS.decrementAndGet();
+			}
+			recycleArray(chunk.data);
+			chunk = filledChunks.poll();
+		}
+	}
+
+	private byte[] allocateArray() {
+		if (chunkSize == DEFAULT_CHUNK_SIZE) {
+			byte[] array = CHUNK_POOL.poll();
+			if (array != null) {
+				POOL_SIZE.decrementAndGet();
+				return array;
+			}
+		}
+		return new byte[chunkSize];
+	}
+
+	private static void recycleArray(byte[] array) {
+		if (array.length == DEFAULT_CHUNK_SIZE && POOL_SIZE.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+			CHUNK_POOL.offer(array);
+		} else if (array.length == DEFAULT_CHUNK_SIZE) {
+			POOL_SIZE.decrementAndGet();
+		}
+	}
+
+	/**
+	 * A chunk of data in the ring.
+	 */
+	private static final class Chunk {
+		private final byte[] data;
+		private int length;
+
+		private Chunk(byte[] data) {
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Producer side of the channel.
+	 */
+	private final class ChannelOutputStream extends OutputStream {
+		private Chunk current;
+		private int allocatedChunks = 0;
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureWritable();
+			current.data[current.length++] = (byte) b;
+			if (current.length == current.data.length) {
+				publish();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || off + len > b.length) {
+				throw new IndexOutOfBoundsException();
+			}
+			int offset = off;
+			int remaining = len;
+			while (remaining > 0) {
+				ensureWritable();
+				int count = Math.min(remaining, current.data.length - current.length);
+				System.arraycopy(b, offset, current.data, current.length, count);
+				current.length += count;
+				offset += count;
+				remaining -= count;
+				if (current.length == current.data.length) {
+					publish();
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (current != null && current.length > 0) {
+				checkOpen();
+				publish();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (writerClosed) {
+				return;
+			}
+			try {
+				if (!readerClosed) {
+					flush();
+					filledChunks.add(END_OF_STREAM);
+				}
+			} finally {
+				writerClosed = true;
+				releaseChunks();
+			}
+		}
+
+		private void checkOpen() throws IOException {
+			if (writerClosed) {
+				throw new IOException("Channel closed by writer!");
+			}
+			if (readerClosed) {
+				throw new IOException("Channel closed by reader!");
+			}
+		}
+
+		private void ensureWritable() throws IOException {
+			checkOpen();
+			if (writerThread == null) {
+				writerThread = Thread.currentThread();
+			}
+			if (current == null) {
+				current = acquireChunk();
+			}
+		}
+
+		private Chunk acquireChunk() throws IOException {
+			Chunk chunk = freeChunks.poll();
+			if (chunk == null && allocatedChunks < numChunks) {
+				allocatedChunks++;
+				return new Chunk(allocateArray());
+			}
+			try {
+				while (chunk == null) {
+					checkOpen();
+					chunk = freeChunks.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return chunk;
+		}
+
+		private void publish() {
+			long lines = 0L;
+			for (int i = 0; i < current.length; i++) {
+				if (current.data[i] == LINE_SEPARATOR) {
+					lines++;
+				}
+			}
+			// only the writer thread updates the statistics
+			transferredLines += lines;
+			transferredBytes += current.length;
+			FILLED_CHUNKS.incrementAndGet();
+			// at most numChunks chunks circulate, thus, this never blocks
+			filledChunks.add(current);
+			current = null;
+		}
+	}
+
+	/**
+	 * Consumer side of the channel.
+	 */
+	private final class ChannelInputStream extends InputStream {
+		private Chunk current;
+		private int position;
+		private boolean endOfStream = false;
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureReadable()) {
+				return -1;
+			}
+			return current.data[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || off + len > b.length) {
+				throw new IndexOutOfBoundsException();
+			}
+			if (len == 0) {
+				return 0;
+			}
+			if (!ensureReadable()) {
+				return -1;
+			}
+			int count = Math.min(len, current.length - position);
+			System.arraycopy(current.data, position, b, off, count);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public int available() throws IOException {
+			if (readerClosed) {
+				throw new IOException("Channel closed by reader!");
+			}
+			return current == null ? 0 : current.length - position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (readerClosed) {
+				return;
+			}
+			readerClosed = true;
+			if (current != null) {
+				freeChunks.offer(current);
+				current = null;
+			}
+			releaseChunks();
+		}
+
+		private boolean ensureReadable() throws IOException {
+			if (readerClosed) {
+				throw new IOException("Channel closed by reader!");
+			}
+			try {
+				while (current == null || position >= current.length) {
+					if (current != null) {
+						current.length = 0;
+						freeChunks.offer(current);
+						current = null;
+					}
+					if (endOfStream) {
+						return false;
+					}
+					Chunk chunk = filledChunks.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+					if (chunk == END_OF_STREAM) {
+						endOfStream = true;
+					} else if (chunk != null) {
+						FILLED_CHUNKS.decrementAndGet();
+						current = chunk;
+						position = 0;
+					} else if (!writerClosed && writerThread != null && !writerThread.isAlive()
+							&& filledChunks.isEmpty()) {
+						throw new IOException("Write end dead!");
+					}
+				}
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,431 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.metrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of metrics describing the internal behaviour of DynamicSpotter,
+ * e.g. where a diagnosis run spends its time. Counters and timers are
+ * cumulative over the lifetime of the process, gauges are sampled whenever
+ * the metrics are exported. The metrics of a single diagnosis run are exported
+ * relative to a {@link Snapshot} taken at the beginning of the run. Metrics
+ * are exported in the Prometheus text exposition format.
+ */
+public final class MetricsRegistry {
+
+	/**
+	 * Duration of instrumenting a satellite.
+	 */
+	public static final String INSTRUMENT_DURATION = "spotter_instrument_duration_seconds";
+	/**
+	 * Duration of reverting the instrumentation of a satellite.
+	 */
+	public static final String UNINSTRUMENT_DURATION = "spotter_uninstrument_duration_seconds";
+	/**
+	 * Duration of enabling monitoring on a satellite.
+	 */
+	public static final String ENABLE_MONITORING_DURATION = "spotter_enable_monitoring_duration_seconds";
+	/**
+	 * Duration of disabling monitoring on a satellite.
+	 */
+	public static final String DISABLE_MONITORING_DURATION = "spotter_disable_monitoring_duration_seconds";
+	/**
+	 * Number of measurement records collected from the satellites.
+	 */
+	public static final String RECORDS_COLLECTED = "spotter_records_collected_total";
+	/**
+	 * Number of bytes of measurement data stored.
+	 */
+	public static final String BYTES_STORED = "spotter_stored_bytes_total";
+	/**
+	 * Duration of loading the experiment data of a detection controller.
+	 */
+	public static final String LOAD_DATA_DURATION = "spotter_load_data_duration_seconds";
+	/**
+	 * Duration of the analysis of a detection controller.
+	 */
+	public static final String ANALYZE_DURATION = "spotter_analyze_duration_seconds";
+	/**
+	 * Duration of rendering a chart.
+	 */
+	public static final String CHART_RENDERING_DURATION = "spotter_chart_rendering_duration_seconds";
+	/**
+	 * Number of charts waiting for a rendering thread.
+	 */
+	public static final String CHART_RENDERING_QUEUE_DEPTH = "spotter_chart_rendering_queue_depth";
+	/**
+	 * Number of filled measurement data chunks waiting to be stored.
+	 */
+	public static final String MEASUREMENT_BUFFER_QUEUE_DEPTH = "spotter_measurement_buffer_queue_depth";
+	/**
+	 * Round-trip duration of a satellite health probe.
+	 */
+	public static final String SATELLITE_PROBE_DURATION = "spotter_satellite_probe_duration_seconds";
+	/**
+	 * Number of failed satellite health probes.
+	 */
+	public static final String SATELLITE_PROBE_FAILURES = "spotter_satellite_probe_failures_total";
+	/**
+	 * Number of satellites currently regarded as degraded.
+	 */
+	public static final String SATELLITES_DEGRADED = "spotter_satellites_degraded";
+	/**
+	 * Largest absolute clock drift in [ms] between a measurement satellite and
+	 * DynamicSpotter.
+	 */
+	public static final String SATELLITE_MAX_CLOCK_DRIFT = "spotter_satellite_max_clock_drift_milliseconds";
+
+	private static final double NANOS_PER_SECOND = 1000000000.0;
+
+	private static MetricsRegistry instance;
+
+	/**
+	 * 
+	 * @return singleton instance
+	 */
+	public static synchronized MetricsRegistry getInstance() {
+		if (instance == null) {
+			instance = new MetricsRegistry();
+		}
+		return instance;
+	}
+
+	private final Map<String, MetricFamily> families = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private MetricsRegistry() {
+		describe(INSTRUMENT_DURATION, MetricType.SUMMARY, "Time spent instrumenting a satellite.");
+		describe(UNINSTRUMENT_DURATION, MetricType.SUMMARY, "Time spent reverting the instrumentation of a satellite.");
+		describe(ENABLE_MONITORING_DURATION, MetricType.SUMMARY, "Time spent enabling monitoring on a satellite.");
+		describe(DISABLE_MONITORING_DURATION, MetricType.SUMMARY, "Time spent disabling monitoring on a satellite.");
+		describe(RECORDS_COLLECTED, MetricType.COUNTER, "Measurement records collected from the satellites.");
+		describe(BYTES_STORED, MetricType.COUNTER, "Bytes of measurement data stored.");
+		describe(LOAD_DATA_DURATION, MetricType.SUMMARY, "Time spent loading experiment data.");
+		describe(ANALYZE_DURATION, MetricType.SUMMARY, "Time spent analyzing experiment data.");
+		describe(CHART_RENDERING_DURATION, MetricType.SUMMARY, "Time spent rendering a chart.");
+		describe(CHART_RENDERING_QUEUE_DEPTH, MetricType.GAUGE, "Charts waiting for a rendering thread.");
+		describe(MEASUREMENT_BUFFER_QUEUE_DEPTH, MetricType.GAUGE,
+				"Filled measurement data chunks waiting to be stored.");
+		describe(SATELLITE_PROBE_DURATION, MetricType.SUMMARY, "Round-trip time of a satellite health probe.");
+		describe(SATELLITE_PROBE_FAILURES, MetricType.COUNTER, "Failed satellite health probes.");
+		describe(SATELLITES_DEGRADED, MetricType.GAUGE, "Satellites currently regarded as degraded.");
+		describe(SATELLITE_MAX_CLOCK_DRIFT, MetricType.GAUGE,
+				"Largest absolute clock drift in milliseconds between a measurement satellite and DynamicSpotter.");
+	}
+
+	/**
+	 * Declares a metric. Metrics which are used without declaration are
+	 * exported without description.
+	 * 
+	 * @param name
+	 *            name of the metric
+	 * @param type
+	 *            type of the metric
+	 * @param help
+	 *            description of the metric
+	 */
+	public synchronized void describe(String name, MetricType type, String help) {
+		MetricFamily family = families.get(name);
+		if (family == null) {
+			families.put(name, new MetricFamily(type, help));
+		} else if (family.type != type) {
+			throw new IllegalArgumentException("Metric " + name + " has already been declared as " + family.type);
+		}
+	}
+
+	/**
+	 * Increments a counter.
+	 * 
+	 * @param name
+	 *            name of the counter
+	 * @param delta
+	 *            value to add
+	 * @param labels
+	 *            alternating label names and values
+	 */
+	public void incrementCounter(String name, long delta, String... labels) {
+		getSeries(name, MetricType.COUNTER, labels).add(delta);
+	}
+
+	/**
+	 * Records the duration of an operation.
+	 * 
+	 * @param name
+	 *            name of the timer
+	 * @param durationNanos
+	 *            duration of the operation in nanoseconds
+	 * @param labels
+	 *            alternating label names and values
+	 */
+	public void recordDuration(String name, long durationNanos, String... labels) {
+		getSeries(name, MetricType.SUMMARY, labels).add(durationNanos);
+	}
+
+	/**
+	 * Registers a gauge. A previously registered gauge with the same name is
+	 * replaced.
+	 * 
+	 * @param name
+	 *            name of the gauge
+	 * @param gauge
+	 *            provider of the gauge value
+	 */
+	public synchronized void registerGauge(String name, Gauge gauge) {
+		describe(name, MetricType.GAUGE, "");
+		families.get(name).gauge = gauge;
+	}
+
+	/**
+	 * Exports all metrics in the Prometheus text exposition format.
+	 * 
+	 * @return metrics as text
+	 */
+	public String toPrometheusText() {
+		return toPrometheusText(new Snapshot());
+	}
+
+	/**
+	 * Exports the metrics recorded since the given snapshot has been taken in
+	 * the Prometheus text exposition format. Gauges are exported with their
+	 * current value.
+	 * 
+	 * @param baseline
+	 *            snapshot to subtract from counters and timers
+	 * @return metrics as text
+	 */
+	public String toPrometheusText(Snapshot baseline) {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<String, MetricFamily> familyEntry : families.entrySet()) {
+			String name = familyEntry.getKey();
+			MetricFamily family = familyEntry.getValue();
+			if (family.type == MetricType.GAUGE && family.gauge == null) {
+				continue;
+			}
+			if (!family.help.isEmpty()) {
+				builder.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+			}
+			builder.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase(Locale.ENGLISH))
+					.append('\n');
+			switch (family.type) {
+			case GAUGE:
+				appendSample(builder, name, "", formatValue(family.gauge.getValue()));
+				break;
+			case COUNTER:
+				for (Map.Entry<String, Series> seriesEntry : family.series.entrySet()) {
+					long[] base = baseline.get(name, seriesEntry.getKey());
+					appendSample(builder, name, seriesEntry.getKey(),
+							String.valueOf(seriesEntry.getValue().sum.get() - base[1]));
+				}
+				break;
+			case SUMMARY:
+				for (Map.Entry<String, Series> seriesEntry : family.series.entrySet()) {
+					Series series = seriesEntry.getValue();
+					long[] base = baseline.get(name, seriesEntry.getKey());
+					appendSample(builder, name + "_count", seriesEntry.getKey(),
+							String.valueOf(series.count.get() - base[0]));
+					appendSample(builder, name + "_sum", seriesEntry.getKey(),
+							formatValue((series.sum.get() - base[1]) / NANOS_PER_SECOND));
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes all metrics in the Prometheus text exposition format to the
+	 * given file.
+	 * 
+	 * @param fileName
+	 *            file to write to
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeTo(String fileName) throws IOException {
+		writeTo(fileName, new Snapshot());
+	}
+
+	/**
+	 * Writes the metrics recorded since the given snapshot has been taken in
+	 * the Prometheus text exposition format to the given file.
+	 * 
+	 * @param fileName
+	 *            file to write to
+	 * @param baseline
+	 *            snapshot to subtract from counters and timers
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeTo(String fileName, Snapshot baseline) throws IOException {
+		FileWriter writer = new FileWriter(fileName);
+		try {
+			writer.write(toPrometheusText(baseline));
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Captures the current values of all counters and timers.
+	 * 
+	 * @return snapshot of the current values
+	 */
+	public Snapshot snapshot() {
+		Snapshot snapshot = new Snapshot();
+		for (Map.Entry<String, MetricFamily> familyEntry : families.entrySet()) {
+			for (Map.Entry<String, Series> seriesEntry : familyEntry.getValue().series.entrySet()) {
+				Series series = seriesEntry.getValue();
+				snapshot.values.put(familyEntry.getKey() + seriesEntry.getKey(),
+						new long[] { series.count.get(), series.sum.get() });
+			}
+		}
+		return snapshot;
+	}
+
+	private Series getSeries(String name, MetricType type, String[] labels) {
+		MetricFamily family = families.get(name);
+		if (family == null) {
+			describe(name, type, "");
+			family = families.get(name);
+		}
+		if (family.type != type) {
+			throw new IllegalArgumentException("Metric " + name + " is a " + family.type);
+		}
+		String labelString = formatLabels(labels);
+		Series series = family.series.get(labelString);
+		if (series == null) {
+			family.series.putIfAbsent(labelString, new Series());
+			series = family.series.get(labelString);
+		}
+		return series;
+	}
+
+	private static void appendSample(StringBuilder builder, String name, String labels, String value) {
+		builder.append(name).append(labels).append(' ').append(value).append('\n');
+	}
+
+	private static String formatValue(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		} else if (Double.isInfinite(value)) {
+			return value > 0 ? "+Inf" : "-Inf";
+		}
+		return String.valueOf(value);
+	}
+
+	private static String formatLabels(String[] labels) {
+		if (labels.length == 0) {
+			return "";
+		}
+		if (labels.length % 2 != 0) {
+			throw new IllegalArgumentException("Labels must be given as name-value pairs!");
+		}
+		StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < labels.length; i += 2) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append(labels[i]).append("=\"");
+			String value = labels[i + 1] == null ? "" : labels[i + 1];
+			builder.append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+			builder.append('"');
+		}
+		return builder.append('}').toString();
+	}
+
+	/**
+	 * Types of metrics.
+	 */
+	public enum MetricType {
+		/**
+		 * Monotonically increasing value.
+		 */
+		COUNTER,
+		/**
+		 * Value sampled on export.
+		 */
+		GAUGE,
+		/**
+		 * Number and accumulated duration of operations.
+		 */
+		SUMMARY
+	}
+
+	/**
+	 * Provides the current value of a gauge.
+	 */
+	public interface Gauge {
+		/**
+		 * 
+		 * @return the current value
+		 */
+		double getValue();
+	}
+
+	/**
+	 * Values of the counters and timers at a certain point in time.
+	 */
+	public static final class Snapshot {
+		private final Map<String, long[]> values = new HashMap<>();
+
+		private Snapshot() {
+		}
+
+		private long[] get(String name, String labels) {
+			long[] value = values.get(name + labels);
+			return value == null ? new long[2] : value;
+		}
+	}
+
+	/**
+	 * All series of a metric, distinguished by their labels.
+	 */
+	private static final class MetricFamily {
+		private final MetricType type;
+		private final String help;
+		private final ConcurrentSkipListMap<String, Series> series = new ConcurrentSkipListMap<>();
+		private volatile Gauge gauge;
+
+		private MetricFamily(MetricType type, String help) {
+			this.type = type;
+			this.help = help;
+		}
+	}
+
+	/**
+	 * Number of observations and their sum.
+	 */
+	private static final class Series {
+		private final AtomicLong count = new AtomicLong(0L);
+		private final AtomicLong sum = new AtomicLong(0L);
+
+		private void add(long value) {
+			count.incrementAndGet();
+			sum.addAndGet(value);
+		}
+	}
+}
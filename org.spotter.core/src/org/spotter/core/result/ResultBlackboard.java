@@ -16,6 +16,7 @@
 package org.spotter.core.result;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +66,15 @@ public final class ResultBlackboard {
 		return results;
 	}
 
+	/**
+	 * 
+	 * @return the problems with a result in the order their results have been
+	 *         put on the blackboard
+	 */
+	public List<PerformanceProblem> getKnownProblems() {
+		return Collections.unmodifiableList(knownProblems);
+	}
+
 	/**
 	 * Resets the blackboard.
 	 */
@@ -0,0 +1,362 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.bind.JAXBException;
+
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.config.interpretation.MeasurementEnvironmentFactory;
+import org.spotter.core.config.interpretation.PerformanceProblem;
+import org.spotter.core.detection.AbstractDetectionController;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.SpotterResult;
+import org.spotter.shared.util.JAXBUtil;
+
+/**
+ * Cache of the results of previous diagnosis runs. Each analyzed problem is
+ * stored under a fingerprint of its configuration, its path in the problem
+ * hierarchy, the measurement environment, the experiment configuration and the
+ * version tag of the system under test ({@link ConfigKeys#SUT_VERSION_TAG}).
+ * If a problem with the same fingerprint is examined again, the cached result
+ * and the experiment data of the previous run are reused instead of repeating
+ * the analysis.
+ * 
+ * The cache is stored in the common parent directory of all run result
+ * folders. It is disabled if no SUT version tag has been specified.
+ */
+public final class ResultCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final int BUFFER_SIZE = 1024;
+
+	/**
+	 * Global configuration keys affecting the experiments of all problems.
+	 */
+	private static final String[] EXPERIMENT_CONFIG_KEYS = { ConfigKeys.WORKLOAD_MAXUSERS,
+			ConfigKeys.EXPERIMENT_DURATION, ConfigKeys.EXPERIMENT_RAMP_UP_INTERVAL_LENGTH,
+			ConfigKeys.EXPERIMENT_RAMP_UP_NUM_USERS_PER_INTERVAL, ConfigKeys.EXPERIMENT_COOL_DOWN_INTERVAL_LENGTH,
+			ConfigKeys.EXPERIMENT_COOL_DOWN_NUM_USERS_PER_INTERVAL, ConfigKeys.EXPERIMENT_PIPELINING,
+			ConfigKeys.INSTRUMENTATION_EXCLUDES, ConfigKeys.OMIT_EXPERIMENTS, ConfigKeys.DUMMY_EXPERIMENT_DATA,
+			ConfigKeys.INSTRUMENTATION_OVERHEAD_COMPENSATION, ConfigKeys.INSTRUMENTATION_SAMPLING_RATE,
+			ConfigKeys.INSTRUMENTATION_SAMPLING_SCOPE_RATES, ConfigKeys.INSTRUMENTATION_SAMPLING_TARGET_RECORDS,
+			ConfigKeys.DRILL_DOWN_MAX_DEPTH, ConfigKeys.DRILL_DOWN_SCOPE_BUDGET, ConfigKeys.WORKLOAD_MAX_ARRIVAL_RATE };
+
+	private static ResultCache instance;
+
+	/**
+	 * 
+	 * @return the cache of the current run; a disabled cache if no cache has
+	 *         been opened
+	 */
+	public static synchronized ResultCache getInstance() {
+		if (instance == null) {
+			instance = new ResultCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Opens the result cache for a new run. The cache is enabled only if a
+	 * SUT version tag has been configured.
+	 * 
+	 * @param resultFolder
+	 *            result folder of the new run
+	 * @param rootProblem
+	 *            root of the problem hierarchy of the new run
+	 * @return the opened cache
+	 */
+	public static synchronized ResultCache open(String resultFolder, PerformanceProblem rootProblem) {
+		instance = new ResultCache();
+		String versionTag = GlobalConfiguration.getInstance().getProperty(ConfigKeys.SUT_VERSION_TAG, "").trim();
+		if (versionTag.isEmpty()) {
+			return instance;
+		}
+
+		File runFolder = new File(resultFolder);
+		File baseFolder = runFolder.getAbsoluteFile().getParentFile();
+		if (baseFolder == null) {
+			LOGGER.warn("Result cache disabled: result folder {} has no parent folder!", resultFolder);
+			return instance;
+		}
+		instance.resultFolder = resultFolder;
+		instance.cacheFile = new File(baseFolder, ResultsLocationConstants.RESULT_CACHE_FILE_NAME).getAbsolutePath();
+		instance.load();
+		instance.computeFingerprints(rootProblem, versionTag);
+		return instance;
+	}
+
+	/**
+	 * Closes the cache of the current run.
+	 */
+	public static synchronized void close() {
+		instance = null;
+	}
+
+	private String resultFolder;
+	private String cacheFile;
+	private Map<String, CacheEntry> entries = new HashMap<>();
+	private final Map<PerformanceProblem, String> fingerprints = new HashMap<>();
+	private final Set<PerformanceProblem> invalidatedProblems = new HashSet<>();
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private ResultCache() {
+	}
+
+	/**
+	 * @return true, if results are cached and reused
+	 */
+	public synchronized boolean isEnabled() {
+		return cacheFile != null;
+	}
+
+	/**
+	 * Looks up a cached result for the given problem. If a valid result
+	 * exists, the experiment data and result resources of the previous run are
+	 * copied into the result folder of the current run.
+	 * 
+	 * @param problem
+	 *            problem to examine
+	 * @return the cached result, or <code>null</code> if the problem has to be
+	 *         analyzed
+	 */
+	public synchronized SpotterResult reuse(PerformanceProblem problem) {
+		String fingerprint = fingerprints.get(problem);
+		if (!isEnabled() || fingerprint == null || invalidatedProblems.contains(problem)) {
+			return null;
+		}
+		CacheEntry entry = entries.get(fingerprint);
+		if (entry == null) {
+			return null;
+		}
+
+		String controllerIdentifier = getControllerIdentifier(problem);
+		if (controllerIdentifier != null && !resultFolder.equals(entry.resultFolder)) {
+			File sourceDir = new File(entry.resultFolder, controllerIdentifier);
+			if (!new File(entry.resultFolder).exists()) {
+				LOGGER.info("Cached result of {} is not usable, result folder {} has been removed.",
+						problem.getUniqueId(), entry.resultFolder);
+				return null;
+			}
+			if (sourceDir.exists()) {
+				try {
+					LpeFileUtils.copyDirectory(sourceDir.getAbsolutePath(),
+							new File(resultFolder, controllerIdentifier).getAbsolutePath());
+				} catch (IOException e) {
+					LOGGER.warn("Failed copying cached data of {}: {}", problem.getUniqueId(), e.getMessage());
+					return null;
+				}
+			}
+		}
+
+		LOGGER.info("Reusing result of {} from run {}.", problem.getUniqueId(), entry.resultFolder);
+		// later runs refer to the copy in the current result folder
+		entries.put(fingerprint, new CacheEntry(entry.result, resultFolder));
+		save();
+		return entry.result;
+	}
+
+	/**
+	 * Stores the result of an analyzed problem. If the decision for the
+	 * problem differs from the cached decision, the cached results of its
+	 * descendants are not reused anymore.
+	 * 
+	 * @param problem
+	 *            analyzed problem
+	 * @param result
+	 *            result of the analysis
+	 */
+	public synchronized void store(PerformanceProblem problem, SpotterResult result) {
+		String fingerprint = fingerprints.get(problem);
+		if (!isEnabled() || fingerprint == null) {
+			return;
+		}
+		CacheEntry previous = entries.get(fingerprint);
+		if (previous == null || previous.result.isDetected() != result.isDetected()) {
+			invalidatedProblems.addAll(problem.getAllDEscendingProblems());
+			invalidatedProblems.remove(problem);
+		}
+		entries.put(fingerprint, new CacheEntry(result, resultFolder));
+		save();
+	}
+
+	/**
+	 * 
+	 * @param problem
+	 *            problem of interest
+	 * @return fingerprint of the given problem in the current run, or
+	 *         <code>null</code> if the cache is disabled
+	 */
+	public synchronized String getFingerprint(PerformanceProblem problem) {
+		return fingerprints.get(problem);
+	}
+
+	private static String getControllerIdentifier(PerformanceProblem problem) {
+		if (problem.getDetectionController() instanceof AbstractDetectionController) {
+			return ((AbstractDetectionController) problem.getDetectionController()).getResultManager()
+					.getControllerIdentifier();
+		}
+		return null;
+	}
+
+	private void computeFingerprints(PerformanceProblem rootProblem, String versionTag) {
+		StringBuilder environment = new StringBuilder();
+		environment.append(versionTag);
+		environment.append('\n');
+		for (String key : EXPERIMENT_CONFIG_KEYS) {
+			environment.append(key).append('=');
+			environment.append(GlobalConfiguration.getInstance().getProperty(key, "")).append('\n');
+		}
+		String environmentFile = GlobalConfiguration.getInstance().getProperty(ConfigKeys.MEASUREMENT_ENVIRONMENT_FILE);
+		if (environmentFile != null && new File(environmentFile).exists()) {
+			environment.append(readEnvironmentDescription(environmentFile));
+		}
+		computeFingerprints(rootProblem, fingerprint(environment.toString()));
+	}
+
+	/**
+	 * Reads the measurement environment description without the calibrated
+	 * instrumentation overhead. Storing a new calibration in the description
+	 * thus does not invalidate the cached results.
+	 */
+	private static String readEnvironmentDescription(String environmentFile) {
+		XMeasurementEnvironment environment = MeasurementEnvironmentFactory.getInstance().parseXMLFile(
+				environmentFile);
+		environment.setInstrumentationOverhead(null);
+		try (InputStream input = JAXBUtil.createInputStreamFromElement(environment)) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int length;
+			while ((length = input.read(buffer)) >= 0) {
+				output.write(buffer, 0, length);
+			}
+			return new String(output.toByteArray(), UTF_8);
+		} catch (IOException | JAXBException e) {
+			throw new RuntimeException("Failed reading measurement environment file " + environmentFile, e);
+		}
+	}
+
+	private void computeFingerprints(PerformanceProblem problem, String parentFingerprint) {
+		String fingerprint = computeFingerprint(parentFingerprint, problem);
+		fingerprints.put(problem, fingerprint);
+		for (PerformanceProblem child : problem.getChildren()) {
+			computeFingerprints(child, fingerprint);
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of a problem. As the fingerprint of the parent
+	 * is part of the fingerprint, it covers the whole hierarchy path.
+	 * 
+	 * @param parentFingerprint
+	 *            fingerprint of the parent problem or of the environment for
+	 *            the root problem
+	 * @param problem
+	 *            problem to compute the fingerprint for
+	 * @return fingerprint of the problem
+	 */
+	static String computeFingerprint(String parentFingerprint, PerformanceProblem problem) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(parentFingerprint).append('\n');
+		builder.append(problem.getUniqueId()).append('\n');
+		builder.append(problem.getProblemName()).append('\n');
+		if (problem.getDetectionController() != null) {
+			builder.append(problem.getDetectionController().getClass().getName()).append('\n');
+		}
+		// sorted for a stable order of the configuration entries
+		TreeMap<String, String> configuration = new TreeMap<>();
+		for (String key : problem.getConfiguration().stringPropertyNames()) {
+			configuration.put(key, problem.getConfiguration().getProperty(key));
+		}
+		for (Map.Entry<String, String> entry : configuration.entrySet()) {
+			builder.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+		}
+		return fingerprint(builder.toString());
+	}
+
+	private static String fingerprint(String content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest(content.getBytes(UTF_8))) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void load() {
+		File file = new File(cacheFile);
+		if (!file.exists()) {
+			return;
+		}
+		try {
+			entries = (Map<String, CacheEntry>) LpeFileUtils.readObject(file);
+		} catch (IOException | ClassNotFoundException e) {
+			LOGGER.warn("Failed reading result cache {}, starting with an empty cache! Cause: {}", cacheFile,
+					e.getMessage());
+			entries = new HashMap<>();
+		}
+	}
+
+	private void save() {
+		try {
+			LpeFileUtils.writeObject(cacheFile, entries);
+		} catch (IOException e) {
+			LOGGER.error("Failed writing result cache {}! Cause: {}", cacheFile, e.getMessage());
+		}
+	}
+
+	/**
+	 * Cached result of a problem together with the result folder holding its
+	 * experiment data.
+	 */
+	private static final class CacheEntry implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final SpotterResult result;
+		private final String resultFolder;
+
+		CacheEntry(SpotterResult result, String resultFolder) {
+			this.result = result;
+			this.resultFolder = resultFolder;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.lpe.common.util.LpeFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.core.config.interpretation.PerformanceProblem;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.SpotterResult;
+
+/**
+ * Journal of a diagnosis run. The journal is persisted in the result folder of
+ * the run after each completed experiment and each analyzed problem. It
+ * comprises the results of completed problems, the number of completed
+ * experiments per problem and the state of the hierarchy traversal. Thus, an
+ * interrupted run can be resumed from its last completed experiment.
+ */
+public final class RunJournal implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RunJournal.class);
+
+	private static RunJournal instance;
+
+	/**
+	 * 
+	 * @return the journal of the current run; a journal which is not
+	 *         persisted if no run is journaled
+	 */
+	public static synchronized RunJournal getInstance() {
+		if (instance == null) {
+			instance = new RunJournal();
+		}
+		return instance;
+	}
+
+	/**
+	 * Starts a new journal for a run with the given result folder.
+	 * 
+	 * @param resultFolder
+	 *            result folder of the run
+	 * @return the new journal
+	 */
+	public static synchronized RunJournal start(String resultFolder) {
+		instance = new RunJournal();
+		instance.journalFile = getJournalFile(resultFolder);
+		instance.save();
+		return instance;
+	}
+
+	/**
+	 * Loads the journal of an interrupted run.
+	 * 
+	 * @param resultFolder
+	 *            result folder of the interrupted run
+	 * @return the loaded journal
+	 * @throws IOException
+	 *             if no journal exists or the journal cannot be read
+	 */
+	public static synchronized RunJournal resume(String resultFolder) throws IOException {
+		File file = new File(getJournalFile(resultFolder));
+		if (!file.exists()) {
+			throw new IOException("No journal of an interrupted run found in " + resultFolder + "!");
+		}
+		try {
+			instance = (RunJournal) LpeFileUtils.readObject(file);
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+		instance.journalFile = file.getAbsolutePath();
+		return instance;
+	}
+
+	/**
+	 * Closes the journal of a successfully completed run and removes it from
+	 * the result folder.
+	 */
+	public static synchronized void finish() {
+		if (instance != null && instance.journalFile != null) {
+			File file = new File(instance.journalFile);
+			if (file.exists() && !file.delete()) {
+				LOGGER.warn("Failed removing run journal {}!", instance.journalFile);
+			}
+		}
+		instance = null;
+	}
+
+	/**
+	 * Detaches the journal of the current run without removing it, e.g. after
+	 * the run failed. The persisted journal can be used to resume the run.
+	 */
+	public static synchronized void close() {
+		instance = null;
+	}
+
+	private static String getJournalFile(String resultFolder) {
+		return resultFolder + ResultsLocationConstants.RUN_JOURNAL_FILE_NAME;
+	}
+
+	private transient String journalFile;
+
+	// results of all problems in the order of their completion
+	private final LinkedHashMap<String, SpotterResult> results = new LinkedHashMap<>();
+	private final Map<String, Integer> completedExperiments = new HashMap<>();
+	private final List<String> pendingProblems = new ArrayList<>();
+	private String currentProblem;
+
+	/**
+	 * Private constructor for singleton.
+	 */
+	private RunJournal() {
+	}
+
+	/**
+	 * Records the state after a problem has been analyzed.
+	 * 
+	 * @param blackboard
+	 *            blackboard holding the results of all completed problems
+	 * @param pending
+	 *            problems still to be examined by the hierarchy interpreter
+	 * @param current
+	 *            the problem which has been analyzed last, <code>null</code>
+	 *            if its children have already been added to the pending
+	 *            problems
+	 */
+	public synchronized void problemCompleted(ResultBlackboard blackboard, List<PerformanceProblem> pending,
+			PerformanceProblem current) {
+		results.clear();
+		for (PerformanceProblem problem : blackboard.getKnownProblems()) {
+			results.put(problem.getUniqueId(), blackboard.getResult(problem.getUniqueId()));
+		}
+		pendingProblems.clear();
+		for (PerformanceProblem problem : pending) {
+			pendingProblems.add(problem.getUniqueId());
+		}
+		currentProblem = current == null ? null : current.getUniqueId();
+		save();
+	}
+
+	/**
+	 * Records that the data of an experiment has been stored completely.
+	 * 
+	 * @param problemId
+	 *            unique id of the problem running the experiment
+	 * @param experimentCount
+	 *            number of experiments completed for this problem so far
+	 */
+	public synchronized void experimentCompleted(String problemId, int experimentCount) {
+		completedExperiments.put(problemId, experimentCount);
+		save();
+	}
+
+	/**
+	 * 
+	 * @param problemId
+	 *            unique id of the problem of interest
+	 * @return number of experiments completed for the given problem
+	 */
+	public synchronized int getCompletedExperiments(String problemId) {
+		Integer count = completedExperiments.get(problemId);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * @return results of all completed problems in the order of their
+	 *         completion
+	 */
+	public synchronized Map<String, SpotterResult> getResults() {
+		return new LinkedHashMap<>(results);
+	}
+
+	/**
+	 * @return unique ids of the problems still to be examined
+	 */
+	public synchronized List<String> getPendingProblems() {
+		return new ArrayList<>(pendingProblems);
+	}
+
+	/**
+	 * @return unique id of the problem analyzed last, or <code>null</code> if
+	 *         no problem has been analyzed yet
+	 */
+	public synchronized String getCurrentProblem() {
+		return currentProblem;
+	}
+
+	/**
+	 * @return true, if at least one problem has been analyzed
+	 */
+	public synchronized boolean hasCompletedProblems() {
+		// problems examined concurrently are journaled without current problem
+		return currentProblem != null || !results.isEmpty();
+	}
+
+	private void save() {
+		if (journalFile == null) {
+			return;
+		}
+		// write to a temporary file first, the journal must never be corrupted
+		String tempFile = journalFile + ".tmp";
+		try {
+			LpeFileUtils.writeObject(tempFile, this);
+			try {
+				Files.move(new File(tempFile).toPath(), new File(journalFile).toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(new File(tempFile).toPath(), new File(journalFile).toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			LOGGER.error("Failed writing run journal {}! Cause: {}", journalFile, e.getMessage());
+		}
+	}
+}
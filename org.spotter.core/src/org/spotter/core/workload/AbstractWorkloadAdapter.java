@@ -21,6 +21,7 @@ import org.lpe.common.extension.AbstractExtensionArtifact;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.util.LpeStringUtils;
 import org.spotter.core.AbstractSpotterSatelliteExtension;
+import org.spotter.exceptions.WorkloadException;
 
 /**
  * Abstract superclass for all workload adapters.
@@ -84,4 +85,75 @@ public abstract class AbstractWorkloadAdapter extends AbstractExtensionArtifact
 		this.properties = properties;
 	}
 
+	/**
+	 * Adapters which are able to change the load level without cooling down
+	 * have to override this method and {@link #transitLoad(LoadConfig)}.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean supportsLoadTransition() {
+		return false;
+	}
+
+	/**
+	 * Adapters without direct load transitions let the running load finish
+	 * and start the given load afterwards.
+	 * 
+	 * @param loadConfig
+	 *            configuration of the load to transit to
+	 * @throws WorkloadException
+	 *             if the load cannot be finished or started
+	 */
+	@Override
+	public void transitLoad(LoadConfig loadConfig) throws WorkloadException {
+		waitForFinishedLoad();
+		startLoad(loadConfig);
+	}
+
+	/**
+	 * Adapters which are able to stop a running load have to override this
+	 * method. By default, the load is awaited to finish.
+	 * 
+	 * @throws WorkloadException
+	 *             if the load cannot be finished
+	 */
+	@Override
+	public void abortLoad() throws WorkloadException {
+		waitForFinishedLoad();
+	}
+
+	/**
+	 * Adapters which are able to generate open workloads have to override
+	 * this method.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean supportsOpenLoop() {
+		return false;
+	}
+
+	/**
+	 * Adapters which are able to vary the load level during the experiment
+	 * phase have to override this method.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean supportsLoadProfiles() {
+		return false;
+	}
+
+	/**
+	 * Adapters which are able to override think times per phase have to
+	 * override this method.
+	 * 
+	 * @return false
+	 */
+	@Override
+	public boolean supportsThinkTimeOverrides() {
+		return false;
+	}
+
 }
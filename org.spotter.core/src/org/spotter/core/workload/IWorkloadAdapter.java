@@ -51,6 +51,54 @@ public interface IWorkloadAdapter extends IExtensionArtifact {
 	 */
 	void startLoad(LoadConfig loadConfig) throws WorkloadException;
 
+	/**
+	 * Indicates whether this adapter is able to change the number of users of
+	 * a running load without cooling down to zero users.
+	 * 
+	 * @return true, if load transitions are supported
+	 */
+	boolean supportsLoadTransition();
+
+	/**
+	 * Ramps the running load (which may already be cooling down) from its
+	 * current number of users to the number of users of the given load
+	 * configuration. Afterwards, the warmup, experiment and cool-down phases
+	 * of the new configuration apply as if the load had been started with
+	 * {@link #startLoad(LoadConfig)}. Only called if
+	 * {@link #supportsLoadTransition()} returns true.
+	 * 
+	 * @param loadConfig
+	 *            configuration of the load to transit to
+	 * @throws WorkloadException
+	 *             if the transition fails
+	 */
+	void transitLoad(LoadConfig loadConfig) throws WorkloadException;
+
+	/**
+	 * Indicates whether this adapter is able to generate open workloads, i.e.
+	 * requests arriving at the rate given by
+	 * {@link LoadConfig#getArrivalRate()}.
+	 * 
+	 * @return true, if open workloads are supported
+	 */
+	boolean supportsOpenLoop();
+
+	/**
+	 * Indicates whether this adapter is able to vary the load level during
+	 * the experiment phase according to {@link LoadConfig#getLoadProfile()}.
+	 * 
+	 * @return true, if load profiles are supported
+	 */
+	boolean supportsLoadProfiles();
+
+	/**
+	 * Indicates whether this adapter is able to apply the think time
+	 * overrides given by {@link LoadConfig#getThinkTime(LoadConfig.Phase)}.
+	 * 
+	 * @return true, if think time overrides are supported
+	 */
+	boolean supportsThinkTimeOverrides();
+
 	/**
 	 * Blocks until warmup phase is finished.
 	 * 
@@ -75,6 +123,15 @@ public interface IWorkloadAdapter extends IExtensionArtifact {
 	 */
 	void waitForFinishedLoad() throws WorkloadException;
 
+	/**
+	 * Stops the running load immediately, skipping the remaining experiment
+	 * and cool-down phases. Blocks until the load has been stopped.
+	 * 
+	 * @throws WorkloadException
+	 *             if the load cannot be stopped
+	 */
+	void abortLoad() throws WorkloadException;
+
 	/**
 	 * @return the name
 	 */
@@ -1,18 +1,46 @@
 package org.spotter.core.workload;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
- * Wraps the specification of workload.
+ * Wraps the specification of workload. By default, the workload is closed,
+ * i.e. a fixed number of users issue requests. If an arrival rate is set, the
+ * workload is open, i.e. requests arrive at the given rate independently of
+ * the response times of the system under test.
  * 
  * @author Alexander Wert
  * 
  */
 public final class LoadConfig {
+
+	/**
+	 * Phases of a load run.
+	 */
+	public enum Phase {
+		/**
+		 * Load increases to the configured level.
+		 */
+		RAMP_UP,
+		/**
+		 * Stable phase of the experiment.
+		 */
+		EXPERIMENT,
+		/**
+		 * Load decreases to zero.
+		 */
+		COOL_DOWN
+	}
+
 	private int numUsers;
 	private int rampUpIntervalLength;
 	private int rampUpUsersPerInterval;
 	private int coolDownIntervalLength;
 	private int coolDownUsersPerInterval;
 	private int experimentDuration;
+	private double arrivalRate;
+	private LoadProfile loadProfile = LoadProfile.CONSTANT;
+	private final Map<Phase, Integer> thinkTimes = new EnumMap<>(Phase.class);
 
 	/**
 	 * @return the numUsers
@@ -104,4 +132,118 @@ public final class LoadConfig {
 		this.experimentDuration = experimentDuration;
 	}
 
+	/**
+	 * @return the arrival rate in [requests/s], 0 for closed workloads
+	 */
+	public double getArrivalRate() {
+		return arrivalRate;
+	}
+
+	/**
+	 * Sets the arrival rate of an open workload. The number of users is
+	 * ignored for open workloads, the rate is ramped up and cooled down
+	 * linearly within the ramp-up and cool-down intervals, respectively.
+	 * Only supported by adapters which return true for
+	 * {@link IWorkloadAdapter#supportsOpenLoop()}.
+	 * 
+	 * @param arrivalRate
+	 *            the arrival rate in [requests/s], 0 for closed workloads
+	 */
+	public void setArrivalRate(double arrivalRate) {
+		this.arrivalRate = arrivalRate;
+	}
+
+	/**
+	 * @return true, if this configuration describes an open workload
+	 */
+	public boolean isOpenLoop() {
+		return arrivalRate > 0.0;
+	}
+
+	/**
+	 * @return the profile of the load level during the experiment phase
+	 */
+	public LoadProfile getLoadProfile() {
+		return loadProfile;
+	}
+
+	/**
+	 * Sets the profile of the load level during the experiment phase. Only
+	 * supported by adapters which return true for
+	 * {@link IWorkloadAdapter#supportsLoadProfiles()}.
+	 * 
+	 * @param loadProfile
+	 *            the profile to set
+	 */
+	public void setLoadProfile(LoadProfile loadProfile) {
+		this.loadProfile = loadProfile == null ? LoadProfile.CONSTANT : loadProfile;
+	}
+
+	/**
+	 * Calculates the load level at the given time of the experiment phase.
+	 * 
+	 * @param second
+	 *            time relative to the start of the experiment phase in [s]
+	 * @return arrival rate in [requests/s] for open workloads, number of users
+	 *         for closed workloads
+	 */
+	public double getLoadLevel(double second) {
+		double level = isOpenLoop() ? arrivalRate : numUsers;
+		return level * loadProfile.getFactor(second);
+	}
+
+	/**
+	 * Returns the think time override for the given phase.
+	 * 
+	 * @param phase
+	 *            phase of interest
+	 * @return think time in [ms], <code>null</code> if the think time of the
+	 *         workload is not overridden in the given phase
+	 */
+	public Integer getThinkTime(Phase phase) {
+		return thinkTimes.get(phase);
+	}
+
+	/**
+	 * Overrides the think time of the workload in the given phase. Only
+	 * supported by adapters which return true for
+	 * {@link IWorkloadAdapter#supportsThinkTimeOverrides()}.
+	 * 
+	 * @param phase
+	 *            phase to override the think time for
+	 * @param thinkTime
+	 *            think time in [ms], <code>null</code> removes the override
+	 */
+	public void setThinkTime(Phase phase, Integer thinkTime) {
+		if (thinkTime == null) {
+			thinkTimes.remove(phase);
+		} else {
+			thinkTimes.put(phase, thinkTime);
+		}
+	}
+
+	/**
+	 * @return true, if the think time is overridden in any phase
+	 */
+	public boolean hasThinkTimeOverrides() {
+		return !thinkTimes.isEmpty();
+	}
+
+	/**
+	 * @return a copy of this configuration which can be modified independently
+	 */
+	public LoadConfig copy() {
+		LoadConfig copy = new LoadConfig();
+		copy.numUsers = numUsers;
+		copy.rampUpIntervalLength = rampUpIntervalLength;
+		copy.rampUpUsersPerInterval = rampUpUsersPerInterval;
+		copy.coolDownIntervalLength = coolDownIntervalLength;
+		copy.coolDownUsersPerInterval = coolDownUsersPerInterval;
+		copy.experimentDuration = experimentDuration;
+		copy.arrivalRate = arrivalRate;
+		copy.loadProfile = loadProfile;
+		copy.thinkTimes.putAll(thinkTimes);
+		return copy;
+	}
+
 }
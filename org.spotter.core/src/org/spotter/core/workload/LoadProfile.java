@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.workload;
+
+/**
+ * Describes how the load intensity varies during the experiment phase. The
+ * profile yields a factor relative to the load level of the
+ * {@link LoadConfig}, i.e. relative to the number of users for closed
+ * workloads and relative to the arrival rate for open workloads. Thus, the
+ * same profile can be applied to all experiments of a series.
+ */
+public final class LoadProfile {
+
+	/**
+	 * Shapes of load profiles.
+	 */
+	public enum Shape {
+		/**
+		 * Constant load level.
+		 */
+		CONSTANT,
+		/**
+		 * Load level increasing in equidistant steps up to the full level.
+		 */
+		STEP,
+		/**
+		 * Constant load level interrupted by a single spike.
+		 */
+		SPIKE,
+		/**
+		 * Load level oscillating around the full level.
+		 */
+		SINE
+	}
+
+	/**
+	 * Profile keeping the load level constant.
+	 */
+	public static final LoadProfile CONSTANT = new LoadProfile(Shape.CONSTANT, 1.0, 0, 0, 0);
+
+	/**
+	 * Creates a profile increasing the load level in equidistant steps. The
+	 * first step applies <code>1 / numSteps</code> of the load level, the last
+	 * step the full load level.
+	 * 
+	 * @param numSteps
+	 *            number of steps
+	 * @param stepDuration
+	 *            duration of each step in [s]
+	 * @return the profile
+	 */
+	public static LoadProfile step(int numSteps, int stepDuration) {
+		if (numSteps < 1 || stepDuration < 1) {
+			throw new IllegalArgumentException("Number of steps and step duration have to be positive!");
+		}
+		return new LoadProfile(Shape.STEP, 1.0, numSteps, stepDuration, 0);
+	}
+
+	/**
+	 * Creates a profile applying a multiple of the load level for a limited
+	 * time.
+	 * 
+	 * @param peakFactor
+	 *            factor applied to the load level during the spike
+	 * @param spikeStart
+	 *            start of the spike relative to the start of the experiment
+	 *            phase in [s]
+	 * @param spikeDuration
+	 *            duration of the spike in [s]
+	 * @return the profile
+	 */
+	public static LoadProfile spike(double peakFactor, int spikeStart, int spikeDuration) {
+		if (peakFactor < 0.0 || spikeStart < 0 || spikeDuration < 1) {
+			throw new IllegalArgumentException("Invalid spike: factor " + peakFactor + ", start " + spikeStart
+					+ ", duration " + spikeDuration);
+		}
+		return new LoadProfile(Shape.SPIKE, peakFactor, 0, spikeStart, spikeDuration);
+	}
+
+	/**
+	 * Creates a profile oscillating around the load level.
+	 * 
+	 * @param amplitude
+	 *            amplitude relative to the load level, within [0, 1]
+	 * @param period
+	 *            period of the oscillation in [s]
+	 * @return the profile
+	 */
+	public static LoadProfile sine(double amplitude, int period) {
+		if (amplitude < 0.0 || amplitude > 1.0 || period < 1) {
+			throw new IllegalArgumentException("Invalid sine: amplitude " + amplitude + ", period " + period);
+		}
+		return new LoadProfile(Shape.SINE, amplitude, 0, period, 0);
+	}
+
+	private final Shape shape;
+	private final double factor;
+	private final int numSteps;
+	private final int firstDuration;
+	private final int secondDuration;
+
+	private LoadProfile(Shape shape, double factor, int numSteps, int firstDuration, int secondDuration) {
+		this.shape = shape;
+		this.factor = factor;
+		this.numSteps = numSteps;
+		this.firstDuration = firstDuration;
+		this.secondDuration = secondDuration;
+	}
+
+	/**
+	 * Calculates the factor to apply to the load level at the given time.
+	 * 
+	 * @param second
+	 *            time relative to the start of the experiment phase in [s]
+	 * @return factor to apply to the load level
+	 */
+	public double getFactor(double second) {
+		switch (shape) {
+		case STEP:
+			int step = (int) Math.floor(second / firstDuration) + 1;
+			return (double) Math.min(step, numSteps) / numSteps;
+		case SPIKE:
+			return second >= firstDuration && second < firstDuration + secondDuration ? factor : 1.0;
+		case SINE:
+			return 1.0 + factor * Math.sin(2.0 * Math.PI * second / firstDuration);
+		default:
+			return 1.0;
+		}
+	}
+
+	/**
+	 * Returns the minimal duration of the experiment phase required to
+	 * complete this profile once.
+	 * 
+	 * @return duration in [s], 0 if the profile does not require a minimal
+	 *         duration
+	 */
+	public int getMinimalDuration() {
+		switch (shape) {
+		case STEP:
+			return numSteps * firstDuration;
+		case SPIKE:
+			return firstDuration + secondDuration;
+		case SINE:
+			return firstDuration;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @return the shape of this profile
+	 */
+	public Shape getShape() {
+		return shape;
+	}
+
+	@Override
+	public String toString() {
+		switch (shape) {
+		case STEP:
+			return "step(" + numSteps + "," + firstDuration + ")";
+		case SPIKE:
+			return "spike(" + factor + "," + firstDuration + "," + secondDuration + ")";
+		case SINE:
+			return "sine(" + factor + "," + firstDuration + ")";
+		default:
+			return "constant";
+		}
+	}
+}
@@ -44,6 +44,16 @@ public final class WorkloadAdapterBroker implements IWorkloadAdapter {
 		return instance;
 	}
 
+	/**
+	 * Creates a broker independent of the singleton instance, e.g. for the
+	 * satellites of an additional replica of the system under test.
+	 * 
+	 * @return a new broker instance
+	 */
+	public static WorkloadAdapterBroker createInstance() {
+		return new WorkloadAdapterBroker();
+	}
+
 	private final List<IWorkloadAdapter> wlAdapters;
 
 	/**
@@ -84,6 +94,86 @@ public final class WorkloadAdapterBroker implements IWorkloadAdapter {
 
 	}
 
+	/**
+	 * Load transitions are supported if all workload adapters support them.
+	 * 
+	 * @return true, if all adapters support load transitions
+	 */
+	@Override
+	public boolean supportsLoadTransition() {
+		if (wlAdapters.isEmpty()) {
+			return false;
+		}
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			if (!wlAdapter.supportsLoadTransition()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void transitLoad(LoadConfig loadConfig) throws WorkloadException {
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			wlAdapter.transitLoad(loadConfig);
+		}
+	}
+
+	/**
+	 * Open workloads are supported if all workload adapters support them.
+	 * 
+	 * @return true, if all adapters support open workloads
+	 */
+	@Override
+	public boolean supportsOpenLoop() {
+		if (wlAdapters.isEmpty()) {
+			return false;
+		}
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			if (!wlAdapter.supportsOpenLoop()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Load profiles are supported if all workload adapters support them.
+	 * 
+	 * @return true, if all adapters support load profiles
+	 */
+	@Override
+	public boolean supportsLoadProfiles() {
+		if (wlAdapters.isEmpty()) {
+			return false;
+		}
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			if (!wlAdapter.supportsLoadProfiles()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Think time overrides are supported if all workload adapters support
+	 * them.
+	 * 
+	 * @return true, if all adapters support think time overrides
+	 */
+	@Override
+	public boolean supportsThinkTimeOverrides() {
+		if (wlAdapters.isEmpty()) {
+			return false;
+		}
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			if (!wlAdapter.supportsThinkTimeOverrides()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void waitForFinishedLoad() throws WorkloadException {
 		for (IWorkloadAdapter wlAdapter : wlAdapters) {
@@ -92,6 +182,13 @@ public final class WorkloadAdapterBroker implements IWorkloadAdapter {
 
 	}
 
+	@Override
+	public void abortLoad() throws WorkloadException {
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			wlAdapter.abortLoad();
+		}
+	}
+
 	@Override
 	public Properties getProperties() {
 		Properties props = new Properties();
@@ -142,4 +239,25 @@ public final class WorkloadAdapterBroker implements IWorkloadAdapter {
 		// nothing to do
 	}
 
+	/**
+	 * Returns a list of workload adapters of the given type.
+	 * 
+	 * @param type
+	 *            type of interest
+	 * @return list of workload adapters of the given type
+	 * @param <T>
+	 *            Class type of the adapters
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IWorkloadAdapter> List<T> getWorkloadAdapters(Class<T> type) {
+		List<T> result = new ArrayList<>();
+
+		for (IWorkloadAdapter wlAdapter : wlAdapters) {
+			if (type.isAssignableFrom(wlAdapter.getClass())) {
+				result.add((T) wlAdapter);
+			}
+		}
+
+		return result;
+	}
 }
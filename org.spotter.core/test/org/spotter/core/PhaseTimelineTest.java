@@ -0,0 +1,73 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.spotter.shared.status.DiagnosisStatus;
+
+public class PhaseTimelineTest {
+
+	private static int count(String text, String pattern) {
+		int count = 0;
+		int index = text.indexOf(pattern);
+		while (index >= 0) {
+			count++;
+			index = text.indexOf(pattern, index + pattern.length());
+		}
+		return count;
+	}
+
+	@Test
+	public void testChromeTrace() throws IOException {
+		PhaseTimeline timeline = new PhaseTimeline();
+		timeline.setTrackName("problem-1", "Blob \"Controller\"");
+		timeline.statusChanged("problem-1", DiagnosisStatus.INSTRUMENTING);
+		timeline.statusChanged("problem-1", DiagnosisStatus.EXPERIMENTING_RAMP_UP);
+		timeline.addArgument("problem-1", "numUsers", 10);
+		timeline.statusChanged("problem-1", DiagnosisStatus.ANALYZING);
+		timeline.statusChanged("problem-1", DiagnosisStatus.DETECTED);
+		// problems which have never been examined do not get a track
+		timeline.statusChanged("problem-2", DiagnosisStatus.NOT_DETECTED);
+
+		Map<String, Object> args = new HashMap<>();
+		args.put("bytes", 1024L);
+		timeline.recordSpan("problem-1#data", "storing data", System.nanoTime(), System.nanoTime(), args);
+		timeline.statusChanged("problem-3", DiagnosisStatus.WARM_UP);
+
+		StringWriter writer = new StringWriter();
+		timeline.writeChromeTrace(writer);
+		String trace = writer.toString();
+
+		Assert.assertTrue(trace.startsWith("{\"traceEvents\":["));
+		Assert.assertTrue(trace.endsWith("}"));
+		// three tracks: problem-1, its data track and problem-3
+		Assert.assertEquals(3, count(trace, "\"ph\":\"M\""));
+		Assert.assertTrue(trace.contains("\"name\":\"Blob \\\"Controller\\\"\""));
+		// instrumenting, ramp-up, analyzing, storing data and the open warm-up
+		Assert.assertEquals(5, count(trace, "\"ph\":\"X\""));
+		Assert.assertEquals(1, count(trace, "\"ph\":\"i\""));
+		Assert.assertTrue(trace.contains("\"name\":\"experimenting ramp-up\""));
+		Assert.assertTrue(trace.contains("\"numUsers\":10"));
+		Assert.assertTrue(trace.contains("\"bytes\":1024"));
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lpe.common.config.GlobalConfiguration;
+import org.spotter.core.instrumentation.InstrumentationBroker;
+import org.spotter.core.measurement.MeasurementBroker;
+import org.spotter.core.test.dummies.satellites.DummyWorkload;
+import org.spotter.core.test.dummies.satellites.DummyWorkloadExtension;
+import org.spotter.core.workload.IWorkloadAdapter;
+import org.spotter.core.workload.WorkloadAdapterBroker;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.status.SatelliteHealth;
+
+public class SatelliteHealthMonitorTest {
+	private static final String GROUP = "replica";
+
+	@BeforeClass
+	public static void initializeGlobalConfiguration() {
+		GlobalConfiguration.initialize(new Properties());
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SATELLITE_HEALTH_MAX_FAILED_PROBES, "2");
+	}
+
+	@Test
+	public void testDegradationAndRecovery() {
+		RemoteWorkloadExtension extension = new RemoteWorkloadExtension();
+		SatelliteHealthMonitor monitor = SatelliteHealthMonitor.getInstance();
+		monitor.reset();
+		ProgressManager.getInstance().reset();
+		monitor.addSatellites(createReplicaGroup(extension));
+
+		monitor.probeAll();
+		Assert.assertNull(monitor.getDegradation(GROUP));
+		SatelliteHealth health = getHealth();
+		Assert.assertNotNull(health);
+		Assert.assertTrue(health.isHealthy());
+
+		extension.connected = false;
+		monitor.probeAll();
+		// a single failed probe does not degrade the satellite
+		Assert.assertNull(monitor.getDegradation(GROUP));
+		monitor.probeAll();
+		Assert.assertNotNull(monitor.getDegradation(GROUP));
+		Assert.assertNotNull(monitor.getDegradation(null));
+		Assert.assertNull(monitor.getDegradation("otherReplica"));
+		Assert.assertNotNull(monitor.awaitHealthy(GROUP, 10L));
+
+		extension.connected = true;
+		monitor.probeAll();
+		Assert.assertNull(monitor.getDegradation(GROUP));
+		Assert.assertEquals(0, getHealth().getConsecutiveFailures());
+
+		monitor.reset();
+		Assert.assertNull(monitor.getDegradation(GROUP));
+	}
+
+	@Test
+	public void testLateProbeResultIsIgnored() throws InterruptedException {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SATELLITE_CONNECTION_TEST_TIMEOUT, "50");
+		RemoteWorkloadExtension extension = new RemoteWorkloadExtension();
+		extension.release = new CountDownLatch(1);
+		SatelliteHealthMonitor monitor = SatelliteHealthMonitor.getInstance();
+		monitor.reset();
+		ProgressManager.getInstance().reset();
+		monitor.addSatellites(createReplicaGroup(extension));
+
+		try {
+			monitor.probeAll();
+			Assert.assertEquals(1, getHealth().getConsecutiveFailures());
+
+			// the successful result of the timed out probe must not reset the
+			// failures
+			extension.release.countDown();
+			Assert.assertTrue(extension.returned.await(1, TimeUnit.SECONDS));
+			Thread.sleep(100L);
+			Assert.assertEquals(1, getHealth().getConsecutiveFailures());
+
+			monitor.probeAll();
+			Assert.assertEquals(0, getHealth().getConsecutiveFailures());
+		} finally {
+			GlobalConfiguration.getInstance().putProperty(ConfigKeys.SATELLITE_CONNECTION_TEST_TIMEOUT,
+					String.valueOf(ConfigKeys.DEFAULT_SATELLITE_CONNECTION_TEST_TIMEOUT));
+			monitor.reset();
+		}
+	}
+
+	private static SatelliteHealth getHealth() {
+		return ProgressManager.getInstance().getSpotterProgress().getSatelliteHealth().get("remote@remoteHost:8080");
+	}
+
+	private static ReplicaGroup createReplicaGroup(RemoteWorkloadExtension extension) {
+		DummyWorkload remoteAdapter = new DummyWorkload(extension);
+		Properties properties = new Properties();
+		properties.setProperty(AbstractSpotterSatelliteExtension.NAME_KEY, "remote");
+		properties.setProperty(AbstractSpotterSatelliteExtension.HOST_KEY, "remoteHost");
+		properties.setProperty(AbstractSpotterSatelliteExtension.PORT_KEY, "8080");
+		remoteAdapter.setProperties(properties);
+
+		WorkloadAdapterBroker workloadBroker = WorkloadAdapterBroker.createInstance();
+		workloadBroker.setControllers(Collections.<IWorkloadAdapter> singletonList(remoteAdapter));
+		return new ReplicaGroup(GROUP, InstrumentationBroker.createInstance(), MeasurementBroker.createInstance(),
+				workloadBroker);
+	}
+
+	private static class RemoteWorkloadExtension extends DummyWorkloadExtension {
+		private volatile boolean connected = true;
+		private volatile CountDownLatch release;
+		private final CountDownLatch returned = new CountDownLatch(1);
+
+		@Override
+		public boolean testConnection(String host, String port) {
+			CountDownLatch latch = release;
+			if (latch != null) {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				release = null;
+				returned.countDown();
+			}
+			return connected;
+		}
+
+		@Override
+		public boolean isRemoteExtension() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.chartbuilder;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.lpe.common.util.NumericPair;
+import org.lpe.common.util.NumericPairList;
+
+public class SeriesDownsamplerTest {
+
+	private static final int NUM_POINTS = 10000;
+
+	private static int size(NumericPairList<Double, Double> pairs) {
+		int size = 0;
+		for (@SuppressWarnings("unused")
+		NumericPair<Double, Double> pair : pairs) {
+			size++;
+		}
+		return size;
+	}
+
+	private static NumericPairList<Double, Double> createSeries() {
+		NumericPairList<Double, Double> pairs = new NumericPairList<>();
+		for (int i = 0; i < NUM_POINTS; i++) {
+			pairs.add((double) i, Math.sin(i / 100.0));
+		}
+		// single outlier which has to survive downsampling
+		pairs.add((double) NUM_POINTS, 1000.0);
+		return pairs;
+	}
+
+	@Test
+	public void testLargestTriangleThreeBuckets() {
+		NumericPairList<Double, Double> reduced = SeriesDownsampler.largestTriangleThreeBuckets(createSeries(), 100);
+		Assert.assertEquals(100, size(reduced));
+		Assert.assertEquals(0.0, reduced.getKeyMin());
+		Assert.assertEquals((double) NUM_POINTS, reduced.getKeyMax());
+		Assert.assertEquals(1000.0, reduced.getValueMax());
+
+		NumericPairList<Double, Double> small = new NumericPairList<>();
+		small.add(1.0, 2.0);
+		small.add(2.0, 3.0);
+		Assert.assertEquals(2, size(SeriesDownsampler.largestTriangleThreeBuckets(small, 100)));
+	}
+
+	@Test
+	public void testDensityBinning() {
+		NumericPairList<Double, Double> reduced = SeriesDownsampler.densityBinning(createSeries(), 10, 10);
+		Assert.assertTrue(size(reduced) <= 100);
+		Assert.assertEquals(1000.0, reduced.getValueMax());
+	}
+
+	@Test
+	public void testPercentileEnvelope() {
+		NumericPairList<Double, Double> reduced = SeriesDownsampler.percentileEnvelope(createSeries(), 50);
+		Assert.assertTrue(size(reduced) <= 50 * 4);
+		Assert.assertEquals(1000.0, reduced.getValueMax());
+		Assert.assertEquals(-1.0, reduced.getValueMin(), 0.001);
+	}
+}
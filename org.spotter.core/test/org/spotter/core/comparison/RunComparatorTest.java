@@ -0,0 +1,123 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.comparison;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.aim.api.measurement.dataset.Parameter;
+import org.aim.api.measurement.utils.RecordCSVWriter;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.core.detection.AbstractDetectionController;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.ResultsContainer;
+
+public class RunComparatorTest {
+	private static final String FILE_SEPARATOR = System.getProperty("file.separator");
+	private static final String CONTROLLER_DIR = "controller-123";
+	private static final int NUM_SECONDS = 20;
+	private static final int REQUESTS_PER_SECOND = 20;
+
+	private File tempDir;
+
+	@Before
+	public void createTempDir() {
+		GlobalConfiguration.initialize(new Properties());
+		tempDir = new File("tempComparisonJUnit");
+		LpeFileUtils.createDir(tempDir.getAbsolutePath());
+	}
+
+	@After
+	public void cleanUp() throws IOException {
+		LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+	}
+
+	private String createRun(String name, long slowOperationResponseTime) throws IOException {
+		Parameter numUsers = new Parameter(AbstractDetectionController.NUMBER_OF_USERS_KEY, 10);
+		return createRun(name, slowOperationResponseTime, numUsers);
+	}
+
+	private String createRun(String name, long slowOperationResponseTime, Parameter loadParameter)
+			throws IOException {
+		String runFolder = tempDir.getAbsolutePath() + FILE_SEPARATOR + name + FILE_SEPARATOR;
+		String experimentDir = runFolder + CONTROLLER_DIR + FILE_SEPARATOR + ResultsLocationConstants.CSV_SUB_DIR
+				+ FILE_SEPARATOR + "1" + FILE_SEPARATOR;
+		LpeFileUtils.createDir(experimentDir);
+
+		StringBuilder records = new StringBuilder();
+		for (int i = 0; i < NUM_SECONDS * REQUESTS_PER_SECOND; i++) {
+			long timestamp = i * 1000L / REQUESTS_PER_SECOND;
+			records.append(new ResponseTimeRecord(timestamp, "stable", 10L + i % 5).toString()).append('\n');
+			records.append(new ResponseTimeRecord(timestamp, "slow", slowOperationResponseTime + i % 5).toString())
+					.append('\n');
+		}
+		Set<Parameter> parameters = new HashSet<>();
+		parameters.add(loadParameter);
+		RecordCSVWriter.getInstance().pipeDataToDatasetFiles(new ByteArrayInputStream(records.toString().getBytes()),
+				experimentDir, parameters);
+		return runFolder;
+	}
+
+	@Test
+	public void testRegression() throws IOException {
+		String baseline = createRun("baseline", 10L);
+		String candidate = createRun("candidate", 30L);
+
+		ResultsContainer results = new RunComparator(baseline, candidate).compare();
+		Assert.assertTrue(results.getResultsMap().get(CONTROLLER_DIR).isDetected());
+		String message = results.getResultsMap().get(CONTROLLER_DIR).getMessage();
+		Assert.assertTrue(message.contains("slow"));
+		Assert.assertFalse(message.contains("stable"));
+		Assert.assertTrue(new File(candidate, ResultsLocationConstants.COMPARISON_REPORT_FILE_NAME).exists());
+		Assert.assertTrue(new File(candidate, ResultsLocationConstants.COMPARISON_SERIALIZATION_FILE_NAME).exists());
+	}
+
+	@Test
+	public void testNoRegression() throws IOException {
+		String baseline = createRun("baseline", 10L);
+		String candidate = createRun("candidate", 10L);
+
+		ResultsContainer results = new RunComparator(baseline, candidate).compare();
+		Assert.assertFalse(results.getResultsMap().get(CONTROLLER_DIR).isDetected());
+	}
+
+	@Test
+	public void testRegressionWithArrivalRate() throws IOException {
+		String baseline = createRun("baseline", 10L, new Parameter(AbstractDetectionController.ARRIVAL_RATE_KEY, 2.5));
+		String candidate = createRun("candidate", 30L,
+				new Parameter(AbstractDetectionController.ARRIVAL_RATE_KEY, 2.5));
+
+		ResultsContainer results = new RunComparator(baseline, candidate).compare();
+		Assert.assertTrue(results.getResultsMap().get(CONTROLLER_DIR).isDetected());
+		Assert.assertTrue(results.getResultsMap().get(CONTROLLER_DIR).getMessage().contains("load 2.5, slow"));
+
+		// load levels of open workloads are compared by arrival rate
+		candidate = createRun("otherRate", 30L, new Parameter(AbstractDetectionController.ARRIVAL_RATE_KEY, 5.0));
+		results = new RunComparator(baseline, candidate).compare();
+		Assert.assertFalse(results.getResultsMap().get(CONTROLLER_DIR).isDetected());
+	}
+}
@@ -26,8 +26,10 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.lpe.common.config.ConfigParameterDescription;
 import org.lpe.common.config.GlobalConfiguration;
+import org.spotter.core.ReplicaGroup;
 import org.spotter.core.instrumentation.IInstrumentationAdapter;
 import org.spotter.core.measurement.IMeasurementAdapter;
+import org.spotter.core.measurement.MeasurementBroker;
 import org.spotter.core.workload.IWorkloadAdapter;
 import org.spotter.shared.configuration.ConfigKeys;
 
@@ -121,6 +123,27 @@ public class MEFactoryTest {
 
 	}
 
+	@Test
+	public void testReplicaGroupCreation() throws URISyntaxException {
+		URL url = HierarchyTest.class.getResource("/test-env.xml");
+		Assert.assertTrue(MeasurementEnvironmentFactory.getInstance()
+				.createReplicaGroups(url.toURI().getPath()).isEmpty());
+
+		url = HierarchyTest.class.getResource("/replica-env.xml");
+		String envFile = url.toURI().getPath();
+		Assert.assertEquals(1, MeasurementEnvironmentFactory.getInstance().createMeasurementControllers(envFile)
+				.size());
+
+		List<ReplicaGroup> replicaGroups = MeasurementEnvironmentFactory.getInstance().createReplicaGroups(envFile);
+		Assert.assertEquals(2, replicaGroups.size());
+		Assert.assertEquals("replicaB", replicaGroups.get(0).getName());
+		Assert.assertEquals("replica-2", replicaGroups.get(1).getName());
+		Assert.assertNotSame(MeasurementBroker.getInstance(), replicaGroups.get(0).getMeasurementBroker());
+		Assert.assertNotSame(replicaGroups.get(0).getMeasurementBroker(), replicaGroups.get(1)
+				.getMeasurementBroker());
+		Assert.assertFalse(replicaGroups.get(0).isWarmedUp());
+	}
+
 	@Test(expected = RuntimeException.class)
 	public void testInvalidInstrumentationSatellite() throws URISyntaxException {
 		URL url = HierarchyTest.class.getResource("/invalid-env.xml");
@@ -21,6 +21,7 @@ import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
@@ -39,6 +40,9 @@ import org.junit.Test;
 import org.lpe.common.config.GlobalConfiguration;
 import org.lpe.common.util.LpeFileUtils;
 import org.lpe.common.util.system.LpeSystemUtils;
+import org.spotter.core.AbstractSpotterSatelliteExtension;
+import org.spotter.core.ReplicaGroup;
+import org.spotter.core.SatelliteHealthMonitor;
 import org.spotter.core.config.interpretation.HierarchyFactory;
 import org.spotter.core.config.interpretation.HierarchyTest;
 import org.spotter.core.config.interpretation.MeasurementEnvironmentFactory;
@@ -50,6 +54,7 @@ import org.spotter.core.measurement.MeasurementBroker;
 import org.spotter.core.test.dummies.detection.MockDetection;
 import org.spotter.core.test.dummies.satellites.DummyMeasurement;
 import org.spotter.core.test.dummies.satellites.DummyWorkload;
+import org.spotter.core.test.dummies.satellites.DummyWorkloadExtension;
 import org.spotter.core.workload.IWorkloadAdapter;
 import org.spotter.core.workload.WorkloadAdapterBroker;
 import org.spotter.exceptions.WorkloadException;
@@ -252,4 +257,82 @@ public class AbstractDetectionControllerTest {
 		GlobalConfiguration.getInstance().putProperty(ConfigKeys.OMIT_EXPERIMENTS, "false");
 	}
 
+	@Test
+	public void testExperimentRepeatedAfterDegradation() throws InstrumentationException, MeasurementException,
+			WorkloadException {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.OMIT_WARMUP, "true");
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SATELLITE_HEALTH_CHECK_INTERVAL, "1");
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SATELLITE_HEALTH_MAX_FAILED_PROBES, "1");
+		DegradingWorkloadExtension extension = new DegradingWorkloadExtension();
+		DegradingWorkload workload = new DegradingWorkload(extension);
+		Properties properties = new Properties();
+		properties.setProperty(AbstractSpotterSatelliteExtension.NAME_KEY, "remote");
+		properties.setProperty(AbstractSpotterSatelliteExtension.HOST_KEY, "remoteHost");
+		properties.setProperty(AbstractSpotterSatelliteExtension.PORT_KEY, "8080");
+		workload.setProperties(properties);
+		WorkloadAdapterBroker.getInstance().setControllers(Collections.<IWorkloadAdapter> singletonList(workload));
+		DummyWorkload.numExperiments = 0;
+
+		SatelliteHealthMonitor monitor = SatelliteHealthMonitor.getInstance();
+		monitor.reset();
+		monitor.addSatellites(new ReplicaGroup("primary", InstrumentationBroker.getInstance(), MeasurementBroker
+				.getInstance(), WorkloadAdapterBroker.getInstance()));
+		monitor.start();
+		try {
+			SpotterResult result = detectionController.analyzeProblem();
+			// the data of the aborted experiment has been discarded
+			Assert.assertTrue(result.isDetected());
+			Assert.assertEquals(MockDetection.NUM_EXPERIMENTS + 1, DummyWorkload.numExperiments);
+			Assert.assertTrue(workload.loadAborted);
+		} finally {
+			monitor.reset();
+			GlobalConfiguration.getInstance().putProperty(ConfigKeys.OMIT_WARMUP, "false");
+		}
+	}
+
+	/**
+	 * Remote workload satellite whose health is controlled by the test.
+	 */
+	private static class DegradingWorkloadExtension extends DummyWorkloadExtension {
+		private volatile boolean healthy = true;
+
+		@Override
+		public boolean testConnection(String host, String port) {
+			return healthy;
+		}
+
+		@Override
+		public boolean isRemoteExtension() {
+			return true;
+		}
+	}
+
+	/**
+	 * Workload whose satellite degrades during the stable phase of the first
+	 * experiment and recovers as soon as the experiment has been aborted.
+	 */
+	private static class DegradingWorkload extends DummyWorkload {
+		private final DegradingWorkloadExtension extension;
+		private boolean degraded = false;
+
+		DegradingWorkload(DegradingWorkloadExtension extension) {
+			super(extension);
+			this.extension = extension;
+		}
+
+		@Override
+		public void waitForExperimentPhaseTermination() throws WorkloadException {
+			if (!degraded) {
+				degraded = true;
+				extension.healthy = false;
+				try {
+					// blocks until the controller aborts the experiment
+					Thread.sleep(Long.MAX_VALUE);
+				} catch (InterruptedException e) {
+					extension.healthy = true;
+				}
+			}
+			super.waitForExperimentPhaseTermination();
+		}
+	}
 }
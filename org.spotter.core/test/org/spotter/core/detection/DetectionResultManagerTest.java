@@ -153,6 +153,8 @@ public class DetectionResultManagerTest {
 		String file = "1-" + fileName + ".png";
 		Assert.assertEquals(file, result.getResourceFiles().get(0));
 
+		drManager.waitForPendingResources();
+
 		File pngFile = new File(baseDir + RESOURCES_DIR + file);
 		Assert.assertTrue(pngFile.isFile());
 		Assert.assertTrue(pngFile.exists());
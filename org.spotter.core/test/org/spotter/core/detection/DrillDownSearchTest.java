@@ -0,0 +1,124 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.detection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import junit.framework.Assert;
+
+import org.aim.api.measurement.dataset.DatasetCollection;
+import org.junit.Before;
+import org.junit.Test;
+import org.lpe.common.config.GlobalConfiguration;
+import org.spotter.shared.configuration.ConfigKeys;
+
+public class DrillDownSearchTest {
+
+	private static final Map<String, List<String>> CALL_TREE = new HashMap<>();
+	private static final Set<String> SUSPICIOUS = new TreeSet<>(Arrays.asList("app.A()", "app.B()", "app.E()"));
+
+	static {
+		CALL_TREE.put("app.A()", Arrays.asList("app.B()", "app.C()"));
+		CALL_TREE.put("app.B()", Arrays.asList("app.D()", "app.E()"));
+		CALL_TREE.put("app.C()", Arrays.asList("app.F()"));
+	}
+
+	@Before
+	public void initializeGlobalConfiguration() {
+		GlobalConfiguration.initialize(new Properties());
+	}
+
+	private static Set<String> search(List<Set<String>> examinedLevels) throws Exception {
+		return new SyntheticDrillDownSearch(examinedLevels).execute(Collections.singleton("app.A()"), 1);
+	}
+
+	@Test
+	public void testDrillDownToDeepestSuspiciousMethod() throws Exception {
+		List<Set<String>> examinedLevels = new ArrayList<>();
+		Assert.assertEquals(Collections.singleton("app.E()"), search(examinedLevels));
+		Assert.assertEquals(3, examinedLevels.size());
+		// children of methods which are not suspicious are never instrumented
+		Assert.assertEquals(new TreeSet<>(Arrays.asList("app.D()", "app.E()")),
+				new TreeSet<>(examinedLevels.get(2)));
+	}
+
+	@Test
+	public void testMaxDepth() throws Exception {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.DRILL_DOWN_MAX_DEPTH, "1");
+		List<Set<String>> examinedLevels = new ArrayList<>();
+		Assert.assertEquals(Collections.singleton("app.B()"), search(examinedLevels));
+		Assert.assertEquals(2, examinedLevels.size());
+	}
+
+	@Test
+	public void testScopeBudget() throws Exception {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.DRILL_DOWN_SCOPE_BUDGET, "2");
+		List<Set<String>> examinedLevels = new ArrayList<>();
+		Assert.assertEquals(Collections.singleton("app.B()"), search(examinedLevels));
+		Assert.assertEquals(2, examinedLevels.size());
+		Assert.assertEquals(Collections.singleton("app.B()"), examinedLevels.get(1));
+	}
+
+	/**
+	 * Drill-down search on a synthetic call tree, experiments are not
+	 * executed.
+	 */
+	private static class SyntheticDrillDownSearch extends DrillDownSearch {
+		private final List<Set<String>> examinedLevels;
+
+		SyntheticDrillDownSearch(List<Set<String>> examinedLevels) {
+			super(null, new DrillDownSearch.IDrillDownStrategy() {
+				@Override
+				public Set<String> getChildren(String method) {
+					List<String> children = CALL_TREE.get(method);
+					return children == null ? Collections.<String> emptySet() : new LinkedHashSet<>(children);
+				}
+
+				@Override
+				public List<String> selectSuspicious(DatasetCollection data, int level, Set<String> scopes) {
+					List<String> suspicious = new ArrayList<>();
+					for (String scope : scopes) {
+						if (SUSPICIOUS.contains(scope)) {
+							suspicious.add(scope);
+						}
+					}
+					return suspicious;
+				}
+			});
+			this.examinedLevels = examinedLevels;
+		}
+
+		@Override
+		protected List<String> examineLevel(int level, Set<String> scopes, int numUsers) {
+			Assert.assertEquals(examinedLevels.size(), level);
+			examinedLevels.add(new LinkedHashSet<>(scopes));
+			return getStrategy().selectSuspicious(null, level, scopes);
+		}
+
+		@Override
+		protected void finishSearch() {
+		}
+	}
+}
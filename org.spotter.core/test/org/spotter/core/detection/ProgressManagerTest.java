@@ -35,6 +35,7 @@ public class ProgressManagerTest {
 	private static IDetectionController detectionController;
 	private static PerformanceProblem problem;
 	private static final String PROBLEM_ID = "abcdefgh";
+	private static final String OTHER_PROBLEM_ID = "ijklmnop";
 	private static final String PROBLEM_NAME = "problemName";
 
 	private static final int EXP_DURATION = 1;
@@ -127,4 +128,33 @@ public class ProgressManagerTest {
 
 		ProgressManager.getInstance().reset();
 	}
+
+	@Test
+	public void testConcurrentProblems() {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.PPD_RUN_TIMESTAMP,
+				String.valueOf(System.currentTimeMillis()));
+		IDetectionController otherController = new MockDetectionExtension().createExtensionArtifact();
+		otherController.setProblemId(OTHER_PROBLEM_ID);
+
+		ProgressManager.getInstance().addController(detectionController);
+		ProgressManager.getInstance().addController(otherController);
+		ProgressManager.getInstance().updateEstimatedProgress();
+		long estimate = ProgressManager.getInstance().getEstimatedOverallDuration(PROBLEM_ID);
+		Assert.assertTrue(estimate > 0L);
+		Assert.assertEquals(estimate, ProgressManager.getInstance().getEstimatedOverallDuration(OTHER_PROBLEM_ID));
+
+		// adding a controller or a duration does not reset the other problem
+		ProgressManager.getInstance().addAdditionalDuration(OTHER_PROBLEM_ID, 100L);
+		ProgressManager.getInstance().updateEstimatedProgress();
+		Assert.assertEquals(estimate, ProgressManager.getInstance().getEstimatedOverallDuration(PROBLEM_ID));
+		Assert.assertEquals(estimate + 100L,
+				ProgressManager.getInstance().getEstimatedOverallDuration(OTHER_PROBLEM_ID));
+		Assert.assertEquals(2 * estimate + 100L, ProgressManager.getInstance().getEstimatedOverallDuration());
+
+		ProgressManager.getInstance().removeController(PROBLEM_ID);
+		Assert.assertEquals(0L, ProgressManager.getInstance().getEstimatedOverallDuration(PROBLEM_ID));
+		Assert.assertEquals(OTHER_PROBLEM_ID, ProgressManager.getInstance().getSpotterProgress().getCurrentProblem());
+
+		ProgressManager.getInstance().reset();
+	}
 }
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.extension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.spotter.core.test.dummies.detection.DetectionA;
+import org.spotter.core.test.dummies.detection.DetectionAExtension;
+import org.spotter.core.test.dummies.detection.DetectionBExtension;
+import org.spotter.shared.configuration.SpotterExtensionType;
+
+public class ExtensionIndexTest {
+
+	@Test
+	public void testCreateEntry() {
+		ExtensionIndexEntry entryA = ExtensionIndexGenerator.createEntry(DetectionAExtension.class);
+		Assert.assertEquals(DetectionAExtension.class.getName(), entryA.getExtensionClass());
+		Assert.assertEquals("DetectionA", entryA.getName());
+		Assert.assertEquals(SpotterExtensionType.DETECTION_EXTENSION, entryA.getType());
+		Assert.assertEquals(DetectionA.class.getName(), entryA.getArtifactClass());
+		Assert.assertFalse(entryA.isExperimentReuser());
+
+		ExtensionIndexEntry entryB = ExtensionIndexGenerator.createEntry(DetectionBExtension.class);
+		Assert.assertTrue(entryB.isExperimentReuser());
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		List<ExtensionIndexEntry> entries = new ArrayList<>();
+		entries.add(ExtensionIndexGenerator.createEntry(DetectionAExtension.class));
+		entries.add(ExtensionIndexGenerator.createEntry(DetectionBExtension.class));
+
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		ExtensionIndex.write(entries, outStream);
+		List<ExtensionIndexEntry> readEntries = ExtensionIndex.read(new ByteArrayInputStream(outStream.toByteArray()));
+		Assert.assertEquals(2, readEntries.size());
+
+		Map<String, ExtensionIndexEntry> entriesByClass = new HashMap<>();
+		for (ExtensionIndexEntry entry : readEntries) {
+			entriesByClass.put(entry.getExtensionClass(), entry);
+		}
+		for (ExtensionIndexEntry expected : entries) {
+			ExtensionIndexEntry actual = entriesByClass.get(expected.getExtensionClass());
+			Assert.assertNotNull(actual);
+			Assert.assertEquals(expected.getName(), actual.getName());
+			Assert.assertEquals(expected.getType(), actual.getType());
+			Assert.assertEquals(expected.getArtifactClass(), actual.getArtifactClass());
+			Assert.assertEquals(expected.isExperimentReuser(), actual.isExperimentReuser());
+		}
+	}
+}
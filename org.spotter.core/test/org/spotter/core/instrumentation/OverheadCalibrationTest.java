@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.junit.Test;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+
+public class OverheadCalibrationTest {
+	private static final String ENTRY_POINT = "org.test.Servlet.doGet(*)";
+
+	private static List<AbstractRecord> createRecords(int numCalls, long entryResponseTime, int nestedCalls) {
+		List<AbstractRecord> records = new ArrayList<>();
+		for (int i = 0; i < numCalls; i++) {
+			records.add(new ResponseTimeRecord(i, "org.test.Servlet.doGet(javax.servlet.ServletRequest)",
+					entryResponseTime));
+			for (int j = 0; j < nestedCalls; j++) {
+				records.add(new ResponseTimeRecord(i, "org.test.Dao.get" + j + "()", 0L));
+			}
+		}
+		return records;
+	}
+
+	@Test
+	public void testComputeProbeOverhead() {
+		List<AbstractRecord> reference = createRecords(100, 10L, 0);
+		// 20 additional probes per call increase the response time by 2 ms
+		List<AbstractRecord> instrumented = createRecords(100, 12L, 20);
+		double overhead = OverheadCalibration.computeProbeOverhead(reference, instrumented,
+				Arrays.asList(ENTRY_POINT));
+		Assert.assertEquals(0.1, overhead, 0.0001);
+
+		// overhead cannot be negative
+		Assert.assertEquals(0.0,
+				OverheadCalibration.computeProbeOverhead(instrumented, reference, Arrays.asList(ENTRY_POINT)), 0.0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testComputeProbeOverheadWithoutEntryPoints() {
+		OverheadCalibration.computeProbeOverhead(createRecords(10, 10L, 0), createRecords(10, 12L, 5),
+				Arrays.asList("org.test.Other.*"));
+	}
+
+	@Test
+	public void testEnvironmentKey() {
+		XMeasurementEnvironment environment = new XMeasurementEnvironment();
+		XMeasurementEnvObject instrumentation = new XMeasurementEnvObject();
+		instrumentation.setExtensionName("instrumentation");
+		XMConfiguration host = new XMConfiguration();
+		host.setKey("host");
+		host.setValue("hostA");
+		instrumentation.setConfig(Arrays.asList(host));
+		environment.setInstrumentationController(Arrays.asList(instrumentation));
+
+		String key = OverheadCalibration.getEnvironmentKey(environment);
+		Assert.assertEquals(key, OverheadCalibration.getEnvironmentKey(environment));
+		host.setValue("hostB");
+		Assert.assertFalse(key.equals(OverheadCalibration.getEnvironmentKey(environment)));
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.artifacts.records.CPUUtilizationRecord;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.junit.Test;
+
+public class OverheadCompensatorTest {
+
+	@Test
+	public void testCompensate() {
+		List<AbstractRecord> records = new ArrayList<>();
+		ResponseTimeRecord leaf = new ResponseTimeRecord(100L, "org.test.Dao.get()", 2L);
+		ResponseTimeRecord servlet = new ResponseTimeRecord(100L, "org.test.Servlet.doGet()", 10L);
+		ResponseTimeRecord fastCall = new ResponseTimeRecord(200L, "org.test.Cache.get()", 0L);
+		CPUUtilizationRecord cpuRecord = new CPUUtilizationRecord(100L, "CPU-0", 0.5);
+		records.add(leaf);
+		records.add(servlet);
+		records.add(fastCall);
+		records.add(cpuRecord);
+
+		OverheadCompensator.compensate(records, 1.0);
+
+		// one probe per record, regardless of nesting
+		Assert.assertEquals(1L, leaf.getResponseTime());
+		Assert.assertEquals(9L, servlet.getResponseTime());
+		Assert.assertEquals(0L, fastCall.getResponseTime());
+	}
+
+	@Test
+	public void testConcurrentInvocationsAreCompensatedEqually() {
+		List<AbstractRecord> records = new ArrayList<>();
+		List<ResponseTimeRecord> servlets = new ArrayList<>();
+		// overlapping invocations of concurrent users
+		for (int i = 0; i < 5; i++) {
+			ResponseTimeRecord servlet = new ResponseTimeRecord(100L + i, "org.test.Servlet.doGet()", 20L - 2 * i);
+			records.add(servlet);
+			servlets.add(servlet);
+		}
+
+		OverheadCompensator.compensate(records, 2.0);
+
+		for (int i = 0; i < servlets.size(); i++) {
+			Assert.assertEquals(18L - 2 * i, servlets.get(i).getResponseTime());
+		}
+	}
+
+	@Test
+	public void testFractionalOverheadIsCarriedOver() {
+		List<AbstractRecord> records = new ArrayList<>();
+		List<ResponseTimeRecord> servlets = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			long timestamp = i * 100L;
+			records.add(new ResponseTimeRecord(timestamp, "org.test.Dao.get()", 1L));
+			ResponseTimeRecord servlet = new ResponseTimeRecord(timestamp, "org.test.Servlet.doGet()", 10L);
+			records.add(servlet);
+			servlets.add(servlet);
+		}
+
+		OverheadCompensator.compensate(records, 0.5);
+
+		long sum = 0L;
+		for (ResponseTimeRecord servlet : servlets) {
+			sum += servlet.getResponseTime();
+		}
+		// 10 records with half a millisecond each: 5 ms in total
+		Assert.assertEquals(95L, sum);
+	}
+
+	@Test
+	public void testNoOverhead() {
+		List<AbstractRecord> records = new ArrayList<>();
+		ResponseTimeRecord servlet = new ResponseTimeRecord(100L, "org.test.Servlet.doGet()", 10L);
+		records.add(servlet);
+
+		OverheadCompensator.compensate(records, 0.0);
+
+		Assert.assertEquals(10L, servlet.getResponseTime());
+	}
+}
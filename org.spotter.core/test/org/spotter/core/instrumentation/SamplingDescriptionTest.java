@@ -0,0 +1,73 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.instrumentation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class SamplingDescriptionTest {
+
+	private static SamplingDescription createDescription() {
+		Map<String, Double> scopeRates = new LinkedHashMap<>();
+		scopeRates.put("org.test.Dao.*", 0.1);
+		scopeRates.put("org.test.*", 0.5);
+		return new SamplingDescription(0.25, scopeRates);
+	}
+
+	@Test
+	public void testRates() {
+		SamplingDescription description = createDescription();
+		Assert.assertTrue(description.isSampling());
+		// the first matching pattern wins
+		Assert.assertEquals(0.1, description.getRate("org.test.Dao.find(int)"));
+		Assert.assertEquals(0.5, description.getRate("org.test.Service.call()"));
+		Assert.assertEquals(0.25, description.getRate("org.other.Util.run()"));
+		Assert.assertEquals(1000L, description.scaleCount(100L, "org.test.Dao.find(int)"));
+		Assert.assertEquals(400L, description.scaleCount(100L, "org.other.Util.run()"));
+
+		Assert.assertFalse(SamplingDescription.NONE.isSampling());
+		Assert.assertEquals(100L, SamplingDescription.NONE.scaleCount(100L, "org.test.Dao.find(int)"));
+	}
+
+	@Test
+	public void testParameterValue() {
+		SamplingDescription description = createDescription();
+		SamplingDescription parsed = SamplingDescription.fromParameterValue(description.toParameterValue());
+		Assert.assertEquals(description.getDefaultRate(), parsed.getDefaultRate());
+		Assert.assertEquals(description.getScopeRates(), parsed.getScopeRates());
+		Assert.assertSame(SamplingDescription.NONE, SamplingDescription.fromParameterValue(null));
+	}
+
+	@Test
+	public void testScale() {
+		SamplingDescription scaled = createDescription().scale(0.1);
+		Assert.assertEquals(0.025, scaled.getDefaultRate(), 0.00001);
+		Assert.assertEquals(0.01, scaled.getRate("org.test.Dao.find(int)"), 0.00001);
+
+		SamplingDescription raised = createDescription().scale(10.0);
+		Assert.assertFalse(raised.isSampling());
+		Assert.assertEquals(SamplingDescription.MIN_RATE, createDescription().scale(0.0).getDefaultRate());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRate() {
+		new SamplingDescription(1.5, new LinkedHashMap<String, Double>());
+	}
+}
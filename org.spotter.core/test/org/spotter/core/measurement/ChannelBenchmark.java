@@ -0,0 +1,134 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH comparison of the {@link RingBufferChannel} with piped streams. Both
+ * benchmarks transfer the same amount of line based records from a producer to
+ * a consumer thread, as done when measurement data is collected.
+ * <p>
+ * Run with <code>java -cp &lt;test classpath&gt;
+ * org.spotter.core.measurement.ChannelBenchmark</code>.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChannelBenchmark {
+
+	private static final String RECORD = "org.aim.artifacts.records.ResponseTimeRecord;1418040000000;"
+			+ "call-id;operation(java.lang.String);1;42";
+
+	@Param({ "100000" })
+	private int numRecords;
+
+	private ExecutorService producerExecutor;
+
+	@Setup
+	public void setUp() {
+		producerExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@TearDown
+	public void tearDown() {
+		producerExecutor.shutdownNow();
+	}
+
+	@Benchmark
+	public int pipedStreams() throws IOException, InterruptedException, ExecutionException {
+		PipedInputStream inStream = new PipedInputStream();
+		PipedOutputStream outStream = new PipedOutputStream(inStream);
+		return transfer(outStream, inStream);
+	}
+
+	@Benchmark
+	public int ringBufferChannel() throws IOException, InterruptedException, ExecutionException {
+		RingBufferChannel channel = new RingBufferChannel();
+		return transfer(channel.getOutputStream(), channel.getInputStream());
+	}
+
+	private int transfer(final OutputStream outStream, InputStream inStream) throws IOException,
+			InterruptedException, ExecutionException {
+		Future<?> producer = producerExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outStream))) {
+					for (int i = 0; i < numRecords; i++) {
+						writer.write(RECORD);
+						writer.newLine();
+					}
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+
+		int count = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inStream))) {
+			while (reader.readLine() != null) {
+				count++;
+			}
+		}
+		producer.get();
+		return count;
+	}
+
+	/**
+	 * Runs the benchmark.
+	 * 
+	 * @param args
+	 *            not used
+	 * @throws RunnerException
+	 *             if the benchmark fails
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ChannelBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.aim.artifacts.probes.ResponsetimeProbe;
+import org.aim.artifacts.records.CPUUtilizationRecord;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.aim.description.builder.InstrumentationDescriptionBuilder;
+import org.junit.Test;
+import org.spotter.core.measurement.CollectionQuery.Operator;
+
+public class CollectionQueryTest {
+
+	@Test
+	public void testAccepts() {
+		CollectionQuery query = new CollectionQuery();
+		query.addRecordType(ResponseTimeRecord.class);
+		query.addPredicate("responseTime", Operator.GREATER_OR_EQUALS, 50L);
+		query.setTimeWindow(0L, 1000L);
+
+		Assert.assertTrue(query.accepts(new ResponseTimeRecord(100L, "op", 50L)));
+		Assert.assertFalse(query.accepts(new ResponseTimeRecord(100L, "op", 49L)));
+		Assert.assertFalse(query.accepts(new ResponseTimeRecord(1001L, "op", 60L)));
+		Assert.assertFalse(query.accepts(new CPUUtilizationRecord(100L, "CPU-0", 0.5)));
+
+		CollectionQuery operationQuery = new CollectionQuery().addPredicate("operation", Operator.EQUALS, "op");
+		Assert.assertTrue(operationQuery.accepts(new ResponseTimeRecord(100L, "op", 50L)));
+		Assert.assertFalse(operationQuery.accepts(new ResponseTimeRecord(100L, "other", 50L)));
+		// records without the field are not affected by the predicate
+		Assert.assertTrue(operationQuery.accepts(new CPUUtilizationRecord(100L, "CPU-0", 0.5)));
+	}
+
+	@Test
+	public void testUnion() {
+		CollectionQuery rtQuery = new CollectionQuery().addRecordType(ResponseTimeRecord.class)
+				.addPredicate("responseTime", Operator.GREATER, 10L).setTimeWindow(0L, 100L);
+		CollectionQuery cpuQuery = new CollectionQuery().addRecordType(CPUUtilizationRecord.class).setTimeWindow(50L,
+				200L);
+
+		List<CollectionQuery> queries = new ArrayList<>();
+		queries.add(rtQuery);
+		queries.add(cpuQuery);
+		CollectionQuery union = CollectionQuery.union(queries);
+
+		Assert.assertEquals(2, union.getRecordTypes().size());
+		Assert.assertTrue(union.getPredicates().isEmpty());
+		Assert.assertEquals(0L, union.getFromTime());
+		Assert.assertEquals(200L, union.getToTime());
+		Assert.assertTrue(union.accepts(new ResponseTimeRecord(150L, "op", 5L)));
+		Assert.assertTrue(union.accepts(new CPUUtilizationRecord(10L, "CPU-0", 0.5)));
+
+		queries.add(null);
+		Assert.assertNull(CollectionQuery.union(queries));
+	}
+
+	@Test
+	public void testOperationPatterns() {
+		CollectionQuery daoQuery = new CollectionQuery().addOperationPattern("org.app.Dao.*(*)");
+		Assert.assertTrue(daoQuery.accepts(new ResponseTimeRecord(100L, "org.app.Dao.get(int)", 5L)));
+		Assert.assertFalse(daoQuery.accepts(new ResponseTimeRecord(100L, "org.app.Service.run()", 5L)));
+		// records without operation are not affected by the patterns
+		Assert.assertTrue(daoQuery.accepts(new CPUUtilizationRecord(100L, "CPU-0", 0.5)));
+
+		List<CollectionQuery> queries = new ArrayList<>();
+		queries.add(daoQuery);
+		queries.add(new CollectionQuery().addOperationPattern("org.app.Service.*(*)"));
+		CollectionQuery union = CollectionQuery.union(queries);
+		Assert.assertEquals(2, union.getOperationPatterns().size());
+		Assert.assertTrue(union.accepts(new ResponseTimeRecord(100L, "org.app.Service.run()", 5L)));
+		Assert.assertFalse(union.accepts(new ResponseTimeRecord(100L, "org.app.Servlet.doGet()", 5L)));
+
+		queries.add(new CollectionQuery().addRecordType(ResponseTimeRecord.class));
+		Assert.assertTrue(CollectionQuery.union(queries).getOperationPatterns().isEmpty());
+	}
+
+	@Test
+	public void testFromInstrumentationDescription() {
+		InstrumentationDescriptionBuilder builder = new InstrumentationDescriptionBuilder();
+		builder.newMethodScopeEntity("org.app.Dao.*").addProbe(ResponsetimeProbe.MODEL_PROBE).entityDone();
+		CollectionQuery query = CollectionQuery.fromInstrumentationDescription(builder.build());
+
+		Assert.assertEquals(1, query.getRecordTypes().size());
+		Assert.assertTrue(query.accepts(new ResponseTimeRecord(100L, "org.app.Dao.get(int)", 5L)));
+		Assert.assertFalse(query.accepts(new ResponseTimeRecord(100L, "org.app.Service.run()", 5L)));
+		Assert.assertFalse(query.accepts(new CPUUtilizationRecord(100L, "CPU-0", 0.5)));
+
+		// nothing instrumented, all data is required
+		Assert.assertNull(CollectionQuery.fromInstrumentationDescription(null));
+		Assert.assertNull(CollectionQuery.fromInstrumentationDescription(new InstrumentationDescriptionBuilder()
+				.build()));
+	}
+}
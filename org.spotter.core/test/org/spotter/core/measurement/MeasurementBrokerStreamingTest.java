@@ -0,0 +1,181 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.aim.api.exceptions.MeasurementException;
+import org.aim.api.measurement.AbstractRecord;
+import org.aim.api.measurement.MeasurementData;
+import org.aim.artifacts.records.ResponseTimeRecord;
+import org.aim.description.InstrumentationDescription;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lpe.common.config.GlobalConfiguration;
+import org.spotter.core.AbstractSpotterSatelliteExtension;
+
+public class MeasurementBrokerStreamingTest {
+
+	@BeforeClass
+	public static void initializeGlobalConfiguration() {
+		GlobalConfiguration.initialize(new Properties());
+	}
+
+	private static int countLines(ByteArrayOutputStream bytes) {
+		String content = new String(bytes.toByteArray()).trim();
+		return content.isEmpty() ? 0 : content.split("\n").length;
+	}
+
+	@Test
+	public void testIncrementsAndTail() throws MeasurementException {
+		StreamingMeasurement streamingMeasurement = new StreamingMeasurement();
+		// a separate broker leaves the singleton of other tests untouched
+		MeasurementBroker broker = MeasurementBroker.createInstance();
+		broker.setControllers(Collections.<IMeasurementAdapter> singletonList(streamingMeasurement));
+		Assert.assertTrue(broker.supportsStreaming());
+
+		streamingMeasurement.capture(10);
+		ByteArrayOutputStream firstBatch = new ByteArrayOutputStream();
+		broker.pipeIncrementToOutputStream(firstBatch);
+		Assert.assertEquals(10, countLines(firstBatch));
+
+		streamingMeasurement.capture(5);
+		ByteArrayOutputStream tail = new ByteArrayOutputStream();
+		broker.pipeToOutputStream(tail);
+		// data of the increment must not be collected again
+		Assert.assertEquals(5, countLines(tail));
+
+		broker.setControllers(new ArrayList<IMeasurementAdapter>());
+		Assert.assertFalse(broker.supportsStreaming());
+	}
+
+	@Test
+	public void testNoIncrementsWithoutStreamingSupport() throws MeasurementException {
+		BatchMeasurement measurement = new BatchMeasurement();
+		measurement.capture(10);
+		MeasurementBroker broker = MeasurementBroker.createInstance();
+		broker.setControllers(Collections.<IMeasurementAdapter> singletonList(measurement));
+		Assert.assertFalse(broker.supportsStreaming());
+
+		ByteArrayOutputStream increment = new ByteArrayOutputStream();
+		measurement.pipeIncrementToOutputStream(increment);
+		broker.pipeIncrementToOutputStream(increment);
+		Assert.assertEquals(0, countLines(increment));
+
+		// all data is collected after the experiment
+		ByteArrayOutputStream tail = new ByteArrayOutputStream();
+		broker.pipeToOutputStream(tail);
+		Assert.assertEquals(10, countLines(tail));
+	}
+
+	private static class StreamingMeasurement extends BatchMeasurement {
+
+		@Override
+		public boolean supportsStreaming() {
+			return true;
+		}
+
+		@Override
+		public void pipeIncrementToOutputStream(OutputStream oStream) throws MeasurementException {
+			writePending(oStream, false);
+		}
+	}
+
+	/**
+	 * Measurement adapter relying on the default streaming behaviour.
+	 */
+	private static class BatchMeasurement extends AbstractMeasurementAdapter {
+		private final List<AbstractRecord> pending = new ArrayList<>();
+
+		BatchMeasurement() {
+			super(null);
+			getProperties().setProperty(AbstractSpotterSatelliteExtension.NAME_KEY, "streaming");
+		}
+
+		synchronized void capture(int numRecords) {
+			for (int i = 0; i < numRecords; i++) {
+				pending.add(new ResponseTimeRecord(System.currentTimeMillis(), "operation-" + i, 10L));
+			}
+		}
+
+		@Override
+		public void pipeToOutputStream(OutputStream oStream) throws MeasurementException {
+			writePending(oStream, true);
+		}
+
+		protected synchronized void writePending(OutputStream oStream, boolean close) throws MeasurementException {
+			try {
+				BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(oStream));
+				for (AbstractRecord record : pending) {
+					writer.write(record.toString());
+					writer.newLine();
+				}
+				pending.clear();
+				if (close) {
+					writer.close();
+				} else {
+					writer.flush();
+				}
+			} catch (IOException e) {
+				throw new MeasurementException(e);
+			}
+		}
+
+		@Override
+		public MeasurementData getMeasurementData() throws MeasurementException {
+			return new MeasurementData();
+		}
+
+		@Override
+		public void prepareMonitoring(InstrumentationDescription monitoringDescription) throws MeasurementException {
+		}
+
+		@Override
+		public void resetMonitoring() throws MeasurementException {
+		}
+
+		@Override
+		public void enableMonitoring() throws MeasurementException {
+		}
+
+		@Override
+		public void disableMonitoring() throws MeasurementException {
+		}
+
+		@Override
+		public void initialize() throws MeasurementException {
+		}
+
+		@Override
+		public long getCurrentTime() {
+			return System.currentTimeMillis();
+		}
+
+		@Override
+		public void storeReport(String path) throws MeasurementException {
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.measurement;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.lpe.common.util.system.LpeSystemUtils;
+
+public class RingBufferChannelTest {
+
+	private static final int NUM_LINES = 100000;
+
+	@Test
+	public void testTransfer() throws IOException, InterruptedException, ExecutionException {
+		// small chunks to force many hand-offs
+		RingBufferChannel channel = new RingBufferChannel(128, 4);
+		final OutputStream outStream = channel.getOutputStream();
+
+		Future<?> producer = LpeSystemUtils.submitTask(new Runnable() {
+			@Override
+			public void run() {
+				try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outStream))) {
+					for (int i = 0; i < NUM_LINES; i++) {
+						writer.write("record-" + i);
+						writer.newLine();
+					}
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+
+		int count = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(channel.getInputStream()))) {
+			String line = reader.readLine();
+			while (line != null) {
+				Assert.assertEquals("record-" + count, line);
+				count++;
+				line = reader.readLine();
+			}
+		}
+		producer.get();
+		Assert.assertEquals(NUM_LINES, count);
+	}
+
+	@Test
+	public void testSingleBytes() throws IOException {
+		RingBufferChannel channel = new RingBufferChannel(2, 8);
+		OutputStream outStream = channel.getOutputStream();
+		InputStream inStream = channel.getInputStream();
+
+		outStream.write(1);
+		outStream.write(new byte[] { 2, 3, 4 });
+		outStream.close();
+
+		Assert.assertEquals(1, inStream.read());
+		byte[] buffer = new byte[10];
+		Assert.assertEquals(1, inStream.read(buffer, 0, 10));
+		Assert.assertEquals(2, buffer[0]);
+		Assert.assertEquals(2, inStream.read(buffer, 0, 10));
+		Assert.assertEquals(3, buffer[0]);
+		Assert.assertEquals(4, buffer[1]);
+		Assert.assertEquals(-1, inStream.read());
+		inStream.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void testReaderClosed() throws IOException {
+		RingBufferChannel channel = new RingBufferChannel(16, 2);
+		channel.getInputStream().close();
+		channel.getOutputStream().write(new byte[100]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriterDead() throws IOException, InterruptedException {
+		RingBufferChannel channel = new RingBufferChannel(16, 2);
+		final OutputStream outStream = channel.getOutputStream();
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					// dies without closing the stream
+					outStream.write(1);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		writer.start();
+		writer.join();
+		channel.getInputStream().read();
+	}
+}
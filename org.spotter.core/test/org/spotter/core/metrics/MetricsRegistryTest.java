@@ -0,0 +1,75 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.metrics;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void testPrometheusFormat() {
+		MetricsRegistry registry = MetricsRegistry.getInstance();
+		registry.describe("test_requests_total", MetricsRegistry.MetricType.COUNTER, "Test requests.");
+		registry.incrementCounter("test_requests_total", 2L, "satellite", "a");
+		registry.incrementCounter("test_requests_total", 3L, "satellite", "a");
+		registry.incrementCounter("test_requests_total", 1L, "satellite", "quote\"d");
+		registry.recordDuration("test_duration_seconds", 1500000000L);
+		registry.recordDuration("test_duration_seconds", 500000000L);
+		registry.registerGauge("test_queue_depth", new MetricsRegistry.Gauge() {
+			@Override
+			public double getValue() {
+				return 7.0;
+			}
+		});
+
+		String text = registry.toPrometheusText();
+		Assert.assertTrue(text.contains("# HELP test_requests_total Test requests.\n"));
+		Assert.assertTrue(text.contains("# TYPE test_requests_total counter\n"));
+		Assert.assertTrue(text.contains("test_requests_total{satellite=\"a\"} 5\n"));
+		Assert.assertTrue(text.contains("test_requests_total{satellite=\"quote\\\"d\"} 1\n"));
+		Assert.assertTrue(text.contains("# TYPE test_duration_seconds summary\n"));
+		Assert.assertTrue(text.contains("test_duration_seconds_count 2\n"));
+		Assert.assertTrue(text.contains("test_duration_seconds_sum 2.0\n"));
+		Assert.assertTrue(text.contains("test_queue_depth 7.0\n"));
+	}
+
+	@Test
+	public void testSnapshot() {
+		MetricsRegistry registry = MetricsRegistry.getInstance();
+		registry.incrementCounter("test_snapshot_total", 4L);
+		registry.recordDuration("test_snapshot_duration_seconds", 1000000000L);
+
+		MetricsRegistry.Snapshot baseline = registry.snapshot();
+		registry.incrementCounter("test_snapshot_total", 1L);
+		registry.incrementCounter("test_snapshot_new_total", 2L);
+		registry.recordDuration("test_snapshot_duration_seconds", 500000000L);
+
+		String text = registry.toPrometheusText(baseline);
+		Assert.assertTrue(text.contains("test_snapshot_total 1\n"));
+		Assert.assertTrue(text.contains("test_snapshot_new_total 2\n"));
+		Assert.assertTrue(text.contains("test_snapshot_duration_seconds_count 1\n"));
+		Assert.assertTrue(text.contains("test_snapshot_duration_seconds_sum 0.5\n"));
+		Assert.assertTrue(registry.toPrometheusText().contains("test_snapshot_total 5\n"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTypeMismatch() {
+		MetricsRegistry.getInstance().incrementCounter("test_mismatch", 1L);
+		MetricsRegistry.getInstance().recordDuration("test_mismatch", 1L);
+	}
+}
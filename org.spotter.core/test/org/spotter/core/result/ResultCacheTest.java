@@ -0,0 +1,209 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import javax.xml.bind.JAXBException;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lpe.common.config.GlobalConfiguration;
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.core.config.interpretation.HierarchyModelInterpreter;
+import org.spotter.core.config.interpretation.PerformanceProblem;
+import org.spotter.shared.configuration.ConfigKeys;
+import org.spotter.shared.environment.model.XInstrumentationOverhead;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.result.model.SpotterResult;
+import org.spotter.shared.util.JAXBUtil;
+
+public class ResultCacheTest {
+	private static final String FILE_SEPARATOR = System.getProperty("file.separator");
+	private File tempDir;
+
+	@Before
+	public void createTempDir() {
+		tempDir = new File("tempResultCacheJUnit");
+		LpeFileUtils.createDir(tempDir.getAbsolutePath());
+		Properties properties = new Properties();
+		properties.setProperty(ConfigKeys.SUT_VERSION_TAG, "build-1");
+		GlobalConfiguration.initialize(properties);
+	}
+
+	@After
+	public void cleanUp() throws IOException {
+		ResultCache.close();
+		RunJournal.close();
+		ResultBlackboard.getInstance().reset();
+		LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+	}
+
+	private String createRunFolder(String name) {
+		String folder = tempDir.getAbsolutePath() + FILE_SEPARATOR + name + FILE_SEPARATOR;
+		LpeFileUtils.createDir(folder);
+		return folder;
+	}
+
+	private static PerformanceProblem createHierarchy() {
+		PerformanceProblem root = new PerformanceProblem("root");
+		PerformanceProblem child = new PerformanceProblem("child");
+		child.getConfiguration().setProperty("threshold", "0.5");
+		root.getChildren().add(child);
+		return root;
+	}
+
+	private static SpotterResult createResult(boolean detected) {
+		SpotterResult result = new SpotterResult();
+		result.setDetected(detected);
+		return result;
+	}
+
+	@Test
+	public void testFingerprint() {
+		PerformanceProblem problem = new PerformanceProblem("problem");
+		problem.getConfiguration().setProperty("a", "1");
+		String fingerprint = ResultCache.computeFingerprint("parent", problem);
+		Assert.assertEquals(fingerprint, ResultCache.computeFingerprint("parent", problem));
+		Assert.assertFalse(fingerprint.equals(ResultCache.computeFingerprint("otherParent", problem)));
+
+		problem.getConfiguration().setProperty("a", "2");
+		Assert.assertFalse(fingerprint.equals(ResultCache.computeFingerprint("parent", problem)));
+	}
+
+	@Test
+	public void testCalibrationDoesNotChangeFingerprint() throws JAXBException {
+		File environmentFile = new File(tempDir, "mEnv.xml");
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.MEASUREMENT_ENVIRONMENT_FILE,
+				environmentFile.getAbsolutePath());
+		XMeasurementEnvironment environment = new XMeasurementEnvironment();
+		XMeasurementEnvObject instrumentation = new XMeasurementEnvObject();
+		instrumentation.setExtensionName("instrumentation");
+		XMConfiguration host = new XMConfiguration();
+		host.setKey("host");
+		host.setValue("hostA");
+		instrumentation.setConfig(Arrays.asList(host));
+		environment.setInstrumentationController(Arrays.asList(instrumentation));
+		JAXBUtil.writeElementToFile(environmentFile, environment);
+
+		PerformanceProblem root = createHierarchy();
+		String fingerprint = ResultCache.open(createRunFolder("run1"), root).getFingerprint(root);
+		ResultCache.close();
+
+		XInstrumentationOverhead overhead = new XInstrumentationOverhead();
+		overhead.setProbeOverhead(0.01);
+		overhead.setCalibrationTimestamp(System.currentTimeMillis());
+		environment.setInstrumentationOverhead(overhead);
+		JAXBUtil.writeElementToFile(environmentFile, environment);
+		root = createHierarchy();
+		Assert.assertEquals(fingerprint, ResultCache.open(createRunFolder("run2"), root).getFingerprint(root));
+		ResultCache.close();
+
+		host.setValue("hostB");
+		JAXBUtil.writeElementToFile(environmentFile, environment);
+		root = createHierarchy();
+		Assert.assertFalse(fingerprint.equals(ResultCache.open(createRunFolder("run3"), root).getFingerprint(root)));
+	}
+
+	@Test
+	public void testReuse() {
+		PerformanceProblem root = createHierarchy();
+		PerformanceProblem child = root.getChildren().get(0);
+		ResultCache cache = ResultCache.open(createRunFolder("run1"), root);
+		Assert.assertTrue(cache.isEnabled());
+		Assert.assertNull(cache.reuse(root));
+		cache.store(root, createResult(true));
+		cache.store(child, createResult(false));
+		ResultCache.close();
+
+		root = createHierarchy();
+		child = root.getChildren().get(0);
+		cache = ResultCache.open(createRunFolder("run2"), root);
+		Assert.assertTrue(cache.reuse(root).isDetected());
+		Assert.assertFalse(cache.reuse(child).isDetected());
+		ResultCache.close();
+
+		// a changed configuration invalidates only the changed sub-tree
+		root = createHierarchy();
+		child = root.getChildren().get(0);
+		child.getConfiguration().setProperty("threshold", "0.8");
+		cache = ResultCache.open(createRunFolder("run3"), root);
+		Assert.assertNotNull(cache.reuse(root));
+		Assert.assertNull(cache.reuse(child));
+		ResultCache.close();
+
+		// another SUT version does not reuse anything
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SUT_VERSION_TAG, "build-2");
+		root = createHierarchy();
+		cache = ResultCache.open(createRunFolder("run4"), root);
+		Assert.assertNull(cache.reuse(root));
+	}
+
+	@Test
+	public void testChangedParentDecision() {
+		PerformanceProblem root = createHierarchy();
+		ResultCache cache = ResultCache.open(createRunFolder("run1"), root);
+		cache.store(root, createResult(true));
+		cache.store(root.getChildren().get(0), createResult(true));
+		ResultCache.close();
+
+		root = createHierarchy();
+		cache = ResultCache.open(createRunFolder("run2"), root);
+		// the root is analyzed again and comes to another decision
+		cache.store(root, createResult(false));
+		Assert.assertNull(cache.reuse(root.getChildren().get(0)));
+	}
+
+	@Test
+	public void testReusedResultsAreJournaled() throws IOException {
+		PerformanceProblem root = createHierarchy();
+		ResultCache cache = ResultCache.open(createRunFolder("run1"), root);
+		cache.store(root, createResult(true));
+		cache.store(root.getChildren().get(0), createResult(false));
+		ResultCache.close();
+
+		String runFolder = createRunFolder("run2");
+		root = createHierarchy();
+		RunJournal.start(runFolder);
+		ResultCache.open(runFolder, root);
+		Assert.assertNull(new HierarchyModelInterpreter(root).next());
+		RunJournal.close();
+
+		// a resumed run must not examine the reused problems again
+		RunJournal journal = RunJournal.resume(runFolder);
+		Assert.assertTrue(journal.getResults().containsKey(root.getUniqueId()));
+		Assert.assertTrue(journal.getResults().containsKey(root.getChildren().get(0).getUniqueId()));
+		Assert.assertTrue(journal.getPendingProblems().isEmpty());
+	}
+
+	@Test
+	public void testDisabled() {
+		GlobalConfiguration.getInstance().putProperty(ConfigKeys.SUT_VERSION_TAG, "");
+		PerformanceProblem root = createHierarchy();
+		ResultCache cache = ResultCache.open(createRunFolder("run1"), root);
+		Assert.assertFalse(cache.isEnabled());
+		cache.store(root, createResult(true));
+		Assert.assertNull(cache.reuse(root));
+	}
+}
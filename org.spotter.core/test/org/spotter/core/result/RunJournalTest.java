@@ -0,0 +1,84 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.core.config.interpretation.PerformanceProblem;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.SpotterResult;
+
+public class RunJournalTest {
+	private File tempDir;
+	private String resultFolder;
+
+	@Before
+	public void createTempDir() {
+		tempDir = new File("tempJournalJUnit");
+		LpeFileUtils.createDir(tempDir.getAbsolutePath());
+		resultFolder = tempDir.getAbsolutePath() + System.getProperty("file.separator");
+	}
+
+	@After
+	public void cleanUp() throws IOException {
+		ResultBlackboard.getInstance().reset();
+		RunJournal.close();
+		LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+	}
+
+	@Test
+	public void testResume() throws IOException {
+		PerformanceProblem root = new PerformanceProblem("root");
+		PerformanceProblem pending = new PerformanceProblem("pending");
+		SpotterResult result = new SpotterResult();
+		result.setDetected(true);
+
+		RunJournal.start(resultFolder);
+		RunJournal.getInstance().experimentCompleted("pending", 2);
+		ResultBlackboard.getInstance().putResult(root, result);
+		List<PerformanceProblem> pendingProblems = new ArrayList<>();
+		pendingProblems.add(pending);
+		RunJournal.getInstance().problemCompleted(ResultBlackboard.getInstance(), pendingProblems, root);
+		RunJournal.close();
+
+		RunJournal journal = RunJournal.resume(resultFolder);
+		Assert.assertTrue(journal.hasCompletedProblems());
+		Assert.assertEquals("root", journal.getCurrentProblem());
+		Assert.assertEquals(1, journal.getPendingProblems().size());
+		Assert.assertEquals("pending", journal.getPendingProblems().get(0));
+		Assert.assertTrue(journal.getResults().get("root").isDetected());
+		Assert.assertEquals(2, journal.getCompletedExperiments("pending"));
+		Assert.assertEquals(0, journal.getCompletedExperiments("root"));
+
+		RunJournal.finish();
+		Assert.assertFalse(new File(resultFolder + ResultsLocationConstants.RUN_JOURNAL_FILE_NAME).exists());
+		Assert.assertEquals(0, RunJournal.getInstance().getCompletedExperiments("pending"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testResumeWithoutJournal() throws IOException {
+		RunJournal.resume(resultFolder);
+	}
+}
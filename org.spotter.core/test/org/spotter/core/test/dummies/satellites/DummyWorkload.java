@@ -28,6 +28,7 @@ public class DummyWorkload extends AbstractWorkloadAdapter {
 	public boolean loadStarted = false;
 	public boolean warmUpTerminated = false;
 	public boolean experimentTerminated = false;
+	public boolean loadAborted = false;
 
 	public DummyWorkload(IExtension<?> provider) {
 		super(provider);
@@ -60,4 +61,10 @@ public class DummyWorkload extends AbstractWorkloadAdapter {
 		loadStarted = false;
 	}
 
+	@Override
+	public void abortLoad() throws WorkloadException {
+		loadStarted = false;
+		loadAborted = true;
+	}
+
 }
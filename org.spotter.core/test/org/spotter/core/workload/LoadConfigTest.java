@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.workload;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class LoadConfigTest {
+
+	@Test
+	public void testCopy() {
+		LoadConfig original = new LoadConfig();
+		original.setNumUsers(10);
+		original.setRampUpIntervalLength(1);
+		original.setRampUpUsersPerInterval(2);
+		original.setCoolDownIntervalLength(3);
+		original.setCoolDownUsersPerInterval(4);
+		original.setExperimentDuration(60);
+		original.setArrivalRate(2.5);
+		original.setLoadProfile(LoadProfile.step(4, 10));
+		original.setThinkTime(LoadConfig.Phase.EXPERIMENT, 500);
+
+		LoadConfig copy = original.copy();
+		Assert.assertEquals(10, copy.getNumUsers());
+		Assert.assertEquals(1, copy.getRampUpIntervalLength());
+		Assert.assertEquals(2, copy.getRampUpUsersPerInterval());
+		Assert.assertEquals(3, copy.getCoolDownIntervalLength());
+		Assert.assertEquals(4, copy.getCoolDownUsersPerInterval());
+		Assert.assertEquals(60, copy.getExperimentDuration());
+		Assert.assertEquals(2.5, copy.getArrivalRate(), 0.0);
+		Assert.assertEquals("step(4,10)", copy.getLoadProfile().toString());
+		Assert.assertEquals(Integer.valueOf(500), copy.getThinkTime(LoadConfig.Phase.EXPERIMENT));
+
+		// modifying the copy leaves the original unchanged
+		copy.setLoadProfile(LoadProfile.CONSTANT);
+		copy.setThinkTime(LoadConfig.Phase.EXPERIMENT, null);
+		Assert.assertEquals("step(4,10)", original.getLoadProfile().toString());
+		Assert.assertEquals(Integer.valueOf(500), original.getThinkTime(LoadConfig.Phase.EXPERIMENT));
+	}
+}
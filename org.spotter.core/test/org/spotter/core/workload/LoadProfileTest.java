@@ -0,0 +1,80 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.core.workload;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class LoadProfileTest {
+
+	private static final double DELTA = 0.0001;
+
+	@Test
+	public void testStep() {
+		LoadProfile profile = LoadProfile.step(4, 10);
+		Assert.assertEquals(0.25, profile.getFactor(0.0), DELTA);
+		Assert.assertEquals(0.5, profile.getFactor(15.0), DELTA);
+		Assert.assertEquals(1.0, profile.getFactor(35.0), DELTA);
+		Assert.assertEquals(1.0, profile.getFactor(100.0), DELTA);
+		Assert.assertEquals(40, profile.getMinimalDuration());
+		Assert.assertEquals("step(4,10)", profile.toString());
+	}
+
+	@Test
+	public void testSpike() {
+		LoadProfile profile = LoadProfile.spike(3.0, 20, 5);
+		Assert.assertEquals(1.0, profile.getFactor(19.0), DELTA);
+		Assert.assertEquals(3.0, profile.getFactor(20.0), DELTA);
+		Assert.assertEquals(3.0, profile.getFactor(24.9), DELTA);
+		Assert.assertEquals(1.0, profile.getFactor(25.0), DELTA);
+	}
+
+	@Test
+	public void testSine() {
+		LoadProfile profile = LoadProfile.sine(0.5, 40);
+		Assert.assertEquals(1.0, profile.getFactor(0.0), DELTA);
+		Assert.assertEquals(1.5, profile.getFactor(10.0), DELTA);
+		Assert.assertEquals(0.5, profile.getFactor(30.0), DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSine() {
+		LoadProfile.sine(1.5, 40);
+	}
+
+	@Test
+	public void testLoadLevel() {
+		LoadConfig closed = new LoadConfig();
+		closed.setNumUsers(10);
+		closed.setLoadProfile(LoadProfile.spike(2.0, 0, 10));
+		Assert.assertFalse(closed.isOpenLoop());
+		Assert.assertEquals(20.0, closed.getLoadLevel(5.0), DELTA);
+
+		LoadConfig open = new LoadConfig();
+		open.setNumUsers(10);
+		open.setArrivalRate(50.0);
+		Assert.assertTrue(open.isOpenLoop());
+		Assert.assertEquals(50.0, open.getLoadLevel(5.0), DELTA);
+
+		open.setThinkTime(LoadConfig.Phase.EXPERIMENT, 500);
+		Assert.assertTrue(open.hasThinkTimeOverrides());
+		Assert.assertEquals(Integer.valueOf(500), open.getThinkTime(LoadConfig.Phase.EXPERIMENT));
+		Assert.assertNull(open.getThinkTime(LoadConfig.Phase.RAMP_UP));
+		open.setThinkTime(LoadConfig.Phase.EXPERIMENT, null);
+		Assert.assertFalse(open.hasThinkTimeOverrides());
+	}
+}
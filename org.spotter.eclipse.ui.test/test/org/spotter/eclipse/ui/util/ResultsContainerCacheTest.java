@@ -0,0 +1,95 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.eclipse.ui.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.shared.result.model.ResultsContainer;
+
+public class ResultsContainerCacheTest {
+
+	private File tempDir;
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = File.createTempFile("results-cache", "");
+		tempDir.delete();
+		tempDir.mkdirs();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		LpeFileUtils.removeDir(tempDir.getAbsolutePath());
+	}
+
+	private File writeContainer(String folderName, String label) throws IOException {
+		File folder = new File(tempDir, folderName);
+		folder.mkdirs();
+		File containerFile = new File(folder, "results.ser");
+		ResultsContainer container = new ResultsContainer();
+		container.setLabel(label);
+		LpeFileUtils.writeObject(containerFile.getAbsolutePath(), container);
+		return containerFile;
+	}
+
+	@Test
+	public void testGet() throws IOException, ClassNotFoundException {
+		ResultsContainerCache cache = ResultsContainerCache.getInstance();
+		File containerFile = writeContainer("run", "first");
+
+		ResultsContainer container = cache.get(containerFile);
+		Assert.assertEquals("first", container.getLabel());
+		Assert.assertSame(container, cache.get(containerFile));
+
+		containerFile.setLastModified(containerFile.lastModified() - 10000L);
+		Assert.assertNotSame(container, cache.get(containerFile));
+	}
+
+	@Test
+	public void testEviction() throws IOException, ClassNotFoundException {
+		ResultsContainerCache cache = ResultsContainerCache.getInstance();
+		File first = writeContainer("run0", "run0");
+		ResultsContainer firstContainer = cache.get(first);
+		for (int i = 1; i <= ResultsContainerCache.MAX_CACHED_CONTAINERS; i++) {
+			cache.get(writeContainer("run" + i, "run" + i));
+		}
+		Assert.assertNotSame(firstContainer, cache.get(first));
+	}
+
+	@Test
+	public void testInvalidate() throws IOException, ClassNotFoundException {
+		ResultsContainerCache cache = ResultsContainerCache.getInstance();
+		File containerFile = writeContainer("run", "label");
+		ResultsContainer container = cache.get(containerFile);
+
+		cache.invalidate(containerFile.getParentFile());
+		Assert.assertNotSame(container, cache.get(containerFile));
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testMissingFile() throws IOException, ClassNotFoundException {
+		ResultsContainerCache.getInstance().get(new File(tempDir, "missing.ser"));
+	}
+
+}
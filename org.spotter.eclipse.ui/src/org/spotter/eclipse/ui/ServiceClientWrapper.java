@@ -19,6 +19,7 @@ import java.io.InputStream;
 import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,8 +36,11 @@ import org.spotter.eclipse.ui.util.DialogUtils;
 import org.spotter.eclipse.ui.util.SpotterProjectSupport;
 import org.spotter.shared.configuration.JobDescription;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
 import org.spotter.shared.hierarchy.model.RawHierarchyFactory;
 import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.service.ExtensionCatalogue;
+import org.spotter.shared.service.SatelliteConnectionStatus;
 import org.spotter.shared.status.SpotterProgress;
 
 import com.sun.jersey.api.client.ClientHandlerException;
@@ -50,8 +54,10 @@ import com.sun.jersey.api.client.ClientHandlerException;
  * </p>
  * <p>
  * This wrapper class also caches requested information from the server for
- * future use. Whenever the client settings change, the cache will also be
- * cleared automatically or it can be cleared on demand.
+ * future use. The cache is filled at once with the extension catalogue of the
+ * server. Whenever the client settings change, the cache will also be cleared
+ * automatically. On demand, the cache can be revalidated with the server which
+ * only transfers the catalogue again if the extensions have changed.
  * </p>
  * 
  * @author Denis Knoepfle
@@ -82,6 +88,7 @@ public class ServiceClientWrapper {
 	private static final String MSG_NO_CONFIG_PARAMS = "Could not retrieve configuration parameters.";
 	private static final String MSG_NO_EXTENSIONS = "Could not retrieve list of extensions.";
 	private static final String MSG_NO_DEFAULT_HIER = "Could not retrieve the default hierarchy.";
+	private static final String MSG_NO_CATALOGUE = "Could not revalidate the extension catalogue.";
 	private static final String MSG_NO_SATTELITE_TEST = "Could not test satellite connection.";
 
 	private final String projectName;
@@ -97,6 +104,8 @@ public class ServiceClientWrapper {
 	private Map<SpotterExtensionType, ExtensionMetaobject[]> cachedExtensionMetaobjects = new HashMap<>();
 	private Map<String, Set<ConfigParameterDescription>> cachedExtensionConfParamters = new HashMap<>();
 	private Map<String, String> cachedExtensionDescriptions = new HashMap<>();
+	private String cachedCatalogueVersion;
+	private boolean catalogueUnavailable;
 	private long lastClearTime;
 
 	/**
@@ -315,6 +324,10 @@ public class ServiceClientWrapper {
 		if (cachedSpotterConfParameters != null) {
 			return cachedSpotterConfParameters;
 		}
+		loadCatalogue();
+		if (cachedSpotterConfParameters != null) {
+			return cachedSpotterConfParameters;
+		}
 		try {
 			cachedSpotterConfParameters = client.getConfigurationParameters();
 		} catch (Exception e) {
@@ -389,6 +402,11 @@ public class ServiceClientWrapper {
 		if (extNames != null) {
 			return extNames;
 		}
+		loadCatalogue();
+		extNames = cachedExtensionNames.get(extType);
+		if (extNames != null) {
+			return extNames;
+		}
 		try {
 			extNames = client.getAvailableExtensions(extType);
 			cachedExtensionNames.put(extType, extNames);
@@ -414,6 +432,10 @@ public class ServiceClientWrapper {
 	private Set<ConfigParameterDescription> getExtensionConfigParamters(String extName, HandlerStyle style) {
 		lastClientException = null;
 		Set<ConfigParameterDescription> confParams = cachedExtensionConfParamters.get(extName);
+		if (confParams == null) {
+			loadCatalogue();
+			confParams = cachedExtensionConfParamters.get(extName);
+		}
 		if (confParams != null) {
 			if (!cachedExtensionDescriptions.containsKey(extName)) {
 				cachedExtensionDescriptions.put(extName, findExtensionDescription(confParams));
@@ -535,6 +557,26 @@ public class ServiceClientWrapper {
 		return false;
 	}
 
+	/**
+	 * Tests the connections to all satellites of the given measurement
+	 * environment in one request. Failures are only logged, the exception can
+	 * be retrieved via {@link #getLastClientException()}.
+	 * 
+	 * @param environment
+	 *            The measurement environment describing the satellites
+	 * @return the connection status for each satellite or <code>null</code> on
+	 *         failure
+	 */
+	public List<SatelliteConnectionStatus> testConnectionsToSatellites(XMeasurementEnvironment environment) {
+		lastClientException = null;
+		try {
+			return client.testConnectionsToSatellites(environment);
+		} catch (Exception e) {
+			handleException("testConnectionsToSatellites", MSG_NO_SATTELITE_TEST, e, HandlerStyle.LOG_ONLY, false);
+		}
+		return null;
+	}
+
 	/**
 	 * Tests connection to the DS Service.
 	 * 
@@ -583,6 +625,30 @@ public class ServiceClientWrapper {
 		return false;
 	}
 
+	/**
+	 * Revalidates the cache with the server. The cached data is only replaced
+	 * if the extensions on the server side have changed. If the server cannot
+	 * be asked, the cache is cleared.
+	 * 
+	 * @return <code>true</code> if the cached data has been replaced or
+	 *         cleared, <code>false</code> if it is still up to date
+	 */
+	public boolean revalidateCache() {
+		lastClientException = null;
+		try {
+			ExtensionCatalogue catalogue = client.getExtensionCatalogue();
+			if (catalogue.getVersion() != null && catalogue.getVersion().equals(cachedCatalogueVersion)) {
+				return false;
+			}
+			clearCache();
+			fillCache(catalogue);
+		} catch (Exception e) {
+			handleException("getExtensionCatalogue", MSG_NO_CATALOGUE, e, HandlerStyle.LOG_ONLY, true);
+			clearCache();
+		}
+		return true;
+	}
+
 	/**
 	 * Clears the cache deleting all data that was fetched from the server.
 	 */
@@ -602,10 +668,46 @@ public class ServiceClientWrapper {
 		cachedExtensionMetaobjects.clear();
 		cachedExtensionConfParamters.clear();
 		cachedExtensionDescriptions.clear();
+		cachedCatalogueVersion = null;
+		catalogueUnavailable = false;
 
 		lastClearTime = System.currentTimeMillis();
 	}
 
+	/**
+	 * Fills the cache with the extension catalogue of the server unless it has
+	 * been loaded already. If the server does not provide the catalogue, the
+	 * data is requested separately instead.
+	 */
+	private void loadCatalogue() {
+		if (cachedCatalogueVersion != null || catalogueUnavailable) {
+			return;
+		}
+		try {
+			fillCache(client.getExtensionCatalogue());
+		} catch (Exception e) {
+			LOGGER.debug("Extension catalogue not available: {}", e.toString());
+			catalogueUnavailable = true;
+		}
+	}
+
+	private void fillCache(ExtensionCatalogue catalogue) {
+		// the catalogue is kept by the client for revalidation, so copy the
+		// sets that are cleared along with the cache
+		cachedSpotterConfParameters = new HashSet<>(catalogue.getConfigurationParameters());
+		cachedSpotterConfParamsMap = null;
+		for (SpotterExtensionType extType : SpotterExtensionType.values()) {
+			cachedExtensionNames.put(extType, catalogue.namesOf(extType));
+		}
+		for (Map.Entry<String, Set<ConfigParameterDescription>> entry : catalogue.getExtensionParameters().entrySet()) {
+			if (entry.getValue() != null) {
+				cachedExtensionConfParamters.put(entry.getKey(), entry.getValue());
+				cachedExtensionDescriptions.put(entry.getKey(), findExtensionDescription(entry.getValue()));
+			}
+		}
+		cachedCatalogueVersion = catalogue.getVersion();
+	}
+
 	/**
 	 * Shows a message on the screen explaining the connection problem. If cause
 	 * is not <code>null</code> it will be appended to the message.
@@ -25,8 +25,8 @@ import org.spotter.eclipse.ui.Activator;
 import org.spotter.eclipse.ui.util.DialogUtils;
 
 /**
- * A handler for the clear cache command which clears the cache containing data
- * retrieved from the DS service.
+ * A handler for the clear cache command which revalidates the cache containing
+ * data retrieved from the DS service.
  * 
  * @author Denis Knoepfle
  * 
@@ -52,14 +52,19 @@ public class ClearCacheHandler extends AbstractHandler implements ISelectionChan
 	@Override
 	public Object execute(ExecutionEvent event) throws ExecutionException {
 		Activator activator = Activator.getDefault();
+		boolean changed = false;
 		for (IProject project : activator.getSelectedProjects()) {
 			String projectName = project.getName();
-			activator.getClient(projectName).clearCache();
+			changed |= activator.getClient(projectName).revalidateCache();
 		}
 
-		DialogUtils.openInformation("Cleared the data cache! Be aware that already "
-				+ "configured extensions may get into an invalid state in case the "
-				+ "extensions change on the server side.");
+		if (changed) {
+			DialogUtils.openInformation("Refreshed the data cache! Be aware that already "
+					+ "configured extensions may get into an invalid state as the "
+					+ "extensions changed on the server side.");
+		} else {
+			DialogUtils.openInformation("The data cache is up to date.");
+		}
 
 		return null;
 	}
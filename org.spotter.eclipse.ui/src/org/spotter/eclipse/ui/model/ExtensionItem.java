@@ -34,7 +34,12 @@ import org.spotter.eclipse.ui.handlers.IHandlerMediator;
 import org.spotter.eclipse.ui.listeners.IItemChangedListener;
 import org.spotter.eclipse.ui.listeners.IItemPropertiesChangedListener;
 import org.spotter.eclipse.ui.model.xml.IModelWrapper;
+import org.spotter.eclipse.ui.util.SpotterUtils;
+import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.service.SatelliteConnectionStatus;
 
 /**
  * A basic implementation for an extension item.
@@ -62,6 +67,49 @@ public class ExtensionItem implements IExtensionItem {
 		}
 	}
 
+	/**
+	 * Tests the connections of several satellite items in one request.
+	 */
+	private static class BatchConnectionUpdater implements Runnable {
+		private final ServiceClientWrapper client;
+		private final List<ExtensionItem> items;
+		private final List<ConnectionUpdater> updaters;
+
+		BatchConnectionUpdater(ServiceClientWrapper client, List<ExtensionItem> items) {
+			this.client = client;
+			this.items = items;
+			this.updaters = new ArrayList<ConnectionUpdater>();
+			for (ExtensionItem item : items) {
+				updaters.add(item.prepareConnectionUpdate());
+			}
+		}
+
+		@Override
+		public void run() {
+			// the role of a satellite does not matter for the connection test
+			List<XMeasurementEnvObject> envObjects = new ArrayList<XMeasurementEnvObject>();
+			for (ExtensionItem item : items) {
+				envObjects.add((XMeasurementEnvObject) item.modelWrapper.getXMLModel());
+			}
+			XMeasurementEnvironment environment = new XMeasurementEnvironment();
+			environment.setInstrumentationController(envObjects);
+
+			List<SatelliteConnectionStatus> result = client.testConnectionsToSatellites(environment);
+			for (int i = 0; i < items.size(); i++) {
+				if (result == null || result.size() != items.size()) {
+					Exception exception = client.getLastClientException();
+					if (exception == null) {
+						exception = new IllegalStateException("Invalid connection test result");
+					}
+					items.get(i).onConnectionUpdateComplete(updaters.get(i), null, exception);
+				} else {
+					boolean connected = result.get(i).getState() == SatelliteConnectionStatus.State.CONNECTED;
+					items.get(i).onConnectionUpdateComplete(updaters.get(i), connected, null);
+				}
+			}
+		}
+	}
+
 	private static final String MSG_CONN_PENDING = "Connection test pending...";
 	private static final String MSG_CONN_AVAILABLE = "Connection OK";
 	private static final String MSG_CONN_UNAVAILABLE = "No connection";
@@ -291,6 +339,15 @@ public class ExtensionItem implements IExtensionItem {
 		if (isConnectionIgnored() || modelWrapper == null) {
 			return;
 		}
+		LpeSystemUtils.submitTask(prepareConnectionUpdate());
+	}
+
+	/**
+	 * Cancels the running connection update and marks this item as pending.
+	 * 
+	 * @return the updater that has to complete the new connection update
+	 */
+	private synchronized ConnectionUpdater prepareConnectionUpdate() {
 		ConnectionUpdater currentUpdater = getConnectionUpdater();
 		if (currentUpdater != null) {
 			currentUpdater.cancel();
@@ -302,7 +359,21 @@ public class ExtensionItem implements IExtensionItem {
 		fireItemAppearanceChanged();
 		currentUpdater = new ConnectionUpdater();
 		setConnectionUpdater(currentUpdater);
-		LpeSystemUtils.submitTask(currentUpdater);
+		return currentUpdater;
+	}
+
+	/**
+	 * @return <code>true</code> if this item is a satellite that is reached
+	 *         via host and port
+	 */
+	private boolean isRemoteSatellite() {
+		if (isConnectionIgnored() || modelWrapper == null
+				|| !(modelWrapper.getXMLModel() instanceof XMeasurementEnvObject)) {
+			return false;
+		}
+		List<XMConfiguration> config = modelWrapper.getConfig();
+		return SpotterUtils.hasConfigParameter(config, ConfigKeys.SATELLITE_HOST_KEY)
+				&& SpotterUtils.hasConfigParameter(config, ConfigKeys.SATELLITE_PORT_KEY);
 	}
 
 	@Override
@@ -511,9 +582,36 @@ public class ExtensionItem implements IExtensionItem {
 
 	@Override
 	public void updateChildrenConnections() {
+		// remote satellites are tested all at once in a single request
+		List<ExtensionItem> satelliteItems = new ArrayList<ExtensionItem>();
+		collectConnectionUpdates(satelliteItems);
+		if (satelliteItems.isEmpty()) {
+			return;
+		}
+		ServiceClientWrapper satelliteClient = satelliteItems.get(0).client;
+		if (satelliteClient == null) {
+			for (ExtensionItem item : satelliteItems) {
+				item.updateConnectionStatus();
+			}
+		} else {
+			LpeSystemUtils.submitTask(new BatchConnectionUpdater(satelliteClient, satelliteItems));
+		}
+	}
+
+	private void collectConnectionUpdates(List<ExtensionItem> satelliteItems) {
 		for (IExtensionItem item : childrenItems) {
-			item.updateConnectionStatus();
-			item.updateChildrenConnections();
+			if (item instanceof ExtensionItem) {
+				ExtensionItem extensionItem = (ExtensionItem) item;
+				if (extensionItem.isRemoteSatellite()) {
+					satelliteItems.add(extensionItem);
+				} else {
+					extensionItem.updateConnectionStatus();
+				}
+				extensionItem.collectConnectionUpdates(satelliteItems);
+			} else {
+				item.updateConnectionStatus();
+				item.updateChildrenConnections();
+			}
 		}
 	}
 
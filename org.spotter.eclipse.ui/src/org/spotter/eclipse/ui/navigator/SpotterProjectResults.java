@@ -23,8 +23,10 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -39,6 +41,7 @@ import org.spotter.eclipse.ui.Activator;
 import org.spotter.eclipse.ui.ServiceClientWrapper;
 import org.spotter.eclipse.ui.jobs.JobsContainer;
 import org.spotter.eclipse.ui.util.DialogUtils;
+import org.spotter.eclipse.ui.util.ResultsIndex;
 import org.spotter.shared.configuration.FileManager;
 
 /**
@@ -187,6 +190,14 @@ public class SpotterProjectResults extends AbstractProjectElement {
 					jobIdToResultMapping.put(jobId, runResult);
 				}
 			}
+
+			// drop index entries of results that are gone and persist new ones
+			Set<String> folderNames = new HashSet<>();
+			for (ISpotterProjectElement element : elements) {
+				folderNames.add(((SpotterProjectRunResult) element).getResultFolder().getName());
+			}
+			ResultsIndex.retainEntries(iProject, folderNames);
+			ResultsIndex.save(iProject);
 		}
 
 		return elements.toArray(new ISpotterProjectElement[elements.size()]);
@@ -224,6 +235,10 @@ public class SpotterProjectResults extends AbstractProjectElement {
 		if (success) {
 			String projectRelativePath = FileManager.DEFAULT_RESULTS_DIR_NAME + "/" + formattedTimestamp;
 			IFolder folder = project.getFolder(projectRelativePath);
+			if (ResultsIndex.hasEntry(folder)) {
+				// indexed results need no rescan of the run folder
+				return new SpotterProjectRunResult(this, jobId, timestamp, folder);
+			}
 			try {
 				if (!folder.isSynchronized(IResource.DEPTH_INFINITE)) {
 					folder.refreshLocal(IResource.DEPTH_INFINITE, null);
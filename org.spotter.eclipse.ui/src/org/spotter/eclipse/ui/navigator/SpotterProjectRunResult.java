@@ -15,9 +15,9 @@
  */
 package org.spotter.eclipse.ui.navigator;
 
-import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -39,6 +39,7 @@ import org.spotter.eclipse.ui.jobs.JobsContainer;
 import org.spotter.eclipse.ui.menu.IDeletable;
 import org.spotter.eclipse.ui.menu.IOpenable;
 import org.spotter.eclipse.ui.util.DialogUtils;
+import org.spotter.eclipse.ui.util.ResultsIndex;
 import org.spotter.eclipse.ui.util.SpotterUtils;
 import org.spotter.eclipse.ui.view.ResultsView;
 import org.spotter.shared.result.ResultsLocationConstants;
@@ -92,9 +93,8 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 		this.timestamp = timestamp;
 
 		this.resultFolder = resultFolder;
-		String errorFilePath = resultFolder.getFile(ResultsLocationConstants.TXT_DIAGNOSIS_ERROR_FILE_NAME)
-				.getLocation().toString();
-		this.isErroneous = new File(errorFilePath).exists();
+		ResultsIndex.Entry indexEntry = ResultsIndex.getEntry(resultFolder, jobId, timestamp);
+		this.isErroneous = indexEntry.isErroneous();
 		if (isErroneous) {
 			setImagePath(ERROR_IMAGE_PATH);
 		} else {
@@ -103,7 +103,7 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 
 		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd (HH:mm:ss)");
 		this.elementName = dateFormat.format(new Date(timestamp));
-		readElementLabel();
+		this.elementLabel = indexEntry.getLabel();
 
 		addOpenHandler();
 		addDeleteHandler();
@@ -219,18 +219,6 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 		return elementLabel;
 	}
 
-	/**
-	 * Reads the corresponding container and updates the label.
-	 */
-	private void readElementLabel() {
-		ResultsContainer container = SpotterUtils.readResultsContainer(resultFolder);
-		String label = null;
-		if (container != null) {
-			label = container.getLabel();
-		}
-		this.elementLabel = label;
-	}
-
 	private String getOpenId() {
 		return isErroneous ? TXT_OPEN_ID : OPEN_ID;
 	}
@@ -295,6 +283,7 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 
 			ResultsView.reset(resultFolder);
 			resultFolder.delete(true, null);
+			ResultsIndex.removeEntries(getProject(), Collections.singletonList(resultFolder.getName()));
 			// clear job id
 			if (!JobsContainer.removeJobId(getProject(), jobId)) {
 				DialogUtils
@@ -309,7 +298,7 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 		}
 	}
 
-	private void singleDelete(SpotterProjectRunResult runResult, List<Long> jobIds) {
+	private void singleDelete(SpotterProjectRunResult runResult, List<Long> jobIds, List<String> folderNames) {
 		IFolder resultFolder = runResult.getResultFolder();
 		try {
 			if (!resultFolder.isSynchronized(IResource.DEPTH_INFINITE)) {
@@ -319,6 +308,7 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 			ResultsView.reset(resultFolder);
 			resultFolder.delete(true, null);
 			jobIds.add(runResult.jobId);
+			folderNames.add(resultFolder.getName());
 		} catch (CoreException e) {
 			String message = "Error while deleting result folder '" + resultFolder.getName() + "'!";
 			LOGGER.error(message, e);
@@ -328,10 +318,12 @@ public class SpotterProjectRunResult extends AbstractProjectElement {
 
 	private void delete(Object[] elements) {
 		List<Long> jobIds = new ArrayList<>();
+		List<String> folderNames = new ArrayList<>();
 		for (Object element : elements) {
 			SpotterProjectRunResult runResult = (SpotterProjectRunResult) element;
-			singleDelete(runResult, jobIds);
+			singleDelete(runResult, jobIds, folderNames);
 		}
+		ResultsIndex.removeEntries(getProject(), folderNames);
 
 		if (!JobsContainer.removeJobIds(getProject(), jobIds)) {
 			DialogUtils
@@ -18,6 +18,13 @@ package org.spotter.eclipse.ui.util;
 import java.awt.image.BufferedImage;
 import java.awt.image.DirectColorModel;
 import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -34,9 +41,61 @@ import org.eclipse.swt.graphics.Rectangle;
  */
 public final class ImageUtils {
 
+	private static final String PDF_EXTENSION = "pdf";
+	private static final int PDF_IMAGE_TYPE = BufferedImage.TYPE_INT_RGB;
+	private static final int PDF_VIEW_RESOLUTION = 96; // [dpi]
+
 	private ImageUtils() {
 	}
 
+	/**
+	 * Loads the image data of the given resource file. For pdf files the first
+	 * page is rendered. This method does not require the UI thread and may be
+	 * used to decode images in the background.
+	 * 
+	 * @param resourceFile
+	 *            the absolute filename of the resource
+	 * @return the loaded image data
+	 * @throws SWTException
+	 *             if the resource cannot be loaded
+	 */
+	public static ImageData loadImageData(String resourceFile) {
+		File file = new File(resourceFile);
+		Path path = file.toPath().getFileName();
+		String name = path == null ? null : path.toString();
+		if (name == null) {
+			return new ImageData(resourceFile);
+		}
+		int index = name.lastIndexOf('.');
+		String extension = index == -1 ? null : name.substring(index + 1);
+
+		if (PDF_EXTENSION.equalsIgnoreCase(extension)) {
+			return createImageDataFromPdf(resourceFile);
+		} else {
+			return new ImageData(resourceFile);
+		}
+	}
+
+	// creates image data from the first page of the pdf file
+	private static ImageData createImageDataFromPdf(String resourceFile) {
+		try {
+			PDDocument document = PDDocument.load(resourceFile);
+			try {
+				@SuppressWarnings("unchecked")
+				List<PDPage> pages = document.getDocumentCatalog().getAllPages();
+				if (pages.isEmpty()) {
+					throw new SWTException(SWT.ERROR_INVALID_IMAGE);
+				}
+				BufferedImage bufferedImage = pages.get(0).convertToImage(PDF_IMAGE_TYPE, PDF_VIEW_RESOLUTION);
+				return convertToImageData(bufferedImage);
+			} finally {
+				document.close();
+			}
+		} catch (IOException e) {
+			throw new SWTException(SWT.ERROR_IO);
+		}
+	}
+
 	/**
 	 * Scales the given ImageData to fit in the client area.
 	 * 
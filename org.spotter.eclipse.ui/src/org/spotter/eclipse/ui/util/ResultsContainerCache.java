@@ -0,0 +1,132 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.eclipse.ui.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.lpe.common.util.LpeFileUtils;
+import org.spotter.shared.result.model.ResultsContainer;
+
+/**
+ * A least-recently-used cache of opened results containers. Containers are
+ * only read from disk when they are requested for the first time or when the
+ * underlying file has been modified since.
+ */
+public final class ResultsContainerCache {
+
+	/**
+	 * The maximum number of containers kept in memory.
+	 */
+	public static final int MAX_CACHED_CONTAINERS = 8;
+
+	private static ResultsContainerCache instance;
+
+	/**
+	 * @return the singleton instance
+	 */
+	public static synchronized ResultsContainerCache getInstance() {
+		if (instance == null) {
+			instance = new ResultsContainerCache();
+		}
+		return instance;
+	}
+
+	private final Map<String, CachedContainer> containers;
+
+	private static final class CachedContainer {
+		private final ResultsContainer container;
+		private final long lastModified;
+
+		private CachedContainer(ResultsContainer container, long lastModified) {
+			this.container = container;
+			this.lastModified = lastModified;
+		}
+	}
+
+	private ResultsContainerCache() {
+		this.containers = new LinkedHashMap<String, CachedContainer>(MAX_CACHED_CONTAINERS, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedContainer> eldest) {
+				return size() > MAX_CACHED_CONTAINERS;
+			}
+		};
+	}
+
+	/**
+	 * Returns the container stored in the given file. The container is read
+	 * from disk if it is not cached yet or the file has changed.
+	 * 
+	 * @param containerFile
+	 *            the serialized container file
+	 * @return the container
+	 * @throws IOException
+	 *             if the file cannot be read
+	 * @throws ClassNotFoundException
+	 *             if the file does not contain a valid container
+	 */
+	public synchronized ResultsContainer get(File containerFile) throws IOException, ClassNotFoundException {
+		if (!containerFile.exists()) {
+			containers.remove(containerFile.getAbsolutePath());
+			throw new FileNotFoundException(containerFile.getAbsolutePath());
+		}
+		String key = containerFile.getAbsolutePath();
+		CachedContainer cached = containers.get(key);
+		long lastModified = containerFile.lastModified();
+		if (cached == null || cached.lastModified != lastModified) {
+			ResultsContainer container = (ResultsContainer) LpeFileUtils.readObject(containerFile);
+			cached = new CachedContainer(container, lastModified);
+			containers.put(key, cached);
+		}
+		return cached.container;
+	}
+
+	/**
+	 * Updates the cache after the given container has been written to the
+	 * given file.
+	 * 
+	 * @param containerFile
+	 *            the serialized container file
+	 * @param container
+	 *            the written container
+	 */
+	public synchronized void put(File containerFile, ResultsContainer container) {
+		containers.put(containerFile.getAbsolutePath(), new CachedContainer(container, containerFile.lastModified()));
+	}
+
+	/**
+	 * Removes all cached containers located within the given directory.
+	 * 
+	 * @param directory
+	 *            the directory whose containers shall be removed
+	 */
+	public synchronized void invalidate(File directory) {
+		String prefix = directory.getAbsolutePath() + File.separator;
+		Iterator<String> iterator = containers.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().startsWith(prefix)) {
+				iterator.remove();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.eclipse.ui.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.lpe.common.util.LpeFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.result.model.ResultsContainer;
+import org.spotter.shared.result.model.SpotterResult;
+
+/**
+ * A per-project index of all downloaded run results. The index holds the data
+ * required to render the results navigator so that the serialized results
+ * containers do not have to be read whenever the navigator is refreshed. The
+ * index is maintained incrementally when runs are downloaded, relabelled or
+ * deleted.
+ */
+public final class ResultsIndex implements Serializable {
+
+	/**
+	 * The name of the file the index is stored to within the project.
+	 */
+	public static final String RESULTS_INDEX_FILENAME = "results-index.ser";
+
+	private static final long serialVersionUID = -1936364829543085934L;
+	private static final Object indexMonitor = new Object();
+	private static final Map<String, ResultsIndex> loadedIndices = new HashMap<>();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResultsIndex.class);
+
+	private final Map<String, Entry> entries = new HashMap<>();
+	private transient boolean dirty;
+
+	/**
+	 * An index entry describing a single run result.
+	 */
+	public static final class Entry implements Serializable {
+
+		private static final long serialVersionUID = 5319815634280936422L;
+
+		private final long jobId;
+		private final long timestamp;
+		private final boolean erroneous;
+		private final long containerModified;
+		private final String label;
+		private final List<String> detectedProblems;
+		private final List<String> resourceFiles;
+
+		private Entry(long jobId, long timestamp, boolean erroneous, long containerModified, String label,
+				List<String> detectedProblems, List<String> resourceFiles) {
+			this.jobId = jobId;
+			this.timestamp = timestamp;
+			this.erroneous = erroneous;
+			this.containerModified = containerModified;
+			this.label = label;
+			this.detectedProblems = detectedProblems;
+			this.resourceFiles = resourceFiles;
+		}
+
+		/**
+		 * @return the job id of the run
+		 */
+		public long getJobId() {
+			return jobId;
+		}
+
+		/**
+		 * @return the timestamp of the run
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * @return <code>true</code> if the diagnosis was erroneous
+		 */
+		public boolean isErroneous() {
+			return erroneous;
+		}
+
+		/**
+		 * @return the label of the run or <code>null</code>
+		 */
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * @return the ids of the problems that have been detected
+		 */
+		public List<String> getDetectedProblems() {
+			return Collections.unmodifiableList(detectedProblems);
+		}
+
+		/**
+		 * @return the resource files of all results of the run
+		 */
+		public List<String> getResourceFiles() {
+			return Collections.unmodifiableList(resourceFiles);
+		}
+	}
+
+	/**
+	 * Private constructor, use {@link #getIndex(IProject)} instead.
+	 */
+	private ResultsIndex() {
+	}
+
+	/**
+	 * Returns <code>true</code> if the given result folder is indexed.
+	 * 
+	 * @param resultFolder
+	 *            the result folder to look up
+	 * @return <code>true</code> if indexed, otherwise <code>false</code>
+	 */
+	public static boolean hasEntry(IFolder resultFolder) {
+		synchronized (indexMonitor) {
+			return getIndex(resultFolder.getProject()).entries.containsKey(resultFolder.getName());
+		}
+	}
+
+	/**
+	 * Returns the entry for the given result folder. If the folder is not
+	 * indexed yet or its results container has changed since, the entry is
+	 * created from the results container and added to the index. Call
+	 * {@link #save(IProject)} afterwards to persist added entries.
+	 * 
+	 * @param resultFolder
+	 *            the result folder of the run
+	 * @param jobId
+	 *            the job id of the run
+	 * @param timestamp
+	 *            the timestamp of the run
+	 * @return the corresponding index entry
+	 */
+	public static Entry getEntry(IFolder resultFolder, long jobId, long timestamp) {
+		synchronized (indexMonitor) {
+			ResultsIndex index = getIndex(resultFolder.getProject());
+			Entry entry = index.entries.get(resultFolder.getName());
+			if (entry == null || entry.containerModified != getContainerFile(resultFolder).lastModified()) {
+				ResultsContainer container = SpotterUtils.readResultsContainer(resultFolder);
+				entry = createEntry(resultFolder, jobId, timestamp, container);
+				index.entries.put(resultFolder.getName(), entry);
+				index.dirty = true;
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Updates the entry of the given result folder after its results container
+	 * has been written. Does nothing if the folder is not indexed.
+	 * 
+	 * @param resultFolder
+	 *            the result folder of the run
+	 * @param container
+	 *            the container that has been written
+	 */
+	public static void updateEntry(IFolder resultFolder, ResultsContainer container) {
+		synchronized (indexMonitor) {
+			IProject project = resultFolder.getProject();
+			ResultsIndex index = getIndex(project);
+			Entry oldEntry = index.entries.get(resultFolder.getName());
+			if (oldEntry != null) {
+				Entry entry = createEntry(resultFolder, oldEntry.jobId, oldEntry.timestamp, container);
+				index.entries.put(resultFolder.getName(), entry);
+				index.dirty = true;
+				save(project);
+			}
+		}
+	}
+
+	/**
+	 * Removes the entries of the given result folders from the index and
+	 * persists the index.
+	 * 
+	 * @param project
+	 *            the project the folders belong to
+	 * @param folderNames
+	 *            the names of the removed result folders
+	 */
+	public static void removeEntries(IProject project, List<String> folderNames) {
+		synchronized (indexMonitor) {
+			ResultsIndex index = getIndex(project);
+			for (String folderName : folderNames) {
+				if (index.entries.remove(folderName) != null) {
+					index.dirty = true;
+				}
+			}
+			save(project);
+		}
+	}
+
+	/**
+	 * Removes all entries whose result folder is not contained in the given
+	 * set of folder names. Call {@link #save(IProject)} afterwards to persist
+	 * the changes.
+	 * 
+	 * @param project
+	 *            the project of the index
+	 * @param folderNames
+	 *            the names of the result folders that are still present
+	 */
+	public static void retainEntries(IProject project, Set<String> folderNames) {
+		synchronized (indexMonitor) {
+			ResultsIndex index = getIndex(project);
+			if (index.entries.keySet().retainAll(folderNames)) {
+				index.dirty = true;
+			}
+		}
+	}
+
+	/**
+	 * Writes the index of the given project if it has been changed.
+	 * 
+	 * @param project
+	 *            the project of the index
+	 * @return <code>true</code> on success, otherwise <code>false</code>
+	 */
+	public static boolean save(IProject project) {
+		synchronized (indexMonitor) {
+			ResultsIndex index = getIndex(project);
+			if (!index.dirty) {
+				return true;
+			}
+			String fileName = project.getFile(RESULTS_INDEX_FILENAME).getLocation().toString();
+			try {
+				LpeFileUtils.writeObject(fileName, index);
+				index.dirty = false;
+				return true;
+			} catch (IOException e) {
+				LOGGER.error("Error while writing results index.", e);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Drops the loaded index of the given project, e.g. when the project is
+	 * closed or deleted.
+	 * 
+	 * @param project
+	 *            the project of the index
+	 */
+	public static void unload(IProject project) {
+		synchronized (indexMonitor) {
+			loadedIndices.remove(project.getName());
+		}
+	}
+
+	private static ResultsIndex getIndex(IProject project) {
+		ResultsIndex index = loadedIndices.get(project.getName());
+		if (index == null) {
+			index = readIndex(project);
+			loadedIndices.put(project.getName(), index);
+		}
+		return index;
+	}
+
+	private static ResultsIndex readIndex(IProject project) {
+		String fileName = project.getFile(RESULTS_INDEX_FILENAME).getLocation().toString();
+		File file = new File(fileName);
+		if (file.exists()) {
+			try {
+				return (ResultsIndex) LpeFileUtils.readObject(file);
+			} catch (ClassNotFoundException | IOException e) {
+				LOGGER.warn("Results index {} corrupted, rebuilding index. Error: {}", fileName, e.getMessage());
+			}
+		}
+		return new ResultsIndex();
+	}
+
+	private static Entry createEntry(IFolder resultFolder, long jobId, long timestamp, ResultsContainer container) {
+		String errorFilePath = resultFolder.getFile(ResultsLocationConstants.TXT_DIAGNOSIS_ERROR_FILE_NAME)
+				.getLocation().toString();
+		boolean erroneous = new File(errorFilePath).exists();
+
+		String label = null;
+		List<String> detectedProblems = new ArrayList<>();
+		List<String> resourceFiles = new ArrayList<>();
+		if (container != null) {
+			label = container.getLabel();
+			if (container.getResultsMap() != null) {
+				for (Map.Entry<String, SpotterResult> result : container.getResultsMap().entrySet()) {
+					if (result.getValue().isDetected()) {
+						detectedProblems.add(result.getKey());
+					}
+					resourceFiles.addAll(result.getValue().getResourceFiles());
+				}
+			}
+		}
+
+		long containerModified = getContainerFile(resultFolder).lastModified();
+		return new Entry(jobId, timestamp, erroneous, containerModified, label, detectedProblems, resourceFiles);
+	}
+
+	private static File getContainerFile(IFolder resultFolder) {
+		return new File(resultFolder.getFile(ResultsLocationConstants.RESULTS_SERIALIZATION_FILE_NAME).getLocation()
+				.toString());
+	}
+
+}
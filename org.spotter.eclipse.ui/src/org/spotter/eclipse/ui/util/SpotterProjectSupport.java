@@ -16,6 +16,7 @@
 package org.spotter.eclipse.ui.util;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -147,6 +148,8 @@ public final class SpotterProjectSupport {
 				page.closeEditors(closeEditors.toArray(new IEditorReference[closeEditors.size()]), false);
 			}
 		}
+		ResultsIndex.unload(project);
+		ResultsContainerCache.getInstance().invalidate(new File(project.getLocation().toString()));
 		// deletes project completely from disk
 		// TODO: adjust dialog to allow soft deletion only from workspace
 		// without deleting it from disk
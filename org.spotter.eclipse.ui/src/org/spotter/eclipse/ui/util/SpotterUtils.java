@@ -96,7 +96,8 @@ public final class SpotterUtils {
 
 	/**
 	 * Reads the results container within the given result folder. In case of
-	 * failure <code>null</code> will be returned.
+	 * failure <code>null</code> will be returned. Recently read containers are
+	 * served from the {@link ResultsContainerCache}.
 	 * 
 	 * @param resultFolder
 	 *            the result folder to read from
@@ -108,7 +109,7 @@ public final class SpotterUtils {
 		File containerFile = new File(resFile.getLocation().toString());
 		if (containerFile.exists()) {
 			try {
-				resultsContainer = (ResultsContainer) LpeFileUtils.readObject(containerFile);
+				resultsContainer = ResultsContainerCache.getInstance().get(containerFile);
 			} catch (ClassNotFoundException | IOException e) {
 				LOGGER.debug("Cannot read results container " + containerFile);
 			}
@@ -117,7 +118,8 @@ public final class SpotterUtils {
 	}
 
 	/**
-	 * Writes the container to the given result folder.
+	 * Writes the container to the given result folder. The results index and
+	 * the container cache are updated accordingly.
 	 * 
 	 * @param resultFolder
 	 *            the result folder to write to
@@ -130,6 +132,8 @@ public final class SpotterUtils {
 		File containerFile = new File(resFile.getLocation().toString());
 		try {
 			LpeFileUtils.writeObject(containerFile.getAbsolutePath(), container);
+			ResultsContainerCache.getInstance().put(containerFile, container);
+			ResultsIndex.updateEntry(resultFolder, container);
 		} catch (IOException e) {
 			String message = "Error while writing results container!";
 			LOGGER.error(message, e);
@@ -0,0 +1,203 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.eclipse.ui.util;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded cache of thumbnail images for resource files. Thumbnails are
+ * decoded on a background thread; the listener is notified on the UI thread
+ * when a requested thumbnail becomes available or has been evicted. All public
+ * methods must be called from the UI thread.
+ */
+public class ThumbnailCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailCache.class);
+
+	/**
+	 * Listener to be notified about changes of the cache.
+	 */
+	public interface IThumbnailListener {
+
+		/**
+		 * Called when the thumbnail of the given file has been loaded.
+		 * 
+		 * @param resourceFile
+		 *            the file the thumbnail belongs to
+		 */
+		void thumbnailLoaded(String resourceFile);
+
+		/**
+		 * Called when the thumbnail of the given file has been evicted and
+		 * disposed. Clients must not use the image anymore.
+		 * 
+		 * @param resourceFile
+		 *            the file the thumbnail belongs to
+		 */
+		void thumbnailEvicted(String resourceFile);
+	}
+
+	private final Display display;
+	private final int width;
+	private final int height;
+	private final IThumbnailListener listener;
+	private final Map<String, Image> thumbnails;
+	private final Set<String> pending;
+	private final ExecutorService decoder;
+	private boolean disposed;
+
+	/**
+	 * Creates a new thumbnail cache.
+	 * 
+	 * @param display
+	 *            the display to create the images for
+	 * @param width
+	 *            the width of the thumbnails
+	 * @param height
+	 *            the height of the thumbnails
+	 * @param maxThumbnails
+	 *            the maximum number of thumbnails kept in the cache
+	 * @param listener
+	 *            the listener to notify
+	 */
+	public ThumbnailCache(Display display, int width, int height, final int maxThumbnails,
+			IThumbnailListener listener) {
+		this.display = display;
+		this.width = width;
+		this.height = height;
+		this.listener = listener;
+		this.pending = new HashSet<>();
+		this.thumbnails = new LinkedHashMap<String, Image>(maxThumbnails, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+				if (size() > maxThumbnails) {
+					evict(eldest.getKey(), eldest.getValue());
+				}
+				return size() > maxThumbnails;
+			}
+		};
+		this.decoder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "thumbnail-decoder");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Returns the thumbnail of the given file. If the thumbnail is not
+	 * available yet, it is decoded in the background and <code>null</code> is
+	 * returned. The listener is notified as soon as the thumbnail is loaded.
+	 * 
+	 * @param resourceFile
+	 *            the absolute filename of the resource
+	 * @return the thumbnail or <code>null</code> if not loaded yet
+	 */
+	public Image getThumbnail(final String resourceFile) {
+		Image thumbnail = thumbnails.get(resourceFile);
+		if (thumbnail != null || disposed || pending.contains(resourceFile)) {
+			return thumbnail;
+		}
+
+		pending.add(resourceFile);
+		try {
+			decoder.execute(new Runnable() {
+				@Override
+				public void run() {
+					final ImageData thumbnailData = decodeThumbnail(resourceFile);
+					if (display.isDisposed()) {
+						return;
+					}
+					display.asyncExec(new Runnable() {
+						@Override
+						public void run() {
+							addThumbnail(resourceFile, thumbnailData);
+						}
+					});
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			pending.remove(resourceFile);
+		}
+		return null;
+	}
+
+	/**
+	 * Cancels all pending requests.
+	 */
+	public void cancelPending() {
+		pending.clear();
+	}
+
+	/**
+	 * Disposes of all cached thumbnails and stops the background decoder.
+	 */
+	public void dispose() {
+		disposed = true;
+		decoder.shutdownNow();
+		for (Image image : thumbnails.values()) {
+			image.dispose();
+		}
+		thumbnails.clear();
+		pending.clear();
+	}
+
+	private ImageData decodeThumbnail(String resourceFile) {
+		if (!new File(resourceFile).exists()) {
+			return null;
+		}
+		try {
+			return ImageUtils.loadImageData(resourceFile).scaledTo(width, height);
+		} catch (SWTException e) {
+			LOGGER.debug("Cannot create thumbnail for {}: {}", resourceFile, e.getMessage());
+			return null;
+		}
+	}
+
+	private void addThumbnail(String resourceFile, ImageData thumbnailData) {
+		// ignore cancelled requests
+		if (disposed || !pending.remove(resourceFile) || thumbnailData == null) {
+			return;
+		}
+		thumbnails.put(resourceFile, new Image(display, thumbnailData));
+		listener.thumbnailLoaded(resourceFile);
+	}
+
+	private void evict(String resourceFile, Image image) {
+		listener.thumbnailEvicted(resourceFile);
+		image.dispose();
+	}
+
+}
@@ -18,6 +18,7 @@ package org.spotter.eclipse.ui.view;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -37,16 +38,20 @@ import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
-import org.eclipse.swt.widgets.List;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.TabFolder;
 import org.eclipse.swt.widgets.TabItem;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.ISelectionListener;
 import org.eclipse.ui.IWorkbenchPage;
@@ -54,7 +59,6 @@ import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.part.ViewPart;
-import org.lpe.common.util.LpeFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spotter.eclipse.ui.Activator;
@@ -68,7 +72,9 @@ import org.spotter.eclipse.ui.navigator.SpotterProjectRunResult;
 import org.spotter.eclipse.ui.providers.ResultExtensionsImageProvider;
 import org.spotter.eclipse.ui.providers.SpotterExtensionsLabelProvider;
 import org.spotter.eclipse.ui.util.DialogUtils;
+import org.spotter.eclipse.ui.util.ResultsContainerCache;
 import org.spotter.eclipse.ui.util.SpotterUtils;
+import org.spotter.eclipse.ui.util.ThumbnailCache;
 import org.spotter.eclipse.ui.util.WidgetUtils;
 import org.spotter.eclipse.ui.viewers.ExtensionsGroupViewer;
 import org.spotter.eclipse.ui.viewers.ResourceViewer;
@@ -92,6 +98,10 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	private static final String RESULTS_VIEW_TITLE = "Results";
 	private static final int RESOURCES_LIST_RATIO = 45;
 	private static final int RESOURCES_CANVAS_RATIO = 55;
+	private static final int THUMBNAIL_WIDTH = 48;
+	private static final int THUMBNAIL_HEIGHT = 32;
+	private static final int MAX_THUMBNAILS = 100;
+	private static final String[] NO_RESOURCES = new String[0];
 
 	private static final String RESULTS_CONTENT_DESC_TEMPLATE = "DynamicSpotter Run '%s' of project '%s'";
 	private static final String RESULTS_EMPTY_CONTENT_DESC = "None selected.";
@@ -123,8 +133,11 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	private Label lblStatus;
 	private Label lblDescription;
 	private Text textResult;
-	private List listResources;
+	private Table tableResources;
 	private ResourceViewer resourceViewer;
+	private ThumbnailCache thumbnailCache;
+	private String[] currentResources;
+	private String currentResourceFolder;
 
 	private ServiceClientWrapper client;
 	private SpotterProjectRunResult runResultItem;
@@ -138,6 +151,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 		this.client = null;
 		this.runResultItem = null;
 		this.extensionItemFactory = new ImmutableExtensionItemFactory(null);
+		this.currentResources = NO_RESOURCES;
 	}
 
 	@Override
@@ -213,6 +227,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	public void dispose() {
 		getViewSite().getPage().removePostSelectionListener(this);
 		resourceViewer.dispose();
+		thumbnailCache.dispose();
 	}
 
 	/**
@@ -264,6 +279,9 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	 *            match any
 	 */
 	public static void reset(IFolder folder) {
+		if (folder != null) {
+			ResultsContainerCache.getInstance().invalidate(new File(folder.getLocation().toString()));
+		}
 		for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
 			for (IWorkbenchPage page : window.getPages()) {
 				ResultsView resultsView = (ResultsView) page.findView(ResultsView.VIEW_ID);
@@ -286,7 +304,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 		SashForm container = new SashForm(parent, SWT.VERTICAL | SWT.SMOOTH);
 
 		hierarchyTreeViewer = ExtensionsGroupViewer.createTreeViewer(container,
-				extensionItemFactory.createExtensionItem(), null, false);
+				extensionItemFactory.createExtensionItem(), null, false, true);
 		SpotterExtensionsLabelProvider labelProvider = (SpotterExtensionsLabelProvider) hierarchyTreeViewer
 				.getLabelProvider();
 		imageProvider = new ResultExtensionsImageProvider();
@@ -351,8 +369,21 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 		grpResources.setLayout(new FillLayout(SWT.HORIZONTAL));
 		SashForm sashResources = new SashForm(grpResources, SWT.HORIZONTAL | SWT.SMOOTH);
 
-		listResources = new List(sashResources, SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL);
+		tableResources = new Table(sashResources, SWT.BORDER | SWT.SINGLE | SWT.FULL_SELECTION | SWT.H_SCROLL
+				| SWT.V_SCROLL | SWT.VIRTUAL);
 		resourceViewer = new ResourceViewer(sashResources);
+		thumbnailCache = new ThumbnailCache(tableResources.getDisplay(), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT,
+				MAX_THUMBNAILS, new ThumbnailCache.IThumbnailListener() {
+					@Override
+					public void thumbnailLoaded(String resourceFile) {
+						refreshResourceItem(resourceFile);
+					}
+
+					@Override
+					public void thumbnailEvicted(String resourceFile) {
+						refreshResourceItem(resourceFile);
+					}
+				});
 
 		sashResources.setWeights(new int[] { RESOURCES_LIST_RATIO, RESOURCES_CANVAS_RATIO });
 	}
@@ -383,15 +414,33 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 			}
 		});
 
-		listResources.addSelectionListener(new SelectionAdapter() {
+		tableResources.addListener(SWT.SetData, new Listener() {
+			@Override
+			public void handleEvent(Event event) {
+				// items of the virtual table are populated on demand
+				TableItem item = (TableItem) event.item;
+				int index = tableResources.indexOf(item);
+				if (index < 0 || index >= currentResources.length) {
+					return;
+				}
+				String resource = currentResources[index];
+				item.setText(resource);
+				Image thumbnail = thumbnailCache.getThumbnail(currentResourceFolder + resource);
+				if (thumbnail != null) {
+					item.setImage(thumbnail);
+				}
+			}
+		});
+
+		tableResources.addSelectionListener(new SelectionAdapter() {
 			@Override
 			public void widgetSelected(SelectionEvent event) {
-				if (listResources.getSelectionCount() == 0) {
+				int index = tableResources.getSelectionIndex();
+				if (index < 0 || index >= currentResources.length) {
 					resourceViewer.clear();
 				} else {
-					String selection = listResources.getSelection()[0];
-					String prefix = getCurrentResourceFolder();
-					String resourceFile = prefix + selection;
+					// the full-size image is only loaded when opened
+					String resourceFile = currentResourceFolder + currentResources[index];
 					resourceViewer.setResource(resourceFile, runResultItem.getProject().getName());
 				}
 			}
@@ -399,7 +448,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	}
 
 	private void updateProblemDetails() {
-		listResources.removeAll();
+		clearResourcesList();
 		resourceViewer.clear();
 
 		if (currentSelectedProblem == null) {
@@ -428,8 +477,29 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 	}
 
 	private void populateResourcesList(SpotterResult spotterResult) {
-		for (String resourceFile : spotterResult.getResourceFiles()) {
-			listResources.add(resourceFile);
+		List<String> resourceFiles = spotterResult.getResourceFiles();
+		currentResources = resourceFiles.toArray(new String[resourceFiles.size()]);
+		currentResourceFolder = getCurrentResourceFolder();
+		tableResources.setItemCount(currentResources.length);
+	}
+
+	private void clearResourcesList() {
+		thumbnailCache.cancelPending();
+		currentResources = NO_RESOURCES;
+		currentResourceFolder = null;
+		tableResources.removeAll();
+	}
+
+	private void refreshResourceItem(String resourceFile) {
+		if (tableResources.isDisposed() || currentResourceFolder == null) {
+			return;
+		}
+		for (int i = 0; i < currentResources.length; i++) {
+			if (resourceFile.equals(currentResourceFolder + currentResources[i])) {
+				// forces the virtual item to request its data again
+				tableResources.clear(i);
+				return;
+			}
 		}
 	}
 
@@ -519,7 +589,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 		lblDescription.setText("");
 		lblStatus.setText("");
 		textResult.setText("");
-		listResources.removeAll();
+		clearResourcesList();
 		resourceViewer.clear();
 	}
 
@@ -561,7 +631,7 @@ public class ResultsView extends ViewPart implements ISelectionListener {
 			if (!file.isSynchronized(IResource.DEPTH_ZERO)) {
 				file.refreshLocal(IResource.DEPTH_ZERO, null);
 			}
-			resultsContainer = (ResultsContainer) LpeFileUtils.readObject(containerFile);
+			resultsContainer = ResultsContainerCache.getInstance().get(containerFile);
 		} catch (CoreException e) {
 			errorMsg = ERR_MSG_RES_REFRESH;
 			exception = e;
@@ -272,6 +272,35 @@ public class ExtensionsGroupViewer implements IItemChangedListener {
 	 */
 	public static TreeViewer createTreeViewer(Composite parent, IExtensionItem input, AbstractExtensionsEditor editor,
 			boolean dragAndDropSupport) {
+		return createTreeViewer(parent, input, editor, dragAndDropSupport, false);
+	}
+
+	/**
+	 * Create a tree viewer under the given parent. Initializes the viewer with
+	 * the given input. Uses SpotterExtensionsContentProvider as content
+	 * provider and SpotterExtensionsLabelProvider as label provider.
+	 * 
+	 * @param parent
+	 *            The parent composite. Must not be <code>null</code>. It is
+	 *            recommended to use a {@link GridLayout} on the parent or at
+	 *            least a layout that has set the <i>fill flag</i>.
+	 * @param input
+	 *            The input of the viewer. Must not be <code>null</code>.
+	 * @param editor
+	 *            The underlying editor if any or <code>null</code>.
+	 * @param dragAndDropSupport
+	 *            Determines whether drag 'n drop is supported.
+	 * @param virtual
+	 *            Determines whether the tree is virtual, i.e. items are only
+	 *            materialized when they become visible.
+	 * 
+	 * @return the created table viewer
+	 * 
+	 * @see SpotterExtensionsContentProvider
+	 * @see SpotterExtensionsLabelProvider
+	 */
+	public static TreeViewer createTreeViewer(Composite parent, IExtensionItem input, AbstractExtensionsEditor editor,
+			boolean dragAndDropSupport, boolean virtual) {
 		if (parent == null) {
 			throw new IllegalArgumentException("parent must not be null");
 		}
@@ -286,11 +315,14 @@ public class ExtensionsGroupViewer implements IItemChangedListener {
 		TreeColumnLayout treeExtensionsColLayout = new TreeColumnLayout();
 		treeExtensionsComp.setLayout(treeExtensionsColLayout);
 		// create tree
-		Tree tree = new Tree(treeExtensionsComp, VIEWER_CONTROL_STYLE);
+		Tree tree = new Tree(treeExtensionsComp, virtual ? VIEWER_CONTROL_STYLE | SWT.VIRTUAL : VIEWER_CONTROL_STYLE);
 		tree.setHeaderVisible(false);
 		tree.setLinesVisible(false);
 		// create viewer for tree
 		TreeViewer treeViewer = new TreeViewer(tree);
+		if (virtual) {
+			treeViewer.setUseHashlookup(true);
+		}
 		ColumnViewerToolTipSupport.enableFor(treeViewer, ToolTip.NO_RECREATE);
 		TreeViewerColumn extensionsColumn = new TreeViewerColumn(treeViewer, SWT.NONE);
 		treeExtensionsColLayout.setColumnData(extensionsColumn.getColumn(), new ColumnWeightData(1));
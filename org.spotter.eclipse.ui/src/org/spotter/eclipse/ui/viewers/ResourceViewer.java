@@ -15,18 +15,17 @@
  */
 package org.spotter.eclipse.ui.viewers;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.ControlAdapter;
@@ -72,9 +71,7 @@ public class ResourceViewer {
 
 	private static final String NOT_AVAILABLE_IMG_TEXT = "not available";
 	private static final String DLG_RESOURCE_TITLE = "Resource '%s'%s";
-	private static final String PDF_EXTENSION = "pdf";
-	private static final int PDF_IMAGE_TYPE = BufferedImage.TYPE_INT_RGB;
-	private static final int PDF_VIEW_RESOLUTION = 96; // [dpi]
+	private static final String LOAD_JOB_NAME = "Loading resource";
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ResourceViewer.class);
 
@@ -85,6 +82,7 @@ public class ResourceViewer {
 	private Canvas canvas;
 	private ImageData resourceImageData;
 	private Image resourceImage;
+	private boolean loading;
 
 	/**
 	 * Creates a resource viewer under the given parent.
@@ -106,6 +104,7 @@ public class ResourceViewer {
 	public void clear() {
 		projectName = null;
 		resourceFile = null;
+		loading = false;
 		if (resourceImage != null) {
 			resourceImage.dispose();
 			resourceImage = null;
@@ -132,7 +131,8 @@ public class ResourceViewer {
 	}
 
 	/**
-	 * Sets the resource of the viewer.
+	 * Sets the resource of the viewer. The full-size image is decoded in the
+	 * background and shown as soon as it is available.
 	 * 
 	 * @param resourceFile
 	 *            the absolute filename of the file to display
@@ -148,84 +148,90 @@ public class ResourceViewer {
 		resourceImageData = null;
 		this.resourceFile = resourceFile;
 		this.projectName = projectName;
-		File file = new File(resourceFile);
+		canvas.setBackgroundImage(null);
+
 		int canvasWidth = canvas.getBounds().width;
 		int canvasHeight = canvas.getBounds().height;
 		boolean isCanvasVisible = canvasWidth > 0 && canvasHeight > 0;
 
 		if (isCanvasVisible) {
-			boolean loadSuccessful = false;
-			if (file.exists()) {
-				try {
-					resourceImageData = loadImageData(resourceFile);
-					int width = Math.min(canvasWidth, resourceImageData.width);
-					int height = Math.min(canvasHeight, resourceImageData.height);
-					resourceImage = new Image(canvas.getDisplay(), resourceImageData.scaledTo(width, height));
-					loadSuccessful = true;
-				} catch (SWTException e) {
-					String message = "Could not load the resource!";
-					String cause;
-					switch (e.code) {
-					case SWT.ERROR_IO:
-						cause = "I/O exception occured";
-						break;
-					case SWT.ERROR_INVALID_IMAGE:
-						cause = "Image file contains invalid data";
-						break;
-					case SWT.ERROR_UNSUPPORTED_FORMAT:
-						cause = "Image file contains an unsupported or unrecognized format";
-						break;
-					default:
-						cause = "unknown";
-						break;
+			loadResource(resourceFile);
+		}
+	}
+
+	private void loadResource(final String file) {
+		loading = true;
+		final Display display = canvas.getDisplay();
+		Job loadJob = new Job(LOAD_JOB_NAME) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				ImageData imageData = null;
+				SWTException error = null;
+				if (new File(file).exists()) {
+					try {
+						imageData = ImageUtils.loadImageData(file);
+					} catch (SWTException e) {
+						error = e;
 					}
-					DialogUtils.openError(DialogUtils.appendCause(message, cause, true));
-					LOGGER.error(DialogUtils.appendCause(message, cause, false), e);
 				}
-			}
-			if (!loadSuccessful) {
-				// draw "not available image" picture using GC
-				final Display display = canvas.getDisplay();
-				final Rectangle bounds = canvas.getBounds();
-				resourceImage = new Image(display, bounds);
-				drawNotAvailableImage(resourceImage, display, bounds);
-			}
-		}
 
-		canvas.setBackgroundImage(resourceImage);
+				final ImageData loadedData = imageData;
+				final SWTException loadError = error;
+				display.asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						// ignore outdated results
+						if (!canvas.isDisposed() && file.equals(resourceFile)) {
+							loading = false;
+							applyLoadedResource(loadedData, loadError);
+						}
+					}
+				});
+				return Status.OK_STATUS;
+			}
+		};
+		loadJob.setSystem(true);
+		loadJob.schedule();
 	}
 
-	private ImageData loadImageData(String resourceFile) {
-		File file = new File(resourceFile);
-		Path path = file.toPath().getFileName();
-		String name = path == null ? null : path.toString();
-		if (name == null) {
-			return new ImageData(resourceFile);
+	private void applyLoadedResource(ImageData imageData, SWTException error) {
+		if (error != null) {
+			handleLoadError(error);
 		}
-		int index = name.lastIndexOf('.');
-		String extension = index == -1 ? null : name.substring(index + 1);
-
-		if (PDF_EXTENSION.equalsIgnoreCase(extension)) {
-			return createImageDataFromPdf(resourceFile);
+		if (imageData != null) {
+			resourceImageData = imageData;
+			resizeCanvasImage();
 		} else {
-			return new ImageData(resourceFile);
+			// draw "not available image" picture using GC
+			final Display display = canvas.getDisplay();
+			final Rectangle bounds = canvas.getBounds();
+			if (bounds.width > 0 && bounds.height > 0) {
+				resourceImage = new Image(display, bounds);
+				drawNotAvailableImage(resourceImage, display, bounds);
+				canvas.setBackgroundImage(resourceImage);
+			}
 		}
 	}
 
-	// creates image data from the first page of the pdf file
-	private ImageData createImageDataFromPdf(String resourceFile) {
-		try {
-			PDDocument document = PDDocument.load(resourceFile);
-			@SuppressWarnings("unchecked")
-			List<PDPage> pages = document.getDocumentCatalog().getAllPages();
-			if (pages.isEmpty()) {
-				throw new SWTException(SWT.ERROR_INVALID_IMAGE);
-			}
-			BufferedImage bufferedImage = pages.get(0).convertToImage(PDF_IMAGE_TYPE, PDF_VIEW_RESOLUTION);
-			return ImageUtils.convertToImageData(bufferedImage);
-		} catch (IOException e) {
-			throw new SWTException(SWT.ERROR_IO);
+	private void handleLoadError(SWTException e) {
+		String message = "Could not load the resource!";
+		String cause;
+		switch (e.code) {
+		case SWT.ERROR_IO:
+			cause = "I/O exception occured";
+			break;
+		case SWT.ERROR_INVALID_IMAGE:
+			cause = "Image file contains invalid data";
+			break;
+		case SWT.ERROR_UNSUPPORTED_FORMAT:
+			cause = "Image file contains an unsupported or unrecognized format";
+			break;
+		default:
+			cause = "unknown";
+			break;
 		}
+		DialogUtils.openError(DialogUtils.appendCause(message, cause, true));
+		LOGGER.error(DialogUtils.appendCause(message, cause, false), e);
 	}
 
 	private void addCanvasListeners() {
@@ -267,7 +273,7 @@ public class ResourceViewer {
 	}
 
 	private void resizeCanvasImage() {
-		if (resourceFile == null) {
+		if (resourceFile == null || loading) {
 			return;
 		} else if (resourceImageData == null) {
 			setResource(resourceFile, projectName);
@@ -25,6 +25,7 @@ import org.lpe.common.extension.ExtensionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spotter.core.Spotter;
+import org.spotter.core.comparison.RunComparator;
 import org.spotter.exceptions.WorkloadException;
 
 /**
@@ -42,10 +43,18 @@ public final class SpotterRunner {
 
 	private static final String HELP_KEY = "-h";
 
+	private static final String RESUME_KEY = "resume=";
+
+	private static final String COMPARE_KEY = "compare=";
+
 	private static String rootDir = System.getProperty("user.dir");
 
 	private static boolean help = false;
 
+	private static Long resumeTimestamp = null;
+
+	private static String[] comparedRunFolders = null;
+
 	/**
 	 * Private constructor due to utility class.
 	 */
@@ -70,7 +79,11 @@ public final class SpotterRunner {
 
 			parseArgs(args);
 
-			if (args.length < 1 || help) {
+			if (comparedRunFolders != null && !help) {
+				GlobalConfiguration.initialize(new Properties());
+				RunComparator comparator = new RunComparator(comparedRunFolders[0], comparedRunFolders[1]);
+				LOGGER.info(comparator.compare().getReport());
+			} else if (args.length < 1 || help) {
 				LOGGER.error("Invalid value for 1st argument! Needs to be a path to the configuration file!");
 				printHelp();
 			} else {
@@ -84,7 +97,14 @@ public final class SpotterRunner {
 					coreProperties.setProperty(ExtensionRegistry.PLUGINS_FOLDER_PROPERTY_KEY, DEFAULT_PLUGINS_FOLDER);
 					GlobalConfiguration.initialize(coreProperties);
 
-					Spotter.getInstance().startDiagnosis(configFile.getAbsolutePath());
+					if (resumeTimestamp != null) {
+						Spotter.getInstance().resumeDiagnosis(configFile.getAbsolutePath(), resumeTimestamp);
+					} else {
+						long timestamp = System.currentTimeMillis();
+						LOGGER.info("Starting diagnosis run with timestamp {}. Use the option {}{} "
+								+ "to resume the run if it gets interrupted.", timestamp, RESUME_KEY, timestamp);
+						Spotter.getInstance().startDiagnosis(configFile.getAbsolutePath(), timestamp);
+					}
 				}
 			}
 
@@ -101,6 +121,12 @@ public final class SpotterRunner {
 		LOGGER.info(SPOTTER_ROOT_DIR_KEY
 				+ "<PATH_TO_SPOTTER_ROOT>: path to the root directory of spotter. "
 				+ "Specifies where the location of the plugins folder for DynamicSpotter. Default root is the current directory.");
+		LOGGER.info(RESUME_KEY
+				+ "<RUN_TIMESTAMP>: resumes the interrupted diagnosis run with the given timestamp "
+				+ "using the same configuration file.");
+		LOGGER.info(COMPARE_KEY
+				+ "<BASELINE_RUN_FOLDER>,<CANDIDATE_RUN_FOLDER>: compares the experiment data of two diagnosis runs "
+				+ "instead of running a diagnosis. The regression report is written to the candidate run folder.");
 	}
 
 	/**
@@ -118,6 +144,21 @@ public final class SpotterRunner {
 			if (arg.startsWith(HELP_KEY)) {
 				help = true;
 			}
+			if (arg.startsWith(RESUME_KEY)) {
+				try {
+					resumeTimestamp = Long.parseLong(arg.substring(RESUME_KEY.length()));
+				} catch (NumberFormatException e) {
+					LOGGER.error("Invalid run timestamp: {}", arg.substring(RESUME_KEY.length()));
+					help = true;
+				}
+			}
+			if (arg.startsWith(COMPARE_KEY)) {
+				comparedRunFolders = arg.substring(COMPARE_KEY.length()).split(",");
+				if (comparedRunFolders.length != 2) {
+					LOGGER.error("Invalid run folders to compare: {}", arg.substring(COMPARE_KEY.length()));
+					help = true;
+				}
+			}
 
 		}
 	}
@@ -23,38 +23,59 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.ws.rs.core.StreamingOutput;
 import javax.xml.bind.JAXBException;
 
 import org.lpe.common.config.ConfigParameterDescription;
+import org.lpe.common.config.GlobalConfiguration;
 import org.lpe.common.extension.ExtensionRegistry;
 import org.lpe.common.extension.Extensions;
 import org.lpe.common.extension.IExtension;
 import org.lpe.common.extension.IExtensionArtifact;
 import org.lpe.common.util.LpeFileUtils;
 import org.lpe.common.util.LpeStreamUtils;
+import org.lpe.common.util.system.LpeSystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spotter.core.AbstractSpotterSatelliteExtension;
 import org.spotter.core.Spotter;
+import org.spotter.core.comparison.RunComparator;
 import org.spotter.core.detection.AbstractDetectionExtension;
 import org.spotter.core.instrumentation.AbstractInstrumentationExtension;
 import org.spotter.core.measurement.AbstractMeasurmentExtension;
+import org.spotter.core.metrics.MetricsRegistry;
 import org.spotter.core.workload.AbstractWorkloadExtension;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.configuration.FileManager;
 import org.spotter.shared.configuration.JobDescription;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
+import org.spotter.shared.environment.model.XReplicaGroup;
 import org.spotter.shared.hierarchy.model.RawHierarchyFactory;
 import org.spotter.shared.hierarchy.model.XPerformanceProblem;
 import org.spotter.shared.result.ResultsLocationConstants;
+import org.spotter.shared.service.ExtensionCatalogue;
+import org.spotter.shared.service.SatelliteConnectionStatus;
+import org.spotter.shared.service.SatelliteConnectionStatus.State;
 import org.spotter.shared.status.SpotterProgress;
 
 /**
@@ -101,6 +122,10 @@ public class SpotterServiceWrapper {
 	private long currentJob;
 	private JobState currentJobState = JobState.FINISHED;
 
+	// metadata responses memoised for the currently loaded set of extensions
+	private final Map<String, Object> metadataCache = new HashMap<>();
+	private String metadataCacheVersion;
+
 	/**
 	 * Executes diagnostics process.
 	 * 
@@ -115,7 +140,41 @@ public class SpotterServiceWrapper {
 			return 0;
 		}
 		final long tempJobId = System.currentTimeMillis();
-		currentJob = tempJobId;
+		submitJob(tempJobId, jobDescription);
+		return tempJobId;
+	}
+
+	/**
+	 * Resumes an interrupted diagnosis run.
+	 * 
+	 * @param jobId
+	 *            the job id of the interrupted diagnosis run
+	 * @return job id of the resumed diagnosis task, 0 if currently a diagnosis
+	 *         job is already running
+	 */
+	public synchronized long resumeDiagnosis(long jobId) {
+		if (getState().equals(JobState.RUNNING)) {
+			return 0;
+		}
+		String configurationFile = getRuntimeLocation() + "/" + jobId + "/" + FileManager.SPOTTER_CONFIG_FILENAME;
+		if (!new File(configurationFile).exists()) {
+			throw new IllegalArgumentException("No diagnosis run with job id " + jobId + " found!");
+		}
+		submitJob(jobId, null);
+		return jobId;
+	}
+
+	/**
+	 * Submits a diagnosis job.
+	 * 
+	 * @param jobId
+	 *            the job id of the diagnosis
+	 * @param jobDescription
+	 *            job description of a new run, <code>null</code> to resume the
+	 *            run with the given job id
+	 */
+	private void submitJob(final long jobId, final JobDescription jobDescription) {
+		currentJob = jobId;
 		currentJobState = JobState.RUNNING;
 
 		futureObject = executor.submit(new Runnable() {
@@ -123,8 +182,15 @@ public class SpotterServiceWrapper {
 			@Override
 			public void run() {
 				try {
-					String configurationFile = createDynamicSpotterConfiguration(tempJobId, jobDescription);
-					Spotter.getInstance().startDiagnosis(configurationFile, tempJobId);
+					if (jobDescription == null) {
+						String configurationFile = getRuntimeLocation() + "/" + jobId + "/"
+								+ FileManager.SPOTTER_CONFIG_FILENAME;
+						LOGGER.info("Resuming diagnosis run #" + jobId);
+						Spotter.getInstance().resumeDiagnosis(configurationFile, jobId);
+					} else {
+						String configurationFile = createDynamicSpotterConfiguration(jobId, jobDescription);
+						Spotter.getInstance().startDiagnosis(configurationFile, jobId);
+					}
 					currentJobState = JobState.FINISHED;
 				} catch (Throwable e) {
 					LOGGER.error("Diagnosis failed!", e);
@@ -137,7 +203,6 @@ public class SpotterServiceWrapper {
 
 			}
 		});
-		return tempJobId;
 	}
 
 	/**
@@ -166,6 +231,45 @@ public class SpotterServiceWrapper {
 		return null;
 	}
 
+	/**
+	 * Compares the experiment data of two diagnosis runs. The regression
+	 * report and the diff results are stored in the result folder of the
+	 * candidate run.
+	 * 
+	 * @param baselineJobId
+	 *            job id of the baseline run
+	 * @param candidateJobId
+	 *            job id of the run to compare with the baseline
+	 * @return the regression report
+	 */
+	public String compareRuns(String baselineJobId, String candidateJobId) {
+		File baselineFolder = findRunFolder(baselineJobId);
+		File candidateFolder = findRunFolder(candidateJobId);
+		String report = new RunComparator(baselineFolder.getAbsolutePath(), candidateFolder.getAbsolutePath())
+				.compare().getReport();
+
+		// the packed results of the candidate run do not contain the comparison
+		File zipFile = new File(candidateFolder.getAbsolutePath() + ZIP_FILE_EXTENSION);
+		if (zipFile.exists() && !zipFile.delete()) {
+			LOGGER.warn("Failed removing outdated results archive {}.", zipFile);
+		}
+		return report;
+	}
+
+	private File findRunFolder(String jobId) {
+		File resultsDir = new File(getRuntimeLocation() + "/" + jobId + "/" + FileManager.DEFAULT_RESULTS_DIR_NAME);
+		File[] subdirs = resultsDir.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File pathname) {
+				return pathname.isDirectory();
+			}
+		});
+		if (subdirs == null || subdirs.length != 1) {
+			throw new IllegalArgumentException("No results of the diagnosis run with job id " + jobId + " found!");
+		}
+		return subdirs[0];
+	}
+
 	/**
 	 * Returns the current state of the last issued job.
 	 * 
@@ -197,6 +301,16 @@ public class SpotterServiceWrapper {
 		return Spotter.getInstance().getProgress();
 	}
 
+	/**
+	 * Returns the internal metrics of DynamicSpotter in the Prometheus text
+	 * exposition format.
+	 * 
+	 * @return metrics as text
+	 */
+	public String getMetrics() {
+		return MetricsRegistry.getInstance().toPrometheusText();
+	}
+
 	/**
 	 * Returns the id of the currently running job.
 	 * 
@@ -220,8 +334,15 @@ public class SpotterServiceWrapper {
 	 * @return list of configuration parameter descriptions for Spotter
 	 *         configuration.
 	 */
+	@SuppressWarnings("unchecked")
 	public synchronized Set<ConfigParameterDescription> getConfigurationParameters() {
-		return ConfigKeys.getSpotterConfigParamters();
+		String cacheKey = ConfigKeys.SPOTTER_REST_CONFIG_PARAMS;
+		Set<ConfigParameterDescription> parameters = (Set<ConfigParameterDescription>) getCachedMetadata(cacheKey);
+		if (parameters == null) {
+			parameters = Collections.unmodifiableSet(ConfigKeys.getSpotterConfigParamters());
+			cacheMetadata(cacheKey, parameters);
+		}
+		return parameters;
 	}
 
 	/**
@@ -231,7 +352,22 @@ public class SpotterServiceWrapper {
 	 *            extension type of interest
 	 * @return list of names
 	 */
+	@SuppressWarnings("unchecked")
 	public Set<String> getAvailableExtensions(SpotterExtensionType extType) {
+		String cacheKey = ConfigKeys.SPOTTER_REST_EXTENSIONS + "/" + extType;
+		Set<String> extensionNames = (Set<String>) getCachedMetadata(cacheKey);
+		if (extensionNames == null) {
+			extensionNames = new HashSet<>();
+			for (IExtension<? extends IExtensionArtifact> ext : getExtensions(extType)) {
+				extensionNames.add(ext.getName());
+			}
+			extensionNames = Collections.unmodifiableSet(extensionNames);
+			cacheMetadata(cacheKey, extensionNames);
+		}
+		return extensionNames;
+	}
+
+	private List<? extends IExtension<? extends IExtensionArtifact>> getExtensions(SpotterExtensionType extType) {
 		Class<? extends IExtension<? extends IExtensionArtifact>> extClass = null;
 		switch (extType) {
 		case DETECTION_EXTENSION:
@@ -252,11 +388,7 @@ public class SpotterServiceWrapper {
 		}
 		Extensions<? extends IExtension<? extends IExtensionArtifact>> extensions = ExtensionRegistry.getSingleton()
 				.getExtensions(extClass);
-		Set<String> extensionNames = new HashSet<>();
-		for (IExtension<? extends IExtensionArtifact> ext : extensions.getList()) {
-			extensionNames.add(ext.getName());
-		}
-		return extensionNames;
+		return extensions.getList();
 	}
 
 	/**
@@ -267,21 +399,114 @@ public class SpotterServiceWrapper {
 	 *            name of the extension of interest
 	 * @return list of configuration parameters
 	 */
+	@SuppressWarnings("unchecked")
 	public Set<ConfigParameterDescription> getExtensionConfigParamters(String extName) {
-		IExtension<? extends IExtensionArtifact> extension = ExtensionRegistry.getSingleton().getExtension(extName);
-		if (extension == null) {
-			return null;
+		String cacheKey = ConfigKeys.SPOTTER_REST_EXTENSION_PARAMETERS + "/" + extName;
+		Set<ConfigParameterDescription> parameters = (Set<ConfigParameterDescription>) getCachedMetadata(cacheKey);
+		if (parameters == null) {
+			IExtension<? extends IExtensionArtifact> extension = ExtensionRegistry.getSingleton()
+					.getExtension(extName);
+			if (extension == null) {
+				return null;
+			}
+			parameters = Collections.unmodifiableSet(extension.getConfigParameters());
+			cacheMetadata(cacheKey, parameters);
 		}
-		return extension.getConfigParameters();
+		return parameters;
 	}
 
 	/**
-	 * Returns the default hierarchy.
+	 * Returns the default hierarchy. The returned hierarchy is shared between
+	 * the callers and must not be modified.
 	 * 
 	 * @return default hierarchy
 	 */
 	public XPerformanceProblem getDefaultHierarchy() {
-		return RawHierarchyFactory.getInstance().createProblemHierarchyRoot();
+		String cacheKey = ConfigKeys.SPOTTER_REST_DEFAULT_HIERARCHY;
+		XPerformanceProblem root = (XPerformanceProblem) getCachedMetadata(cacheKey);
+		if (root == null) {
+			root = RawHierarchyFactory.getInstance().createProblemHierarchyRoot();
+			cacheMetadata(cacheKey, root);
+		}
+		return root;
+	}
+
+	/**
+	 * Returns all metadata required for configuring Dynamic Spotter at once.
+	 * 
+	 * @return the extension catalogue
+	 */
+	public ExtensionCatalogue getExtensionCatalogue() {
+		String cacheKey = ConfigKeys.SPOTTER_REST_EXTENSION_CATALOGUE;
+		ExtensionCatalogue catalogue = (ExtensionCatalogue) getCachedMetadata(cacheKey);
+		if (catalogue == null) {
+			catalogue = new ExtensionCatalogue();
+			catalogue.setVersion(getMetadataVersion());
+			catalogue.setConfigurationParameters(getConfigurationParameters());
+			for (SpotterExtensionType extType : SpotterExtensionType.values()) {
+				Set<String> extensionNames = getAvailableExtensions(extType);
+				catalogue.addExtensionNames(extType, extensionNames);
+				for (String extName : extensionNames) {
+					catalogue.addExtensionParameters(extName, getExtensionConfigParamters(extName));
+				}
+			}
+			catalogue.setDefaultHierarchy(getDefaultHierarchy());
+			cacheMetadata(cacheKey, catalogue);
+		}
+		return catalogue;
+	}
+
+	/**
+	 * Returns the version of the metadata provided by this service. The
+	 * version is derived from the set of loaded extensions and changes
+	 * whenever an extension is added or removed.
+	 * 
+	 * @return version of the metadata
+	 */
+	public String getMetadataVersion() {
+		List<String> extensionKeys = new ArrayList<>();
+		for (SpotterExtensionType extType : SpotterExtensionType.values()) {
+			for (IExtension<? extends IExtensionArtifact> ext : getExtensions(extType)) {
+				extensionKeys.add(extType + ":" + ext.getName() + ":" + ext.getClass().getName());
+			}
+		}
+		Collections.sort(extensionKeys);
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (String key : extensionKeys) {
+				digest.update(key.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			StringBuilder version = new StringBuilder();
+			for (byte b : digest.digest()) {
+				version.append(String.format("%02x", b));
+			}
+			return version.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns the memoised metadata for the given key. The memoised metadata
+	 * is dropped as soon as the set of loaded extensions changes.
+	 * 
+	 * @param key
+	 *            key of the metadata
+	 * @return the memoised metadata or <code>null</code> if none
+	 */
+	private synchronized Object getCachedMetadata(String key) {
+		String version = getMetadataVersion();
+		if (!version.equals(metadataCacheVersion)) {
+			metadataCache.clear();
+			metadataCacheVersion = version;
+		}
+		return metadataCache.get(key);
+	}
+
+	private synchronized void cacheMetadata(String key, Object metadata) {
+		metadataCache.put(key, metadata);
 	}
 
 	/**
@@ -308,6 +533,126 @@ public class SpotterServiceWrapper {
 		return false;
 	}
 
+	/**
+	 * Tests the connections to all satellites of the given measurement
+	 * environment concurrently. Each test is bounded by the connection test
+	 * timeout, so a few unreachable satellites do not delay the result.
+	 * 
+	 * @param environment
+	 *            measurement environment describing the satellites
+	 * @return connection status for each satellite in the order of the
+	 *         instrumentation, measurement and workload satellites, followed
+	 *         by the satellites of the replica groups
+	 */
+	public List<SatelliteConnectionStatus> testConnectionsToSatellites(XMeasurementEnvironment environment) {
+		List<XMeasurementEnvObject> envObjects = new ArrayList<>();
+		addEnvironmentObjects(envObjects, environment.getInstrumentationController());
+		addEnvironmentObjects(envObjects, environment.getMeasurementController());
+		addEnvironmentObjects(envObjects, environment.getWorkloadAdapter());
+		if (environment.getReplicaGroup() != null) {
+			for (XReplicaGroup replicaGroup : environment.getReplicaGroup()) {
+				addEnvironmentObjects(envObjects, replicaGroup.getInstrumentationController());
+				addEnvironmentObjects(envObjects, replicaGroup.getMeasurementController());
+				addEnvironmentObjects(envObjects, replicaGroup.getWorkloadAdapter());
+			}
+		}
+
+		List<SatelliteProbe> probes = new ArrayList<>();
+		List<Future<?>> tasks = new ArrayList<>();
+		for (XMeasurementEnvObject envObject : envObjects) {
+			SatelliteProbe probe = new SatelliteProbe(envObject.getExtensionName(), getConfigValue(envObject,
+					ConfigKeys.SATELLITE_HOST_KEY), getConfigValue(envObject, ConfigKeys.SATELLITE_PORT_KEY));
+			probes.add(probe);
+			tasks.add(LpeSystemUtils.submitTask(probe));
+		}
+
+		long timeout = GlobalConfiguration.getInstance().getPropertyAsLong(
+				ConfigKeys.SATELLITE_CONNECTION_TEST_TIMEOUT, ConfigKeys.DEFAULT_SATELLITE_CONNECTION_TEST_TIMEOUT);
+		long deadline = System.currentTimeMillis() + timeout;
+		List<SatelliteConnectionStatus> result = new ArrayList<>();
+		for (int i = 0; i < probes.size(); i++) {
+			SatelliteProbe probe = probes.get(i);
+			SatelliteConnectionStatus status = new SatelliteConnectionStatus(probe.extensionName, probe.host,
+					probe.port);
+			try {
+				tasks.get(i).get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				status.setState(probe.state);
+				status.setLatency(probe.latency);
+				status.setErrorMessage(probe.errorMessage);
+			} catch (TimeoutException e) {
+				tasks.get(i).cancel(true);
+				status.setState(State.TIMEOUT);
+				status.setLatency(timeout);
+				status.setErrorMessage("No answer within " + timeout + " ms.");
+			} catch (InterruptedException e) {
+				// the remaining probes are reported as not connected
+				Thread.currentThread().interrupt();
+				tasks.get(i).cancel(true);
+				status.setState(State.NOT_CONNECTED);
+				status.setErrorMessage("Connection test has been interrupted.");
+			} catch (ExecutionException e) {
+				status.setState(State.NOT_CONNECTED);
+				status.setErrorMessage(e.getMessage());
+			}
+			result.add(status);
+		}
+		return result;
+	}
+
+	private void addEnvironmentObjects(List<XMeasurementEnvObject> envObjects, List<XMeasurementEnvObject> toAdd) {
+		if (toAdd != null) {
+			envObjects.addAll(toAdd);
+		}
+	}
+
+	private String getConfigValue(XMeasurementEnvObject envObject, String key) {
+		if (envObject.getConfig() != null) {
+			for (XMConfiguration config : envObject.getConfig()) {
+				if (key.equals(config.getKey())) {
+					return config.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Tests the connection to a single satellite.
+	 */
+	private static class SatelliteProbe implements Runnable {
+		private final String extensionName;
+		private final String host;
+		private final String port;
+		private volatile State state;
+		private volatile long latency;
+		private volatile String errorMessage;
+
+		SatelliteProbe(String extensionName, String host, String port) {
+			this.extensionName = extensionName;
+			this.host = host;
+			this.port = port;
+		}
+
+		@Override
+		public void run() {
+			IExtension<? extends IExtensionArtifact> extension = ExtensionRegistry.getSingleton().getExtension(
+					extensionName);
+			if (!(extension instanceof AbstractSpotterSatelliteExtension)) {
+				state = State.NO_SATELLITE;
+				return;
+			}
+			long start = System.nanoTime();
+			boolean connected = false;
+			try {
+				connected = ((AbstractSpotterSatelliteExtension) extension).testConnection(host, port);
+			} catch (RuntimeException e) {
+				errorMessage = e.getMessage();
+			}
+			latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			state = connected ? State.CONNECTED : State.NOT_CONNECTED;
+		}
+	}
+
 	/**
 	 * Creates necessary configuration files for the diagnosis from the given
 	 * job description.
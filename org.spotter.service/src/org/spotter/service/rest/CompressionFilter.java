@@ -0,0 +1,40 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.service.rest;
+
+import com.sun.jersey.api.container.filter.GZIPContentEncodingFilter;
+import com.sun.jersey.spi.container.ContainerRequestFilter;
+import com.sun.jersey.spi.container.ContainerResponseFilter;
+import com.sun.jersey.spi.container.ResourceFilter;
+
+/**
+ * Compresses the response of a resource method with gzip if the client
+ * accepts this encoding.
+ */
+public class CompressionFilter implements ResourceFilter {
+
+	private final GZIPContentEncodingFilter gzipFilter = new GZIPContentEncodingFilter();
+
+	@Override
+	public ContainerRequestFilter getRequestFilter() {
+		return gzipFilter;
+	}
+
+	@Override
+	public ContainerResponseFilter getResponseFilter() {
+		return gzipFilter;
+	}
+}
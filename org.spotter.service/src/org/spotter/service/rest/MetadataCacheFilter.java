@@ -0,0 +1,75 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.service.rest;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.spotter.service.SpotterServiceWrapper;
+import org.spotter.shared.service.ResponseStatus;
+import org.spotter.shared.service.SpotterServiceResponse;
+
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerRequestFilter;
+import com.sun.jersey.spi.container.ContainerResponse;
+import com.sun.jersey.spi.container.ContainerResponseFilter;
+import com.sun.jersey.spi.container.ResourceFilter;
+
+/**
+ * Validates requests for metadata which only depends on the loaded extensions
+ * (configuration parameters, extensions, default hierarchy). Responses are
+ * tagged with the metadata version as ETag. Requests whose
+ * <code>If-None-Match</code> header matches the current version are answered
+ * with <code>304 Not Modified</code> without invoking the resource method.
+ */
+public class MetadataCacheFilter implements ResourceFilter, ContainerRequestFilter, ContainerResponseFilter {
+
+	@Override
+	public ContainerRequest filter(ContainerRequest request) {
+		EntityTag eTag = getCurrentTag();
+		ResponseBuilder notModified = request.evaluatePreconditions(eTag);
+		if (notModified != null) {
+			throw new WebApplicationException(notModified.tag(eTag).build());
+		}
+		return request;
+	}
+
+	@Override
+	public ContainerResponse filter(ContainerRequest request, ContainerResponse response) {
+		Object entity = response.getEntity();
+		if (entity instanceof SpotterServiceResponse
+				&& ((SpotterServiceResponse<?>) entity).getStatus() == ResponseStatus.OK) {
+			response.getHttpHeaders().putSingle(HttpHeaders.ETAG, getCurrentTag());
+		}
+		return response;
+	}
+
+	@Override
+	public ContainerRequestFilter getRequestFilter() {
+		return this;
+	}
+
+	@Override
+	public ContainerResponseFilter getResponseFilter() {
+		return this;
+	}
+
+	private EntityTag getCurrentTag() {
+		return new EntityTag(SpotterServiceWrapper.getInstance().getMetadataVersion());
+	}
+}
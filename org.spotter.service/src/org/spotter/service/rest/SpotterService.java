@@ -16,6 +16,7 @@
 package org.spotter.service.rest;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
@@ -35,11 +36,15 @@ import org.spotter.service.SpotterServiceWrapper;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.configuration.JobDescription;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
 import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+import org.spotter.shared.service.ExtensionCatalogue;
 import org.spotter.shared.service.ResponseStatus;
+import org.spotter.shared.service.SatelliteConnectionStatus;
 import org.spotter.shared.service.SpotterServiceResponse;
 import org.spotter.shared.status.SpotterProgress;
 
+import com.sun.jersey.spi.container.ResourceFilters;
 import com.sun.jersey.spi.resource.Singleton;
 
 /**
@@ -52,6 +57,7 @@ import com.sun.jersey.spi.resource.Singleton;
 public class SpotterService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SpotterService.class);
+	private static final String PROMETHEUS_TEXT_FORMAT = "text/plain; version=0.0.4";
 
 	/**
 	 * Starts Dynamic Spotter diagnosis.
@@ -80,6 +86,54 @@ public class SpotterService {
 		}
 	}
 
+	/**
+	 * Resumes an interrupted Dynamic Spotter diagnosis. Problems analyzed before
+	 * the interruption are not examined again, stored experiment data is
+	 * reused.
+	 * 
+	 * @param jobId
+	 *            the job id of the interrupted diagnosis run
+	 * @return job id, 0 if already running
+	 */
+	@POST
+	@Path(ConfigKeys.SPOTTER_REST_RESUME_DIAG)
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SpotterServiceResponse<Long> resumeDiagnosis(String jobId) {
+		try {
+			long resumedJobId = SpotterServiceWrapper.getInstance().resumeDiagnosis(Long.parseLong(jobId));
+			if (resumedJobId == 0) {
+				return new SpotterServiceResponse<Long>(resumedJobId, ResponseStatus.INVALID_STATE);
+			} else {
+				return new SpotterServiceResponse<Long>(resumedJobId, ResponseStatus.OK);
+			}
+		} catch (Exception e) {
+			return createErrorResponse(e);
+		}
+	}
+
+	/**
+	 * Compares the experiment data of two diagnosis runs.
+	 * 
+	 * @param baselineJobId
+	 *            job id of the baseline run
+	 * @param candidateJobId
+	 *            job id of the run to compare with the baseline
+	 * @return the regression report
+	 */
+	@POST
+	@Path(ConfigKeys.SPOTTER_REST_COMPARE_RUNS + "/{baselineJobId}/{candidateJobId}")
+	@Produces(MediaType.APPLICATION_JSON)
+	public SpotterServiceResponse<String> compareRuns(@PathParam("baselineJobId") String baselineJobId,
+			@PathParam("candidateJobId") String candidateJobId) {
+		try {
+			String report = SpotterServiceWrapper.getInstance().compareRuns(baselineJobId, candidateJobId);
+			return new SpotterServiceResponse<String>(report, ResponseStatus.OK);
+		} catch (Exception e) {
+			return createErrorResponse(e);
+		}
+	}
+
 	/**
 	 * Retrieves results from a Dynamic Spotter diagnosis that matches the given
 	 * job id.
@@ -170,6 +224,7 @@ public class SpotterService {
 	@GET
 	@Path(ConfigKeys.SPOTTER_REST_CONFIG_PARAMS)
 	@Produces(MediaType.APPLICATION_JSON)
+	@ResourceFilters(MetadataCacheFilter.class)
 	public SpotterServiceResponse<Set<ConfigParameterDescription>> getConfigurationParameters() {
 		try {
 			Set<ConfigParameterDescription> set = SpotterServiceWrapper.getInstance().getConfigurationParameters();
@@ -189,6 +244,7 @@ public class SpotterService {
 	@GET
 	@Path(ConfigKeys.SPOTTER_REST_EXTENSIONS + "/{extType}")
 	@Produces(MediaType.APPLICATION_JSON)
+	@ResourceFilters(MetadataCacheFilter.class)
 	public SpotterServiceResponse<Set<String>> getAvailableExtensions(@PathParam("extType") String extType) {
 		try {
 			SpotterExtensionType type = SpotterExtensionType.valueOf(extType);
@@ -210,6 +266,7 @@ public class SpotterService {
 	@GET
 	@Path(ConfigKeys.SPOTTER_REST_EXTENSION_PARAMETERS + "/{extName}")
 	@Produces(MediaType.APPLICATION_JSON)
+	@ResourceFilters(MetadataCacheFilter.class)
 	public SpotterServiceResponse<Set<ConfigParameterDescription>> getExtensionConfigParamters(
 			@PathParam("extName") String extName) {
 
@@ -230,6 +287,7 @@ public class SpotterService {
 	@GET
 	@Path(ConfigKeys.SPOTTER_REST_DEFAULT_HIERARCHY)
 	@Produces(MediaType.APPLICATION_JSON)
+	@ResourceFilters(MetadataCacheFilter.class)
 	public SpotterServiceResponse<XPerformanceProblem> getDefaultHierarchy() {
 		try {
 			XPerformanceProblem root = SpotterServiceWrapper.getInstance().getDefaultHierarchy();
@@ -239,6 +297,27 @@ public class SpotterService {
 		}
 	}
 
+	/**
+	 * Returns all metadata required for configuring Dynamic Spotter at once:
+	 * the configuration parameters, the available extensions with their
+	 * configuration parameters and the default hierarchy. The response is
+	 * compressed if the client accepts gzip encoding.
+	 * 
+	 * @return the extension catalogue
+	 */
+	@GET
+	@Path(ConfigKeys.SPOTTER_REST_EXTENSION_CATALOGUE)
+	@Produces(MediaType.APPLICATION_JSON)
+	@ResourceFilters({ MetadataCacheFilter.class, CompressionFilter.class })
+	public SpotterServiceResponse<ExtensionCatalogue> getExtensionCatalogue() {
+		try {
+			ExtensionCatalogue catalogue = SpotterServiceWrapper.getInstance().getExtensionCatalogue();
+			return new SpotterServiceResponse<ExtensionCatalogue>(catalogue, ResponseStatus.OK);
+		} catch (Exception e) {
+			return createErrorResponse(e);
+		}
+	}
+
 	/**
 	 * Returns a report on the progress of the current job.
 	 * 
@@ -315,6 +394,29 @@ public class SpotterService {
 		}
 	}
 
+	/**
+	 * Tests the connections to all satellites of the given measurement
+	 * environment concurrently.
+	 * 
+	 * @param environment
+	 *            measurement environment describing the satellites
+	 * @return connection status including the latency for each satellite
+	 */
+	@POST
+	@Path(ConfigKeys.SPOTTER_REST_TEST_SATELLITE_CONNECTIONS)
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public SpotterServiceResponse<List<SatelliteConnectionStatus>> testConnectionsToSatellites(
+			XMeasurementEnvironment environment) {
+		try {
+			List<SatelliteConnectionStatus> result = SpotterServiceWrapper.getInstance().testConnectionsToSatellites(
+					environment);
+			return new SpotterServiceResponse<List<SatelliteConnectionStatus>>(result, ResponseStatus.OK);
+		} catch (Exception e) {
+			return createErrorResponse(e);
+		}
+	}
+
 	/**
 	 * Tests connection to the Spotter service.
 	 * 
@@ -327,6 +429,19 @@ public class SpotterService {
 		return new SpotterServiceResponse<Boolean>(true, ResponseStatus.OK);
 	}
 
+	/**
+	 * Returns the internal metrics of DynamicSpotter, e.g. to be scraped by
+	 * Prometheus.
+	 * 
+	 * @return metrics in the Prometheus text exposition format
+	 */
+	@GET
+	@Path(ConfigKeys.SPOTTER_REST_METRICS)
+	@Produces(PROMETHEUS_TEXT_FORMAT)
+	public String getMetrics() {
+		return SpotterServiceWrapper.getInstance().getMetrics();
+	}
+
 	private <T> SpotterServiceResponse<T> createErrorResponse(Exception e) {
 		SpotterServiceResponse<T> response = new SpotterServiceResponse<T>(null, ResponseStatus.SERVER_ERROR);
 		LOGGER.error("Server error: " + e);
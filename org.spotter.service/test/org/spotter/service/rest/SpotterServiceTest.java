@@ -17,6 +17,8 @@ package org.spotter.service.rest;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
@@ -33,7 +35,11 @@ import org.lpe.common.util.LpeFileUtils;
 import org.spotter.service.rest.dummy.DummyWorkloadExtension;
 import org.spotter.shared.configuration.ConfigKeys;
 import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.environment.model.XMConfiguration;
+import org.spotter.shared.environment.model.XMeasurementEnvObject;
+import org.spotter.shared.environment.model.XMeasurementEnvironment;
 import org.spotter.shared.service.ResponseStatus;
+import org.spotter.shared.service.SatelliteConnectionStatus;
 import org.spotter.shared.service.SpotterServiceResponse;
 import org.spotter.shared.status.SpotterProgress;
 
@@ -245,4 +251,41 @@ public class SpotterServiceTest {
 		Assert.assertEquals(ResponseStatus.OK, rb.getStatus());
 		Assert.assertEquals(true, rb.getPayload().booleanValue());
 	}
+
+	/**
+	 * Tests the {@link SpotterService#testConnectionsToSatellites(XMeasurementEnvironment)} method.
+	 */
+	@Test
+	public void testTestConnectionsToSatellites() {
+		registerExtension();
+
+		List<XMeasurementEnvObject> workloadAdapters = new ArrayList<>();
+		workloadAdapters.add(createEnvObject("DummyWorkload"));
+		workloadAdapters.add(createEnvObject("UnknownExtension"));
+		XMeasurementEnvironment environment = new XMeasurementEnvironment();
+		environment.setWorkloadAdapter(workloadAdapters);
+
+		SpotterServiceResponse<List<SatelliteConnectionStatus>> response = ss.testConnectionsToSatellites(environment);
+		Assert.assertEquals(ResponseStatus.OK, response.getStatus());
+		Assert.assertEquals(2, response.getPayload().size());
+		Assert.assertEquals(SatelliteConnectionStatus.State.CONNECTED, response.getPayload().get(0).getState());
+		Assert.assertEquals(SatelliteConnectionStatus.State.NO_SATELLITE, response.getPayload().get(1).getState());
+	}
+
+	private XMeasurementEnvObject createEnvObject(String extensionName) {
+		List<XMConfiguration> config = new ArrayList<>();
+		config.add(createConfig(ConfigKeys.SATELLITE_HOST_KEY, "localhost"));
+		config.add(createConfig(ConfigKeys.SATELLITE_PORT_KEY, "8080"));
+		XMeasurementEnvObject envObject = new XMeasurementEnvObject();
+		envObject.setExtensionName(extensionName);
+		envObject.setConfig(config);
+		return envObject;
+	}
+
+	private XMConfiguration createConfig(String key, String value) {
+		XMConfiguration config = new XMConfiguration();
+		config.setKey(key);
+		config.setValue(value);
+		return config;
+	}
 }
@@ -73,6 +73,199 @@ public final class ConfigKeys {
 	public static final String CHART_BUILDER_XCHART = "XChart";
 	public static final String CHART_BUILDER_RCHART = "R Charts";
 
+	/**
+	 * Number of points (roughly the number of pixel columns) a chart series is
+	 * reduced to before rendering. A value of 0 disables downsampling.
+	 */
+	public static final String CHART_TARGET_RESOLUTION = "chart.targetResolution";
+	public static final int DEFAULT_CHART_TARGET_RESOLUTION = 800;
+
+	/**
+	 * If true, the original data of downsampled chart series is exported as
+	 * CSV files next to the chart.
+	 */
+	public static final String CHART_EXPORT_RAW_DATA = "chart.exportRawData";
+
+	/**
+	 * Number of threads rendering charts in parallel to the analysis.
+	 */
+	public static final String CHART_RENDERING_THREADS = "chart.rendering.threads";
+	public static final int DEFAULT_CHART_RENDERING_THREADS = 2;
+
+	/**
+	 * Maximum number of charts rendered per diagnosis run. A value of 0 means
+	 * no limit.
+	 */
+	public static final String CHART_MAX_COUNT_PER_RUN = "chart.maxCountPerRun";
+
+	/**
+	 * Maximum accumulated size in [MB] of chart files rendered per diagnosis
+	 * run. A value of 0 means no limit. Soft limit, as the size of charts
+	 * pending for rendering is estimated.
+	 */
+	public static final String CHART_MAX_SIZE_PER_RUN = "chart.maxSizePerRun";
+
+	/**
+	 * Executable used to start the R sessions for the R chart builder.
+	 */
+	public static final String CHART_R_EXECUTABLE = "chart.r.executable";
+
+	/**
+	 * Maximum time in [s] an R session may take for rendering a single chart.
+	 * Sessions exceeding it are terminated.
+	 */
+	public static final String CHART_R_TIMEOUT = "chart.r.timeout";
+	public static final int DEFAULT_CHART_R_TIMEOUT = 300;
+
+	/**
+	 * If true, measurement data is transferred compressed from satellites
+	 * supporting compressed transport.
+	 */
+	public static final String MEASUREMENT_COMPRESSION = "org.spotter.measurement.compression";
+
+	/**
+	 * If true, measurement data of satellites supporting streaming is collected
+	 * continuously during the stable phase of an experiment.
+	 */
+	public static final String MEASUREMENT_STREAMING = "org.spotter.measurement.streaming";
+
+	/**
+	 * Interval in [ms] between two micro-batches of streaming collection.
+	 */
+	public static final String MEASUREMENT_STREAMING_INTERVAL = "org.spotter.measurement.streaming.interval";
+	public static final int DEFAULT_MEASUREMENT_STREAMING_INTERVAL = 5000;
+
+	/**
+	 * If true, the data of an experiment is collected while the workload cools
+	 * down and the load of the next experiment ramps up.
+	 */
+	public static final String EXPERIMENT_PIPELINING = "org.spotter.workload.experiment.pipelining";
+
+	/**
+	 * Version tag of the system under test build, e.g. a build number or a
+	 * commit id. If set, results of unchanged problem sub-trees are reused from
+	 * previous runs on the same SUT version.
+	 */
+	public static final String SUT_VERSION_TAG = "org.spotter.sut.versionTag";
+
+	/**
+	 * Significance level of the distribution tests comparing two runs.
+	 */
+	public static final String COMPARISON_SIGNIFICANCE_LEVEL = "org.spotter.comparison.significanceLevel";
+	public static final double DEFAULT_COMPARISON_SIGNIFICANCE_LEVEL = 0.05;
+
+	/**
+	 * Minimal relative change of response time or throughput between two runs
+	 * to be reported as regression.
+	 */
+	public static final String COMPARISON_MIN_RELATIVE_CHANGE = "org.spotter.comparison.minRelativeChange";
+	public static final double DEFAULT_COMPARISON_MIN_RELATIVE_CHANGE = 0.1;
+
+	/**
+	 * Maximal number of samples per operation and load level kept in memory
+	 * when comparing two runs.
+	 */
+	public static final String COMPARISON_SAMPLE_SIZE = "org.spotter.comparison.sampleSize";
+	public static final int DEFAULT_COMPARISON_SAMPLE_SIZE = 10000;
+
+	/**
+	 * Interval in [s] between two health probes of the satellites during a
+	 * diagnosis run. 0 disables health monitoring.
+	 */
+	public static final String SATELLITE_HEALTH_CHECK_INTERVAL = "org.spotter.satellite.health.interval";
+	public static final int DEFAULT_SATELLITE_HEALTH_CHECK_INTERVAL = 10;
+
+	/**
+	 * Number of consecutive failed health probes after which a satellite is
+	 * regarded as degraded.
+	 */
+	public static final String SATELLITE_HEALTH_MAX_FAILED_PROBES = "org.spotter.satellite.health.maxFailedProbes";
+	public static final int DEFAULT_SATELLITE_HEALTH_MAX_FAILED_PROBES = 3;
+
+	/**
+	 * Round-trip latency in [ms] of a health probe above which a satellite is
+	 * regarded as degraded. 0 disables the latency threshold.
+	 */
+	public static final String SATELLITE_HEALTH_MAX_LATENCY = "org.spotter.satellite.health.maxLatency";
+	public static final int DEFAULT_SATELLITE_HEALTH_MAX_LATENCY = 0;
+
+	/**
+	 * Time in [s] to wait for degraded satellites to recover before the next
+	 * experiment is started.
+	 */
+	public static final String SATELLITE_HEALTH_RECOVERY_TIMEOUT = "org.spotter.satellite.health.recoveryTimeout";
+	public static final int DEFAULT_SATELLITE_HEALTH_RECOVERY_TIMEOUT = 60;
+
+	/**
+	 * Number of times an experiment aborted due to degraded satellites is
+	 * repeated after the satellites have recovered.
+	 */
+	public static final String SATELLITE_HEALTH_EXPERIMENT_RETRIES = "org.spotter.satellite.health.experimentRetries";
+	public static final int DEFAULT_SATELLITE_HEALTH_EXPERIMENT_RETRIES = 2;
+
+	/**
+	 * If true, the per-probe overhead of the instrumentation is subtracted
+	 * once from each response time record of the experiment data.
+	 */
+	public static final String INSTRUMENTATION_OVERHEAD_COMPENSATION = "org.spotter.instrumentation.overheadCompensation";
+
+	/**
+	 * Methods instrumented in both calibration runs. Their response times serve
+	 * as reference for determining the instrumentation overhead.
+	 */
+	public static final String OVERHEAD_CALIBRATION_ENTRY_POINTS = "org.spotter.instrumentation.calibration.entryPoints";
+
+	/**
+	 * Methods additionally instrumented in the instrumented calibration run.
+	 */
+	public static final String OVERHEAD_CALIBRATION_METHODS = "org.spotter.instrumentation.calibration.methods";
+
+	/**
+	 * Per-probe overhead in [ms] of the current measurement environment. Set
+	 * internally at the beginning of a diagnosis run.
+	 */
+	public static final String INSTRUMENTATION_PROBE_OVERHEAD = "org.spotter.instrumentation.probeOverhead";
+
+	/**
+	 * Fraction of calls recorded by instrumentation adapters supporting
+	 * sampling, applies to all methods without a scope specific rate.
+	 */
+	public static final String INSTRUMENTATION_SAMPLING_RATE = "org.spotter.instrumentation.sampling.rate";
+
+	/**
+	 * Sampling rates per method pattern, each given as
+	 * <code>pattern=rate</code>.
+	 */
+	public static final String INSTRUMENTATION_SAMPLING_SCOPE_RATES = "org.spotter.instrumentation.sampling.scopeRates";
+
+	/**
+	 * Maximal number of records per second of stable phase. If exceeded, the
+	 * sampling rates are reduced for the next experiment. 0 disables adaptive
+	 * sampling.
+	 */
+	public static final String INSTRUMENTATION_SAMPLING_TARGET_RECORDS = "org.spotter.instrumentation.sampling.targetRecordsPerSecond";
+	public static final int DEFAULT_INSTRUMENTATION_SAMPLING_TARGET_RECORDS = 0;
+
+	/**
+	 * Maximal number of levels below the entry points a drill-down search
+	 * descends into the call tree.
+	 */
+	public static final String DRILL_DOWN_MAX_DEPTH = "org.spotter.detection.drillDown.maxDepth";
+	public static final int DEFAULT_DRILL_DOWN_MAX_DEPTH = 3;
+
+	/**
+	 * Maximal number of methods instrumented in total by a drill-down search.
+	 * 0 disables the limit.
+	 */
+	public static final String DRILL_DOWN_SCOPE_BUDGET = "org.spotter.detection.drillDown.scopeBudget";
+	public static final int DEFAULT_DRILL_DOWN_SCOPE_BUDGET = 200;
+
+	/**
+	 * The maximum arrival rate in [requests/s] for series of open workload
+	 * experiments. Only used by heuristics sweeping arrival rates.
+	 */
+	public static final String WORKLOAD_MAX_ARRIVAL_RATE = "org.spotter.workload.maxArrivalRate";
+
 	/**
 	 * Defines how many users per interval (
 	 * {@link #EXPERIMENT_RAMP_UP_INTERVAL_LENGTH}) are put into the system. The
@@ -154,8 +347,17 @@ public final class ConfigKeys {
 	 */
 	public static final String SATELLITE_ADAPTER_NAME_KEY = "org.spotter.satellite.adapter.name";
 
+	/**
+	 * Time in milliseconds a single satellite connection test may take before
+	 * the satellite is reported as not reachable.
+	 */
+	public static final String SATELLITE_CONNECTION_TEST_TIMEOUT = "org.spotter.satellite.connectionTestTimeout";
+	public static final long DEFAULT_SATELLITE_CONNECTION_TEST_TIMEOUT = 5000L;
+
 	public static final String SPOTTER_REST_BASE = "spotter";
 	public static final String SPOTTER_REST_START_DIAG = "startDiagnosis";
+	public static final String SPOTTER_REST_RESUME_DIAG = "resumeDiagnosis";
+	public static final String SPOTTER_REST_COMPARE_RUNS = "compareRuns";
 	public static final String SPOTTER_REST_REQU_RESULTS = "requestResults";
 	public static final String SPOTTER_REST_IS_RUNNING = "isRunning";
 	public static final String SPOTTER_REST_LAST_EXCEPTION = "lastException";
@@ -163,11 +365,14 @@ public final class ConfigKeys {
 	public static final String SPOTTER_REST_EXTENSIONS = "extensions";
 	public static final String SPOTTER_REST_EXTENSION_PARAMETERS = "extensionParameters";
 	public static final String SPOTTER_REST_DEFAULT_HIERARCHY = "defaultHierarchy";
+	public static final String SPOTTER_REST_EXTENSION_CATALOGUE = "extensionCatalogue";
 	public static final String SPOTTER_REST_CURRENT_JOB = "currentJob";
 	public static final String SPOTTER_REST_CURRENT_ROOT_PROBLEM = "currentRootProblem";
 	public static final String SPOTTER_REST_CURRENT_PROGRESS = "currentProgress";
 	public static final String SPOTTER_REST_TEST_SATELLITE_CONNECTION = "testSatelliteConnection";
+	public static final String SPOTTER_REST_TEST_SATELLITE_CONNECTIONS = "testSatelliteConnections";
 	public static final String SPOTTER_REST_TEST_CONNECTION = "testConnection";
+	public static final String SPOTTER_REST_METRICS = "metrics";
 
 	/**
 	 * Private constructor due to utility class.
@@ -331,6 +536,306 @@ public final class ConfigKeys {
 		return scopeParameter;
 	}
 
+	private static ConfigParameterDescription getChartTargetResolutionParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_TARGET_RESOLUTION,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_CHART_TARGET_RESOLUTION));
+		parameter.setDescription("Specifies the number of points a chart series is reduced to before rendering "
+				+ "(line series via LTTB, scatter series via density binning, time series via percentile envelopes). "
+				+ "A value of 0 disables downsampling.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartExportRawDataParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_EXPORT_RAW_DATA,
+				LpeSupportedTypes.Boolean);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(false));
+		parameter.setDescription("Specifies whether the original data of downsampled chart series "
+				+ "should be exported as CSV files next to the chart.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartRenderingThreadsParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_RENDERING_THREADS,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setRange("1", String.valueOf(Integer.MAX_VALUE));
+		parameter.setDefaultValue(String.valueOf(DEFAULT_CHART_RENDERING_THREADS));
+		parameter.setDescription("Specifies the number of threads rendering charts in parallel to the analysis.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartMaxCountParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_MAX_COUNT_PER_RUN,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(0));
+		parameter.setDescription("Specifies the maximum number of charts rendered during one diagnosis run. "
+				+ "Further charts are skipped. A value of 0 means no limit.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartMaxSizeParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_MAX_SIZE_PER_RUN,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(0));
+		parameter.setDescription("Specifies the maximum accumulated size in [MB] of the charts rendered during "
+				+ "one diagnosis run. Further charts are skipped. A value of 0 means no limit. As the size of "
+				+ "charts pending for rendering is estimated, the limit may be slightly exceeded.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartRExecutableParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_R_EXECUTABLE,
+				LpeSupportedTypes.String);
+		parameter.setMandatory(false);
+		parameter.setDescription("Specifies the R executable used for rendering R charts "
+				+ "(default: R, or Rterm.exe on Windows). If R cannot be started, XChart is used instead.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getChartRTimeoutParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(CHART_R_TIMEOUT,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_CHART_R_TIMEOUT));
+		parameter.setDescription("Maximum time in seconds for rendering a single R chart. "
+				+ "R sessions exceeding it are terminated and replaced.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getMeasurementCompressionParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(MEASUREMENT_COMPRESSION,
+				LpeSupportedTypes.Boolean);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(true));
+		parameter.setDescription("Specifies whether measurement data should be transferred compressed "
+				+ "from measurement satellites supporting compressed transport.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getMeasurementStreamingParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(MEASUREMENT_STREAMING,
+				LpeSupportedTypes.Boolean);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(true));
+		parameter.setDescription("Specifies whether measurement data should be collected continuously "
+				+ "during the stable phase of experiments from measurement satellites supporting streaming. "
+				+ "After the experiment only the remaining data is collected.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getMeasurementStreamingIntervalParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(MEASUREMENT_STREAMING_INTERVAL,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_MEASUREMENT_STREAMING_INTERVAL));
+		parameter.setDescription("Specifies the interval in [ms] between two micro-batches "
+				+ "of streaming data collection.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getExperimentPipeliningParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(EXPERIMENT_PIPELINING,
+				LpeSupportedTypes.Boolean);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(false));
+		parameter.setDescription("Specifies whether the data of an experiment should be collected while the "
+				+ "workload cools down and the load of the next experiment ramps up. If the workload adapters "
+				+ "support it, the load is ramped directly to the next load level for detection controllers "
+				+ "allowing this.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSutVersionTagParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SUT_VERSION_TAG,
+				LpeSupportedTypes.String);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue("");
+		parameter.setDescription("Version tag of the system under test (e.g. build number). If specified, "
+				+ "problems whose configuration, hierarchy path and measurement environment are unchanged "
+				+ "since a previous run on the same version reuse the results and experiment data of that run.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getComparisonSignificanceLevelParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(COMPARISON_SIGNIFICANCE_LEVEL,
+				LpeSupportedTypes.Double);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_COMPARISON_SIGNIFICANCE_LEVEL));
+		parameter.setDescription("Significance level of the statistical tests used when comparing "
+				+ "the experiment data of two diagnosis runs.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getComparisonMinRelativeChangeParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(COMPARISON_MIN_RELATIVE_CHANGE,
+				LpeSupportedTypes.Double);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_COMPARISON_MIN_RELATIVE_CHANGE));
+		parameter.setDescription("Minimal relative change (e.g. 0.1 = 10%) of response times or throughput "
+				+ "between two diagnosis runs which is reported as regression.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getComparisonSampleSizeParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(COMPARISON_SAMPLE_SIZE,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_COMPARISON_SAMPLE_SIZE));
+		parameter.setDescription("Maximal number of response time samples per operation and load level "
+				+ "used when comparing two diagnosis runs. Larger data sets are sampled.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSatelliteHealthCheckIntervalParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SATELLITE_HEALTH_CHECK_INTERVAL,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_SATELLITE_HEALTH_CHECK_INTERVAL));
+		parameter.setDescription("Specifies the interval in [s] between two health probes of the remote "
+				+ "satellites during a diagnosis run. A value of 0 disables health monitoring.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSatelliteHealthMaxFailedProbesParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SATELLITE_HEALTH_MAX_FAILED_PROBES,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_SATELLITE_HEALTH_MAX_FAILED_PROBES));
+		parameter.setDescription("Number of consecutive failed health probes after which a satellite is "
+				+ "regarded as degraded. A running experiment is aborted if one of its satellites degrades.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSatelliteHealthMaxLatencyParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SATELLITE_HEALTH_MAX_LATENCY,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_SATELLITE_HEALTH_MAX_LATENCY));
+		parameter.setDescription("Round-trip latency in [ms] of a health probe above which the probe is "
+				+ "regarded as failed. A value of 0 disables the latency threshold.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSatelliteHealthRecoveryTimeoutParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SATELLITE_HEALTH_RECOVERY_TIMEOUT,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_SATELLITE_HEALTH_RECOVERY_TIMEOUT));
+		parameter.setDescription("Time in [s] to wait for degraded satellites to recover before the next "
+				+ "experiment is started. If the satellites do not recover, the diagnosis step fails.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSatelliteHealthExperimentRetriesParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(SATELLITE_HEALTH_EXPERIMENT_RETRIES,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_SATELLITE_HEALTH_EXPERIMENT_RETRIES));
+		parameter.setDescription("Number of times an experiment aborted due to degraded satellites is repeated "
+				+ "after the satellites have recovered. Afterwards, the diagnosis step fails.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getOverheadCompensationParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(INSTRUMENTATION_OVERHEAD_COMPENSATION,
+				LpeSupportedTypes.Boolean);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(false));
+		parameter.setDescription("Specifies whether the overhead of the instrumentation probes should be "
+				+ "subtracted from measured response times. The overhead of one probe is subtracted per response "
+				+ "time record; the overhead of nested probes is not compensated. The overhead is calibrated "
+				+ "once per measurement environment and stored in the measurement environment description.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getOverheadCalibrationEntryPointsParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(OVERHEAD_CALIBRATION_ENTRY_POINTS,
+				LpeSupportedTypes.String);
+		parameter.setMandatory(false);
+		parameter.setASet(true);
+		parameter.setDescription("Patterns of the methods whose response times are compared between the "
+				+ "reference and the instrumented calibration run, e.g. the entry points of the system under test.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getOverheadCalibrationMethodsParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(OVERHEAD_CALIBRATION_METHODS,
+				LpeSupportedTypes.String);
+		parameter.setMandatory(false);
+		parameter.setASet(true);
+		parameter.setDescription("Patterns of the methods which are additionally instrumented in the "
+				+ "instrumented calibration run. Should comprise fine-grained methods called by the entry points.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSamplingRateParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(INSTRUMENTATION_SAMPLING_RATE,
+				LpeSupportedTypes.Double);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(1.0));
+		parameter.setDescription("Fraction of calls (0, 1] of instrumented methods which is recorded, if all "
+				+ "instrumentation satellites support sampling. Applies to methods without a scope specific rate.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSamplingScopeRatesParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(INSTRUMENTATION_SAMPLING_SCOPE_RATES,
+				LpeSupportedTypes.String);
+		parameter.setMandatory(false);
+		parameter.setASet(true);
+		parameter.setDescription("Sampling rates for specific methods, each given as pattern=rate "
+				+ "(e.g. org.app.dao.*=0.1). The first matching pattern determines the rate of a method.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getSamplingTargetRecordsParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(INSTRUMENTATION_SAMPLING_TARGET_RECORDS,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_INSTRUMENTATION_SAMPLING_TARGET_RECORDS));
+		parameter.setDescription("Maximal number of measurement records per second of stable phase. If an "
+				+ "experiment exceeds it, the sampling rates are reduced for the next experiment. "
+				+ "A value of 0 disables adaptive sampling.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getDrillDownMaxDepthParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(DRILL_DOWN_MAX_DEPTH,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_DRILL_DOWN_MAX_DEPTH));
+		parameter.setDescription("Maximal number of call tree levels below the entry points which heuristics "
+				+ "using iterative drill-down instrument in order to localize a root cause.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getDrillDownScopeBudgetParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(DRILL_DOWN_SCOPE_BUDGET,
+				LpeSupportedTypes.Integer);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(DEFAULT_DRILL_DOWN_SCOPE_BUDGET));
+		parameter.setDescription("Maximal number of methods instrumented in total during an iterative "
+				+ "drill-down. Children of the most suspicious methods are preferred. "
+				+ "A value of 0 disables the limit.");
+		return parameter;
+	}
+
+	private static ConfigParameterDescription getMaxArrivalRateParameter() {
+		ConfigParameterDescription parameter = new ConfigParameterDescription(WORKLOAD_MAX_ARRIVAL_RATE,
+				LpeSupportedTypes.Double);
+		parameter.setMandatory(false);
+		parameter.setDefaultValue(String.valueOf(0.0));
+		parameter.setDescription("Maximal arrival rate in requests per second for heuristics sweeping arrival "
+				+ "rates with an open workload. Requires workload satellites supporting open workloads, "
+				+ "otherwise the number of users is varied up to the maximal number of users.");
+		return parameter;
+	}
+
 	/**
 	 * 
 	 * @return returns a set of configuration parameters of Dynamic Spotter.
@@ -351,6 +856,35 @@ public final class ConfigKeys {
 		configParameters.add(getRoleAppParameter());
 		configParameters.add(getRoleDBParameter());
 		configParameters.add(createChartBuilderParameter());
+		configParameters.add(getChartTargetResolutionParameter());
+		configParameters.add(getChartExportRawDataParameter());
+		configParameters.add(getChartRenderingThreadsParameter());
+		configParameters.add(getChartMaxCountParameter());
+		configParameters.add(getChartMaxSizeParameter());
+		configParameters.add(getChartRExecutableParameter());
+		configParameters.add(getChartRTimeoutParameter());
+		configParameters.add(getMeasurementCompressionParameter());
+		configParameters.add(getMeasurementStreamingParameter());
+		configParameters.add(getMeasurementStreamingIntervalParameter());
+		configParameters.add(getExperimentPipeliningParameter());
+		configParameters.add(getSutVersionTagParameter());
+		configParameters.add(getComparisonSignificanceLevelParameter());
+		configParameters.add(getComparisonMinRelativeChangeParameter());
+		configParameters.add(getComparisonSampleSizeParameter());
+		configParameters.add(getSatelliteHealthCheckIntervalParameter());
+		configParameters.add(getSatelliteHealthMaxFailedProbesParameter());
+		configParameters.add(getSatelliteHealthMaxLatencyParameter());
+		configParameters.add(getSatelliteHealthRecoveryTimeoutParameter());
+		configParameters.add(getSatelliteHealthExperimentRetriesParameter());
+		configParameters.add(getOverheadCompensationParameter());
+		configParameters.add(getOverheadCalibrationEntryPointsParameter());
+		configParameters.add(getOverheadCalibrationMethodsParameter());
+		configParameters.add(getSamplingRateParameter());
+		configParameters.add(getSamplingScopeRatesParameter());
+		configParameters.add(getSamplingTargetRecordsParameter());
+		configParameters.add(getDrillDownMaxDepthParameter());
+		configParameters.add(getDrillDownScopeBudgetParameter());
+		configParameters.add(getMaxArrivalRateParameter());
 		configParameters.add(getInstrExcludesParameter());
 		return configParameters;
 	}
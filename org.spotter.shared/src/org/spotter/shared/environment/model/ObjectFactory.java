@@ -73,6 +73,22 @@ public class ObjectFactory {
 		return new XMeasurementEnvObject();
 	}
 
+	/**
+	 * 
+	 * @return replica group
+	 */
+	public XReplicaGroup createReplicaGroup() {
+		return new XReplicaGroup();
+	}
+
+	/**
+	 * 
+	 * @return instrumentation overhead
+	 */
+	public XInstrumentationOverhead createInstrumentationOverhead() {
+		return new XInstrumentationOverhead();
+	}
+
 	/**
 	 * 
 	 * @return config
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.shared.environment.model;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Calibrated overhead of the instrumentation probes of a measurement
+ * environment. The calibration is valid as long as the instrumentation
+ * satellites of the environment are unchanged.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "InstrumentationOverhead", propOrder = { "probeOverhead", "environmentKey", "calibrationTimestamp" })
+public class XInstrumentationOverhead {
+	private double probeOverhead;
+	private String environmentKey;
+	private long calibrationTimestamp;
+
+	/**
+	 * @return the overhead of a single probe in [ms]
+	 */
+	public double getProbeOverhead() {
+		return probeOverhead;
+	}
+
+	/**
+	 * @param probeOverhead
+	 *            the probeOverhead to set
+	 */
+	public void setProbeOverhead(double probeOverhead) {
+		this.probeOverhead = probeOverhead;
+	}
+
+	/**
+	 * @return key identifying the instrumentation satellites the overhead has
+	 *         been calibrated for
+	 */
+	public String getEnvironmentKey() {
+		return environmentKey;
+	}
+
+	/**
+	 * @param environmentKey
+	 *            the environmentKey to set
+	 */
+	public void setEnvironmentKey(String environmentKey) {
+		this.environmentKey = environmentKey;
+	}
+
+	/**
+	 * @return the time of the calibration
+	 */
+	public long getCalibrationTimestamp() {
+		return calibrationTimestamp;
+	}
+
+	/**
+	 * @param calibrationTimestamp
+	 *            the calibrationTimestamp to set
+	 */
+	public void setCalibrationTimestamp(long calibrationTimestamp) {
+		this.calibrationTimestamp = calibrationTimestamp;
+	}
+}
@@ -30,12 +30,14 @@ import javax.xml.bind.annotation.XmlType;
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "MeasurementEnvironment", propOrder = { "instrumentationController", "measurementController",
-		"workloadAdapter" })
+		"workloadAdapter", "replicaGroup", "instrumentationOverhead" })
 @XmlRootElement(name = "measurementEnvironment")
 public class XMeasurementEnvironment {
 	private List<XMeasurementEnvObject> instrumentationController;
 	private List<XMeasurementEnvObject> measurementController;
 	private List<XMeasurementEnvObject> workloadAdapter;
+	private List<XReplicaGroup> replicaGroup;
+	private XInstrumentationOverhead instrumentationOverhead;
 
 	/**
 	 * 
@@ -85,4 +87,35 @@ public class XMeasurementEnvironment {
 		this.workloadAdapter = workloadAdapter;
 	}
 
+	/**
+	 * @return the additional replica groups, may be <code>null</code>
+	 */
+	public List<XReplicaGroup> getReplicaGroup() {
+		return replicaGroup;
+	}
+
+	/**
+	 * @param replicaGroup
+	 *            the additional replica groups to set
+	 */
+	public void setReplicaGroup(List<XReplicaGroup> replicaGroup) {
+		this.replicaGroup = replicaGroup;
+	}
+
+	/**
+	 * @return the calibrated instrumentation overhead, may be
+	 *         <code>null</code>
+	 */
+	public XInstrumentationOverhead getInstrumentationOverhead() {
+		return instrumentationOverhead;
+	}
+
+	/**
+	 * @param instrumentationOverhead
+	 *            the calibrated instrumentation overhead to set
+	 */
+	public void setInstrumentationOverhead(XInstrumentationOverhead instrumentationOverhead) {
+		this.instrumentationOverhead = instrumentationOverhead;
+	}
+
 }
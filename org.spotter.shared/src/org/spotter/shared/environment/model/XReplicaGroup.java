@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.shared.environment.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Satellites of an additional replica of the system under test. Each replica
+ * group comprises its own instrumentation, measurement and workload
+ * satellites, thus, experiments can be executed on several replicas in
+ * parallel.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "ReplicaGroup", propOrder = { "instrumentationController", "measurementController",
+		"workloadAdapter" })
+public class XReplicaGroup {
+	@XmlAttribute(name = "name")
+	private String name;
+
+	private List<XMeasurementEnvObject> instrumentationController;
+	private List<XMeasurementEnvObject> measurementController;
+	private List<XMeasurementEnvObject> workloadAdapter;
+
+	/**
+	 * @return the name of the replica group
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param name
+	 *            the name to set
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the instrumentationController
+	 */
+	public List<XMeasurementEnvObject> getInstrumentationController() {
+		return instrumentationController;
+	}
+
+	/**
+	 * @param instrumentationController
+	 *            the instrumentationController to set
+	 */
+	public void setInstrumentationController(List<XMeasurementEnvObject> instrumentationController) {
+		this.instrumentationController = instrumentationController;
+	}
+
+	/**
+	 * @return the measurementController
+	 */
+	public List<XMeasurementEnvObject> getMeasurementController() {
+		return measurementController;
+	}
+
+	/**
+	 * @param measurementController
+	 *            the measurementController to set
+	 */
+	public void setMeasurementController(List<XMeasurementEnvObject> measurementController) {
+		this.measurementController = measurementController;
+	}
+
+	/**
+	 * @return the workloadAdapter
+	 */
+	public List<XMeasurementEnvObject> getWorkloadAdapter() {
+		return workloadAdapter;
+	}
+
+	/**
+	 * @param workloadAdapter
+	 *            the workloadAdapter to set
+	 */
+	public void setWorkloadAdapter(List<XMeasurementEnvObject> workloadAdapter) {
+		this.workloadAdapter = workloadAdapter;
+	}
+
+}
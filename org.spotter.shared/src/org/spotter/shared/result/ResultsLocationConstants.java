@@ -33,6 +33,12 @@ public final class ResultsLocationConstants {
 	public static final String TXT_REPORT_FILE_NAME = "SpotterReport.txt";
 	public static final String TXT_DIAGNOSIS_ERROR_FILE_NAME = "error.txt";
 	public static final String RESULTS_SERIALIZATION_FILE_NAME = "results.ser";
+	public static final String RUN_JOURNAL_FILE_NAME = "run-journal.ser";
+	public static final String RESULT_CACHE_FILE_NAME = "result-cache.ser";
+	public static final String COMPARISON_REPORT_FILE_NAME = "ComparisonReport.txt";
+	public static final String COMPARISON_SERIALIZATION_FILE_NAME = "comparison.ser";
+	public static final String METRICS_FILE_NAME = "metrics.txt";
+	public static final String TIMELINE_TRACE_FILE_NAME = "timeline.trace.json";
 	public static final String CSV_SUB_DIR = "csv";
 	public static final String RESULT_RESOURCES_SUB_DIR = "result-details";
 
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.shared.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.lpe.common.config.ConfigParameterDescription;
+import org.spotter.shared.configuration.SpotterExtensionType;
+import org.spotter.shared.hierarchy.model.XPerformanceProblem;
+
+/**
+ * All metadata a client needs to configure Dynamic Spotter: the Spotter
+ * configuration parameters, the available extensions with their
+ * configuration parameters and the default hierarchy. The catalogue is
+ * versioned by the set of extensions loaded by the service.
+ */
+public class ExtensionCatalogue {
+	private String version;
+	private Set<ConfigParameterDescription> configurationParameters;
+	private Map<String, Set<String>> extensionNames;
+	private Map<String, Set<ConfigParameterDescription>> extensionParameters;
+	private XPerformanceProblem defaultHierarchy;
+
+	/**
+	 * Constructor.
+	 */
+	public ExtensionCatalogue() {
+		configurationParameters = new HashSet<>();
+		extensionNames = new HashMap<>();
+		extensionParameters = new HashMap<>();
+	}
+
+	/**
+	 * Returns the names of the extensions of the given type.
+	 * 
+	 * @param extType
+	 *            extension type of interest
+	 * @return set of extension names, empty if there is no extension of the
+	 *         given type
+	 */
+	public Set<String> namesOf(SpotterExtensionType extType) {
+		Set<String> names = extensionNames.get(extType.toString());
+		return names == null ? new HashSet<String>() : names;
+	}
+
+	/**
+	 * Adds the names of the extensions of the given type.
+	 * 
+	 * @param extType
+	 *            extension type
+	 * @param names
+	 *            names of the extensions of that type
+	 */
+	public void addExtensionNames(SpotterExtensionType extType, Set<String> names) {
+		extensionNames.put(extType.toString(), names);
+	}
+
+	/**
+	 * Returns the configuration parameters of the given extension.
+	 * 
+	 * @param extName
+	 *            name of the extension
+	 * @return configuration parameters or <code>null</code> if the extension
+	 *         is unknown
+	 */
+	public Set<ConfigParameterDescription> parametersOf(String extName) {
+		return extensionParameters.get(extName);
+	}
+
+	/**
+	 * Adds the configuration parameters of the given extension.
+	 * 
+	 * @param extName
+	 *            name of the extension
+	 * @param parameters
+	 *            configuration parameters of the extension
+	 */
+	public void addExtensionParameters(String extName, Set<ConfigParameterDescription> parameters) {
+		extensionParameters.put(extName, parameters);
+	}
+
+	/**
+	 * @return the version of the catalogue
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * @param version
+	 *            the version to set
+	 */
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	/**
+	 * @return the configuration parameters of Dynamic Spotter
+	 */
+	public Set<ConfigParameterDescription> getConfigurationParameters() {
+		return configurationParameters;
+	}
+
+	/**
+	 * @param configurationParameters
+	 *            the configurationParameters to set
+	 */
+	public void setConfigurationParameters(Set<ConfigParameterDescription> configurationParameters) {
+		this.configurationParameters = configurationParameters;
+	}
+
+	/**
+	 * @return the extension names mapped by extension type
+	 */
+	public Map<String, Set<String>> getExtensionNames() {
+		return extensionNames;
+	}
+
+	/**
+	 * @param extensionNames
+	 *            the extensionNames to set
+	 */
+	public void setExtensionNames(Map<String, Set<String>> extensionNames) {
+		this.extensionNames = extensionNames;
+	}
+
+	/**
+	 * @return the extension configuration parameters mapped by extension name
+	 */
+	public Map<String, Set<ConfigParameterDescription>> getExtensionParameters() {
+		return extensionParameters;
+	}
+
+	/**
+	 * @param extensionParameters
+	 *            the extensionParameters to set
+	 */
+	public void setExtensionParameters(Map<String, Set<ConfigParameterDescription>> extensionParameters) {
+		this.extensionParameters = extensionParameters;
+	}
+
+	/**
+	 * @return the default hierarchy
+	 */
+	public XPerformanceProblem getDefaultHierarchy() {
+		return defaultHierarchy;
+	}
+
+	/**
+	 * @param defaultHierarchy
+	 *            the defaultHierarchy to set
+	 */
+	public void setDefaultHierarchy(XPerformanceProblem defaultHierarchy) {
+		this.defaultHierarchy = defaultHierarchy;
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.shared.service;
+
+/**
+ * Result of testing the connection to a single satellite.
+ */
+public class SatelliteConnectionStatus {
+
+	/**
+	 * Outcome of a connection test.
+	 */
+	public enum State {
+		/**
+		 * Connection has been established.
+		 */
+		CONNECTED,
+		/**
+		 * Satellite refused or failed the connection.
+		 */
+		NOT_CONNECTED,
+		/**
+		 * Satellite did not answer within the connection test timeout.
+		 */
+		TIMEOUT,
+		/**
+		 * Extension is unknown or is not a satellite.
+		 */
+		NO_SATELLITE
+	}
+
+	private String extensionName;
+	private String host;
+	private String port;
+	private State state;
+	private long latency;
+	private String errorMessage;
+
+	/**
+	 * Default constructor.
+	 */
+	public SatelliteConnectionStatus() {
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param extensionName
+	 *            name of the satellite extension
+	 * @param host
+	 *            host of the satellite
+	 * @param port
+	 *            port of the satellite
+	 */
+	public SatelliteConnectionStatus(String extensionName, String host, String port) {
+		this.extensionName = extensionName;
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * @return the extensionName
+	 */
+	public String getExtensionName() {
+		return extensionName;
+	}
+
+	/**
+	 * @param extensionName
+	 *            the extensionName to set
+	 */
+	public void setExtensionName(String extensionName) {
+		this.extensionName = extensionName;
+	}
+
+	/**
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @param host
+	 *            the host to set
+	 */
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	/**
+	 * @return the port
+	 */
+	public String getPort() {
+		return port;
+	}
+
+	/**
+	 * @param port
+	 *            the port to set
+	 */
+	public void setPort(String port) {
+		this.port = port;
+	}
+
+	/**
+	 * @return the outcome of the connection test
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @param state
+	 *            the state to set
+	 */
+	public void setState(State state) {
+		this.state = state;
+	}
+
+	/**
+	 * @return the duration of the connection test in milliseconds
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @param latency
+	 *            the latency to set
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * @return the error message if the test failed, otherwise
+	 *         <code>null</code>
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * @param errorMessage
+	 *            the errorMessage to set
+	 */
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2014 SAP AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spotter.shared.status;
+
+/**
+ * Health of a satellite as observed by the periodic probes during a diagnosis
+ * run.
+ */
+public class SatelliteHealth {
+	private String name;
+	private String host;
+	private String port;
+	private boolean healthy = true;
+	private long latency;
+	private Long clockDrift;
+	private int consecutiveFailures;
+	private long lastProbeTimestamp;
+	private String errorMessage;
+
+	/**
+	 * Default constructor.
+	 */
+	public SatelliteHealth() {
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *            name of the satellite
+	 * @param host
+	 *            host of the satellite
+	 * @param port
+	 *            port of the satellite
+	 */
+	public SatelliteHealth(String name, String host, String port) {
+		this.name = name;
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param name
+	 *            the name to set
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @param host
+	 *            the host to set
+	 */
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	/**
+	 * @return the port
+	 */
+	public String getPort() {
+		return port;
+	}
+
+	/**
+	 * @param port
+	 *            the port to set
+	 */
+	public void setPort(String port) {
+		this.port = port;
+	}
+
+	/**
+	 * @return false, if the satellite is regarded as degraded
+	 */
+	public boolean isHealthy() {
+		return healthy;
+	}
+
+	/**
+	 * @param healthy
+	 *            the healthy to set
+	 */
+	public void setHealthy(boolean healthy) {
+		this.healthy = healthy;
+	}
+
+	/**
+	 * @return the round-trip latency of the last probe in [ms]
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @param latency
+	 *            the latency to set
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * @return the difference between the clock of the satellite and the local
+	 *         clock in [ms], <code>null</code> if the satellite does not
+	 *         provide its time
+	 */
+	public Long getClockDrift() {
+		return clockDrift;
+	}
+
+	/**
+	 * @param clockDrift
+	 *            the clockDrift to set
+	 */
+	public void setClockDrift(Long clockDrift) {
+		this.clockDrift = clockDrift;
+	}
+
+	/**
+	 * @return the number of failed probes in a row
+	 */
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	/**
+	 * @param consecutiveFailures
+	 *            the consecutiveFailures to set
+	 */
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	/**
+	 * @return the time of the last probe
+	 */
+	public long getLastProbeTimestamp() {
+		return lastProbeTimestamp;
+	}
+
+	/**
+	 * @param lastProbeTimestamp
+	 *            the lastProbeTimestamp to set
+	 */
+	public void setLastProbeTimestamp(long lastProbeTimestamp) {
+		this.lastProbeTimestamp = lastProbeTimestamp;
+	}
+
+	/**
+	 * @return the reason of the last failed probe, <code>null</code> if the
+	 *         last probe succeeded
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * @param errorMessage
+	 *            the errorMessage to set
+	 */
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+}
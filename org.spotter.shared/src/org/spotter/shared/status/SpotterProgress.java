@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class SpotterProgress {
 	private Map<String, DiagnosisProgress> problemProgressMapping;
+	private Map<String, SatelliteHealth> satelliteHealth;
 	private String currentProblem;
 
 	/**
@@ -33,6 +34,7 @@ public class SpotterProgress {
 	 */
 	public SpotterProgress() {
 		problemProgressMapping = new ConcurrentHashMap<>();
+		satelliteHealth = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -84,4 +86,19 @@ public class SpotterProgress {
 		this.problemProgressMapping = problemProgressMapping;
 	}
 
+	/**
+	 * @return the health of the satellites mapped by satellite
+	 */
+	public Map<String, SatelliteHealth> getSatelliteHealth() {
+		return satelliteHealth;
+	}
+
+	/**
+	 * @param satelliteHealth
+	 *            the satelliteHealth to set
+	 */
+	public void setSatelliteHealth(Map<String, SatelliteHealth> satelliteHealth) {
+		this.satelliteHealth = satelliteHealth;
+	}
+
 }